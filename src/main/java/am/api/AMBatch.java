@@ -0,0 +1,123 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api;
+
+import am.api.model.AMBatchResult;
+import am.api.model.AMDate;
+
+/**
+ * Records a sequence of API calls and ships them to the connection in a single
+ * round trip. Calls returning a value answer the index of that value in the
+ * {@link AMBatchResult}, calls returning a handle answer a placeholder that may
+ * be passed to later calls of the same batch and resolved through
+ * {@link AMBatchResult#getHandle(AMHandle)} once executed.
+ * 
+ * Execution stops at the first failing call, the exception is rethrown to the
+ * caller of {@link #execute()}.
+ */
+public interface AMBatch {
+
+	int clearLastError();
+
+	int commit();
+
+	int createLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle);
+
+	AMHandle createRecord(String tblName);
+
+	int dbExecAql(String aqlQuery);
+
+	int dbGetDouble(String aqlQuery);
+
+	int dbGetLong(String aqlQuery);
+
+	int dbGetPk(String tableName, String whereClause);
+
+	int dbGetString(String query, int bufferLength, String colSeparator, String lineSeparator);
+
+	int deleteLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle);
+
+	int deleteRecord(AMHandle recordHandle);
+
+	/**
+	 * Sends all recorded calls in one request, the batch is cleared afterwards
+	 * and may be reused.
+	 * 
+	 * @return values of the recorded calls, in recording order
+	 */
+	AMBatchResult execute();
+
+	int getFieldCount(AMHandle objHandle);
+
+	int getFieldDateOnlyValue(AMHandle recHandle, long fieldPos);
+
+	int getFieldDateValue(AMHandle recHandle, long fieldPos);
+
+	int getFieldDoubleValue(AMHandle objHandle, long fieldPos);
+
+	AMHandle getFieldFromName(AMHandle objHandle, String fieldName);
+
+	int getFieldLongValue(AMHandle objHandle, long fieldPosition);
+
+	int getFieldStrValue(AMHandle qryHandle, long position, int bufferLength);
+
+	AMHandle getRecordFromMainId(String tableName, long id);
+
+	AMHandle getRecordHandle(AMHandle qryHandle);
+
+	int getRecordId(AMHandle recHandle);
+
+	int insertRecord(AMHandle recHandle);
+
+	int lastError();
+
+	int lastErrorMsg(int bufferLength);
+
+	AMHandle queryCreate();
+
+	int queryExec(AMHandle queryHandle, String aqlQuery);
+
+	int queryGet(AMHandle qryHandle, String aqlQuery);
+
+	int queryNext(AMHandle queryHandle);
+
+	int queryStop(AMHandle qryHandle);
+
+	int releaseHandle(AMHandle objHandle);
+
+	int rollBack();
+
+	int setFieldDateOnlyValue(AMHandle recHandle, String fieldName, AMDate dateOnlyValue);
+
+	int setFieldDateValue(AMHandle recHandle, String fieldName, AMDate dateTimeValue);
+
+	int setFieldDoubleValue(AMHandle recHandle, String fieldName, double value);
+
+	int setFieldLongValue(AMHandle recHandle, String fieldName, long value);
+
+	int setFieldStrValue(AMHandle recHandle, String fieldName, String value);
+
+	/**
+	 * @return number of calls recorded and not yet executed
+	 */
+	int size();
+
+	int startTransaction();
+
+	int updateRecord(AMHandle recHandle);
+
+}
@@ -14,26 +14,8 @@
     You should have received a copy of the GNU General Public License
     along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
  */
-package am.server.tasks;
-
-import java.util.concurrent.Callable;
-
-import am.api.wrapper.AMConnectionDelegate;
-
-public final class Commit implements Callable<Long> {
-
-	private final AMConnectionDelegate delegate;
-
-	public Commit(AMConnectionDelegate delegate) {
-		super();
-		this.delegate = delegate;
-	}
-
-	@Override
-	public Long call() throws Exception {
-
-		return delegate.commit();
-
-	}
+package am.api;
 
+public enum AMColumnType {
+	LONG, DOUBLE, STRING, DATE;
 }
@@ -16,6 +16,9 @@
  */
 package am.api;
 
+import java.util.List;
+
+import am.api.model.AMColumn;
 import am.api.model.AMDate;
 import am.api.model.AMString;
 
@@ -27,6 +30,12 @@ public interface AMConnection extends AutoCloseable {
 	 */
 	final static int FLAG_NO_REUSE = 1;
 
+	/**
+	 * @return asynchronous view of this connection, closing the view closes this
+	 *         connection
+	 */
+	AsyncAMConnection async();
+
 	long clearLastError();
 
 	void close();
@@ -166,6 +175,14 @@ public interface AMConnection extends AutoCloseable {
 
 	double convertStringToMonetary(String monetaryAsString);
 
+	/**
+	 * Creates a batch recording calls against this connection, all recorded calls
+	 * are executed in a single round trip.
+	 * 
+	 * @return an empty batch
+	 */
+	AMBatch createBatch();
+
 	/**
 	 * This function modifies a link of a record and makes it point to a new record
 	 * in the target table. It therefore creates a link between two records.
@@ -965,6 +982,19 @@ public interface AMConnection extends AutoCloseable {
 
 	AMHandle openConnection(String database, String username, String password);
 
+	/**
+	 * Executes a query and streams its rows in chunks, each chunk being a single
+	 * round trip. The columns are read by position from the select list of the
+	 * query.
+	 * 
+	 * @param aqlQuery  AQL query to execute
+	 * @param columns   type of each column to read
+	 * @param fetchSize maximum number of rows transferred per round trip
+	 * @return cursor positioned before the first row, must be closed when not
+	 *         consumed to the end
+	 */
+	AMCursor openCursor(String aqlQuery, List<AMColumn> columns, int fetchSize);
+
 	/**
 	 * This function destroys a record.
 	 * 
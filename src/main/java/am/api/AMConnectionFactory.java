@@ -20,6 +20,10 @@ import am.api.model.AMCredential;
 
 public interface AMConnectionFactory {
 
+	AsyncAMConnection getAsyncConnection();
+
+	AsyncAMConnection getAsyncConnection(AMCredential credential);
+
 	AMConnection getConnection();
 
 	AMConnection getConnection(AMCredential credential);
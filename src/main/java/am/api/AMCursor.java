@@ -14,28 +14,29 @@
     You should have received a copy of the GNU General Public License
     along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
  */
-package am.server.tasks;
+package am.api;
 
-import java.util.concurrent.Callable;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
-import am.api.AMHandle;
-import am.api.wrapper.AMConnectionDelegate;
+import am.api.model.AMRow;
 
-public final class GetRecordHandle implements Callable<AMHandle> {
-
-	private final AMConnectionDelegate delegate;
-	private final AMHandle qryHandle;
-
-	public GetRecordHandle(AMConnectionDelegate delegate, AMHandle qryHandle) {
-		super();
-		this.delegate = delegate;
-		this.qryHandle = qryHandle;
-	}
+/**
+ * Forward only cursor over the rows of a query, rows are transferred in chunks
+ * of the fetch size requested when the cursor was opened.
+ */
+public interface AMCursor extends Iterator<AMRow>, AutoCloseable {
 
-	@Override
-	public AMHandle call() throws Exception {
+	/**
+	 * Stops the query and releases its handle, rows not yet consumed are
+	 * discarded.
+	 */
+	void close();
 
-		return delegate.getRecordHandle(qryHandle);
+	/**
+	 * @return the remaining rows as a sequential stream, closing the stream
+	 *         closes the cursor
+	 */
+	Stream<AMRow> stream();
 
-	}
 }
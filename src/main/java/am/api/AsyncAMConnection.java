@@ -0,0 +1,236 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api;
+
+import java.util.concurrent.CompletableFuture;
+
+import am.api.model.AMDate;
+import am.api.model.AMString;
+
+/**
+ * Asynchronous view of an {@link AMConnection}, each method mirrors its
+ * synchronous counterpart and output {@link AMString} parameters are filled
+ * before the future completes. Calls are executed in submission order, do not
+ * mix them with calls on the synchronous connection while futures are pending.
+ * Closing the view closes the connection it was obtained from.
+ */
+public interface AsyncAMConnection extends AutoCloseable {
+
+	void close();
+
+	CompletableFuture<Long> clearLastError();
+
+	CompletableFuture<Long> commit();
+
+	CompletableFuture<Long> connectionName(AMString connectionName);
+
+	CompletableFuture<Long> convertDateBasicToUnix(long tmTime);
+
+	CompletableFuture<Long> convertDateIntlToUnix(String dateAsString);
+
+	CompletableFuture<Long> convertDateStringToUnix(String dateAsString);
+
+	CompletableFuture<Long> convertDateUnixToBasic(long dateAsUnix);
+
+	CompletableFuture<Long> convertDateUnixToIntl(long unixDate, AMString dateAsIntlStr);
+
+	CompletableFuture<Long> convertDateUnixToString(long dateAsUnix, AMString dateAsStr);
+
+	CompletableFuture<Long> convertDoubleToString(double dSrc, AMString dblAsString);
+
+	CompletableFuture<Long> convertMonetaryToString(double dMonetarySrc, AMString dblAsString);
+
+	CompletableFuture<Double> convertStringToDouble(String dblAsString);
+
+	CompletableFuture<Double> convertStringToMonetary(String monetaryAsString);
+
+	CompletableFuture<Long> createLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle);
+
+	CompletableFuture<AMHandle> createRecord(String tblName);
+
+	CompletableFuture<Long> currentDate();
+
+	CompletableFuture<Long> currentServerDate();
+
+	CompletableFuture<Long> dateAdd(long startAsUnixDate, long duration);
+
+	CompletableFuture<Long> dateAddLogical(long startAsUnixDate, long duration);
+
+	CompletableFuture<Long> dateDiff(long endAsUnixDate, long startAsUnixDate);
+
+	CompletableFuture<Long> dbExecAql(String aqlQuery);
+
+	CompletableFuture<Long> dbGetDate(String aqlQuery);
+
+	CompletableFuture<Double> dbGetDouble(String aqlQuery);
+
+	CompletableFuture<Long> dbGetLimitedList(String aqlQuery, AMString result, String colSeparator,
+			String lineSeparator, String idSeperator, long maxSize, long errorType);
+
+	CompletableFuture<Long> dbGetList(String aqlQuery, AMString result, String colSeparator, String lineSeparator,
+			String idSeperator);
+
+	CompletableFuture<Long> dbGetListEx(String aqlQuery, AMString result, String colSeparator, String lineSeparator,
+			String idSeperator);
+
+	CompletableFuture<Long> dbGetLong(String aqlQuery);
+
+	CompletableFuture<Long> dbGetPk(String tableName, String whereClause);
+
+	CompletableFuture<Long> dbGetString(String query, AMString result, String colSeparator, String lineSeparator);
+
+	CompletableFuture<Long> dbGetStringEx(String query, AMString result, String colSeparator, String lineSeparator);
+
+	CompletableFuture<Long> deleteLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle);
+
+	CompletableFuture<Long> deleteRecord(AMHandle recordHandle);
+
+	CompletableFuture<Long> duplicateRecord(AMHandle recordHandle, long insert);
+
+	CompletableFuture<Long> enumValList(String enumName, AMString value, long caseSensitive, String lineSeparator);
+
+	CompletableFuture<AMHandle> executeActionById(long actionId, String tableName, long recordId);
+
+	CompletableFuture<AMHandle> executeActionByName(String sqlName, String tableName, long recordId);
+
+	CompletableFuture<Long> exportDocument(long documentId, String fileName);
+
+	CompletableFuture<Long> flushTransaction();
+
+	CompletableFuture<Long> formatCurrency(double amount, String currency, AMString result);
+
+	CompletableFuture<Long> formatLong(long number, String format, AMString result);
+
+	CompletableFuture<Long> getComputeString(String tableName, long recordId, String template, AMString result);
+
+	CompletableFuture<AMHandle> getField(AMHandle objHandle, long position);
+
+	CompletableFuture<Long> getFieldCount(AMHandle objHandle);
+
+	CompletableFuture<Long> getFieldDateOnlyValue(AMHandle recHandle, long fieldPos);
+
+	CompletableFuture<Long> getFieldDateValue(AMHandle recHandle, long fieldPos);
+
+	CompletableFuture<Long> getFieldDescription(AMHandle fieldHandle, AMString target);
+
+	CompletableFuture<Double> getFieldDoubleValue(AMHandle objHandle, long fieldPos);
+
+	CompletableFuture<Long> getFieldFormat(AMHandle fldHandle, AMString target);
+
+	CompletableFuture<Long> getFieldFormatFromName(String tableName, String fieldName, AMString result);
+
+	CompletableFuture<AMHandle> getFieldFromName(AMHandle objHandle, String fielddName);
+
+	CompletableFuture<Long> getFieldLabel(AMHandle fldHandle, AMString result);
+
+	CompletableFuture<Long> getFieldLabelFromName(String tableName, String fieldName, AMString fieldLabel);
+
+	CompletableFuture<Long> getFieldLongValue(AMHandle objHandle, long fieldPosition);
+
+	CompletableFuture<Long> getFieldName(AMHandle objHandle, long fieldPositon, AMString fieldName);
+
+	CompletableFuture<Long> getFieldSize(AMHandle fldHandle);
+
+	CompletableFuture<Long> getFieldSqlName(AMHandle fldHandle, AMString fieldSQLName);
+
+	CompletableFuture<Long> getFieldStrValue(AMHandle qryHandle, long position, AMString target);
+
+	CompletableFuture<Long> getFieldType(AMHandle fldHandle);
+
+	CompletableFuture<Long> getFieldUserType(AMHandle fldHandle);
+
+	CompletableFuture<AMHandle> getRecordFromMainId(String tableName, long lId);
+
+	CompletableFuture<AMHandle> getRecordHandle(AMHandle qryHandle);
+
+	CompletableFuture<Long> getRecordId(AMHandle recHandle);
+
+	CompletableFuture<AMHandle> getRelDstField(AMHandle fldHandle);
+
+	CompletableFuture<AMHandle> getRelSrcField(AMHandle fldHandle);
+
+	CompletableFuture<AMHandle> getRelTable(AMHandle fldHandle);
+
+	CompletableFuture<AMHandle> getReverseLink(AMHandle fldHandle);
+
+	CompletableFuture<Long> getSelfFromMainId(String tableName, long recordId, AMString recordDescription);
+
+	CompletableFuture<Long> getVersion(AMString amVersion);
+
+	CompletableFuture<Long> importDocument(long docId, String tableName, String fileName, String category,
+			String designation);
+
+	CompletableFuture<Long> insertRecord(AMHandle recHandle);
+
+	CompletableFuture<Long> isConnected();
+
+	CompletableFuture<Long> lastError();
+
+	CompletableFuture<Long> lastErrorMsg(AMString errorMessage);
+
+	CompletableFuture<Long> listToString(AMString target, String source, String colSep, String lineSep, String idSep);
+
+	CompletableFuture<Long> loginId();
+
+	CompletableFuture<Long> loginName(AMString loginName);
+
+	CompletableFuture<Long> purgeRecord(AMHandle recHandle);
+
+	CompletableFuture<AMHandle> queryCreate();
+
+	CompletableFuture<Long> queryExec(AMHandle queryHandle, String aqlQuery);
+
+	CompletableFuture<Long> queryGet(AMHandle qryHandle, String aqlQuery);
+
+	CompletableFuture<Long> queryNext(AMHandle queryHandle);
+
+	CompletableFuture<Long> querySetAddMainField(AMHandle qryHandle, long addMainField);
+
+	CompletableFuture<Long> querySetFullMemo(AMHandle qryHandle, long fullMemo);
+
+	CompletableFuture<AMHandle> queryStartTable(AMHandle qryHandle);
+
+	CompletableFuture<Long> queryStop(AMHandle qryHandle);
+
+	CompletableFuture<Long> refreshAllCaches();
+
+	CompletableFuture<Long> releaseHandle(AMHandle objHandle);
+
+	CompletableFuture<Long> rollBack();
+
+	CompletableFuture<Long> setFieldDateOnlyValue(AMHandle recHandle, String fieldName, AMDate dateOnlyValue);
+
+	CompletableFuture<Long> setFieldDateValue(AMHandle recHandle, String fieldName, AMDate dateTimeValue);
+
+	CompletableFuture<Long> setFieldDoubleValue(AMHandle recHandle, String fieldName, double value);
+
+	CompletableFuture<Long> setFieldLongValue(AMHandle recHandle, String fieldName, long value);
+
+	CompletableFuture<Long> setFieldStrValue(AMHandle recHandle, String fieldName, String value);
+
+	CompletableFuture<Long> sqlTextConst(String aqlQuery, AMString target);
+
+	CompletableFuture<Long> startTransaction();
+
+	CompletableFuture<Long> updateRecord(AMHandle recHandle);
+
+	/**
+	 * @return the connection this view was obtained from
+	 */
+	AMConnection getConnection();
+
+}
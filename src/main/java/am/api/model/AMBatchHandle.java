@@ -14,40 +14,29 @@
     You should have received a copy of the GNU General Public License
     along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
  */
-package am.api.wrapper;
+package am.api.model;
 
-import java.util.Date;
+import java.io.Serializable;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
-import com.sun.jna.Pointer;
+import am.api.AMHandle;
 
-public class HandleMetaData {
-	private final Pointer pointer;
-	private Date registerDate;
-
-	public HandleMetaData(Pointer pointer) {
-		super();
-		registerDate = new Date();
-		this.pointer = pointer;
-	}
+/**
+ * Placeholder for a handle produced by an earlier call of the same batch,
+ * referring to it by its position.
+ */
+public final class AMBatchHandle implements AMHandle, Serializable {
 
-	public Pointer getPointer() {
-		return pointer;
-	}
+	private final static long serialVersionUID = 1L;
 
-	public Date getRegisterDate() {
-		return registerDate;
-	}
+	private final int index;
 
-	public String toString() {
-		return new ToStringBuilder(this).append("registerDate", registerDate).append("pointer", pointer).toString();
-	}
-
-	public int hashCode() {
-		return new HashCodeBuilder(91, 7).append(registerDate).append(pointer).toHashCode();
+	public AMBatchHandle(int index) {
+		super();
+		this.index = index;
 	}
 
 	public boolean equals(Object obj) {
@@ -60,8 +49,23 @@ public class HandleMetaData {
 		if (obj.getClass() != getClass()) {
 			return false;
 		}
-		HandleMetaData rhs = (HandleMetaData) obj;
-		return new EqualsBuilder().appendSuper(super.equals(obj)).append(registerDate, rhs.registerDate)
-				.append(pointer, rhs.pointer).isEquals();
+		AMBatchHandle rhs = (AMBatchHandle) obj;
+		return new EqualsBuilder().append(index, rhs.index).isEquals();
+	}
+
+	public String getId() {
+		return "batch:" + index;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int hashCode() {
+		return new HashCodeBuilder(43, 13).append(index).toHashCode();
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("index", index).toString();
 	}
 }
@@ -0,0 +1,104 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMHandle;
+import am.api.util.NLS;
+
+public class AMBatchResult implements Serializable {
+
+	private final static long serialVersionUID = 1L;
+
+	private final Object[] values;
+
+	private final AMString[] strings;
+
+	public AMBatchResult(Object[] values, AMString[] strings) {
+		super();
+		this.values = values;
+		this.strings = strings;
+	}
+
+	public boolean equals(Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+		AMBatchResult rhs = (AMBatchResult) obj;
+		return new EqualsBuilder().append(values, rhs.values).append(strings, rhs.strings).isEquals();
+	}
+
+	public double getDouble(int index) {
+		return ((Number) getValue(index)).doubleValue();
+	}
+
+	/**
+	 * @param placeholder handle returned by the batch when the call was recorded
+	 * @return the real handle created by the call
+	 */
+	public AMHandle getHandle(AMHandle placeholder) {
+		if (!(placeholder instanceof AMBatchHandle)) {
+			throw new IllegalArgumentException(NLS.ERRORS.getString("batch.placeholder.invalid"));
+		}
+
+		return getHandle(((AMBatchHandle) placeholder).getIndex());
+	}
+
+	public AMHandle getHandle(int index) {
+		return (AMHandle) getValue(index);
+	}
+
+	public long getLong(int index) {
+		return ((Number) getValue(index)).longValue();
+	}
+
+	public AMString getString(int index) {
+		getValue(index);
+		return strings[index];
+	}
+
+	private Object getValue(int index) {
+		if (index < 0 || index >= values.length) {
+			throw new IndexOutOfBoundsException(Integer.toString(index));
+		}
+		return values[index];
+	}
+
+	public int hashCode() {
+		return new HashCodeBuilder(41, 71).append(values).append(strings).toHashCode();
+	}
+
+	public int size() {
+		return values.length;
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("values", Arrays.toString(values)).toString();
+	}
+}
@@ -0,0 +1,95 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.model;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMColumnType;
+
+/**
+ * Column read by a cursor, columns are matched by position against the select
+ * list of the query.
+ */
+public final class AMColumn implements Serializable {
+
+	private final static long serialVersionUID = 1L;
+
+	public final static AMColumn ofDate() {
+		return new AMColumn(AMColumnType.DATE, 0);
+	}
+
+	public final static AMColumn ofDouble() {
+		return new AMColumn(AMColumnType.DOUBLE, 0);
+	}
+
+	public final static AMColumn ofLong() {
+		return new AMColumn(AMColumnType.LONG, 0);
+	}
+
+	public final static AMColumn ofString(int bufferLength) {
+		if (bufferLength <= 0) {
+			throw new IllegalArgumentException("invalid bufferLength argument");
+		}
+		return new AMColumn(AMColumnType.STRING, bufferLength);
+	}
+
+	private final int bufferLength;
+
+	private final AMColumnType columnType;
+
+	private AMColumn(AMColumnType columnType, int bufferLength) {
+		super();
+		this.columnType = columnType;
+		this.bufferLength = bufferLength;
+	}
+
+	public boolean equals(Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+		AMColumn rhs = (AMColumn) obj;
+		return new EqualsBuilder().append(columnType, rhs.columnType).append(bufferLength, rhs.bufferLength)
+				.isEquals();
+	}
+
+	public int getBufferLength() {
+		return bufferLength;
+	}
+
+	public AMColumnType getColumnType() {
+		return columnType;
+	}
+
+	public int hashCode() {
+		return new HashCodeBuilder(37, 11).append(columnType).append(bufferLength).toHashCode();
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("columnType", columnType).append("bufferLength", bufferLength)
+				.toString();
+	}
+}
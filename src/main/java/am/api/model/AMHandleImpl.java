@@ -18,27 +18,29 @@ package am.api.model;
 
 import java.io.Serializable;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import am.api.AMHandle;
 import am.api.AMHandleType;
 
+/**
+ * Handle issued by a connection. The key is unique for the life of the issuing
+ * connection and alone identifies the handle.
+ */
 public final class AMHandleImpl implements AMHandle, Serializable {
 
-	private final static long serialVersionUID = 1L;
+	private final static long serialVersionUID = 2L;
 
 	private final String createdFrom;
 
 	private final AMHandleType handleType;
 
-	private final String id;
+	private final long key;
 
-	public AMHandleImpl(String id, AMHandleType handleType, String createdFrom) {
+	public AMHandleImpl(long key, AMHandleType handleType, String createdFrom) {
 		super();
 
-		this.id = id;
+		this.key = key;
 		this.handleType = handleType;
 		this.createdFrom = createdFrom;
 	}
@@ -53,10 +55,7 @@ public final class AMHandleImpl implements AMHandle, Serializable {
 		if (obj.getClass() != getClass()) {
 			return false;
 		}
-		AMHandleImpl rhs = (AMHandleImpl) obj;
-		return new EqualsBuilder().append(id, rhs.id)
-				.append(handleType, rhs.handleType)
-				.append(createdFrom, rhs.createdFrom).isEquals();
+		return key == ((AMHandleImpl) obj).key;
 	}
 
 	public String getCreatedFrom() {
@@ -68,16 +67,19 @@ public final class AMHandleImpl implements AMHandle, Serializable {
 	}
 
 	public String getId() {
-		return id;
+		return Long.toString(key);
+	}
+
+	public long getKey() {
+		return key;
 	}
 
 	public int hashCode() {
-		return new HashCodeBuilder(9, 5).append(id).append(handleType)
-				.append(createdFrom).toHashCode();
+		return Long.hashCode(key);
 	}
 
 	public String toString() {
-		return new ToStringBuilder(this).append("id", id)
+		return new ToStringBuilder(this).append("key", key)
 				.append("handleType", handleType)
 				.append("createdFrom", createdFrom).toString();
 	}
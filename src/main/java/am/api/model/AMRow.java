@@ -0,0 +1,85 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+public final class AMRow implements Serializable {
+
+	private final static long serialVersionUID = 1L;
+
+	private final Object[] values;
+
+	public AMRow(Object[] values) {
+		super();
+		this.values = values;
+	}
+
+	public boolean equals(Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+		AMRow rhs = (AMRow) obj;
+		return new EqualsBuilder().append(values, rhs.values).isEquals();
+	}
+
+	public int getColumnCount() {
+		return values.length;
+	}
+
+	/**
+	 * @return the date or null when the column holds the API null date
+	 */
+	public AMDate getDate(int column) {
+		return AMDate.fromUNIXInt(((Number) values[column]).longValue());
+	}
+
+	public double getDouble(int column) {
+		return ((Number) values[column]).doubleValue();
+	}
+
+	public long getLong(int column) {
+		return ((Number) values[column]).longValue();
+	}
+
+	public String getString(int column) {
+		return (String) values[column];
+	}
+
+	public Object getValue(int column) {
+		return values[column];
+	}
+
+	public int hashCode() {
+		return new HashCodeBuilder(59, 31).append(values).toHashCode();
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("values", Arrays.toString(values)).toString();
+	}
+}
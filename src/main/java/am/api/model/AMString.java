@@ -90,6 +90,28 @@ public class AMString implements Serializable {
 		return new String(buffer);
 	}
 
+	/**
+	 * Copies the first length characters, reusing the current buffer when it
+	 * already has the right size and the characters are all ASCII.
+	 */
+	public void fromChars(char[] chars, int length) {
+
+		for (int index = 0; index < length; index++) {
+			if (chars[index] >= 0x80) {
+				fromString(new String(chars, 0, length));
+				return;
+			}
+		}
+
+		byte[] target = buffer.length == length ? buffer : new byte[length];
+
+		for (int index = 0; index < length; index++) {
+			target[index] = (byte) chars[index];
+		}
+
+		buffer = target;
+	}
+
 	public void fromString(String aString) {
 		try {
 			buffer = aString.getBytes();
@@ -18,6 +18,8 @@ package am.api.osgi;
 
 import java.io.Serializable;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.transaction.Status;
@@ -35,14 +37,18 @@ import org.springframework.util.Assert;
 
 import am.api.AMConnection;
 import am.api.AMConnectionFactory;
+import am.api.AsyncAMConnection;
 import am.api.XAAMConnection;
 import am.api.XAAMConnectionFactory;
 import am.api.exception.AMConnectionException;
 import am.api.model.AMCredential;
 import am.api.util.NLS;
+import am.api.wrapper.AMBaseConnection;
 import am.api.wrapper.AMConnectionKey;
 import am.api.wrapper.AMConnectionWrapper;
 import am.api.wrapper.AMNTConnectionKey;
+import am.api.wrapper.LeakDetector;
+import am.api.wrapper.WriteBehindBuffer;
 
 public class XAAMConnectionEnlistingWrapper implements AMConnectionFactory, Serializable {
 
@@ -56,14 +62,30 @@ public class XAAMConnectionEnlistingWrapper implements AMConnectionFactory, Seri
 
 		public void afterCompletion(int status) {
 
-			AMConnection connection = connectionMap.remove(key);
-			if (connection != null) {
-				connection.close();
+			buffers.remove(key);
+
+			CompletableFuture<AMConnection> holder = connectionMap.remove(key);
+			if (holder != null) {
+				holder.thenAccept(AMConnection::close);
 			}
 		}
 
 		public void beforeCompletion() {
-			// do nothing
+
+			WriteBehindBuffer buffer = buffers.get(key);
+
+			if (buffer != null) {
+				try {
+					buffer.flush();
+				} catch (RuntimeException e) {
+					logger.error(NLS.ERRORS.getString("transaction.writebehind.flush"), e);
+					try {
+						transactionManager.setRollbackOnly();
+					} catch (IllegalStateException | SystemException e1) {
+						throw new IllegalStateException(e1);
+					}
+				}
+			}
 		}
 
 	}
@@ -72,16 +94,76 @@ public class XAAMConnectionEnlistingWrapper implements AMConnectionFactory, Seri
 
 	private final static long serialVersionUID = 1L;
 
-	private transient Map<Object, AMConnection> connectionMap = new ConcurrentHashMap<>();
+	private transient Map<Object, WriteBehindBuffer> buffers = new ConcurrentHashMap<>();
+
+	/**
+	 * A key maps to the connection of its transaction once acquired, threads of
+	 * the same transaction arriving meanwhile wait on the holder.
+	 */
+	private transient Map<Object, CompletableFuture<AMConnection>> connectionMap = new ConcurrentHashMap<>();
+
+	private transient LeakDetector leakDetector;
 
 	private transient TransactionManager transactionManager;
 
 	private transient XAAMConnectionFactory wrappedCF;
 
+	private boolean writeBehind = false;
+
 	public XAAMConnectionEnlistingWrapper() {
 		super();
 	}
 
+	/**
+	 * Acquires and enlists the connection of a transaction, the caller owns the
+	 * empty holder registered under key.
+	 */
+	private AMConnection acquire(AMCredential credential, Transaction transaction, Object key,
+			CompletableFuture<AMConnection> holder) {
+
+		XAAMConnection xaConnection = null;
+
+		try {
+			xaConnection = wrappedCF.getXAConnection(credential);
+			AMConnection connection = xaConnection.getConnection();
+			if (connection instanceof AMBaseConnection) {
+				((AMBaseConnection) connection).trackWrites();
+			}
+			if (writeBehind) {
+				buffers.put(key, new WriteBehindBuffer(connection));
+			}
+			enlist(transaction, xaConnection.getXAResource(), key);
+			holder.complete(connection);
+			return connection;
+		} catch (RuntimeException | Error e) {
+			if (xaConnection != null) {
+				try {
+					xaConnection.close();
+				} catch (RuntimeException e1) {
+					e.addSuppressed(e1);
+				}
+			}
+			buffers.remove(key);
+			connectionMap.remove(key, holder);
+			holder.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private AMConnection await(CompletableFuture<AMConnection> holder) {
+		try {
+			return holder.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
 	private void enlist(Transaction transaction, XAResource xaResource, Object key) {
 		try {
 			transaction.enlistResource(xaResource);
@@ -110,6 +192,20 @@ public class XAAMConnectionEnlistingWrapper implements AMConnectionFactory, Seri
 				.append(transactionManager, rhs.transactionManager).isEquals();
 	}
 
+	@Override
+	public AsyncAMConnection getAsyncConnection() {
+		return getAsyncConnection(null);
+	}
+
+	/**
+	 * The view is bound to the enlisted connection, closing it before the
+	 * transaction completes leaves the connection to the transaction.
+	 */
+	@Override
+	public AsyncAMConnection getAsyncConnection(AMCredential credential) {
+		return getConnection(credential).async();
+	}
+
 	@Override
 	public AMConnection getConnection() {
 		return getConnection(null);
@@ -120,45 +216,55 @@ public class XAAMConnectionEnlistingWrapper implements AMConnectionFactory, Seri
 
 		Transaction transaction = getTransaction();
 
-		synchronized (connectionMap) {
+		if (transaction != null) {
 
-			if (transaction != null) {
+			Object key = new AMConnectionKey(credential, transaction);
 
-				Object key = new AMConnectionKey(credential, transaction);
+			logger.debug(String.format("key = [%s]", key));
 
-				logger.debug(String.format("key = [%s]", key));
+			CompletableFuture<AMConnection> holder = connectionMap.get(key);
 
-				AMConnection connection = connectionMap.get(key);
+			logger.debug(String.format("existing connection = [%s]", holder));
 
-				logger.debug(String.format("existing connection = [%s]", connection));
+			AMConnection connection;
 
-				if (connection == null) {
-					XAAMConnection xaConnection = wrappedCF.getXAConnection(credential);
-					connection = xaConnection.getConnection();
-					enlist(transaction, xaConnection.getXAResource(), key);
-					connectionMap.put(key, connection);
-				}
+			if (holder == null) {
 
-				return getEnlistedConnection(connection, true, key);
+				CompletableFuture<AMConnection> created = new CompletableFuture<>();
+
+				holder = connectionMap.putIfAbsent(key, created);
+
+				connection = holder == null ? acquire(credential, transaction, key, created) : await(holder);
 
 			} else {
+				connection = await(holder);
+			}
 
-				AMConnection xaConnection = wrappedCF.getXAConnection(credential).getConnection();
+			return getEnlistedConnection(connection, true, key);
 
-				Object key = new AMNTConnectionKey(credential, xaConnection.hashCode());
+		} else {
 
-				connectionMap.put(key, xaConnection);
+			AMConnection xaConnection = wrappedCF.getXAConnection(credential).getConnection();
 
-				return getEnlistedConnection(xaConnection, false, key);
+			Object key = new AMNTConnectionKey(credential, xaConnection.hashCode());
 
+			connectionMap.put(key, CompletableFuture.completedFuture(xaConnection));
+
+			AMConnection wrapper = getEnlistedConnection(xaConnection, false, key);
+
+			if (leakDetector != null) {
+				leakDetector.track(key, credential, (AMConnectionWrapper) wrapper);
 			}
 
+			return wrapper;
+
 		}
 	}
 
 	private AMConnection getEnlistedConnection(AMConnection connection, boolean enlisted, Object key) {
 
-		AMConnectionWrapper wrapper = new AMConnectionWrapper(connection, enlisted, key, this);
+		AMConnectionWrapper wrapper = new AMConnectionWrapper(connection, enlisted, key, this,
+				enlisted ? buffers.get(key) : null);
 
 		logger.debug(String.format("wrapper = [%s]", wrapper));
 
@@ -174,6 +280,10 @@ public class XAAMConnectionEnlistingWrapper implements AMConnectionFactory, Seri
 		}
 	}
 
+	public LeakDetector getLeakDetector() {
+		return leakDetector;
+	}
+
 	public TransactionManager getTransactionManager() {
 		return transactionManager;
 	}
@@ -182,6 +292,14 @@ public class XAAMConnectionEnlistingWrapper implements AMConnectionFactory, Seri
 		return wrappedCF;
 	}
 
+	/**
+	 * @return true when mutations of enlisted connections are buffered and
+	 *         sent as one batch before the transaction completes
+	 */
+	public boolean isWriteBehind() {
+		return writeBehind;
+	}
+
 	public int hashCode() {
 		return new HashCodeBuilder(91, 1).appendSuper(super.hashCode()).append(wrappedCF).append(transactionManager)
 				.toHashCode();
@@ -194,6 +312,14 @@ public class XAAMConnectionEnlistingWrapper implements AMConnectionFactory, Seri
 
 	public void performCleanup() {
 		logger.debug("connectionMap.size() = {}", connectionMap.size());
+
+		if (leakDetector != null) {
+			leakDetector.scan();
+		}
+	}
+
+	public void setLeakDetector(LeakDetector leakDetector) {
+		this.leakDetector = leakDetector;
 	}
 
 	public void setTransactionManager(TransactionManager transactionManager) {
@@ -204,17 +330,21 @@ public class XAAMConnectionEnlistingWrapper implements AMConnectionFactory, Seri
 		this.wrappedCF = wrappedCF;
 	}
 
+	public void setWriteBehind(boolean writeBehind) {
+		this.writeBehind = writeBehind;
+	}
+
 	public String toString() {
 		return new ToStringBuilder(this).appendSuper(super.toString()).append("wrappedCF", wrappedCF)
-				.append("transactionManager", transactionManager).toString();
+				.append("transactionManager", transactionManager).append("writeBehind", writeBehind).toString();
 	}
 
 	public void unregister(Object key) {
+		connectionMap.remove(key);
 
-		synchronized (connectionMap) {
-			connectionMap.remove(key);
+		if (leakDetector != null) {
+			leakDetector.untrack(key);
 		}
-
 	}
 
 }
@@ -23,6 +23,7 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import am.api.AMConnection;
+import am.api.AsyncAMConnection;
 import am.api.XAAMConnection;
 import am.api.XAAMConnectionFactory;
 import am.api.model.AMCredential;
@@ -53,6 +54,16 @@ public class XAPooledAMConnectionFactory extends ConnectionPool implements XAAMC
 		return new EqualsBuilder().appendSuper(super.equals(obj)).isEquals();
 	}
 
+	@Override
+	public AsyncAMConnection getAsyncConnection() {
+		return getAsyncConnection(null);
+	}
+
+	@Override
+	public AsyncAMConnection getAsyncConnection(AMCredential credential) {
+		return getConnection(credential).async();
+	}
+
 	@Override
 	public AMConnection getConnection() {
 		return getConnection(null);
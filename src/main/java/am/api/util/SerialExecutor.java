@@ -0,0 +1,65 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Runs tasks one at a time, in submission order, on an underlying executor.
+ */
+public final class SerialExecutor implements Executor {
+
+	private Runnable active;
+
+	private final Executor executor;
+
+	private final Queue<Runnable> tasks;
+
+	public SerialExecutor(Executor executor) {
+		super();
+		this.executor = executor;
+		this.tasks = new ArrayDeque<>();
+	}
+
+	@Override
+	public synchronized void execute(Runnable task) {
+		tasks.add(() -> {
+			try {
+				task.run();
+			} finally {
+				scheduleNext();
+			}
+		});
+		if (active == null) {
+			scheduleNext();
+		}
+	}
+
+	private synchronized void scheduleNext() {
+		if ((active = tasks.poll()) != null) {
+			executor.execute(active);
+		}
+	}
+
+	public synchronized String toString() {
+		return new ToStringBuilder(this).append("executor", executor).append("queued", tasks.size()).toString();
+	}
+}
@@ -16,24 +16,124 @@
  */
 package am.api.wrapper;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.pool2.PooledObject;
 
 import am.api.AMConnection;
 
 public abstract class AMBaseConnection implements AMConnection {
 
+	private final static AtomicIntegerFieldUpdater<AMBaseConnection> BAG_STATE = AtomicIntegerFieldUpdater
+			.newUpdater(AMBaseConnection.class, "bagState");
+
+	private final static AtomicIntegerFieldUpdater<AMBaseConnection> WRITE_STATE = AtomicIntegerFieldUpdater
+			.newUpdater(AMBaseConnection.class, "writeState");
+
+	private final static int TRANSACTION_DEFERRED = 1;
+	private final static int TRANSACTION_NONE = 0;
+	private final static int TRANSACTION_STARTED = 2;
+
+	private final static int WRITES_MADE = 2;
+	private final static int WRITES_NONE = 1;
+	private final static int WRITES_UNTRACKED = 0;
+
+	private volatile boolean admitted;
+	private long ageBudgetMs = 0L;
+	private volatile int bagState;
+	private volatile PooledObject<AMBaseConnection> bagEntry;
+	private volatile long borrowedAt;
+	private volatile long borrowGeneration;
+	private final long createdAt;
+	private volatile long lastHealthyAt;
+	private final AtomicBoolean replacementRequested;
 	private AtomicInteger reuseCount;
-	private int processingFlags = 0;
+	private int reuseBudget = 0;
+	private volatile int processingFlags = 0;
+	private volatile boolean sessionDirty;
+	private final Object sessionLock = new Object();
+	private final Object transactionLock = new Object();
+	private volatile int transactionState = TRANSACTION_NONE;
+	private volatile int writeState = WRITES_UNTRACKED;
 
 	protected AMBaseConnection() {
 		super();
 		reuseCount = new AtomicInteger();
+		replacementRequested = new AtomicBoolean();
+		createdAt = System.currentTimeMillis();
+		lastHealthyAt = createdAt;
 	}
 
 	public abstract void cleanup();
 
+	/**
+	 * Claims or releases the connection inside a {@link ConcurrentBagBackend}.
+	 */
+	boolean compareAndSetBagState(int expect, int update) {
+		return BAG_STATE.compareAndSet(this, expect, update);
+	}
+
+	/**
+	 * @return true when the connection held an admission, which the caller
+	 *         now has to release
+	 */
+	boolean clearAdmitted() {
+		boolean was = admitted;
+		admitted = false;
+		return was;
+	}
+
+	public boolean isSessionDirty() {
+		return sessionDirty;
+	}
+
+	/**
+	 * @return the {@link System#nanoTime()} of the last borrow, 0 when not
+	 *         borrowed
+	 */
+	long clearBorrowedAt() {
+		long at = borrowedAt;
+		borrowedAt = 0L;
+		return at;
+	}
+
+	/**
+	 * @return milliseconds this connection may live, 0 when unlimited
+	 */
+	public long getAgeBudgetMs() {
+		return ageBudgetMs;
+	}
+
+	PooledObject<AMBaseConnection> getBagEntry() {
+		return bagEntry;
+	}
+
+	int getBagState() {
+		return bagState;
+	}
+
+	public long getCreatedAt() {
+		return createdAt;
+	}
+
+	/**
+	 * @return when the connection last finished a borrow without failure or
+	 *         passed a probe
+	 */
+	public long getLastHealthyAt() {
+		return lastHealthyAt;
+	}
+
+	/**
+	 * @return borrows this connection may serve, 0 when unlimited
+	 */
+	public int getReuseBudget() {
+		return reuseBudget;
+	}
+
 	public int getReuseCount() {
 		return reuseCount.get();
 	}
@@ -42,11 +142,192 @@ public abstract class AMBaseConnection implements AMConnection {
 		reuseCount.incrementAndGet();
 	}
 
+	/**
+	 * @return true when the reuse or age budget is spent
+	 */
+	boolean isRecycleDue(long nowMs) {
+		return reuseBudget > 0 && reuseCount.get() >= reuseBudget
+				|| ageBudgetMs > 0L && nowMs - createdAt >= ageBudgetMs;
+	}
+
+	/**
+	 * @return true when the budget will be spent within reuseLead borrows or
+	 *         the last tenth of the age budget
+	 */
+	boolean isRecycleNear(long nowMs, int reuseLead) {
+		return reuseBudget > 0 && reuseCount.get() >= reuseBudget - reuseLead
+				|| ageBudgetMs > 0L && nowMs - createdAt >= ageBudgetMs - ageBudgetMs / 10L;
+	}
+
+	void markAdmitted() {
+		admitted = true;
+	}
+
+	void setBagEntry(PooledObject<AMBaseConnection> bagEntry) {
+		this.bagEntry = bagEntry;
+	}
+
+	void setBagState(int bagState) {
+		BAG_STATE.set(this, bagState);
+	}
+
+	void markHealthy(long nowMs) {
+		lastHealthyAt = nowMs;
+	}
+
+	/**
+	 * @return number of borrows so far, see {@link #resetSession(long)}
+	 */
+	long getBorrowGeneration() {
+		return borrowGeneration;
+	}
+
+	void markBorrowed(long nanos) {
+		borrowedAt = nanos == 0L ? 1L : nanos;
+		// one borrower at a time, the increment needs no atomicity
+		borrowGeneration++;
+		sessionDirty = true;
+		finishTransaction();
+	}
+
+	/**
+	 * @return true only for the first caller, who builds the replacement
+	 */
+	boolean requestReplacement() {
+		return replacementRequested.compareAndSet(false, true);
+	}
+
+	/**
+	 * Commits and resets the session, the reset is skipped when the commit
+	 * failed so that its last error can still be read.
+	 * 
+	 * @return status of the commit
+	 */
+	public long commitAndReset() {
+		synchronized (sessionLock) {
+			long status = commitThenCleanup();
+			if (status == 0L) {
+				sessionDirty = false;
+			}
+			return status;
+		}
+	}
+
+	/**
+	 * Remote connections override this to do both in one call.
+	 */
+	protected long commitThenCleanup() {
+		long status = commit();
+		if (status == 0L) {
+			cleanup();
+		}
+		return status;
+	}
+
+	/**
+	 * Begins the native transaction right away, or on the first write when
+	 * writes are tracked.
+	 */
+	void beginTransaction() {
+		if (writeState == WRITES_NONE) {
+			transactionState = TRANSACTION_DEFERRED;
+		} else {
+			startTransaction();
+			transactionState = TRANSACTION_STARTED;
+		}
+	}
+
+	/**
+	 * Forgets the transaction and stops tracking writes.
+	 * 
+	 * @return true when the native transaction was begun
+	 */
+	boolean finishTransaction() {
+		boolean started = transactionState == TRANSACTION_STARTED;
+		transactionState = TRANSACTION_NONE;
+		writeState = WRITES_UNTRACKED;
+		return started;
+	}
+
+	boolean isTransactionStarted() {
+		return transactionState == TRANSACTION_STARTED;
+	}
+
+	/**
+	 * Records a write, beginning a deferred native transaction before the
+	 * write is sent.
+	 */
+	void markWritten() {
+
+		writeState = WRITES_MADE;
+
+		if (transactionState == TRANSACTION_DEFERRED) {
+			synchronized (transactionLock) {
+				if (transactionState == TRANSACTION_DEFERRED) {
+					startTransaction();
+					transactionState = TRANSACTION_STARTED;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts tracking writes unless already tracking, until the transaction
+	 * finishes. Only call this when every write goes through a tracking
+	 * {@link AMConnectionWrapper}, a connection nobody tracks is never reported
+	 * read only and begins its transaction eagerly.
+	 */
+	public void trackWrites() {
+		WRITE_STATE.compareAndSet(this, WRITES_UNTRACKED, WRITES_NONE);
+	}
+
+	/**
+	 * Runs {@link #cleanup()} once after the connection was borrowed, callers
+	 * racing with a reset in progress wait for it.
+	 */
+	public void resetSession() {
+
+		if (!sessionDirty) {
+			return;
+		}
+
+		synchronized (sessionLock) {
+			if (sessionDirty) {
+				cleanup();
+				sessionDirty = false;
+			}
+		}
+	}
+
+	/**
+	 * Resets a session queued for reset on return, unless the connection was
+	 * borrowed again since the generation was read. The new borrower reset
+	 * the session on activation and owns it now.
+	 */
+	void resetSession(long generation) {
+
+		if (!sessionDirty) {
+			return;
+		}
+
+		synchronized (sessionLock) {
+			if (sessionDirty && borrowGeneration == generation) {
+				cleanup();
+				sessionDirty = false;
+			}
+		}
+	}
+
+	void setRecycleBudget(int reuseBudget, long ageBudgetMs) {
+		this.reuseBudget = reuseBudget;
+		this.ageBudgetMs = ageBudgetMs;
+	}
+
 	public abstract void shutdown();
 
 	public String toString() {
-		return new ToStringBuilder(this).append("reuseCount", reuseCount).append("processingFlags", processingFlags)
-				.toString();
+		return new ToStringBuilder(this).append("reuseCount", reuseCount).append("reuseBudget", reuseBudget)
+				.append("ageBudgetMs", ageBudgetMs).append("processingFlags", processingFlags).toString();
 	}
 
 	public void setProcessingFlag(int flag) {
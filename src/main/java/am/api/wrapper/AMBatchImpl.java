@@ -0,0 +1,304 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMBatch;
+import am.api.AMHandle;
+import am.api.model.AMBatchHandle;
+import am.api.model.AMBatchResult;
+import am.api.model.AMDate;
+import am.api.model.AMString;
+import am.server.client.BatchOperation;
+import am.server.client.BatchOperation.OpCode;
+import am.server.client.ReturnWithString;
+
+public final class AMBatchImpl implements AMBatch {
+
+	private final Function<List<BatchOperation>, List<Object>> executor;
+
+	private final List<BatchOperation> operations;
+
+	public AMBatchImpl(Function<List<BatchOperation>, List<Object>> executor) {
+		super();
+		this.executor = executor;
+		this.operations = new ArrayList<>();
+	}
+
+	private int add(OpCode opCode, Object... arguments) {
+		operations.add(new BatchOperation(opCode, arguments));
+		return operations.size() - 1;
+	}
+
+	private AMHandle addHandle(OpCode opCode, Object... arguments) {
+		return new AMBatchHandle(add(opCode, arguments));
+	}
+
+	@Override
+	public int clearLastError() {
+		return add(OpCode.CLEAR_LAST_ERROR);
+	}
+
+	@Override
+	public int commit() {
+		return add(OpCode.COMMIT);
+	}
+
+	@Override
+	public int createLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		return add(OpCode.CREATE_LINK, srcRecHandle, linkName, srcDstHandle);
+	}
+
+	@Override
+	public AMHandle createRecord(String tblName) {
+		return addHandle(OpCode.CREATE_RECORD, tblName);
+	}
+
+	@Override
+	public int dbExecAql(String aqlQuery) {
+		return add(OpCode.DB_EXEC_AQL, aqlQuery);
+	}
+
+	@Override
+	public int dbGetDouble(String aqlQuery) {
+		return add(OpCode.DB_GET_DOUBLE, aqlQuery);
+	}
+
+	@Override
+	public int dbGetLong(String aqlQuery) {
+		return add(OpCode.DB_GET_LONG, aqlQuery);
+	}
+
+	@Override
+	public int dbGetPk(String tableName, String whereClause) {
+		return add(OpCode.DB_GET_PK, tableName, whereClause);
+	}
+
+	@Override
+	public int dbGetString(String query, int bufferLength, String colSeparator, String lineSeparator) {
+		return add(OpCode.DB_GET_STRING, query, bufferLength, colSeparator, lineSeparator);
+	}
+
+	@Override
+	public int deleteLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		return add(OpCode.DELETE_LINK, srcRecHandle, linkName, srcDstHandle);
+	}
+
+	@Override
+	public int deleteRecord(AMHandle recordHandle) {
+		return add(OpCode.DELETE_RECORD, recordHandle);
+	}
+
+	public boolean equals(Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+		AMBatchImpl rhs = (AMBatchImpl) obj;
+		return new EqualsBuilder().append(operations, rhs.operations).isEquals();
+	}
+
+	@Override
+	public AMBatchResult execute() {
+
+		List<BatchOperation> submitted = new ArrayList<>(operations);
+		operations.clear();
+
+		if (submitted.isEmpty()) {
+			return new AMBatchResult(new Object[0], new AMString[0]);
+		}
+
+		List<Object> results = executor.apply(submitted);
+
+		Object[] values = new Object[results.size()];
+		AMString[] strings = new AMString[results.size()];
+
+		for (int index = 0; index < values.length; index++) {
+			Object result = results.get(index);
+
+			if (result instanceof ReturnWithString) {
+				values[index] = ((ReturnWithString) result).getReturnValue();
+				strings[index] = ((ReturnWithString) result).getStringVal();
+			} else {
+				values[index] = result;
+			}
+		}
+
+		return new AMBatchResult(values, strings);
+	}
+
+	@Override
+	public int getFieldCount(AMHandle objHandle) {
+		return add(OpCode.GET_FIELD_COUNT, objHandle);
+	}
+
+	@Override
+	public int getFieldDateOnlyValue(AMHandle recHandle, long fieldPos) {
+		return add(OpCode.GET_FIELD_DATE_ONLY_VALUE, recHandle, fieldPos);
+	}
+
+	@Override
+	public int getFieldDateValue(AMHandle recHandle, long fieldPos) {
+		return add(OpCode.GET_FIELD_DATE_VALUE, recHandle, fieldPos);
+	}
+
+	@Override
+	public int getFieldDoubleValue(AMHandle objHandle, long fieldPos) {
+		return add(OpCode.GET_FIELD_DOUBLE_VALUE, objHandle, fieldPos);
+	}
+
+	@Override
+	public AMHandle getFieldFromName(AMHandle objHandle, String fieldName) {
+		return addHandle(OpCode.GET_FIELD_FROM_NAME, objHandle, fieldName);
+	}
+
+	@Override
+	public int getFieldLongValue(AMHandle objHandle, long fieldPosition) {
+		return add(OpCode.GET_FIELD_LONG_VALUE, objHandle, fieldPosition);
+	}
+
+	@Override
+	public int getFieldStrValue(AMHandle qryHandle, long position, int bufferLength) {
+		return add(OpCode.GET_FIELD_STR_VALUE, qryHandle, position, bufferLength);
+	}
+
+	@Override
+	public AMHandle getRecordFromMainId(String tableName, long id) {
+		return addHandle(OpCode.GET_RECORD_FROM_MAIN_ID, tableName, id);
+	}
+
+	@Override
+	public AMHandle getRecordHandle(AMHandle qryHandle) {
+		return addHandle(OpCode.GET_RECORD_HANDLE, qryHandle);
+	}
+
+	@Override
+	public int getRecordId(AMHandle recHandle) {
+		return add(OpCode.GET_RECORD_ID, recHandle);
+	}
+
+	public int hashCode() {
+		return new HashCodeBuilder(53, 7).append(operations).toHashCode();
+	}
+
+	@Override
+	public int insertRecord(AMHandle recHandle) {
+		return add(OpCode.INSERT_RECORD, recHandle);
+	}
+
+	@Override
+	public int lastError() {
+		return add(OpCode.LAST_ERROR);
+	}
+
+	@Override
+	public int lastErrorMsg(int bufferLength) {
+		return add(OpCode.LAST_ERROR_MSG, bufferLength);
+	}
+
+	@Override
+	public AMHandle queryCreate() {
+		return addHandle(OpCode.QUERY_CREATE);
+	}
+
+	@Override
+	public int queryExec(AMHandle queryHandle, String aqlQuery) {
+		return add(OpCode.QUERY_EXEC, queryHandle, aqlQuery);
+	}
+
+	@Override
+	public int queryGet(AMHandle qryHandle, String aqlQuery) {
+		return add(OpCode.QUERY_GET, qryHandle, aqlQuery);
+	}
+
+	@Override
+	public int queryNext(AMHandle queryHandle) {
+		return add(OpCode.QUERY_NEXT, queryHandle);
+	}
+
+	@Override
+	public int queryStop(AMHandle qryHandle) {
+		return add(OpCode.QUERY_STOP, qryHandle);
+	}
+
+	@Override
+	public int releaseHandle(AMHandle objHandle) {
+		return add(OpCode.RELEASE_HANDLE, objHandle);
+	}
+
+	@Override
+	public int rollBack() {
+		return add(OpCode.ROLLBACK);
+	}
+
+	@Override
+	public int setFieldDateOnlyValue(AMHandle recHandle, String fieldName, AMDate dateOnlyValue) {
+		return add(OpCode.SET_FIELD_DATE_ONLY_VALUE, recHandle, fieldName, dateOnlyValue);
+	}
+
+	@Override
+	public int setFieldDateValue(AMHandle recHandle, String fieldName, AMDate dateTimeValue) {
+		return add(OpCode.SET_FIELD_DATE_VALUE, recHandle, fieldName, dateTimeValue);
+	}
+
+	@Override
+	public int setFieldDoubleValue(AMHandle recHandle, String fieldName, double value) {
+		return add(OpCode.SET_FIELD_DOUBLE_VALUE, recHandle, fieldName, value);
+	}
+
+	@Override
+	public int setFieldLongValue(AMHandle recHandle, String fieldName, long value) {
+		return add(OpCode.SET_FIELD_LONG_VALUE, recHandle, fieldName, value);
+	}
+
+	@Override
+	public int setFieldStrValue(AMHandle recHandle, String fieldName, String value) {
+		return add(OpCode.SET_FIELD_STR_VALUE, recHandle, fieldName, value);
+	}
+
+	@Override
+	public int size() {
+		return operations.size();
+	}
+
+	@Override
+	public int startTransaction() {
+		return add(OpCode.START_TRANSACTION);
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("operations", operations).toString();
+	}
+
+	@Override
+	public int updateRecord(AMHandle recHandle) {
+		return add(OpCode.UPDATE_RECORD, recHandle);
+	}
+
+}
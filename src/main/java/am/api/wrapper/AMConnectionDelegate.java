@@ -16,16 +16,14 @@
  */
 package am.api.wrapper;
 
-import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
+import com.sun.jna.Memory;
 import com.sun.jna.Native;
 import com.sun.jna.NativeLong;
 import com.sun.jna.Pointer;
@@ -34,12 +32,18 @@ import com.sun.jna.WString;
 import am.api.AMHandle;
 import am.api.AMHandleType;
 import am.api.exception.AMConnectionException;
+import am.api.model.AMBatchHandle;
+import am.api.model.AMColumn;
 import am.api.model.AMDate;
 import am.api.model.AMHandleImpl;
+import am.api.model.AMRow;
 import am.api.model.AMString;
 import am.api.util.NLS;
 import am.server.AMLibrary;
 import am.server.AMLibraryFactory;
+import am.server.client.BatchOperation;
+import am.server.client.ReturnWithString;
+import am.server.client.RowChunk;
 
 public class AMConnectionDelegate {
 
@@ -47,12 +51,29 @@ public class AMConnectionDelegate {
 
 	private volatile Pointer connection;
 
-	private final Map<AMHandle, HandleMetaData> handleMap;
+	private final HandleTable handleTable;
+
+	/*
+	 * output buffer shared by the string getters, the delegate is only ever
+	 * driven by one thread at a time
+	 */
+	private Memory outputBuffer;
+
+	private char[] outputChars;
+
+	/*
+	 * encoded table, field, link names and separators
+	 */
+	private final NativeStringCache wideNames;
+
+	private final NativeStringCache narrowNames;
 
 	public AMConnectionDelegate() {
 		super();
 		amLibrary = AMLibraryFactory.getInstance();
-		this.handleMap = new ConcurrentHashMap<>();
+		this.handleTable = new HandleTable();
+		this.wideNames = new NativeStringCache(true);
+		this.narrowNames = new NativeStringCache(false);
 	}
 
 	private void checkInternalState() {
@@ -61,6 +82,53 @@ public class AMConnectionDelegate {
 		}
 	}
 
+	/**
+	 * @return native buffer of at least the given number of wide characters,
+	 *         holding an empty string
+	 */
+	private Pointer outputBuffer(int length) {
+
+		long size = (long) Math.max(length, 1) * Native.WCHAR_SIZE;
+
+		if (outputBuffer == null || outputBuffer.size() < size) {
+			outputBuffer = new Memory(size);
+		}
+
+		outputBuffer.setChar(0, '\0');
+
+		return outputBuffer;
+	}
+
+	private Pointer wideName(String name) {
+		return wideNames.get(name);
+	}
+
+	private Pointer narrowName(String name) {
+		return narrowNames.get(name);
+	}
+
+	/**
+	 * Decodes the null terminated content of the output buffer into the target.
+	 */
+	private void readOutput(AMString target) {
+
+		int length = target.getBufferLength();
+
+		if (outputChars == null || outputChars.length < length) {
+			outputChars = new char[length];
+		}
+
+		outputBuffer.read(0, outputChars, 0, length);
+
+		int end = 0;
+
+		while (end < length && outputChars[end] != '\0') {
+			end++;
+		}
+
+		target.fromChars(outputChars, end);
+	}
+
 	private void checkQueryHandle(Pointer pointer) {
 		if (pointer == Pointer.NULL) {
 			throw new IllegalStateException(NLS.ERRORS.getString("queryhandle.invalid"));
@@ -81,6 +149,14 @@ public class AMConnectionDelegate {
 
 	}
 
+	public long closeCursor(AMHandle cursor) {
+		checkInternalState();
+
+		queryStop(cursor);
+
+		return releaseHandle(cursor);
+	}
+
 	public long commit() {
 		checkInternalState();
 
@@ -91,12 +167,12 @@ public class AMConnectionDelegate {
 	public long connectionName(AMString connectionName) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(connectionName.getBufferLength());
+		Pointer buffer = outputBuffer(connectionName.getBufferLength());
 
 		long status = amLibrary.AmConnectionNameW(connection, buffer, new NativeLong(connectionName.getBufferLength()))
 				.longValue();
 
-		connectionName.fromString(Native.toString(buffer.array()));
+		readOutput(connectionName);
 
 		return status;
 
@@ -127,12 +203,12 @@ public class AMConnectionDelegate {
 
 		long status = 0;
 
-		CharBuffer buffer = CharBuffer.allocate(dateAsIntlStr.getBufferLength());
+		Pointer buffer = outputBuffer(dateAsIntlStr.getBufferLength());
 
 		status = amLibrary.AmConvertDateUnixToIntlW(connection, new NativeLong(unixDate), buffer,
 				new NativeLong(dateAsIntlStr.getBufferLength())).longValue();
 
-		dateAsIntlStr.fromString(Native.toString(buffer.array()));
+		readOutput(dateAsIntlStr);
 
 		return status;
 	}
@@ -142,12 +218,12 @@ public class AMConnectionDelegate {
 
 		long status = 0;
 
-		CharBuffer buffer = CharBuffer.allocate(dateAsStr.getBufferLength());
+		Pointer buffer = outputBuffer(dateAsStr.getBufferLength());
 
 		status = amLibrary.AmConvertDateUnixToStringW(connection, new NativeLong(dateAsUnix), buffer,
 				new NativeLong(dateAsStr.getBufferLength())).longValue();
 
-		dateAsStr.fromString(Native.toString(buffer.array()));
+		readOutput(dateAsStr);
 
 		return status;
 	}
@@ -156,12 +232,12 @@ public class AMConnectionDelegate {
 
 		long status = 0;
 
-		CharBuffer buffer = CharBuffer.allocate(dblAsString.getBufferLength());
+		Pointer buffer = outputBuffer(dblAsString.getBufferLength());
 
 		status = amLibrary.AmConvertDoubleToStringW(dSrc, buffer, new NativeLong(dblAsString.getBufferLength()))
 				.longValue();
 
-		dblAsString.fromString(Native.toString(buffer.array()));
+		readOutput(dblAsString);
 
 		return status;
 	}
@@ -170,13 +246,13 @@ public class AMConnectionDelegate {
 
 		long status = 0;
 
-		CharBuffer buffer = CharBuffer.allocate(dblAsString.getBufferLength());
+		Pointer buffer = outputBuffer(dblAsString.getBufferLength());
 
 		status = amLibrary
 				.AmConvertMonetaryToStringW(dMonetarySrc, buffer, new NativeLong(dblAsString.getBufferLength()))
 				.longValue();
 
-		dblAsString.fromString(Native.toString(buffer.array()));
+		readOutput(dblAsString);
 
 		return status;
 	}
@@ -194,14 +270,14 @@ public class AMConnectionDelegate {
 		checkInternalState();
 
 		return amLibrary
-				.AmCreateLinkW(handleAsPointer(srcRecHandle), new WString(linkName), handleAsPointer(srcDstHandle))
+				.AmCreateLinkW(handleAsPointer(srcRecHandle), wideName(linkName), handleAsPointer(srcDstHandle))
 				.longValue();
 	}
 
 	public AMHandle createRecord(String tblName) {
 		checkInternalState();
 
-		Pointer pointer = amLibrary.AmCreateRecordW(connection, new WString(tblName));
+		Pointer pointer = amLibrary.AmCreateRecordW(connection, wideName(tblName));
 
 		return registerHandle(pointer, AMHandleType.RECORD, "createRecord");
 	}
@@ -246,15 +322,15 @@ public class AMConnectionDelegate {
 			String idSeperator, long maxSize, long errorType) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(result.getBufferLength());
+		Pointer buffer = outputBuffer(result.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary.AmDbGetLimitedListW(connection, new WString(aqlQuery), buffer,
-				new NativeLong(result.getBufferLength()), new WString(colSeperator), new WString(lineSeperator),
-				new WString(idSeperator), new NativeLong(maxSize), new NativeLong(errorType)).longValue();
+				new NativeLong(result.getBufferLength()), wideName(colSeperator), wideName(lineSeperator),
+				wideName(idSeperator), new NativeLong(maxSize), new NativeLong(errorType)).longValue();
 
-		result.fromString(Native.toString(buffer.array()));
+		readOutput(result);
 
 		return status;
 	}
@@ -263,16 +339,16 @@ public class AMConnectionDelegate {
 			String idSeperator) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(result.getBufferLength());
+		Pointer buffer = outputBuffer(result.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary
 				.AmDbGetListW(connection, new WString(aqlQuery), buffer, new NativeLong(result.getBufferLength()),
-						new WString(colSeperator), new WString(lineSeperator), new WString(idSeperator))
+						wideName(colSeperator), wideName(lineSeperator), wideName(idSeperator))
 				.longValue();
 
-		result.fromString(Native.toString(buffer.array()));
+		readOutput(result);
 
 		return status;
 	}
@@ -281,16 +357,16 @@ public class AMConnectionDelegate {
 			String idSeperator) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(result.getBufferLength());
+		Pointer buffer = outputBuffer(result.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary
 				.AmDbGetListExW(connection, new WString(aqlQuery), buffer, new NativeLong(result.getBufferLength()),
-						new WString(colSeperator), new WString(lineSeperator), new WString(idSeperator))
+						wideName(colSeperator), wideName(lineSeperator), wideName(idSeperator))
 				.longValue();
 
-		result.fromString(Native.toString(buffer.array()));
+		readOutput(result);
 
 		return status;
 	}
@@ -302,21 +378,21 @@ public class AMConnectionDelegate {
 
 	public long dbGetPk(String tableName, String whereClause) {
 		checkInternalState();
-		return amLibrary.AmDbGetPkW(connection, new WString(tableName), new WString(whereClause)).longValue();
+		return amLibrary.AmDbGetPkW(connection, wideName(tableName), new WString(whereClause)).longValue();
 	}
 
 	public long dbGetString(String query, AMString result, String colSeperator, String lineSeperator) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(result.getBufferLength());
+		Pointer buffer = outputBuffer(result.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary.AmDbGetStringW(connection, new WString(query), buffer,
-				new NativeLong(result.getBufferLength()), new WString(colSeperator), new WString(lineSeperator))
+				new NativeLong(result.getBufferLength()), wideName(colSeperator), wideName(lineSeperator))
 				.longValue();
 
-		result.fromString(Native.toString(buffer.array()));
+		readOutput(result);
 
 		return status;
 	}
@@ -324,15 +400,15 @@ public class AMConnectionDelegate {
 	public long dbGetStringEx(String query, AMString result, String colSeperator, String lineSeperator) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(result.getBufferLength());
+		Pointer buffer = outputBuffer(result.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary.AmDbGetStringExW(connection, new WString(query), buffer,
-				new NativeLong(result.getBufferLength()), new WString(colSeperator), new WString(lineSeperator))
+				new NativeLong(result.getBufferLength()), wideName(colSeperator), wideName(lineSeperator))
 				.longValue();
 
-		result.fromString(Native.toString(buffer.array()));
+		readOutput(result);
 
 		return status;
 	}
@@ -341,7 +417,7 @@ public class AMConnectionDelegate {
 		checkInternalState();
 
 		return amLibrary
-				.AmDeleteLinkW(handleAsPointer(srcRecHandle), new WString(linkName), handleAsPointer(srcDstHandle))
+				.AmDeleteLinkW(handleAsPointer(srcRecHandle), wideName(linkName), handleAsPointer(srcDstHandle))
 				.longValue();
 	}
 
@@ -361,15 +437,15 @@ public class AMConnectionDelegate {
 	public long enumValList(String enumName, AMString value, long caseSensitive, String lineSeperator) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(value.getBufferLength());
+		Pointer buffer = outputBuffer(value.getBufferLength());
 
 		long status = 0;
 
-		status = amLibrary.AmEnumValListW(connection, new WString(enumName), buffer,
-				new NativeLong(value.getBufferLength()), new NativeLong(caseSensitive), new WString(lineSeperator))
+		status = amLibrary.AmEnumValListW(connection, wideName(enumName), buffer,
+				new NativeLong(value.getBufferLength()), new NativeLong(caseSensitive), wideName(lineSeperator))
 				.longValue();
 
-		value.fromString(Native.toString(buffer.array()));
+		readOutput(value);
 
 		return status;
 	}
@@ -391,7 +467,7 @@ public class AMConnectionDelegate {
 	public AMHandle executeActionById(long actionId, String tableName, long recordId) {
 		checkInternalState();
 
-		Pointer pointer = amLibrary.AmExecuteActionByIdW(connection, new NativeLong(actionId), new WString(tableName),
+		Pointer pointer = amLibrary.AmExecuteActionByIdW(connection, new NativeLong(actionId), wideName(tableName),
 				new NativeLong(recordId));
 
 		return registerHandle(pointer, AMHandleType.ACTION, "executeActionById");
@@ -400,17 +476,151 @@ public class AMConnectionDelegate {
 	public AMHandle executeActionByName(String sqlName, String tableName, long recordId) {
 		checkInternalState();
 
-		Pointer pointer = amLibrary.AmExecuteActionByNameW(connection, new WString(sqlName), new WString(tableName),
+		Pointer pointer = amLibrary.AmExecuteActionByNameW(connection, wideName(sqlName), wideName(tableName),
 				new NativeLong(recordId));
 
 		return registerHandle(pointer, AMHandleType.ACTION, "executeActionByName");
 	}
 
+	/**
+	 * Runs the operations in order, placeholder handles are replaced by the handle
+	 * produced by the operation they point to.
+	 */
+	public List<Object> executeBatch(List<BatchOperation> operations) {
+		List<Object> results = new ArrayList<>(operations.size());
+
+		for (BatchOperation operation : operations) {
+			results.add(executeBatchOperation(operation, results));
+		}
+
+		return results;
+	}
+
+	private Object executeBatchOperation(BatchOperation op, List<Object> results) {
+
+		switch (op.getOpCode()) {
+		case CLEAR_LAST_ERROR:
+			return clearLastError();
+		case COMMIT:
+			return commit();
+		case CREATE_LINK:
+			return createLink(batchHandle(op.getArgument(0), results), (String) op.getArgument(1),
+					batchHandle(op.getArgument(2), results));
+		case CREATE_RECORD:
+			return createRecord((String) op.getArgument(0));
+		case DB_EXEC_AQL:
+			return dbExecAql((String) op.getArgument(0));
+		case DB_GET_DOUBLE:
+			return dbGetDouble((String) op.getArgument(0));
+		case DB_GET_LONG:
+			return dbGetLong((String) op.getArgument(0));
+		case DB_GET_PK:
+			return dbGetPk((String) op.getArgument(0), (String) op.getArgument(1));
+		case DB_GET_STRING: {
+			AMString result = AMString.create((Integer) op.getArgument(1));
+			return new ReturnWithString(dbGetString((String) op.getArgument(0), result, (String) op.getArgument(2),
+					(String) op.getArgument(3)), result);
+		}
+		case DELETE_LINK:
+			return deleteLink(batchHandle(op.getArgument(0), results), (String) op.getArgument(1),
+					batchHandle(op.getArgument(2), results));
+		case DELETE_RECORD:
+			return deleteRecord(batchHandle(op.getArgument(0), results));
+		case GET_FIELD_COUNT:
+			return getFieldCount(batchHandle(op.getArgument(0), results));
+		case GET_FIELD_DATE_ONLY_VALUE:
+			return getFieldDateOnlyValue(batchHandle(op.getArgument(0), results), (Long) op.getArgument(1));
+		case GET_FIELD_DATE_VALUE:
+			return getFieldDateValue(batchHandle(op.getArgument(0), results), (Long) op.getArgument(1));
+		case GET_FIELD_DOUBLE_VALUE:
+			return getFieldDoubleValue(batchHandle(op.getArgument(0), results), (Long) op.getArgument(1));
+		case GET_FIELD_FROM_NAME:
+			return getFieldFromName(batchHandle(op.getArgument(0), results), (String) op.getArgument(1));
+		case GET_FIELD_LONG_VALUE:
+			return getFieldLongValue(batchHandle(op.getArgument(0), results), (Long) op.getArgument(1));
+		case GET_FIELD_STR_VALUE: {
+			AMString target = AMString.create((Integer) op.getArgument(2));
+			return new ReturnWithString(
+					getFieldStrValue(batchHandle(op.getArgument(0), results), (Long) op.getArgument(1), target),
+					target);
+		}
+		case GET_RECORD_FROM_MAIN_ID:
+			return getRecordFromMainId((String) op.getArgument(0), (Long) op.getArgument(1));
+		case GET_RECORD_HANDLE:
+			return getRecordHandle(batchHandle(op.getArgument(0), results));
+		case GET_RECORD_ID:
+			return getRecordId(batchHandle(op.getArgument(0), results));
+		case INSERT_RECORD:
+			return insertRecord(batchHandle(op.getArgument(0), results));
+		case LAST_ERROR:
+			return lastError();
+		case LAST_ERROR_MSG: {
+			AMString errorMessage = AMString.create((Integer) op.getArgument(0));
+			return new ReturnWithString(lastErrorMsg(errorMessage), errorMessage);
+		}
+		case QUERY_CREATE:
+			return queryCreate();
+		case QUERY_EXEC:
+			return queryExec(batchHandle(op.getArgument(0), results), (String) op.getArgument(1));
+		case QUERY_GET:
+			return queryGet(batchHandle(op.getArgument(0), results), (String) op.getArgument(1));
+		case QUERY_NEXT:
+			return queryNext(batchHandle(op.getArgument(0), results));
+		case QUERY_STOP:
+			return queryStop(batchHandle(op.getArgument(0), results));
+		case RELEASE_HANDLE:
+			return releaseHandle(batchHandle(op.getArgument(0), results));
+		case ROLLBACK:
+			return rollBack();
+		case SET_FIELD_DATE_ONLY_VALUE:
+			return setFieldDateOnlyValue(batchHandle(op.getArgument(0), results), (String) op.getArgument(1),
+					(AMDate) op.getArgument(2));
+		case SET_FIELD_DATE_VALUE:
+			return setFieldDateValue(batchHandle(op.getArgument(0), results), (String) op.getArgument(1),
+					(AMDate) op.getArgument(2));
+		case SET_FIELD_DOUBLE_VALUE:
+			return setFieldDoubleValue(batchHandle(op.getArgument(0), results), (String) op.getArgument(1),
+					(Double) op.getArgument(2));
+		case SET_FIELD_LONG_VALUE:
+			return setFieldLongValue(batchHandle(op.getArgument(0), results), (String) op.getArgument(1),
+					(Long) op.getArgument(2));
+		case SET_FIELD_STR_VALUE:
+			return setFieldStrValue(batchHandle(op.getArgument(0), results), (String) op.getArgument(1),
+					(String) op.getArgument(2));
+		case START_TRANSACTION:
+			return startTransaction();
+		case UPDATE_RECORD:
+			return updateRecord(batchHandle(op.getArgument(0), results));
+		default:
+			throw new IllegalArgumentException(
+					String.format(NLS.ERRORS.getString("batch.operation.unsupported"), op.getOpCode()));
+		}
+	}
+
+	private AMHandle batchHandle(Object argument, List<Object> results) {
+		if (argument instanceof AMBatchHandle) {
+			int index = ((AMBatchHandle) argument).getIndex();
+
+			if (index < 0 || index >= results.size() || !(results.get(index) instanceof AMHandle)) {
+				throw new IllegalArgumentException(NLS.ERRORS.getString("batch.placeholder.invalid"));
+			}
+
+			return (AMHandle) results.get(index);
+		}
+		return (AMHandle) argument;
+	}
+
 	public long exportDocument(long documentId, String fileName) {
 		checkInternalState();
 		return amLibrary.AmExportDocumentW(connection, new NativeLong(documentId), new WString(fileName)).longValue();
 	}
 
+	public RowChunk fetchRows(AMHandle cursor, List<AMColumn> columns, int fetchSize) {
+		checkInternalState();
+
+		return readRows(cursor, columns, fetchSize, false);
+	}
+
 	public long flushTransaction() {
 		checkInternalState();
 		return amLibrary.AmFlushTransactionW(connection).longValue();
@@ -419,7 +629,7 @@ public class AMConnectionDelegate {
 	public long formatCurrency(double amount, String currency, AMString result) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(result.getBufferLength());
+		Pointer buffer = outputBuffer(result.getBufferLength());
 
 		long status = 0;
 
@@ -427,7 +637,7 @@ public class AMConnectionDelegate {
 				.AmFormatCurrencyW(amount, new WString(currency), buffer, new NativeLong(result.getBufferLength()))
 				.longValue();
 
-		result.fromString(Native.toString(buffer.array()));
+		readOutput(result);
 
 		return status;
 	}
@@ -435,14 +645,14 @@ public class AMConnectionDelegate {
 	public long formatLong(long number, String format, AMString result) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(result.getBufferLength());
+		Pointer buffer = outputBuffer(result.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary.AmFormatLongW(connection, new NativeLong(number), new WString(format), buffer,
 				new NativeLong(result.getBufferLength())).longValue();
 
-		result.fromString(Native.toString(buffer.array()));
+		readOutput(result);
 
 		return status;
 	}
@@ -450,14 +660,14 @@ public class AMConnectionDelegate {
 	public long getComputeString(String tableName, long recordId, String template, AMString result) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(result.getBufferLength());
+		Pointer buffer = outputBuffer(result.getBufferLength());
 
 		long status = 0;
 
-		status = amLibrary.AmGetComputeStringW(connection, new WString(tableName), new NativeLong(recordId), template,
+		status = amLibrary.AmGetComputeStringW(connection, wideName(tableName), new NativeLong(recordId), template,
 				buffer, new NativeLong(result.getBufferLength())).longValue();
 
-		result.fromString(Native.toString(buffer.array()));
+		readOutput(result);
 
 		return status;
 	}
@@ -491,7 +701,7 @@ public class AMConnectionDelegate {
 	public long getFieldDescription(AMHandle fieldHandle, AMString target) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(target.getBufferLength());
+		Pointer buffer = outputBuffer(target.getBufferLength());
 
 		long status = 0;
 
@@ -499,7 +709,7 @@ public class AMConnectionDelegate {
 				.AmGetFieldDescriptionW(handleAsPointer(fieldHandle), buffer, new NativeLong(target.getBufferLength()))
 				.longValue();
 
-		target.fromString(Native.toString(buffer.array()));
+		readOutput(target);
 
 		return status;
 
@@ -514,7 +724,7 @@ public class AMConnectionDelegate {
 	public long getFieldFormat(AMHandle fldHandle, AMString target) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(target.getBufferLength());
+		Pointer buffer = outputBuffer(target.getBufferLength());
 
 		long status = 0;
 
@@ -522,7 +732,7 @@ public class AMConnectionDelegate {
 				.AmGetFieldFormatW(handleAsPointer(fldHandle), buffer, new NativeLong(target.getBufferLength()))
 				.longValue();
 
-		target.fromString(Native.toString(buffer.array()));
+		readOutput(target);
 
 		return status;
 	}
@@ -530,14 +740,14 @@ public class AMConnectionDelegate {
 	public long getFieldFormatFromName(String tblName, String fldName, AMString result) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(result.getBufferLength());
+		Pointer buffer = outputBuffer(result.getBufferLength());
 
 		long status = 0;
 
-		status = amLibrary.AmGetFieldFormatFromNameW(connection, new WString(tblName), new WString(fldName), buffer,
+		status = amLibrary.AmGetFieldFormatFromNameW(connection, wideName(tblName), wideName(fldName), buffer,
 				new NativeLong(result.getBufferLength())).longValue();
 
-		result.fromString(Native.toString(buffer.array()));
+		readOutput(result);
 
 		return status;
 	}
@@ -545,14 +755,14 @@ public class AMConnectionDelegate {
 	public AMHandle getFieldFromName(AMHandle objHandle, String fldName) {
 		checkInternalState();
 
-		return registerHandle(amLibrary.AmGetFieldFromName(handleAsPointer(objHandle), fldName), AMHandleType.FIELD,
-				"getFieldFromName");
+		return registerHandle(amLibrary.AmGetFieldFromName(handleAsPointer(objHandle), narrowName(fldName)),
+				AMHandleType.FIELD, "getFieldFromName");
 	}
 
 	public long getFieldLabel(AMHandle fldHandle, AMString result) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(result.getBufferLength());
+		Pointer buffer = outputBuffer(result.getBufferLength());
 
 		long status = 0;
 
@@ -560,7 +770,7 @@ public class AMConnectionDelegate {
 				.AmGetFieldLabelW(handleAsPointer(fldHandle), buffer, new NativeLong(result.getBufferLength()))
 				.longValue();
 
-		result.fromString(Native.toString(buffer.array()));
+		readOutput(result);
 
 		return status;
 
@@ -569,14 +779,14 @@ public class AMConnectionDelegate {
 	public long getFieldLabelFromName(String tableName, String fieldName, AMString fieldLabel) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(fieldLabel.getBufferLength());
+		Pointer buffer = outputBuffer(fieldLabel.getBufferLength());
 
 		long status = 0;
 
-		status = amLibrary.AmGetFieldLabelFromNameW(connection, new WString(tableName), new WString(fieldName), buffer,
+		status = amLibrary.AmGetFieldLabelFromNameW(connection, wideName(tableName), wideName(fieldName), buffer,
 				new NativeLong(fieldLabel.getBufferLength())).longValue();
 
-		fieldLabel.fromString(Native.toString(buffer.array()));
+		readOutput(fieldLabel);
 
 		return status;
 	}
@@ -591,14 +801,14 @@ public class AMConnectionDelegate {
 	public long getFieldName(AMHandle objHandle, long fldPosition, AMString fieldName) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(fieldName.getBufferLength());
+		Pointer buffer = outputBuffer(fieldName.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary.AmGetFieldNameW(handleAsPointer(objHandle), new NativeLong(fldPosition), buffer,
 				new NativeLong(fieldName.getBufferLength())).longValue();
 
-		fieldName.fromString(Native.toString(buffer.array()));
+		readOutput(fieldName);
 
 		return status;
 
@@ -613,7 +823,7 @@ public class AMConnectionDelegate {
 	public long getFieldSqlName(AMHandle fldHandle, AMString fieldSQLName) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(fieldSQLName.getBufferLength());
+		Pointer buffer = outputBuffer(fieldSQLName.getBufferLength());
 
 		long status = 0;
 
@@ -621,7 +831,7 @@ public class AMConnectionDelegate {
 				.AmGetFieldSqlNameW(handleAsPointer(fldHandle), buffer, new NativeLong(fieldSQLName.getBufferLength()))
 				.longValue();
 
-		fieldSQLName.fromString(Native.toString(buffer.array()));
+		readOutput(fieldSQLName);
 
 		return status;
 	}
@@ -633,12 +843,12 @@ public class AMConnectionDelegate {
 
 		long status = 0;
 
-		CharBuffer buffer = CharBuffer.allocate(target.getBufferLength());
+		Pointer buffer = outputBuffer(target.getBufferLength());
 
 		status = amLibrary.AmGetFieldStrValueW(handleAsPointer(queryHandle), new NativeLong(position), buffer,
 				new NativeLong(target.getBufferLength())).longValue();
 
-		target.fromString(Native.toString(buffer.array()));
+		readOutput(target);
 
 		return status;
 
@@ -660,7 +870,7 @@ public class AMConnectionDelegate {
 
 		checkInternalState();
 
-		return registerHandle(amLibrary.AmGetRecordFromMainIdW(connection, new WString(tableName), new NativeLong(id)),
+		return registerHandle(amLibrary.AmGetRecordFromMainIdW(connection, wideName(tableName), new NativeLong(id)),
 				AMHandleType.RECORD, "getRecordFromMainId");
 
 	}
@@ -711,14 +921,14 @@ public class AMConnectionDelegate {
 	public long getSelfFromMainId(String tableName, long recordId, AMString recordDescription) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(recordDescription.getBufferLength());
+		Pointer buffer = outputBuffer(recordDescription.getBufferLength());
 
 		long status = 0;
 
-		status = amLibrary.AmGetSelfFromMainIdW(connection, new WString(tableName), new NativeLong(recordId), buffer,
+		status = amLibrary.AmGetSelfFromMainIdW(connection, wideName(tableName), new NativeLong(recordId), buffer,
 				new NativeLong(recordDescription.getBufferLength())).longValue();
 
-		recordDescription.fromString(Native.toString(buffer.array()));
+		readOutput(recordDescription);
 
 		return status;
 	}
@@ -726,28 +936,19 @@ public class AMConnectionDelegate {
 	public long getVersion(AMString amVersion) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(amVersion.getBufferLength());
+		Pointer buffer = outputBuffer(amVersion.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary.AmGetVersionW(buffer, new NativeLong(amVersion.getBufferLength())).longValue();
 
-		amVersion.fromString(Native.toString(buffer.array()));
+		readOutput(amVersion);
 
 		return status;
 	}
 
 	private Pointer handleAsPointer(AMHandle handle) {
-
-		Pointer pointer = Pointer.NULL;
-
-		HandleMetaData mHandle = handleMap.get(handle);
-
-		if (mHandle != null) {
-			pointer = mHandle.getPointer();
-		}
-
-		return pointer;
+		return handleTable.getPointer(handle);
 	}
 
 	public int hashCode() {
@@ -757,7 +958,7 @@ public class AMConnectionDelegate {
 
 	public long importDocument(long docId, String tableName, String fileName, String category, String designation) {
 		checkInternalState();
-		return amLibrary.AmImportDocumentW(connection, new NativeLong(docId), new WString(tableName),
+		return amLibrary.AmImportDocumentW(connection, new NativeLong(docId), wideName(tableName),
 				new WString(fileName), new WString(category), new WString(designation)).longValue();
 	}
 
@@ -778,28 +979,28 @@ public class AMConnectionDelegate {
 
 	public long lastErrorMsg(AMString errorMessage) {
 
-		CharBuffer buffer = CharBuffer.allocate(errorMessage.getBufferLength());
+		Pointer buffer = outputBuffer(errorMessage.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary.AmLastErrorMsgW(connection, buffer, new NativeLong(errorMessage.getBufferLength()))
 				.longValue();
 
-		errorMessage.fromString(Native.toString(buffer.array()));
+		readOutput(errorMessage);
 
 		return status;
 	}
 
 	public long listToString(AMString target, String source, String colSep, String lineSep, String idSep) {
 
-		CharBuffer buffer = CharBuffer.allocate(target.getBufferLength());
+		Pointer buffer = outputBuffer(target.getBufferLength());
 
 		long status = 0;
 
-		status = amLibrary.AmListToStringW(new WString(source), new WString(colSep), new WString(lineSep),
-				new WString(idSep), buffer, new NativeLong(target.getBufferLength())).longValue();
+		status = amLibrary.AmListToStringW(new WString(source), wideName(colSep), wideName(lineSep),
+				wideName(idSep), buffer, new NativeLong(target.getBufferLength())).longValue();
 
-		target.fromString(Native.toString(buffer.array()));
+		readOutput(target);
 
 		return status;
 	}
@@ -812,13 +1013,13 @@ public class AMConnectionDelegate {
 	public long loginName(AMString loginName) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(loginName.getBufferLength());
+		Pointer buffer = outputBuffer(loginName.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary.AmLoginNameW(connection, buffer, new NativeLong(loginName.getBufferLength())).longValue();
 
-		loginName.fromString(Native.toString(buffer.array()));
+		readOutput(loginName);
 
 		return status;
 	}
@@ -836,11 +1037,11 @@ public class AMConnectionDelegate {
 
 				AMString errorMessage = AMString.create(255);
 
-				CharBuffer buffer = CharBuffer.allocate(errorMessage.getBufferLength());
+				Pointer buffer = outputBuffer(errorMessage.getBufferLength());
 
 				amLibrary.AmLastErrorMsgW(connection, buffer, new NativeLong(errorMessage.getBufferLength()));
 
-				errorMessage.fromString(Native.toString(buffer.array()));
+				readOutput(errorMessage);
 
 				throw new AMConnectionException(String.format(NLS.ERRORS.getString("login.failure"), database, username,
 						errorMessage.toString()));
@@ -857,7 +1058,23 @@ public class AMConnectionDelegate {
 			throw new AMConnectionException(NLS.ERRORS.getString("connection.success.notconnected"));
 		}
 
-		return new AMHandleImpl(Integer.toString(connection.hashCode()), AMHandleType.CONNECTION, "openConnection");
+		return new AMHandleImpl(0L, AMHandleType.CONNECTION, "openConnection");
+	}
+
+	/**
+	 * Executes the query and reads its first chunk, the cursor stays positioned on
+	 * the last row read so the next chunk starts with a queryNext.
+	 */
+	public RowChunk openCursor(String aqlQuery, List<AMColumn> columns, int fetchSize) {
+		checkInternalState();
+
+		AMHandle cursor = queryCreate();
+
+		if (queryExec(cursor, aqlQuery) != 0) {
+			return new RowChunk(cursor, new ArrayList<>(0), true);
+		}
+
+		return readRows(cursor, columns, fetchSize, true);
 	}
 
 	public long purgeRecord(AMHandle recHandle) {
@@ -925,6 +1142,56 @@ public class AMConnectionDelegate {
 		return amLibrary.AmQueryStopW(handleAsPointer(qryHandle)).longValue();
 	}
 
+	private AMRow readRow(AMHandle cursor, List<AMColumn> columns) {
+
+		Object[] values = new Object[columns.size()];
+
+		for (int position = 0; position < values.length; position++) {
+
+			AMColumn column = columns.get(position);
+
+			switch (column.getColumnType()) {
+			case LONG:
+				values[position] = getFieldLongValue(cursor, position);
+				break;
+			case DOUBLE:
+				values[position] = getFieldDoubleValue(cursor, position);
+				break;
+			case DATE:
+				values[position] = getFieldDateValue(cursor, position);
+				break;
+			case STRING:
+				AMString value = AMString.create(column.getBufferLength());
+				getFieldStrValue(cursor, position, value);
+				values[position] = value.toString();
+				break;
+			}
+		}
+
+		return new AMRow(values);
+	}
+
+	private RowChunk readRows(AMHandle cursor, List<AMColumn> columns, int fetchSize, boolean positioned) {
+
+		List<AMRow> rows = new ArrayList<>(fetchSize);
+
+		boolean exhausted = false;
+
+		while (rows.size() < fetchSize) {
+
+			if (!positioned && queryNext(cursor) != 0) {
+				exhausted = true;
+				break;
+			}
+
+			positioned = false;
+
+			rows.add(readRow(cursor, columns));
+		}
+
+		return new RowChunk(cursor, rows, exhausted);
+	}
+
 	public long refreshAllCaches() {
 
 		checkInternalState();
@@ -942,13 +1209,7 @@ public class AMConnectionDelegate {
 		AMHandle handle = AMHandle.NULL;
 
 		if (pointer != Pointer.NULL) {
-
-			handle = new AMHandleImpl(Integer.toString(pointer.hashCode()), handleType, functionSource);
-
-			if (!handleMap.containsKey(handle)) {
-				handleMap.put(handle, new HandleMetaData(pointer));
-			}
-
+			handle = handleTable.register(pointer, handleType, functionSource);
 		}
 
 		return handle;
@@ -963,9 +1224,9 @@ public class AMConnectionDelegate {
 
 		if (handle != AMHandle.NULL) {
 
-			HandleMetaData mHandle = handleMap.remove(handle);
+			Pointer pointer = handleTable.remove(handle);
 
-			if (mHandle != null) {
+			if (pointer != null) {
 
 				AMHandleType handleType = ((AMHandleImpl) handle).getHandleType();
 
@@ -976,7 +1237,7 @@ public class AMConnectionDelegate {
 				 */
 				case QUERY:
 				case RECORD:
-					status = amLibrary.AmReleaseHandleW(mHandle.getPointer()).longValue();
+					status = amLibrary.AmReleaseHandleW(pointer).longValue();
 					break;
 				default:
 					status = 1L;
@@ -990,6 +1251,27 @@ public class AMConnectionDelegate {
 
 	}
 
+	/**
+	 * Releases every registered handle and clears the last error, the work of
+	 * handing the connection to its next user.
+	 *
+	 * @return number of handles that were still registered
+	 */
+	public long resetSession() {
+
+		checkInternalState();
+
+		List<AMHandle> handles = handleTable.getHandles();
+
+		for (AMHandle handle : handles) {
+			releaseHandle(handle);
+		}
+
+		amLibrary.AmClearLastErrorW(connection);
+
+		return handles.size();
+	}
+
 	public long rollBack() {
 		return amLibrary.AmRollbackW(connection).longValue();
 	}
@@ -997,34 +1279,34 @@ public class AMConnectionDelegate {
 	public long setFieldDateOnlyValue(AMHandle recHandle, String fieldName, AMDate dateOnlyValue) {
 		checkInternalState();
 
-		return amLibrary.AmSetFieldDateOnlyValueW(handleAsPointer(recHandle), new WString(fieldName),
+		return amLibrary.AmSetFieldDateOnlyValueW(handleAsPointer(recHandle), wideName(fieldName),
 				new NativeLong(dateOnlyValue.getValue())).longValue();
 	}
 
 	public long setFieldDateValue(AMHandle recHandle, String fieldName, AMDate dateTimeValue) {
 		checkInternalState();
 
-		return amLibrary.AmSetFieldDateValueW(handleAsPointer(recHandle), new WString(fieldName),
+		return amLibrary.AmSetFieldDateValueW(handleAsPointer(recHandle), wideName(fieldName),
 				new NativeLong(dateTimeValue.getValue())).longValue();
 	}
 
 	public long setFieldDoubleValue(AMHandle recHandle, String fieldName, double value) {
 		checkInternalState();
 
-		return amLibrary.AmSetFieldDoubleValueW(handleAsPointer(recHandle), new WString(fieldName), value).longValue();
+		return amLibrary.AmSetFieldDoubleValueW(handleAsPointer(recHandle), wideName(fieldName), value).longValue();
 	}
 
 	public long setFieldLongValue(AMHandle recHandle, String fieldName, long value) {
 		checkInternalState();
 
-		return amLibrary.AmSetFieldLongValueW(handleAsPointer(recHandle), new WString(fieldName), new NativeLong(value))
+		return amLibrary.AmSetFieldLongValueW(handleAsPointer(recHandle), wideName(fieldName), new NativeLong(value))
 				.longValue();
 	}
 
 	public long setFieldStrValue(AMHandle recHandle, String fieldName, String value) {
 		checkInternalState();
 
-		return amLibrary.AmSetFieldStrValueW(handleAsPointer(recHandle), new WString(fieldName), new WString(value))
+		return amLibrary.AmSetFieldStrValueW(handleAsPointer(recHandle), wideName(fieldName), new WString(value))
 				.longValue();
 	}
 
@@ -1035,21 +1317,21 @@ public class AMConnectionDelegate {
 		amLibrary = null;
 		connection = null;
 
-		handleMap.clear();
+		handleTable.clear();
 
 	}
 
 	public long sqlTextConst(String aqlQuery, AMString target) {
 		checkInternalState();
 
-		CharBuffer buffer = CharBuffer.allocate(target.getBufferLength());
+		Pointer buffer = outputBuffer(target.getBufferLength());
 
 		long status = 0;
 
 		status = amLibrary.AmSqlTextConstW(new WString(aqlQuery), buffer, new NativeLong(target.getBufferLength()))
 				.longValue();
 
-		target.fromString(Native.toString(buffer.array()));
+		readOutput(target);
 
 		return status;
 	}
@@ -1073,7 +1355,7 @@ public class AMConnectionDelegate {
 	}
 
 	public List<AMHandle> getHandleKeys() {
-		return new ArrayList<>(handleMap.keySet());
+		return handleTable.getHandles();
 	}
 
 }
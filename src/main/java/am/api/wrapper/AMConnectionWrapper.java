@@ -16,12 +16,20 @@
  */
 package am.api.wrapper;
 
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
+import am.api.AMBatch;
 import am.api.AMConnection;
+import am.api.AMCursor;
 import am.api.AMHandle;
+import am.api.AsyncAMConnection;
+import am.api.model.AMColumn;
 import am.api.model.AMDate;
 import am.api.model.AMString;
 import am.api.osgi.XAAMConnectionEnlistingWrapper;
@@ -29,9 +37,24 @@ import am.api.util.NLS;
 
 public final class AMConnectionWrapper implements AMConnection {
 
-	private boolean closed;
+	/**
+	 * Stands in for the connection once this wrapper returned it to the pool.
+	 */
+	private final static AMConnection CLOSED = sentinel("CLOSED", "connection.closed");
+
+	private final static AtomicReferenceFieldUpdater<AMConnectionWrapper, AMConnection> CONNECTION =
+			AtomicReferenceFieldUpdater.newUpdater(AMConnectionWrapper.class, AMConnection.class, "connection");
+
+	/**
+	 * Stands in for a connection taken back by the {@link LeakDetector}.
+	 */
+	private final static AMConnection RECLAIMED = sentinel("RECLAIMED", "connection.reclaimed");
+
+	private final WriteBehindBuffer buffer;
 
-	private AMConnection connection;
+	private volatile boolean closed;
+
+	private volatile AMConnection connection;
 
 	private final XAAMConnectionEnlistingWrapper connectionFactory;
 
@@ -41,28 +64,59 @@ public final class AMConnectionWrapper implements AMConnection {
 
 	public AMConnectionWrapper(AMConnection connection, boolean enlisted, Object key,
 			XAAMConnectionEnlistingWrapper connectionFactory) {
+		this(connection, enlisted, key, connectionFactory, null);
+	}
+
+	/**
+	 * @param buffer write-behind buffer of the transaction, null to send every
+	 *               call right away
+	 */
+	public AMConnectionWrapper(AMConnection connection, boolean enlisted, Object key,
+			XAAMConnectionEnlistingWrapper connectionFactory, WriteBehindBuffer buffer) {
 		super();
 		this.enlisted = enlisted;
 		this.connection = connection;
 		this.key = key;
 		this.connectionFactory = connectionFactory;
+		this.buffer = buffer;
+	}
+
+	private static AMConnection sentinel(String name, String errorKey) {
+		return (AMConnection) Proxy.newProxyInstance(AMConnection.class.getClassLoader(),
+				new Class<?>[] { AMConnection.class }, (proxy, method, args) -> {
+					if (method.getDeclaringClass() == Object.class) {
+						switch (method.getName()) {
+						case "equals":
+							return proxy == args[0];
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						default:
+							return name;
+						}
+					}
+					throw new IllegalStateException(NLS.ERRORS.getString(errorKey));
+				});
 	}
 
 	public long clearLastError() {
-		return connection.clearLastError();
+		return target().clearLastError();
 	}
 
+	/**
+	 * Returns a connection outside a transaction to the pool, at most once and
+	 * not at all after a {@link #reclaim()}.
+	 */
 	public void close() {
-		if (!closed) {
-			try {
-				if (!enlisted) {
-					connectionFactory.unregister(key);
-					connection.close();
-				}
-			} finally {
-				closed = true;
-			}
+		if (enlisted) {
+			closed = true;
+			return;
+		}
 
+		AMConnection current = release(CLOSED);
+
+		if (current != null) {
+			connectionFactory.unregister(key);
+			current.close();
 		}
 	}
 
@@ -74,135 +128,162 @@ public final class AMConnectionWrapper implements AMConnection {
 	}
 
 	public long connectionName(AMString connectionName) {
-		return connection.connectionName(connectionName);
+		return target().connectionName(connectionName);
 	}
 
 	public long convertDateBasicToUnix(long tmTime) {
-		return connection.convertDateBasicToUnix(tmTime);
+		return target().convertDateBasicToUnix(tmTime);
 	}
 
 	public long convertDateIntlToUnix(String dateAsString) {
-		return connection.convertDateIntlToUnix(dateAsString);
+		return target().convertDateIntlToUnix(dateAsString);
 	}
 
 	public long convertDateStringToUnix(String dateAsString) {
-		return connection.convertDateStringToUnix(dateAsString);
+		return target().convertDateStringToUnix(dateAsString);
 	}
 
 	public long convertDateUnixToBasic(long dateAsUnix) {
-		return connection.convertDateUnixToBasic(dateAsUnix);
+		return target().convertDateUnixToBasic(dateAsUnix);
 	}
 
 	public long convertDateUnixToIntl(long UnixDate, AMString dateAsIntlStr) {
-		return connection.convertDateUnixToIntl(UnixDate, dateAsIntlStr);
+		return target().convertDateUnixToIntl(UnixDate, dateAsIntlStr);
 	}
 
 	public long convertDateUnixToString(long dateAsUnix, AMString dateAsStr) {
-		return connection.convertDateUnixToString(dateAsUnix, dateAsStr);
+		return target().convertDateUnixToString(dateAsUnix, dateAsStr);
 	}
 
 	public long convertDoubleToString(double dSrc, AMString dblAsString) {
-		return connection.convertDoubleToString(dSrc, dblAsString);
+		return target().convertDoubleToString(dSrc, dblAsString);
 	}
 
 	public long convertMonetaryToString(double dMonetarySrc, AMString dblAsString) {
-		return connection.convertMonetaryToString(dMonetarySrc, dblAsString);
+		return target().convertMonetaryToString(dMonetarySrc, dblAsString);
 	}
 
 	public double convertStringToDouble(String dblAsString) {
-		return connection.convertStringToDouble(dblAsString);
+		return target().convertStringToDouble(dblAsString);
 	}
 
 	public double convertStringToMonetary(String monetaryAsString) {
-		return connection.convertStringToMonetary(monetaryAsString);
+		return target().convertStringToMonetary(monetaryAsString);
 	}
 
 	public long createLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		written();
+		if (buffer != null) {
+			return buffer.createLink(srcRecHandle, linkName, srcDstHandle);
+		}
 		return connection.createLink(srcRecHandle, linkName, srcDstHandle);
 	}
 
+	public AsyncAMConnection async() {
+		written();
+		return ((AbstractAsyncAMConnection) target().async()).bind(this, !enlisted);
+	}
+
+	public AMBatch createBatch() {
+		written();
+		return target().createBatch();
+	}
+
 	public AMHandle createRecord(String tblName) {
+		if (buffer != null) {
+			return buffer.createRecord(tblName);
+		}
 		return connection.createRecord(tblName);
 	}
 
 	public long currentDate() {
-		return connection.currentDate();
+		return target().currentDate();
 	}
 
 	public long currentServerDate() {
-		return connection.currentServerDate();
+		return target().currentServerDate();
 	}
 
 	public long dateAdd(long startAsUnixDate, long duration) {
-		return connection.dateAdd(startAsUnixDate, duration);
+		return target().dateAdd(startAsUnixDate, duration);
 	}
 
 	public long dateAddLogical(long startAsUnixDate, long duration) {
-		return connection.dateAddLogical(startAsUnixDate, duration);
+		return target().dateAddLogical(startAsUnixDate, duration);
 	}
 
 	public long dateDiff(long endAsUnixDate, long startAsUnixDate) {
-		return connection.dateDiff(endAsUnixDate, startAsUnixDate);
+		return target().dateDiff(endAsUnixDate, startAsUnixDate);
 	}
 
 	public long dbExecAql(String aqlQuery) {
-		return connection.dbExecAql(aqlQuery);
+		written();
+		return target().dbExecAql(aqlQuery);
 	}
 
 	public long dbGetDate(String aqlQuery) {
-		return connection.dbGetDate(aqlQuery);
+		return target().dbGetDate(aqlQuery);
 	}
 
 	public double dbGetDouble(String aqlQuery) {
-		return connection.dbGetDouble(aqlQuery);
+		return target().dbGetDouble(aqlQuery);
 	}
 
 	public long dbGetLimitedList(String aqlQuery, AMString result, String colSeparator, String lineSeparator,
 			String idSeperator, long maxSize, long errorType) {
-		return connection.dbGetLimitedList(aqlQuery, result, colSeparator, lineSeparator, idSeperator, maxSize,
+		return target().dbGetLimitedList(aqlQuery, result, colSeparator, lineSeparator, idSeperator, maxSize,
 				errorType);
 	}
 
 	public long dbGetList(String aqlQuery, AMString result, String colSeparator, String lineSeparator,
 			String idSeperator) {
-		return connection.dbGetList(aqlQuery, result, colSeparator, lineSeparator, idSeperator);
+		return target().dbGetList(aqlQuery, result, colSeparator, lineSeparator, idSeperator);
 	}
 
 	public long dbGetListEx(String aqlQuery, AMString result, String colSeparator, String lineSeparator,
 			String idSeperator) {
-		return connection.dbGetListEx(aqlQuery, result, colSeparator, lineSeparator, idSeperator);
+		return target().dbGetListEx(aqlQuery, result, colSeparator, lineSeparator, idSeperator);
 	}
 
 	public long dbGetLong(String aqlQuery) {
-		return connection.dbGetLong(aqlQuery);
+		return target().dbGetLong(aqlQuery);
 	}
 
 	public long dbGetPk(String tableName, String whereClause) {
-		return connection.dbGetPk(tableName, whereClause);
+		return target().dbGetPk(tableName, whereClause);
 	}
 
 	public long dbGetString(String query, AMString result, String colSeparator, String lineSeparator) {
-		return connection.dbGetString(query, result, colSeparator, lineSeparator);
+		return target().dbGetString(query, result, colSeparator, lineSeparator);
 	}
 
 	public long dbGetStringEx(String query, AMString result, String colSeparator, String lineSeparator) {
-		return connection.dbGetStringEx(query, result, colSeparator, lineSeparator);
+		return target().dbGetStringEx(query, result, colSeparator, lineSeparator);
 	}
 
 	public long deleteLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		written();
+		if (buffer != null) {
+			return buffer.deleteLink(srcRecHandle, linkName, srcDstHandle);
+		}
 		return connection.deleteLink(srcRecHandle, linkName, srcDstHandle);
 	}
 
 	public long deleteRecord(AMHandle recordHandle) {
+		written();
+		if (buffer != null) {
+			return buffer.deleteRecord(recordHandle);
+		}
 		return connection.deleteRecord(recordHandle);
 	}
 
 	public long duplicateRecord(AMHandle recordHandle, long insert) {
-		return connection.duplicateRecord(recordHandle, insert);
+		written();
+		return target().duplicateRecord(resolve(recordHandle), insert);
 	}
 
 	public long enumValList(String enumName, AMString value, long caseSensitive, String lineSeparator) {
-		return connection.enumValList(enumName, value, caseSensitive, lineSeparator);
+		return target().enumValList(enumName, value, caseSensitive, lineSeparator);
 	}
 
 	public boolean equals(Object obj) {
@@ -221,103 +302,106 @@ public final class AMConnectionWrapper implements AMConnection {
 	}
 
 	public AMHandle executeActionById(long actionId, String tableName, long recordId) {
-		return connection.executeActionById(actionId, tableName, recordId);
+		written();
+		return target().executeActionById(actionId, tableName, recordId);
 	}
 
 	public AMHandle executeActionByName(String sqlName, String tableName, long recordId) {
-		return connection.executeActionByName(sqlName, tableName, recordId);
+		written();
+		return target().executeActionByName(sqlName, tableName, recordId);
 	}
 
 	public long exportDocument(long documentId, String fileName) {
-		return connection.exportDocument(documentId, fileName);
+		return target().exportDocument(documentId, fileName);
 	}
 
 	public long flushTransaction() {
-		return connection.flushTransaction();
+		written();
+		return target().flushTransaction();
 	}
 
 	public long formatCurrency(double amount, String currency, AMString result) {
-		return connection.formatCurrency(amount, currency, result);
+		return target().formatCurrency(amount, currency, result);
 	}
 
 	public long formatLong(long number, String format, AMString result) {
-		return connection.formatLong(number, format, result);
+		return target().formatLong(number, format, result);
 	}
 
 	public long getComputeString(String tableName, long recordId, String template, AMString result) {
-		return connection.getComputeString(tableName, recordId, template, result);
+		return target().getComputeString(tableName, recordId, template, result);
 	}
 
 	public AMHandle getField(AMHandle objHandle, long position) {
-		return connection.getField(objHandle, position);
+		return target().getField(resolve(objHandle), position);
 	}
 
 	public long getFieldCount(AMHandle objHandle) {
-		return connection.getFieldCount(objHandle);
+		return target().getFieldCount(resolve(objHandle));
 	}
 
 	public long getFieldDateOnlyValue(AMHandle recHandle, long fieldPos) {
-		return connection.getFieldDateOnlyValue(recHandle, fieldPos);
+		return target().getFieldDateOnlyValue(resolve(recHandle), fieldPos);
 	}
 
 	public long getFieldDateValue(AMHandle recHandle, long fieldPos) {
-		return connection.getFieldDateValue(recHandle, fieldPos);
+		return target().getFieldDateValue(resolve(recHandle), fieldPos);
 	}
 
 	public long getFieldDescription(AMHandle fieldHandle, AMString target) {
-		return connection.getFieldDescription(fieldHandle, target);
+		return target().getFieldDescription(resolve(fieldHandle), target);
 	}
 
 	public double getFieldDoubleValue(AMHandle objHandle, long fieldPos) {
-		return connection.getFieldDoubleValue(objHandle, fieldPos);
+		return target().getFieldDoubleValue(resolve(objHandle), fieldPos);
 	}
 
 	public long getFieldFormat(AMHandle fldHandle, AMString target) {
-		return connection.getFieldFormat(fldHandle, target);
+		return target().getFieldFormat(resolve(fldHandle), target);
 	}
 
 	public long getFieldFormatFromName(String tableName, String fieldName, AMString result) {
-		return connection.getFieldFormatFromName(tableName, fieldName, result);
+		return target().getFieldFormatFromName(tableName, fieldName, result);
 	}
 
 	public AMHandle getFieldFromName(AMHandle objHandle, String fielddName) {
-		return connection.getFieldFromName(objHandle, fielddName);
+		return target().getFieldFromName(resolve(objHandle), fielddName);
 	}
 
 	public long getFieldLabel(AMHandle fldHandle, AMString result) {
-		return connection.getFieldLabel(fldHandle, result);
+		return target().getFieldLabel(resolve(fldHandle), result);
 	}
 
 	public long getFieldLabelFromName(String tableName, String fieldName, AMString fieldLabel) {
-		return connection.getFieldLabelFromName(tableName, fieldName, fieldLabel);
+		return target().getFieldLabelFromName(tableName, fieldName, fieldLabel);
 	}
 
 	public long getFieldLongValue(AMHandle objHandle, long fieldPosition) {
-		return connection.getFieldLongValue(objHandle, fieldPosition);
+		return target().getFieldLongValue(resolve(objHandle), fieldPosition);
 	}
 
 	public long getFieldName(AMHandle objHandle, long fieldPositon, AMString fieldName) {
-		return connection.getFieldName(objHandle, fieldPositon, fieldName);
+		return target().getFieldName(resolve(objHandle), fieldPositon, fieldName);
 	}
 
 	public long getFieldSize(AMHandle fldHandle) {
-		return connection.getFieldSize(fldHandle);
+		return target().getFieldSize(resolve(fldHandle));
 	}
 
 	public long getFieldSqlName(AMHandle fldHandle, AMString fieldSQLName) {
-		return connection.getFieldSqlName(fldHandle, fieldSQLName);
+		return target().getFieldSqlName(resolve(fldHandle), fieldSQLName);
 	}
 
 	public long getFieldStrValue(AMHandle qryHandle, long position, AMString target) {
-		return connection.getFieldStrValue(qryHandle, position, target);
+		return target().getFieldStrValue(resolve(qryHandle), position, target);
 	}
 
 	public long getFieldType(AMHandle fldHandle) {
-		return connection.getFieldType(fldHandle);
+		return target().getFieldType(resolve(fldHandle));
 	}
 
 	public long getFieldUserType(AMHandle fldHandle) {
-		return connection.getFieldUserType(fldHandle);
+		return target().getFieldUserType(resolve(fldHandle));
 	}
 
 	public Object getKey() {
@@ -325,39 +409,39 @@ public final class AMConnectionWrapper implements AMConnection {
 	}
 
 	public AMHandle getRecordFromMainId(String tableName, long lId) {
-		return connection.getRecordFromMainId(tableName, lId);
+		return target().getRecordFromMainId(tableName, lId);
 	}
 
 	public AMHandle getRecordHandle(AMHandle qryHandle) {
-		return connection.getRecordHandle(qryHandle);
+		return target().getRecordHandle(resolve(qryHandle));
 	}
 
 	public long getRecordId(AMHandle recHandle) {
-		return connection.getRecordId(recHandle);
+		return target().getRecordId(resolve(recHandle));
 	}
 
 	public AMHandle getRelDstField(AMHandle fldHandle) {
-		return connection.getRelDstField(fldHandle);
+		return target().getRelDstField(resolve(fldHandle));
 	}
 
 	public AMHandle getRelSrcField(AMHandle fldHandle) {
-		return connection.getRelSrcField(fldHandle);
+		return target().getRelSrcField(resolve(fldHandle));
 	}
 
 	public AMHandle getRelTable(AMHandle fldHandle) {
-		return connection.getRelTable(fldHandle);
+		return target().getRelTable(resolve(fldHandle));
 	}
 
 	public AMHandle getReverseLink(AMHandle fldHandle) {
-		return connection.getReverseLink(fldHandle);
+		return target().getReverseLink(resolve(fldHandle));
 	}
 
 	public long getSelfFromMainId(String tableName, long recordId, AMString recordDescription) {
-		return connection.getSelfFromMainId(tableName, recordId, recordDescription);
+		return target().getSelfFromMainId(tableName, recordId, recordDescription);
 	}
 
 	public long getVersion(AMString amVersion) {
-		return connection.getVersion(amVersion);
+		return target().getVersion(amVersion);
 	}
 
 	public int hashCode() {
@@ -365,83 +449,133 @@ public final class AMConnectionWrapper implements AMConnection {
 	}
 
 	public long importDocument(long docId, String tableName, String fileName, String category, String designation) {
-		return connection.importDocument(docId, tableName, fileName, category, designation);
+		written();
+		return target().importDocument(docId, tableName, fileName, category, designation);
 	}
 
 	public long insertRecord(AMHandle recHandle) {
+		written();
+		if (buffer != null) {
+			return buffer.insertRecord(recHandle);
+		}
 		return connection.insertRecord(recHandle);
 	}
 
 	public long isConnected() {
-		return connection.isConnected();
+		return target().isConnected();
 	}
 
 	public long lastError() {
-		return connection.lastError();
+		return target().lastError();
 	}
 
 	public long lastErrorMsg(AMString errorMessage) {
-		return connection.lastErrorMsg(errorMessage);
+		return target().lastErrorMsg(errorMessage);
 	}
 
 	public long listToString(AMString target, String source, String colSep, String lineSep, String idSep) {
-		return connection.listToString(target, source, colSep, lineSep, idSep);
+		return target().listToString(target, source, colSep, lineSep, idSep);
 	}
 
 	public long loginId() {
-		return connection.loginId();
+		return target().loginId();
 	}
 
 	public long loginName(AMString loginName) {
-		return connection.loginName(loginName);
+		return target().loginName(loginName);
 	}
 
 	public AMHandle openConnection(String database, String username, String password)  {
-		return connection.openConnection(database, username, password);
+		return target().openConnection(database, username, password);
+	}
+
+	public AMCursor openCursor(String aqlQuery, List<AMColumn> columns, int fetchSize) {
+		return target().openCursor(aqlQuery, columns, fetchSize);
 	}
 
 	public long purgeRecord(AMHandle recHandle) {
-		return connection.purgeRecord(recHandle);
+		written();
+		return target().purgeRecord(resolve(recHandle));
 	}
 
 	public AMHandle queryCreate() {
-		return connection.queryCreate();
+		return target().queryCreate();
 	}
 
 	public long queryExec(AMHandle queryHandle, String aqlQuery) {
-		return connection.queryExec(queryHandle, aqlQuery);
+		return target().queryExec(resolve(queryHandle), aqlQuery);
 	}
 
 	public long queryGet(AMHandle qryHandle, String aqlQuery) {
-		return connection.queryGet(qryHandle, aqlQuery);
+		return target().queryGet(resolve(qryHandle), aqlQuery);
 	}
 
 	public long queryNext(AMHandle queryHandle) {
-		return connection.queryNext(queryHandle);
+		return target().queryNext(resolve(queryHandle));
 	}
 
 	public long querySetAddMainField(AMHandle qryHandle, long addMainField) {
-		return connection.querySetAddMainField(qryHandle, addMainField);
+		return target().querySetAddMainField(resolve(qryHandle), addMainField);
 	}
 
 	public long querySetFullMemo(AMHandle qryHandle, long fullMemo) {
-		return connection.querySetFullMemo(qryHandle, fullMemo);
+		return target().querySetFullMemo(resolve(qryHandle), fullMemo);
 	}
 
 	public AMHandle queryStartTable(AMHandle qryHandle) {
-		return connection.queryStartTable(qryHandle);
+		return target().queryStartTable(resolve(qryHandle));
 	}
 
 	public long queryStop(AMHandle qryHandle) {
-		return connection.queryStop(qryHandle);
+		return target().queryStop(resolve(qryHandle));
 	}
 
 	public long refreshAllCaches() {
-		return connection.refreshAllCaches();
+		return target().refreshAllCaches();
+	}
+
+	/**
+	 * Takes the connection away from its holder and discards it, calls made
+	 * through this wrapper afterwards fail.
+	 */
+	void reclaim() {
+
+		AMConnection leaked = release(RECLAIMED);
+
+		if (leaked == null) {
+			return;
+		}
+
+		connectionFactory.unregister(key);
+		leaked.setProcessingFlag(AMConnection.FLAG_NO_REUSE);
+		leaked.close();
+	}
+
+	/**
+	 * Swaps the connection for a sentinel, so that of a racing close and
+	 * reclaim only one gives the connection back.
+	 * 
+	 * @return the connection, null when already closed or reclaimed
+	 */
+	private AMConnection release(AMConnection sentinel) {
+
+		AMConnection current = connection;
+
+		if (current == CLOSED || current == RECLAIMED || !CONNECTION.compareAndSet(this, current, sentinel)) {
+			return null;
+		}
+
+		closed = true;
+
+		return current;
+	}
+
+	private AMHandle resolve(AMHandle handle) {
+		return buffer == null ? handle : buffer.resolve(handle);
 	}
 
 	public long releaseHandle(AMHandle objHandle) {
-		return connection.releaseHandle(objHandle);
+		return target().releaseHandle(resolve(objHandle));
 	}
 
 	@Override
@@ -462,22 +596,42 @@ public final class AMConnectionWrapper implements AMConnection {
 	}
 
 	public long setFieldDateOnlyValue(AMHandle recHandle, String fieldName, AMDate dateOnlyValue) {
+		written();
+		if (buffer != null) {
+			return buffer.setFieldDateOnlyValue(recHandle, fieldName, dateOnlyValue);
+		}
 		return connection.setFieldDateOnlyValue(recHandle, fieldName, dateOnlyValue);
 	}
 
 	public long setFieldDateValue(AMHandle recHandle, String fieldName, AMDate dateTimeValue) {
+		written();
+		if (buffer != null) {
+			return buffer.setFieldDateValue(recHandle, fieldName, dateTimeValue);
+		}
 		return connection.setFieldDateValue(recHandle, fieldName, dateTimeValue);
 	}
 
 	public long setFieldDoubleValue(AMHandle recHandle, String fieldName, double value) {
+		written();
+		if (buffer != null) {
+			return buffer.setFieldDoubleValue(recHandle, fieldName, value);
+		}
 		return connection.setFieldDoubleValue(recHandle, fieldName, value);
 	}
 
 	public long setFieldLongValue(AMHandle recHandle, String fieldName, long value) {
+		written();
+		if (buffer != null) {
+			return buffer.setFieldLongValue(recHandle, fieldName, value);
+		}
 		return connection.setFieldLongValue(recHandle, fieldName, value);
 	}
 
 	public long setFieldStrValue(AMHandle recHandle, String fieldName, String value) {
+		written();
+		if (buffer != null) {
+			return buffer.setFieldStrValue(recHandle, fieldName, value);
+		}
 		return connection.setFieldStrValue(recHandle, fieldName, value);
 	}
 
@@ -487,20 +641,45 @@ public final class AMConnectionWrapper implements AMConnection {
 	}
 
 	public long sqlTextConst(String aqlQuery, AMString target) {
-		return connection.sqlTextConst(aqlQuery, target);
+		return target().sqlTextConst(aqlQuery, target);
 	}
 
 	public long startTransaction() {
-		return connection.startTransaction();
+		return target().startTransaction();
+	}
+
+	/**
+	 * @return the connection, once buffered mutations were sent so that the
+	 *         call sees them
+	 */
+	private AMConnection target() {
+		if (buffer != null) {
+			buffer.flush();
+		}
+		return connection;
 	}
 
 	public String toString() {
 		return new ToStringBuilder(this).append("connection", connection).append("closed", closed)
-				.append("enlisted", enlisted).append("key", key).toString();
+				.append("enlisted", enlisted).append("key", key).append("buffer", buffer).toString();
 	}
 
 	public long updateRecord(AMHandle recHandle) {
+		written();
+		if (buffer != null) {
+			return buffer.updateRecord(recHandle);
+		}
 		return connection.updateRecord(recHandle);
 	}
 
+	/**
+	 * Marks the transaction of an enlisted connection as writing, calls that
+	 * may write without saying so count as writes.
+	 */
+	private void written() {
+		if (enlisted && connection instanceof AMBaseConnection) {
+			((AMBaseConnection) connection).markWritten();
+		}
+	}
+
 }
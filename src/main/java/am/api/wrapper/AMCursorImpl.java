@@ -0,0 +1,168 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMCursor;
+import am.api.AMHandle;
+import am.api.model.AMColumn;
+import am.api.model.AMRow;
+import am.server.client.RowChunk;
+
+/**
+ * Client side of a cursor, when given an executor the next chunk is requested
+ * while the rows of the current chunk are consumed.
+ */
+public final class AMCursorImpl implements AMCursor {
+
+	@FunctionalInterface
+	public interface RowFetcher {
+		RowChunk fetchRows(AMHandle cursor, List<AMColumn> columns, int fetchSize);
+	}
+
+	private final ToLongFunction<AMHandle> closer;
+
+	private boolean closed;
+
+	private final List<AMColumn> columns;
+
+	private Iterator<AMRow> current;
+
+	private final AMHandle cursor;
+
+	private boolean exhausted;
+
+	private final RowFetcher fetcher;
+
+	private final int fetchSize;
+
+	private CompletableFuture<RowChunk> pending;
+
+	private final Executor prefetchExecutor;
+
+	public AMCursorImpl(RowChunk firstChunk, List<AMColumn> columns, int fetchSize, RowFetcher fetcher,
+			ToLongFunction<AMHandle> closer, Executor prefetchExecutor) {
+		super();
+		this.cursor = firstChunk.getCursor();
+		this.columns = columns;
+		this.fetchSize = fetchSize;
+		this.fetcher = fetcher;
+		this.closer = closer;
+		this.prefetchExecutor = prefetchExecutor;
+		this.current = Collections.emptyIterator();
+
+		accept(firstChunk);
+	}
+
+	private void accept(RowChunk chunk) {
+		current = chunk.getRows().iterator();
+		exhausted = chunk.isExhausted();
+
+		if (!exhausted && prefetchExecutor != null) {
+			pending = CompletableFuture.supplyAsync(() -> fetcher.fetchRows(cursor, columns, fetchSize),
+					prefetchExecutor);
+		}
+	}
+
+	@Override
+	public void close() {
+
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		current = Collections.emptyIterator();
+
+		if (pending != null) {
+			pending.handle((chunk, t) -> chunk).join();
+			pending = null;
+		}
+
+		closer.applyAsLong(cursor);
+	}
+
+	@Override
+	public boolean hasNext() {
+
+		while (!closed && !current.hasNext()) {
+
+			if (exhausted) {
+				close();
+			} else {
+				accept(nextChunk());
+			}
+		}
+
+		return !closed;
+	}
+
+	@Override
+	public AMRow next() {
+
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		return current.next();
+	}
+
+	private RowChunk nextChunk() {
+
+		if (pending == null) {
+			return fetcher.fetchRows(cursor, columns, fetchSize);
+		}
+
+		CompletableFuture<RowChunk> chunk = pending;
+		pending = null;
+
+		try {
+			return chunk.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	@Override
+	public Stream<AMRow> stream() {
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(this::close);
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("cursor", cursor).append("fetchSize", fetchSize)
+				.append("exhausted", exhausted).append("closed", closed).toString();
+	}
+}
@@ -0,0 +1,76 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMConnection;
+import am.api.AsyncAMConnection;
+import am.api.util.NLS;
+
+/**
+ * Base of the {@link AsyncAMConnection} implementations, closing the view
+ * closes the connection it was obtained from.
+ */
+public abstract class AbstractAsyncAMConnection implements AsyncAMConnection {
+
+	private final AMConnection owner;
+
+	private final boolean transactionControl;
+
+	protected AbstractAsyncAMConnection(AMConnection owner, boolean transactionControl) {
+		super();
+		this.owner = owner;
+		this.transactionControl = transactionControl;
+	}
+
+	/**
+	 * @param transactionControl false when commit and rollBack belong to a
+	 *                           managed transaction
+	 * 
+	 * @return the same view owned by the given connection, used by connections
+	 *         wrapping another one
+	 */
+	public abstract AbstractAsyncAMConnection bind(AMConnection owner, boolean transactionControl);
+
+	@Override
+	public void close() {
+		owner.close();
+	}
+
+	@Override
+	public AMConnection getConnection() {
+		return owner;
+	}
+
+	public boolean isTransactionControl() {
+		return transactionControl;
+	}
+
+	protected <T> CompletableFuture<T> rejected(String messageKey) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(new IllegalStateException(NLS.MESSAGES.getString(messageKey)));
+		return future;
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("owner", owner).append("transactionControl", transactionControl)
+				.toString();
+	}
+}
@@ -0,0 +1,378 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.log4j.Logger;
+import org.springframework.util.Assert;
+
+import am.api.model.AMCredential;
+import am.api.wrapper.remote.AMProcessManager;
+
+/**
+ * Periodically resizes the idle connections of a {@link ConnectionPool}.
+ * <p>
+ * The idle target of a credential is the number of borrows expected while one
+ * connection is being created (borrow rate times mean create time), raised by
+ * one whenever borrowers were exhausted or the borrowWaitPercentile of the
+ * borrow waits since the previous run exceeded borrowWaitThresholdMs. Targets
+ * grow at once and decay slowly, are clamped between the scheduled floor and
+ * maxIdleCeiling and never take the pool past the process limit of the
+ * {@link AMProcessManager}.
+ * <p>
+ * The schedule is a comma separated list of HH:mm=floor entries, e.g.
+ * "06:30=4,19:00=1", each floor holding until the next entry.
+ */
+public class AdaptivePoolController {
+
+	private static class CredentialState {
+
+		long borrowed;
+
+		final long[] borrowWaits = LatencyHistogram.newCounts();
+
+		double demand;
+
+		long exhausted;
+
+		int target;
+	}
+
+	private final static Logger logger = Logger.getLogger(AdaptivePoolController.class);
+
+	private double borrowWaitPercentile = 0.99d;
+
+	private long borrowWaitThresholdMs = 50L;
+
+	private ConnectionPool connectionPool;
+
+	private double decay = 0.2d;
+
+	private boolean enabled = false;
+
+	private ScheduledExecutorService executor;
+
+	private int initialMaxIdle;
+
+	private int initialMinIdle;
+
+	private long intervalMs = 30000L;
+
+	private long lastRunNanos;
+
+	private int maxCreatesPerRun = 2;
+
+	private int maxIdleCeiling = 0;
+
+	private int minIdleFloor = 0;
+
+	private AMProcessManager processManager;
+
+	private String schedule;
+
+	private NavigableMap<LocalTime, Integer> scheduledFloors;
+
+	private final Map<AMCredential, CredentialState> states = new ConcurrentHashMap<>();
+
+	public AdaptivePoolController() {
+		super();
+	}
+
+	public void destroy() {
+
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+			connectionPool.setIdleBounds(initialMinIdle, initialMaxIdle);
+		}
+
+		states.clear();
+	}
+
+	public double getBorrowWaitPercentile() {
+		return borrowWaitPercentile;
+	}
+
+	public long getBorrowWaitThresholdMs() {
+		return borrowWaitThresholdMs;
+	}
+
+	public ConnectionPool getConnectionPool() {
+		return connectionPool;
+	}
+
+	public double getDecay() {
+		return decay;
+	}
+
+	public long getIntervalMs() {
+		return intervalMs;
+	}
+
+	public int getMaxCreatesPerRun() {
+		return maxCreatesPerRun;
+	}
+
+	public int getMaxIdleCeiling() {
+		return maxIdleCeiling;
+	}
+
+	public int getMinIdleFloor() {
+		return minIdleFloor;
+	}
+
+	public AMProcessManager getProcessManager() {
+		return processManager;
+	}
+
+	public String getSchedule() {
+		return schedule;
+	}
+
+	/**
+	 * @return current idle target of the credential, 0 when not tracked
+	 */
+	public int getTarget(AMCredential credential) {
+		CredentialState state = states.get(credential);
+		return state == null ? 0 : state.target;
+	}
+
+	public void init() {
+
+		if (!enabled) {
+			logger.debug("adaptive sizing disabled");
+			return;
+		}
+
+		Assert.notNull(connectionPool, "connectionPool is required.");
+		Assert.isTrue(intervalMs > 0L, "intervalMs needs to be greater than 0.");
+		Assert.isTrue(decay > 0.0d && decay <= 1.0d, "decay needs to be greater than 0 and at most 1.");
+		Assert.isTrue(borrowWaitPercentile > 0.0d && borrowWaitPercentile <= 1.0d,
+				"borrowWaitPercentile needs to be greater than 0 and at most 1.");
+		Assert.isTrue(minIdleFloor >= 0, "minIdleFloor needs to be 0 or greater.");
+		Assert.isTrue(maxCreatesPerRun > 0, "maxCreatesPerRun needs to be greater than 0.");
+
+		if (maxIdleCeiling == 0) {
+			maxIdleCeiling = connectionPool.getMaxIdle();
+		}
+
+		Assert.isTrue(maxIdleCeiling >= minIdleFloor, "maxIdleCeiling needs to be minIdleFloor or greater.");
+
+		scheduledFloors = parseSchedule(schedule);
+
+		initialMinIdle = connectionPool.getMinIdle();
+		initialMaxIdle = connectionPool.getMaxIdle();
+
+		lastRunNanos = System.nanoTime();
+
+		executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = Executors.defaultThreadFactory().newThread(r);
+				t.setName("ConnectionPool-adaptive");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+
+		executor.scheduleWithFixedDelay(this::run, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	private int capacity() {
+
+		int limit = connectionPool.getMaxTotal();
+
+		if (processManager != null) {
+			limit = Math.min(limit, processManager.getMaxPoolSize() - processManager.getStandbySize());
+		}
+
+		return limit;
+	}
+
+	int floorAt(LocalTime time) {
+
+		int floor = minIdleFloor;
+
+		if (scheduledFloors != null && !scheduledFloors.isEmpty()) {
+			Map.Entry<LocalTime, Integer> entry = scheduledFloors.floorEntry(time);
+			floor = Math.max(floor, (entry != null ? entry : scheduledFloors.lastEntry()).getValue());
+		}
+
+		return Math.min(floor, maxIdleCeiling);
+	}
+
+	static NavigableMap<LocalTime, Integer> parseSchedule(String schedule) {
+
+		NavigableMap<LocalTime, Integer> floors = new TreeMap<>();
+
+		if (StringUtils.isBlank(schedule)) {
+			return floors;
+		}
+
+		for (String entry : StringUtils.split(schedule, ',')) {
+
+			String[] parts = StringUtils.split(entry.trim(), '=');
+
+			Assert.isTrue(parts.length == 2, String.format("invalid schedule entry [%s], expected HH:mm=floor", entry));
+
+			floors.put(LocalTime.parse(parts[0].trim()), Integer.valueOf(parts[1].trim()));
+		}
+
+		return floors;
+	}
+
+	void run() {
+
+		try {
+
+			long now = System.nanoTime();
+			double elapsedSeconds = Math.max(1L, now - lastRunNanos) / 1e9d;
+
+			lastRunNanos = now;
+
+			PoolMetrics metrics = connectionPool.getMetrics();
+
+			double createSeconds = metrics.getCreateTime().getMean() / 1e6d;
+			int floor = floorAt(LocalTime.now());
+			int highest = floor;
+
+			for (AMCredential credential : metrics.knownCredentials()) {
+				highest = Math.max(highest,
+						updateTarget(credential, metrics, elapsedSeconds, createSeconds, floor));
+			}
+
+			connectionPool.setIdleBounds(floor, Math.max(highest, 1));
+
+			int headroom = capacity() - connectionPool.getNumTotal();
+			int creates = Math.min(maxCreatesPerRun, headroom);
+
+			for (Map.Entry<AMCredential, CredentialState> entry : states.entrySet()) {
+
+				while (creates > 0 && connectionPool.getNumIdle(entry.getKey()) < entry.getValue().target) {
+					connectionPool.addIdle(entry.getKey());
+					creates--;
+				}
+			}
+
+		} catch (Exception e) {
+			logger.warn("Could not resize the pool", e);
+		}
+	}
+
+	private int updateTarget(AMCredential credential, PoolMetrics metrics, double elapsedSeconds,
+			double createSeconds, int floor) {
+
+		CredentialState state = states.computeIfAbsent(credential, key -> new CredentialState());
+
+		long borrowed = metrics.borrowedCount(credential);
+		long exhausted = metrics.exhaustedCount(credential);
+		long borrowWait = metrics.borrowWaitSince(credential, state.borrowWaits, borrowWaitPercentile);
+
+		long borrowedDelta = borrowed - state.borrowed;
+		long exhaustedDelta = exhausted - state.exhausted;
+
+		state.borrowed = borrowed;
+		state.exhausted = exhausted;
+
+		double needed = borrowedDelta / elapsedSeconds * createSeconds;
+
+		// the tail rather than the mean, a few slow borrows are the first sign of a ramp
+		boolean waiting = borrowedDelta > 0L && borrowWait > borrowWaitThresholdMs * 1000L;
+
+		if (exhaustedDelta > 0L || waiting) {
+			needed = Math.max(needed, state.target + 1);
+		}
+
+		if (needed > state.demand) {
+			state.demand = needed;
+		} else {
+			state.demand += decay * (needed - state.demand);
+		}
+
+		int target = Math.max(floor, Math.min(maxIdleCeiling, (int) Math.ceil(state.demand - 0.05d)));
+
+		if (target != state.target && logger.isDebugEnabled()) {
+			logger.debug(String.format("credential: [%s], idle target %d -> %d, demand=[%.2f]", credential,
+					state.target, target, state.demand));
+		}
+
+		state.target = target;
+
+		return target;
+	}
+
+	public void setBorrowWaitPercentile(double borrowWaitPercentile) {
+		this.borrowWaitPercentile = borrowWaitPercentile;
+	}
+
+	public void setBorrowWaitThresholdMs(long borrowWaitThresholdMs) {
+		this.borrowWaitThresholdMs = borrowWaitThresholdMs;
+	}
+
+	public void setConnectionPool(ConnectionPool connectionPool) {
+		this.connectionPool = connectionPool;
+	}
+
+	public void setDecay(double decay) {
+		this.decay = decay;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public void setIntervalMs(long intervalMs) {
+		this.intervalMs = intervalMs;
+	}
+
+	public void setMaxCreatesPerRun(int maxCreatesPerRun) {
+		this.maxCreatesPerRun = maxCreatesPerRun;
+	}
+
+	public void setMaxIdleCeiling(int maxIdleCeiling) {
+		this.maxIdleCeiling = maxIdleCeiling;
+	}
+
+	public void setMinIdleFloor(int minIdleFloor) {
+		this.minIdleFloor = minIdleFloor;
+	}
+
+	public void setProcessManager(AMProcessManager processManager) {
+		this.processManager = processManager;
+	}
+
+	public void setSchedule(String schedule) {
+		this.schedule = schedule;
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("enabled", enabled).append("intervalMs", intervalMs)
+				.append("minIdleFloor", minIdleFloor).append("maxIdleCeiling", maxIdleCeiling)
+				.append("borrowWaitPercentile", borrowWaitPercentile)
+				.append("borrowWaitThresholdMs", borrowWaitThresholdMs).append("schedule", schedule).toString();
+	}
+}
@@ -0,0 +1,192 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.log4j.Logger;
+
+import am.api.AMConnection;
+import am.api.model.AMCredential;
+
+/**
+ * Keeps the last connection a thread returned parked with that thread, so its
+ * next borrow of the same credential skips the shared pool and the
+ * passivate/activate calls. Parked connections stay borrowed as far as the
+ * pool is concerned, a sweeper hands back those left longer than timeoutMs or
+ * whose thread has ended.
+ */
+class AffinitySlots {
+
+	private static class Slot {
+
+		final AtomicReference<AMBaseConnection> connection = new AtomicReference<>();
+
+		volatile AMCredential credential;
+
+		final WeakReference<Thread> owner;
+
+		volatile long parkedAt;
+
+		Slot(Thread owner) {
+			super();
+			this.owner = new WeakReference<>(owner);
+		}
+
+		boolean isOwnerGone() {
+			Thread thread = owner.get();
+			return thread == null || !thread.isAlive();
+		}
+	}
+
+	private final static Logger logger = Logger.getLogger(AffinitySlots.class);
+
+	private final ConnectionPool connectionPool;
+
+	private final ThreadLocal<Slot> local;
+
+	private final Set<Slot> slots = ConcurrentHashMap.newKeySet();
+
+	private final ScheduledExecutorService sweeper;
+
+	private final long timeoutMs;
+
+	AffinitySlots(ConnectionPool connectionPool, long timeoutMs) {
+		super();
+		this.connectionPool = connectionPool;
+		this.timeoutMs = timeoutMs;
+		this.local = ThreadLocal.withInitial(() -> {
+			Slot slot = new Slot(Thread.currentThread());
+			slots.add(slot);
+			return slot;
+		});
+		this.sweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = Executors.defaultThreadFactory().newThread(r);
+				t.setName("ConnectionPool-affinity");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+
+		long period = Math.max(1L, timeoutMs / 2L);
+
+		sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	void close() {
+		sweeper.shutdownNow();
+		slots.forEach(slot -> release(slot, true));
+		slots.clear();
+	}
+
+	private boolean isStale(AMBaseConnection connection, long parkedAt, long now) {
+		return now - parkedAt > timeoutMs || connection.isRecycleDue(now)
+				|| connection.isProcessingFlagSet(AMConnection.FLAG_NO_REUSE);
+	}
+
+	/**
+	 * @return false when the thread already holds a parked connection
+	 */
+	boolean park(AMCredential credential, AMBaseConnection connection) {
+
+		Slot slot = local.get();
+
+		if (slot.connection.get() != null) {
+			return false;
+		}
+
+		slot.credential = credential;
+		slot.parkedAt = System.currentTimeMillis();
+		slot.connection.set(connection);
+
+		return true;
+	}
+
+	/**
+	 * Hands the parked connection back to the pool when forced or stale.
+	 */
+	private void release(Slot slot, boolean force) {
+
+		AMBaseConnection connection = slot.connection.get();
+
+		if (connection == null) {
+			return;
+		}
+
+		AMCredential credential = slot.credential;
+
+		if ((force || slot.isOwnerGone() || isStale(connection, slot.parkedAt, System.currentTimeMillis()))
+				&& slot.connection.compareAndSet(connection, null)) {
+			connectionPool.unpark(credential, connection);
+		}
+	}
+
+	private void sweep() {
+
+		try {
+
+			for (Slot slot : slots) {
+
+				release(slot, false);
+
+				if (slot.isOwnerGone() && slot.connection.get() == null) {
+					slots.remove(slot);
+				}
+			}
+
+		} catch (RuntimeException e) {
+			logger.warn("Could not sweep parked connections", e);
+		}
+	}
+
+	/**
+	 * @return the connection parked by this thread for the credential, null
+	 *         when there is none or it went stale
+	 */
+	AMBaseConnection take(AMCredential credential) {
+
+		Slot slot = local.get();
+
+		AMBaseConnection connection = slot.connection.get();
+
+		if (connection == null) {
+			return null;
+		}
+
+		AMCredential parkedFor = slot.credential;
+		long parkedAt = slot.parkedAt;
+
+		if (!slot.connection.compareAndSet(connection, null)) {
+			return null;
+		}
+
+		if (!credential.equals(parkedFor) || isStale(connection, parkedAt, System.currentTimeMillis())) {
+			connectionPool.unpark(parkedFor, connection);
+			return null;
+		}
+
+		return connection;
+	}
+}
@@ -0,0 +1,555 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMConnection;
+import am.api.AMHandle;
+import am.api.model.AMDate;
+import am.api.model.AMString;
+
+/**
+ * {@link am.api.AsyncAMConnection} running the synchronous calls of a
+ * connection on an executor, used where the transport has no asynchronous I/O
+ * of its own. The executor must run tasks one at a time in submission order.
+ */
+public final class AsyncAMConnectionAdapter extends AbstractAsyncAMConnection {
+
+	private final AMConnection connection;
+
+	private final Executor executor;
+
+	public AsyncAMConnectionAdapter(AMConnection owner, boolean transactionControl, AMConnection connection,
+			Executor executor) {
+		super(owner, transactionControl);
+		this.connection = connection;
+		this.executor = executor;
+	}
+
+	@Override
+	public AbstractAsyncAMConnection bind(AMConnection owner, boolean transactionControl) {
+		return new AsyncAMConnectionAdapter(owner, transactionControl, connection, executor);
+	}
+
+	private <T> CompletableFuture<T> supply(Supplier<T> call) {
+		return CompletableFuture.supplyAsync(call, executor);
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).appendSuper(super.toString()).append("connection", connection).toString();
+	}
+
+	@Override
+	public CompletableFuture<Long> clearLastError() {
+		return supply(() -> connection.clearLastError());
+	}
+
+	@Override
+	public CompletableFuture<Long> commit() {
+		if (!isTransactionControl()) {
+			return rejected("connection.enlisted.commit");
+		}
+		return supply(() -> connection.commit());
+	}
+
+	@Override
+	public CompletableFuture<Long> connectionName(AMString connectionName) {
+		return supply(() -> connection.connectionName(connectionName));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateBasicToUnix(long tmTime) {
+		return supply(() -> connection.convertDateBasicToUnix(tmTime));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateIntlToUnix(String dateAsString) {
+		return supply(() -> connection.convertDateIntlToUnix(dateAsString));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateStringToUnix(String dateAsString) {
+		return supply(() -> connection.convertDateStringToUnix(dateAsString));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateUnixToBasic(long dateAsUnix) {
+		return supply(() -> connection.convertDateUnixToBasic(dateAsUnix));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateUnixToIntl(long unixDate, AMString dateAsIntlStr) {
+		return supply(() -> connection.convertDateUnixToIntl(unixDate, dateAsIntlStr));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateUnixToString(long dateAsUnix, AMString dateAsStr) {
+		return supply(() -> connection.convertDateUnixToString(dateAsUnix, dateAsStr));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDoubleToString(double dSrc, AMString dblAsString) {
+		return supply(() -> connection.convertDoubleToString(dSrc, dblAsString));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertMonetaryToString(double dMonetarySrc, AMString dblAsString) {
+		return supply(() -> connection.convertMonetaryToString(dMonetarySrc, dblAsString));
+	}
+
+	@Override
+	public CompletableFuture<Double> convertStringToDouble(String dblAsString) {
+		return supply(() -> connection.convertStringToDouble(dblAsString));
+	}
+
+	@Override
+	public CompletableFuture<Double> convertStringToMonetary(String monetaryAsString) {
+		return supply(() -> connection.convertStringToMonetary(monetaryAsString));
+	}
+
+	@Override
+	public CompletableFuture<Long> createLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		return supply(() -> connection.createLink(srcRecHandle, linkName, srcDstHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> createRecord(String tblName) {
+		return supply(() -> connection.createRecord(tblName));
+	}
+
+	@Override
+	public CompletableFuture<Long> currentDate() {
+		return supply(() -> connection.currentDate());
+	}
+
+	@Override
+	public CompletableFuture<Long> currentServerDate() {
+		return supply(() -> connection.currentServerDate());
+	}
+
+	@Override
+	public CompletableFuture<Long> dateAdd(long startAsUnixDate, long duration) {
+		return supply(() -> connection.dateAdd(startAsUnixDate, duration));
+	}
+
+	@Override
+	public CompletableFuture<Long> dateAddLogical(long startAsUnixDate, long duration) {
+		return supply(() -> connection.dateAddLogical(startAsUnixDate, duration));
+	}
+
+	@Override
+	public CompletableFuture<Long> dateDiff(long endAsUnixDate, long startAsUnixDate) {
+		return supply(() -> connection.dateDiff(endAsUnixDate, startAsUnixDate));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbExecAql(String aqlQuery) {
+		return supply(() -> connection.dbExecAql(aqlQuery));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetDate(String aqlQuery) {
+		return supply(() -> connection.dbGetDate(aqlQuery));
+	}
+
+	@Override
+	public CompletableFuture<Double> dbGetDouble(String aqlQuery) {
+		return supply(() -> connection.dbGetDouble(aqlQuery));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetLimitedList(String aqlQuery, AMString result, String colSeparator,
+			String lineSeparator, String idSeperator, long maxSize, long errorType) {
+		return supply(() -> connection.dbGetLimitedList(aqlQuery, result, colSeparator, lineSeparator, idSeperator,
+				maxSize, errorType));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetList(String aqlQuery, AMString result, String colSeparator,
+			String lineSeparator, String idSeperator) {
+		return supply(() -> connection.dbGetList(aqlQuery, result, colSeparator, lineSeparator, idSeperator));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetListEx(String aqlQuery, AMString result, String colSeparator,
+			String lineSeparator, String idSeperator) {
+		return supply(() -> connection.dbGetListEx(aqlQuery, result, colSeparator, lineSeparator, idSeperator));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetLong(String aqlQuery) {
+		return supply(() -> connection.dbGetLong(aqlQuery));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetPk(String tableName, String whereClause) {
+		return supply(() -> connection.dbGetPk(tableName, whereClause));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetString(String query, AMString result, String colSeparator,
+			String lineSeparator) {
+		return supply(() -> connection.dbGetString(query, result, colSeparator, lineSeparator));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetStringEx(String query, AMString result, String colSeparator,
+			String lineSeparator) {
+		return supply(() -> connection.dbGetStringEx(query, result, colSeparator, lineSeparator));
+	}
+
+	@Override
+	public CompletableFuture<Long> deleteLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		return supply(() -> connection.deleteLink(srcRecHandle, linkName, srcDstHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> deleteRecord(AMHandle recordHandle) {
+		return supply(() -> connection.deleteRecord(recordHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> duplicateRecord(AMHandle recordHandle, long insert) {
+		return supply(() -> connection.duplicateRecord(recordHandle, insert));
+	}
+
+	@Override
+	public CompletableFuture<Long> enumValList(String enumName, AMString value, long caseSensitive,
+			String lineSeparator) {
+		return supply(() -> connection.enumValList(enumName, value, caseSensitive, lineSeparator));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> executeActionById(long actionId, String tableName, long recordId) {
+		return supply(() -> connection.executeActionById(actionId, tableName, recordId));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> executeActionByName(String sqlName, String tableName, long recordId) {
+		return supply(() -> connection.executeActionByName(sqlName, tableName, recordId));
+	}
+
+	@Override
+	public CompletableFuture<Long> exportDocument(long documentId, String fileName) {
+		return supply(() -> connection.exportDocument(documentId, fileName));
+	}
+
+	@Override
+	public CompletableFuture<Long> flushTransaction() {
+		return supply(() -> connection.flushTransaction());
+	}
+
+	@Override
+	public CompletableFuture<Long> formatCurrency(double amount, String currency, AMString result) {
+		return supply(() -> connection.formatCurrency(amount, currency, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> formatLong(long number, String format, AMString result) {
+		return supply(() -> connection.formatLong(number, format, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> getComputeString(String tableName, long recordId, String template, AMString result) {
+		return supply(() -> connection.getComputeString(tableName, recordId, template, result));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getField(AMHandle objHandle, long position) {
+		return supply(() -> connection.getField(objHandle, position));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldCount(AMHandle objHandle) {
+		return supply(() -> connection.getFieldCount(objHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldDateOnlyValue(AMHandle recHandle, long fieldPos) {
+		return supply(() -> connection.getFieldDateOnlyValue(recHandle, fieldPos));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldDateValue(AMHandle recHandle, long fieldPos) {
+		return supply(() -> connection.getFieldDateValue(recHandle, fieldPos));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldDescription(AMHandle fieldHandle, AMString target) {
+		return supply(() -> connection.getFieldDescription(fieldHandle, target));
+	}
+
+	@Override
+	public CompletableFuture<Double> getFieldDoubleValue(AMHandle objHandle, long fieldPos) {
+		return supply(() -> connection.getFieldDoubleValue(objHandle, fieldPos));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldFormat(AMHandle fldHandle, AMString target) {
+		return supply(() -> connection.getFieldFormat(fldHandle, target));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldFormatFromName(String tableName, String fieldName, AMString result) {
+		return supply(() -> connection.getFieldFormatFromName(tableName, fieldName, result));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getFieldFromName(AMHandle objHandle, String fielddName) {
+		return supply(() -> connection.getFieldFromName(objHandle, fielddName));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldLabel(AMHandle fldHandle, AMString result) {
+		return supply(() -> connection.getFieldLabel(fldHandle, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldLabelFromName(String tableName, String fieldName, AMString fieldLabel) {
+		return supply(() -> connection.getFieldLabelFromName(tableName, fieldName, fieldLabel));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldLongValue(AMHandle objHandle, long fieldPosition) {
+		return supply(() -> connection.getFieldLongValue(objHandle, fieldPosition));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldName(AMHandle objHandle, long fieldPositon, AMString fieldName) {
+		return supply(() -> connection.getFieldName(objHandle, fieldPositon, fieldName));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldSize(AMHandle fldHandle) {
+		return supply(() -> connection.getFieldSize(fldHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldSqlName(AMHandle fldHandle, AMString fieldSQLName) {
+		return supply(() -> connection.getFieldSqlName(fldHandle, fieldSQLName));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldStrValue(AMHandle qryHandle, long position, AMString target) {
+		return supply(() -> connection.getFieldStrValue(qryHandle, position, target));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldType(AMHandle fldHandle) {
+		return supply(() -> connection.getFieldType(fldHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldUserType(AMHandle fldHandle) {
+		return supply(() -> connection.getFieldUserType(fldHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getRecordFromMainId(String tableName, long lId) {
+		return supply(() -> connection.getRecordFromMainId(tableName, lId));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getRecordHandle(AMHandle qryHandle) {
+		return supply(() -> connection.getRecordHandle(qryHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> getRecordId(AMHandle recHandle) {
+		return supply(() -> connection.getRecordId(recHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getRelDstField(AMHandle fldHandle) {
+		return supply(() -> connection.getRelDstField(fldHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getRelSrcField(AMHandle fldHandle) {
+		return supply(() -> connection.getRelSrcField(fldHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getRelTable(AMHandle fldHandle) {
+		return supply(() -> connection.getRelTable(fldHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getReverseLink(AMHandle fldHandle) {
+		return supply(() -> connection.getReverseLink(fldHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> getSelfFromMainId(String tableName, long recordId, AMString recordDescription) {
+		return supply(() -> connection.getSelfFromMainId(tableName, recordId, recordDescription));
+	}
+
+	@Override
+	public CompletableFuture<Long> getVersion(AMString amVersion) {
+		return supply(() -> connection.getVersion(amVersion));
+	}
+
+	@Override
+	public CompletableFuture<Long> importDocument(long docId, String tableName, String fileName, String category,
+			String designation) {
+		return supply(() -> connection.importDocument(docId, tableName, fileName, category, designation));
+	}
+
+	@Override
+	public CompletableFuture<Long> insertRecord(AMHandle recHandle) {
+		return supply(() -> connection.insertRecord(recHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> isConnected() {
+		return supply(() -> connection.isConnected());
+	}
+
+	@Override
+	public CompletableFuture<Long> lastError() {
+		return supply(() -> connection.lastError());
+	}
+
+	@Override
+	public CompletableFuture<Long> lastErrorMsg(AMString errorMessage) {
+		return supply(() -> connection.lastErrorMsg(errorMessage));
+	}
+
+	@Override
+	public CompletableFuture<Long> listToString(AMString target, String source, String colSep, String lineSep,
+			String idSep) {
+		return supply(() -> connection.listToString(target, source, colSep, lineSep, idSep));
+	}
+
+	@Override
+	public CompletableFuture<Long> loginId() {
+		return supply(() -> connection.loginId());
+	}
+
+	@Override
+	public CompletableFuture<Long> loginName(AMString loginName) {
+		return supply(() -> connection.loginName(loginName));
+	}
+
+	@Override
+	public CompletableFuture<Long> purgeRecord(AMHandle recHandle) {
+		return supply(() -> connection.purgeRecord(recHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> queryCreate() {
+		return supply(() -> connection.queryCreate());
+	}
+
+	@Override
+	public CompletableFuture<Long> queryExec(AMHandle queryHandle, String aqlQuery) {
+		return supply(() -> connection.queryExec(queryHandle, aqlQuery));
+	}
+
+	@Override
+	public CompletableFuture<Long> queryGet(AMHandle qryHandle, String aqlQuery) {
+		return supply(() -> connection.queryGet(qryHandle, aqlQuery));
+	}
+
+	@Override
+	public CompletableFuture<Long> queryNext(AMHandle queryHandle) {
+		return supply(() -> connection.queryNext(queryHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> querySetAddMainField(AMHandle qryHandle, long addMainField) {
+		return supply(() -> connection.querySetAddMainField(qryHandle, addMainField));
+	}
+
+	@Override
+	public CompletableFuture<Long> querySetFullMemo(AMHandle qryHandle, long fullMemo) {
+		return supply(() -> connection.querySetFullMemo(qryHandle, fullMemo));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> queryStartTable(AMHandle qryHandle) {
+		return supply(() -> connection.queryStartTable(qryHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> queryStop(AMHandle qryHandle) {
+		return supply(() -> connection.queryStop(qryHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> refreshAllCaches() {
+		return supply(() -> connection.refreshAllCaches());
+	}
+
+	@Override
+	public CompletableFuture<Long> releaseHandle(AMHandle objHandle) {
+		return supply(() -> connection.releaseHandle(objHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> rollBack() {
+		if (!isTransactionControl()) {
+			return rejected("connection.enlisted.rollback");
+		}
+		return supply(() -> connection.rollBack());
+	}
+
+	@Override
+	public CompletableFuture<Long> setFieldDateOnlyValue(AMHandle recHandle, String fieldName, AMDate dateOnlyValue) {
+		return supply(() -> connection.setFieldDateOnlyValue(recHandle, fieldName, dateOnlyValue));
+	}
+
+	@Override
+	public CompletableFuture<Long> setFieldDateValue(AMHandle recHandle, String fieldName, AMDate dateTimeValue) {
+		return supply(() -> connection.setFieldDateValue(recHandle, fieldName, dateTimeValue));
+	}
+
+	@Override
+	public CompletableFuture<Long> setFieldDoubleValue(AMHandle recHandle, String fieldName, double value) {
+		return supply(() -> connection.setFieldDoubleValue(recHandle, fieldName, value));
+	}
+
+	@Override
+	public CompletableFuture<Long> setFieldLongValue(AMHandle recHandle, String fieldName, long value) {
+		return supply(() -> connection.setFieldLongValue(recHandle, fieldName, value));
+	}
+
+	@Override
+	public CompletableFuture<Long> setFieldStrValue(AMHandle recHandle, String fieldName, String value) {
+		return supply(() -> connection.setFieldStrValue(recHandle, fieldName, value));
+	}
+
+	@Override
+	public CompletableFuture<Long> sqlTextConst(String aqlQuery, AMString target) {
+		return supply(() -> connection.sqlTextConst(aqlQuery, target));
+	}
+
+	@Override
+	public CompletableFuture<Long> startTransaction() {
+		return supply(() -> connection.startTransaction());
+	}
+
+	@Override
+	public CompletableFuture<Long> updateRecord(AMHandle recHandle) {
+		return supply(() -> connection.updateRecord(recHandle));
+	}
+}
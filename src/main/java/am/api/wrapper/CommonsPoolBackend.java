@@ -0,0 +1,139 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.NoSuchElementException;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+
+import am.api.model.AMCredential;
+
+/**
+ * {@link PoolBackend} on a commons-pool2 {@link GenericKeyedObjectPool}.
+ */
+class CommonsPoolBackend implements PoolBackend {
+
+	private final MeteredObjectFactory factory;
+
+	private final GenericKeyedObjectPool<AMCredential, AMBaseConnection> pool;
+
+	CommonsPoolBackend(MeteredObjectFactory factory, GenericKeyedObjectPoolConfig<AMBaseConnection> config) {
+		super();
+		this.factory = factory;
+		this.pool = new GenericKeyedObjectPool<>(factory, config);
+	}
+
+	@Override
+	public void addIdle(AMCredential credential) throws Exception {
+		pool.addObject(credential);
+	}
+
+	@Override
+	public AMBaseConnection borrow(AMCredential credential, long maxWaitMs) throws Exception {
+		return pool.borrowObject(credential, maxWaitMs);
+	}
+
+	@Override
+	public void close() {
+		pool.close();
+	}
+
+	@Override
+	public long getDestroyedByBorrowValidationCount() {
+		return pool.getDestroyedByBorrowValidationCount();
+	}
+
+	@Override
+	public long getDestroyedByEvictorCount() {
+		return pool.getDestroyedByEvictorCount();
+	}
+
+	@Override
+	public int getMaxTotal() {
+		return pool.getMaxTotal();
+	}
+
+	@Override
+	public int getMaxTotalPerKey() {
+		return pool.getMaxTotalPerKey();
+	}
+
+	@Override
+	public int getNumActive() {
+		return pool.getNumActive();
+	}
+
+	@Override
+	public int getNumActive(AMCredential credential) {
+		return pool.getNumActive(credential);
+	}
+
+	@Override
+	public int getNumIdle() {
+		return pool.getNumIdle();
+	}
+
+	@Override
+	public int getNumIdle(AMCredential credential) {
+		return pool.getNumIdle(credential);
+	}
+
+	@Override
+	public int getNumWaiters() {
+		return pool.getNumWaiters();
+	}
+
+	@Override
+	public void invalidate(AMCredential credential, AMBaseConnection connection) throws Exception {
+		pool.invalidateObject(credential, connection);
+	}
+
+	/**
+	 * commons-pool2 has no idle only borrow, the factory refuses to create on
+	 * this thread instead.
+	 */
+	@Override
+	public AMBaseConnection pollIdle(AMCredential credential) throws Exception {
+
+		factory.setDeferring(true);
+
+		try {
+			return pool.borrowObject(credential, 0L);
+		} catch (MeteredObjectFactory.CreationDeferred | NoSuchElementException e) {
+			return null;
+		} finally {
+			factory.setDeferring(false);
+		}
+	}
+
+	@Override
+	public void returnObject(AMCredential credential, AMBaseConnection connection) throws Exception {
+		pool.returnObject(credential, connection);
+	}
+
+	@Override
+	public void setIdleBounds(int minIdlePerKey, int maxIdlePerKey) {
+		pool.setMaxIdlePerKey(maxIdlePerKey);
+		pool.setMinIdlePerKey(minIdlePerKey);
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("pool", pool).toString();
+	}
+}
@@ -0,0 +1,675 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+import org.apache.log4j.Logger;
+
+import am.api.model.AMCredential;
+
+/**
+ * Lock free {@link PoolBackend} after the ConcurrentBag design. Connections
+ * are claimed with a compare and set on their bag state, a thread first
+ * retries the connections it returned itself, then scans the shared list of
+ * its credential and finally waits on a hand-off queue fed by returning
+ * threads. Like commons-pool2, a borrower finding maxTotal reached destroys
+ * the oldest idle connection of another credential to make room.
+ */
+class ConcurrentBagBackend implements PoolBackend {
+
+	private final class Bag {
+
+		private final AMCredential credential;
+
+		private final SynchronousQueue<AMBaseConnection> handoff = new SynchronousQueue<>(true);
+
+		private final List<AMBaseConnection> shared = new CopyOnWriteArrayList<>();
+
+		private final ThreadLocal<List<WeakReference<AMBaseConnection>>> threadList = ThreadLocal
+				.withInitial(() -> new ArrayList<>(THREAD_LIST_SIZE));
+
+		private final AtomicInteger total = new AtomicInteger();
+
+		private final AtomicInteger waiters = new AtomicInteger();
+
+		Bag(AMCredential credential) {
+			super();
+			this.credential = credential;
+		}
+
+		int countIdle() {
+
+			int idle = 0;
+
+			for (AMBaseConnection connection : shared) {
+				if (connection.getBagState() == NOT_IN_USE) {
+					idle++;
+				}
+			}
+
+			return idle;
+		}
+	}
+
+	static final int IN_USE = 1;
+
+	private final static Logger logger = Logger.getLogger(ConcurrentBagBackend.class);
+
+	static final int NOT_IN_USE = 0;
+
+	static final int REMOVED = -1;
+
+	static final int RESERVED = -2;
+
+	private final static long RESCAN_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+
+	private final static int THREAD_LIST_SIZE = 16;
+
+	private final Map<AMCredential, Bag> bags = new ConcurrentHashMap<>();
+
+	private volatile boolean closed;
+
+	private final LongAdder destroyedByBorrowValidation = new LongAdder();
+
+	private final LongAdder destroyedByEvictor = new LongAdder();
+
+	private final MeteredObjectFactory factory;
+
+	private final ScheduledExecutorService housekeeper;
+
+	private volatile int maxIdlePerKey;
+
+	private final int maxTotal;
+
+	private final int maxTotalPerKey;
+
+	private final long minEvictableIdleTimeMs;
+
+	private volatile int minIdlePerKey;
+
+	private final boolean testOnBorrow;
+
+	private final boolean testOnReturn;
+
+	private final boolean testWhileIdle;
+
+	private final AtomicInteger total = new AtomicInteger();
+
+	ConcurrentBagBackend(MeteredObjectFactory factory, GenericKeyedObjectPoolConfig<AMBaseConnection> config) {
+		super();
+		this.factory = factory;
+		this.maxTotal = config.getMaxTotal() < 0 ? Integer.MAX_VALUE : config.getMaxTotal();
+		this.maxTotalPerKey = config.getMaxTotalPerKey() < 0 ? Integer.MAX_VALUE : config.getMaxTotalPerKey();
+		this.maxIdlePerKey = config.getMaxIdlePerKey();
+		this.minIdlePerKey = config.getMinIdlePerKey();
+		this.minEvictableIdleTimeMs = config.getMinEvictableIdleTimeMillis();
+		this.testOnBorrow = config.getTestOnBorrow();
+		this.testOnReturn = config.getTestOnReturn();
+		this.testWhileIdle = config.getTestWhileIdle();
+
+		long period = config.getTimeBetweenEvictionRunsMillis();
+
+		if (period > 0L) {
+			housekeeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = Executors.defaultThreadFactory().newThread(r);
+					t.setName("ConcurrentBagBackend-housekeeper");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+			housekeeper.scheduleWithFixedDelay(this::houseKeep, period, period, TimeUnit.MILLISECONDS);
+		} else {
+			housekeeper = null;
+		}
+	}
+
+	/**
+	 * @param create whether the calling thread may create a connection when
+	 *               the credential has capacity left
+	 */
+	private AMBaseConnection acquire(AMCredential credential, long maxWaitMs, boolean create) throws Exception {
+
+		if (closed) {
+			throw new IllegalStateException("Pool not open");
+		}
+
+		Bag bag = bagOf(credential);
+
+		List<WeakReference<AMBaseConnection>> local = bag.threadList.get();
+
+		for (int i = local.size() - 1; i >= 0; i--) {
+
+			AMBaseConnection connection = local.remove(i).get();
+
+			if (connection != null && connection.compareAndSetBagState(NOT_IN_USE, IN_USE)) {
+
+				connection = prepare(bag, connection);
+
+				if (connection != null) {
+					return connection;
+				}
+			}
+		}
+
+		long deadline = maxWaitMs < 0L ? Long.MAX_VALUE : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+		bag.waiters.incrementAndGet();
+
+		try {
+
+			while (true) {
+
+				for (AMBaseConnection connection : bag.shared) {
+
+					if (connection.compareAndSetBagState(NOT_IN_USE, IN_USE)) {
+
+						connection = prepare(bag, connection);
+
+						if (connection != null) {
+							return connection;
+						}
+					}
+				}
+
+				if (total.get() >= maxTotal) {
+					clearOldest(bag);
+				}
+
+				if (create && reserve(bag)) {
+					return create(bag, IN_USE);
+				}
+
+				long remaining = deadline == Long.MAX_VALUE ? RESCAN_NANOS : deadline - System.nanoTime();
+
+				if (remaining <= 0L) {
+
+					if (create) {
+						throw new NoSuchElementException("Timeout waiting for idle object");
+					}
+
+					return null;
+				}
+
+				AMBaseConnection connection = bag.handoff.poll(Math.min(remaining, RESCAN_NANOS),
+						TimeUnit.NANOSECONDS);
+
+				if (connection != null && connection.compareAndSetBagState(NOT_IN_USE, IN_USE)) {
+
+					connection = prepare(bag, connection);
+
+					if (connection != null) {
+						return connection;
+					}
+				}
+			}
+
+		} finally {
+			bag.waiters.decrementAndGet();
+		}
+	}
+
+	@Override
+	public void addIdle(AMCredential credential) throws Exception {
+
+		if (closed) {
+			throw new IllegalStateException("Pool not open");
+		}
+
+		Bag bag = bagOf(credential);
+
+		if (reserve(bag)) {
+			requite(bag, create(bag, RESERVED));
+		}
+	}
+
+	private Bag bagOf(AMCredential credential) {
+
+		Bag bag = bags.get(credential);
+
+		return bag != null ? bag : bags.computeIfAbsent(credential, Bag::new);
+	}
+
+	@Override
+	public AMBaseConnection borrow(AMCredential credential, long maxWaitMs) throws Exception {
+		return acquire(credential, maxWaitMs, true);
+	}
+
+	/**
+	 * Destroys the idle connection of another credential that was returned
+	 * the longest ago, freeing a slot for the credential of the bag.
+	 * 
+	 * @return true when a connection was destroyed
+	 */
+	private boolean clearOldest(Bag bag) {
+
+		if (bag.total.get() >= maxTotalPerKey) {
+			return false;
+		}
+
+		while (true) {
+
+			Bag oldestBag = null;
+			AMBaseConnection oldest = null;
+			long oldestReturnTime = Long.MAX_VALUE;
+
+			for (Bag other : bags.values()) {
+
+				if (other == bag) {
+					continue;
+				}
+
+				for (AMBaseConnection connection : other.shared) {
+
+					if (connection.getBagState() != NOT_IN_USE) {
+						continue;
+					}
+
+					long returnTime = connection.getBagEntry().getLastReturnTime();
+
+					if (returnTime < oldestReturnTime) {
+						oldestBag = other;
+						oldest = connection;
+						oldestReturnTime = returnTime;
+					}
+				}
+			}
+
+			if (oldest == null) {
+				return false;
+			}
+
+			// lost to a borrower or the housekeeper, look again
+			if (oldest.compareAndSetBagState(NOT_IN_USE, RESERVED)) {
+				remove(oldestBag, oldest);
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+
+		closed = true;
+
+		if (housekeeper != null) {
+			housekeeper.shutdownNow();
+		}
+
+		for (Bag bag : bags.values()) {
+			for (AMBaseConnection connection : bag.shared) {
+				if (connection.compareAndSetBagState(NOT_IN_USE, REMOVED)) {
+					remove(bag, connection);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a connection on the calling thread into a slot reserved with
+	 * {@link #reserve(Bag)}.
+	 */
+	private AMBaseConnection create(Bag bag, int state) throws Exception {
+
+		AMBaseConnection connection;
+
+		PooledObject<AMBaseConnection> entry = null;
+
+		try {
+
+			entry = factory.makeObject(bag.credential);
+
+			connection = entry.getObject();
+			connection.setBagEntry(entry);
+			connection.setBagState(state);
+
+			if (state == IN_USE) {
+				entry.allocate();
+				factory.activateObject(bag.credential, entry);
+			}
+
+		} catch (Exception | Error e) {
+
+			if (entry != null) {
+				destroy(bag, entry);
+			}
+
+			unreserve(bag);
+			throw e;
+		}
+
+		bag.shared.add(connection);
+
+		return connection;
+	}
+
+	private void destroy(Bag bag, PooledObject<AMBaseConnection> entry) {
+
+		try {
+			factory.destroyObject(bag.credential, entry);
+		} catch (Exception e) {
+			logger.warn(String.format("destroy failed, connection: %s", entry.getObject()), e);
+		}
+	}
+
+	@Override
+	public long getDestroyedByBorrowValidationCount() {
+		return destroyedByBorrowValidation.sum();
+	}
+
+	@Override
+	public long getDestroyedByEvictorCount() {
+		return destroyedByEvictor.sum();
+	}
+
+	@Override
+	public int getMaxTotal() {
+		return maxTotal;
+	}
+
+	@Override
+	public int getMaxTotalPerKey() {
+		return maxTotalPerKey;
+	}
+
+	@Override
+	public int getNumActive() {
+		return total.get() - getNumIdle();
+	}
+
+	@Override
+	public int getNumActive(AMCredential credential) {
+		Bag bag = bags.get(credential);
+		return bag == null ? 0 : bag.total.get() - bag.countIdle();
+	}
+
+	@Override
+	public int getNumIdle() {
+
+		int idle = 0;
+
+		for (Bag bag : bags.values()) {
+			idle += bag.countIdle();
+		}
+
+		return idle;
+	}
+
+	@Override
+	public int getNumIdle(AMCredential credential) {
+		Bag bag = bags.get(credential);
+		return bag == null ? 0 : bag.countIdle();
+	}
+
+	@Override
+	public int getNumWaiters() {
+
+		int waiters = 0;
+
+		for (Bag bag : bags.values()) {
+			waiters += bag.waiters.get();
+		}
+
+		return waiters;
+	}
+
+	/**
+	 * Evicts and tests idle connections, then tops every credential up to
+	 * minIdlePerKey.
+	 */
+	private void houseKeep() {
+
+		long now = System.currentTimeMillis();
+
+		for (Bag bag : bags.values()) {
+
+			int idle = bag.countIdle();
+
+			for (AMBaseConnection connection : bag.shared) {
+
+				if (!connection.compareAndSetBagState(NOT_IN_USE, RESERVED)) {
+					continue;
+				}
+
+				PooledObject<AMBaseConnection> entry = connection.getBagEntry();
+
+				if (idle > minIdlePerKey && minEvictableIdleTimeMs > 0L
+						&& now - entry.getLastReturnTime() > minEvictableIdleTimeMs) {
+					destroyedByEvictor.increment();
+					remove(bag, connection);
+					idle--;
+					continue;
+				}
+
+				if (testWhileIdle && entry.startEvictionTest()) {
+
+					boolean valid;
+
+					try {
+						factory.activateObject(bag.credential, entry);
+						valid = factory.validateObject(bag.credential, entry);
+
+						if (valid) {
+							factory.passivateObject(bag.credential, entry);
+						}
+					} catch (Exception e) {
+						valid = false;
+					}
+
+					entry.endEvictionTest(new ArrayDeque<>());
+
+					if (!valid) {
+						destroyedByEvictor.increment();
+						remove(bag, connection);
+						idle--;
+						continue;
+					}
+				}
+
+				connection.setBagState(NOT_IN_USE);
+			}
+
+			while (!closed && idle < minIdlePerKey && reserve(bag)) {
+				try {
+					requite(bag, create(bag, RESERVED));
+					idle++;
+				} catch (Exception e) {
+					logger.warn(String.format("ensureMinIdle failed, credential: %s", bag.credential), e);
+					break;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void invalidate(AMCredential credential, AMBaseConnection connection) throws Exception {
+		connection.setBagState(REMOVED);
+		remove(bagOf(credential), connection);
+	}
+
+	@Override
+	public AMBaseConnection pollIdle(AMCredential credential) throws Exception {
+		return acquire(credential, 0L, false);
+	}
+
+	/**
+	 * Activates and validates a connection the calling thread just claimed.
+	 *
+	 * @return the connection, null when it failed and was removed
+	 */
+	private AMBaseConnection prepare(Bag bag, AMBaseConnection connection) {
+
+		PooledObject<AMBaseConnection> entry = connection.getBagEntry();
+
+		entry.allocate();
+
+		try {
+			factory.activateObject(bag.credential, entry);
+		} catch (Exception e) {
+			remove(bag, connection);
+			return null;
+		}
+
+		if (testOnBorrow && !factory.validateObject(bag.credential, entry)) {
+			destroyedByBorrowValidation.increment();
+			remove(bag, connection);
+			return null;
+		}
+
+		return connection;
+	}
+
+	private void remove(Bag bag, AMBaseConnection connection) {
+
+		connection.setBagState(REMOVED);
+
+		if (bag.shared.remove(connection)) {
+			unreserve(bag);
+			destroy(bag, connection.getBagEntry());
+		}
+	}
+
+	/**
+	 * Makes a passivated connection available, handing it to a waiting thread
+	 * directly when there is one.
+	 */
+	private void requite(Bag bag, AMBaseConnection connection) {
+
+		connection.getBagEntry().deallocate();
+		connection.setBagState(NOT_IN_USE);
+
+		for (int i = 0; bag.waiters.get() > 0; i++) {
+
+			if (connection.getBagState() != NOT_IN_USE || bag.handoff.offer(connection)) {
+				return;
+			}
+
+			if ((i & 0xff) == 0xff) {
+				LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10L));
+			} else {
+				Thread.yield();
+			}
+		}
+	}
+
+	/**
+	 * @return true when a slot for one more connection of the credential was
+	 *         taken
+	 */
+	private boolean reserve(Bag bag) {
+
+		for (;;) {
+
+			int current = total.get();
+
+			if (current >= maxTotal) {
+				return false;
+			}
+
+			if (total.compareAndSet(current, current + 1)) {
+				break;
+			}
+		}
+
+		for (;;) {
+
+			int current = bag.total.get();
+
+			if (current >= maxTotalPerKey) {
+				total.decrementAndGet();
+				return false;
+			}
+
+			if (bag.total.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public void returnObject(AMCredential credential, AMBaseConnection connection) throws Exception {
+
+		Bag bag = bagOf(credential);
+
+		PooledObject<AMBaseConnection> entry = connection.getBagEntry();
+
+		entry.markReturning();
+
+		if (closed || testOnReturn && !factory.validateObject(credential, entry)) {
+			remove(bag, connection);
+			return;
+		}
+
+		try {
+			factory.passivateObject(credential, entry);
+		} catch (Exception e) {
+			remove(bag, connection);
+			return;
+		}
+
+		int maxIdle = maxIdlePerKey;
+
+		if (maxIdle >= 0 && bag.shared.size() > maxIdle && bag.countIdle() >= maxIdle) {
+			remove(bag, connection);
+			return;
+		}
+
+		requite(bag, connection);
+
+		List<WeakReference<AMBaseConnection>> local = bag.threadList.get();
+
+		if (local.size() < THREAD_LIST_SIZE) {
+			local.add(new WeakReference<>(connection));
+		}
+	}
+
+	@Override
+	public void setIdleBounds(int minIdlePerKey, int maxIdlePerKey) {
+		this.maxIdlePerKey = maxIdlePerKey;
+		this.minIdlePerKey = minIdlePerKey;
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("maxTotal", maxTotal).append("maxTotalPerKey", maxTotalPerKey)
+				.append("maxIdlePerKey", maxIdlePerKey).append("minIdlePerKey", minIdlePerKey)
+				.append("total", total).toString();
+	}
+
+	private void unreserve(Bag bag) {
+		bag.total.decrementAndGet();
+		total.decrementAndGet();
+	}
+}
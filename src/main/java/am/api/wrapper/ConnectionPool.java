@@ -16,7 +16,20 @@
  */
 package am.api.wrapper;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -33,25 +46,80 @@ import am.api.util.NLS;
 
 public class ConnectionPool {
 
+	/**
+	 * Store behind the pool.
+	 */
+	public enum Backend {
+		/** commons-pool2 GenericKeyedObjectPool */
+		COMMONS,
+		/** lock free ConcurrentBag */
+		BAG
+	}
+
 	private final static Logger logger = Logger.getLogger(ConnectionPool.class);
 
+	private FairAdmissionController admission;
+	private AffinitySlots affinity;
+	private long affinityTimeoutMs = 0L;
+	private Backend backend = Backend.COMMONS;
 	private AMCredential defaultCredential;
 	private int maxActive = 10;
 	private int maxIdle = 5;
 	private int maxTotal = 20;
 	private long maxWait = 5000L;
+	private final PoolMetrics metrics = new PoolMetrics();
 	private long minEvictableIdleTimeMs = 300000L;
 	private int minIdle = 0;
 	private int numTestsPerEvictionRun = 5;
-	private GenericKeyedObjectPool<AMCredential, AMBaseConnection> pool;
+	private PoolBackend pool;
 	private BasePoolableObjectFactory poolableObjectFactory = null;
+	private int creatorThreads = 0;
+	private MeteredObjectFactory factory;
+	private CreationPipeline pipeline;
+	private int recycleLead = 2;
+	private ExecutorService recycler;
+	private boolean testOnBorrow = true;
+	private boolean testOnReturn = false;
+	private boolean testWhileIdle = true;
 	private long timeBetweenEvictionRunsMs = 600000L;
+	private CompletableFuture<Void> warmUp = CompletableFuture.completedFuture(null);
+	private List<AMCredential> warmUpCredentials = new ArrayList<>();
+	private ExecutorService warmUpExecutor;
+	private int warmUpSize = 0;
+	private int warmUpThreads = 4;
+	private long warmUpTimeoutMs = 0L;
 
 	public ConnectionPool() {
 		super();
 	}
 
+	void addIdle(AMCredential credential) throws Exception {
+		pool.addIdle(credential);
+		signal(credential);
+	}
+
 	public void close() {
+
+		if (warmUpExecutor != null) {
+			warmUpExecutor.shutdownNow();
+			warmUpExecutor = null;
+		}
+
+		if (recycler != null) {
+			recycler.shutdownNow();
+			recycler = null;
+		}
+
+		if (pipeline != null) {
+			pipeline.close();
+			pipeline = null;
+		}
+
+		if (affinity != null) {
+			affinity.close();
+			affinity = null;
+		}
+
 		try {
 			pool.close();
 		} catch (Exception error) {
@@ -66,6 +134,7 @@ public class ConnectionPool {
 		}
 
 		pool = null;
+		metrics.bind(null);
 		defaultCredential = null;
 		maxActive = 10;
 		maxIdle = 1;
@@ -91,7 +160,13 @@ public class ConnectionPool {
 				.append(maxIdle, rhs.maxIdle).append(maxWait, rhs.maxWait).append(minIdle, rhs.minIdle)
 				.append(minEvictableIdleTimeMs, rhs.minEvictableIdleTimeMs)
 				.append(numTestsPerEvictionRun, rhs.numTestsPerEvictionRun)
-				.append(timeBetweenEvictionRunsMs, rhs.timeBetweenEvictionRunsMs).isEquals();
+				.append(timeBetweenEvictionRunsMs, rhs.timeBetweenEvictionRunsMs).append(backend, rhs.backend)
+				.append(recycleLead, rhs.recycleLead).append(creatorThreads, rhs.creatorThreads)
+				.append(affinityTimeoutMs, rhs.affinityTimeoutMs).append(warmUpSize, rhs.warmUpSize)
+				.append(warmUpThreads, rhs.warmUpThreads).append(warmUpTimeoutMs, rhs.warmUpTimeoutMs)
+				.append(warmUpCredentials, rhs.warmUpCredentials).append(testOnBorrow, rhs.testOnBorrow)
+				.append(testOnReturn, rhs.testOnReturn).append(testWhileIdle, rhs.testWhileIdle)
+				.append(admission, rhs.admission).isEquals();
 	}
 
 	public AMConnection getConnection(AMCredential credential) {
@@ -104,8 +179,24 @@ public class ConnectionPool {
 
 		AMBaseConnection pConnection = null;
 
+		boolean admitted = false;
+
+		long start = System.nanoTime();
+
 		try {
 
+			if (affinity != null) {
+
+				pConnection = affinity.take(credentialToLookup);
+
+				if (pConnection != null) {
+					pConnection.incrementReuse();
+					metrics.recordAffinityHit(credentialToLookup, start);
+					pConnection.markBorrowed(System.nanoTime());
+					return pConnection;
+				}
+			}
+
 			if (logger.isDebugEnabled()) {
 				logger.debug(String.format(
 						"Pool globalNumActive=[%d], globalNumIdle=[%d], keyNumActive=[%d], keyNumIdle=[%d]",
@@ -113,17 +204,43 @@ public class ConnectionPool {
 						pool.getNumIdle(credentialToLookup)));
 			}
 
-			pConnection = pool.borrowObject(credentialToLookup);
+			long wait = maxWait;
+
+			if (admission != null) {
+
+				if (!admission.acquire(credentialToLookup, maxWait)) {
+					throw new NoSuchElementException("Timeout waiting for admission");
+				}
+
+				admitted = true;
+
+				if (maxWait >= 0L) {
+					wait = Math.max(0L, maxWait - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				}
+			}
+
+			pConnection = pipeline != null ? pipeline.borrow(credentialToLookup, wait)
+					: pool.borrow(credentialToLookup, wait);
 
 			if (pConnection != null) {
+
+				if (admitted) {
+					pConnection.markAdmitted();
+				}
+
 				pConnection.incrementReuse();
+				metrics.recordBorrow(credentialToLookup, start);
+				pConnection.markBorrowed(System.nanoTime());
 			}
 
 		} catch (NoSuchElementException e) {
+			metrics.recordExhausted(credentialToLookup);
 			logger.warn(String.format("Pool Exhausted, message=[%s]", e.getMessage()));
 			throw new AMConnectionException(NLS.ERRORS.getString("connection.cannot.borrow.exhausted"), e);
 		} catch (Exception e) {
 
+			metrics.recordBorrowFailure();
+
 			if (e instanceof AMConnectionException) {
 
 				throw (AMConnectionException) e;
@@ -134,11 +251,32 @@ public class ConnectionPool {
 
 			}
 
+		} finally {
+
+			if (admitted && pConnection == null) {
+				admission.release(credentialToLookup);
+			}
 		}
 
 		return pConnection;
 	}
 
+	public FairAdmissionController getAdmission() {
+		return admission;
+	}
+
+	public long getAffinityTimeoutMs() {
+		return affinityTimeoutMs;
+	}
+
+	public Backend getBackend() {
+		return backend;
+	}
+
+	public int getCreatorThreads() {
+		return creatorThreads;
+	}
+
 	public AMCredential getDefaultCredential() {
 		return defaultCredential;
 	}
@@ -151,6 +289,10 @@ public class ConnectionPool {
 		return maxIdle;
 	}
 
+	public int getMaxTotal() {
+		return maxTotal;
+	}
+
 	public long getMaxWait() {
 		return maxWait;
 	}
@@ -159,22 +301,98 @@ public class ConnectionPool {
 		return minEvictableIdleTimeMs;
 	}
 
+	/**
+	 * @return live metrics of this pool, also published as a
+	 *         {@link PoolMetricsMXBean}
+	 */
+	public PoolMetrics getMetrics() {
+		return metrics;
+	}
+
 	public int getMinIdle() {
 		return minIdle;
 	}
 
+	int getNumActive(AMCredential credential) {
+		return pool.getNumActive(credential);
+	}
+
+	int getNumIdle(AMCredential credential) {
+		return pool.getNumIdle(credential);
+	}
+
+	private boolean hasWaiters(AMCredential credential) {
+		return pool.getNumWaiters() > 0 || pipeline != null && pipeline.hasWaiters(credential)
+				|| admission != null && admission.hasWaiters();
+	}
+
+	/**
+	 * @return true when a connection of the credential may still be created
+	 */
+	boolean hasCapacity(AMCredential credential) {
+		return getNumTotal() < pool.getMaxTotal() && pool.getNumActive(credential)
+				+ pool.getNumIdle(credential) < pool.getMaxTotalPerKey();
+	}
+
+	int getNumTotal() {
+		return pool.getNumActive() + pool.getNumIdle();
+	}
+
 	public BasePoolableObjectFactory getPoolableObjectFactory() {
 		return poolableObjectFactory;
 	}
 
+	public int getRecycleLead() {
+		return recycleLead;
+	}
+
 	public long getTimeBetweenEvictionRunsMs() {
 		return timeBetweenEvictionRunsMs;
 	}
 
+	public boolean isTestOnBorrow() {
+		return testOnBorrow;
+	}
+
+	public boolean isTestOnReturn() {
+		return testOnReturn;
+	}
+
+	public boolean isTestWhileIdle() {
+		return testWhileIdle;
+	}
+
+	/**
+	 * @return completes once the warm-up started by {@link #init()} has
+	 *         finished, successfully or not
+	 */
+	public CompletableFuture<Void> getWarmUp() {
+		return warmUp;
+	}
+
+	public List<AMCredential> getWarmUpCredentials() {
+		return warmUpCredentials;
+	}
+
+	public int getWarmUpSize() {
+		return warmUpSize;
+	}
+
+	public int getWarmUpThreads() {
+		return warmUpThreads;
+	}
+
+	public long getWarmUpTimeoutMs() {
+		return warmUpTimeoutMs;
+	}
+
 	public int hashCode() {
 		return new HashCodeBuilder(91, 5).append(pool).append(defaultCredential).append(poolableObjectFactory)
 				.append(maxActive).append(maxIdle).append(maxWait).append(minIdle).append(minEvictableIdleTimeMs)
-				.append(numTestsPerEvictionRun).append(timeBetweenEvictionRunsMs).toHashCode();
+				.append(numTestsPerEvictionRun).append(timeBetweenEvictionRunsMs).append(backend).append(recycleLead)
+				.append(creatorThreads).append(affinityTimeoutMs).append(warmUpSize).append(warmUpThreads)
+				.append(warmUpTimeoutMs).append(warmUpCredentials).append(testOnBorrow).append(testOnReturn)
+				.append(testWhileIdle).append(admission).toHashCode();
 	}
 
 	public void init() {
@@ -185,6 +403,12 @@ public class ConnectionPool {
 		Assert.isTrue(maxIdle > 0, "maxIdle needs to be greater than 0.");
 		Assert.isTrue(maxActive > maxIdle, "maxActive needs to be higher than maxIdle.");
 		Assert.isTrue(maxIdle > minIdle, "maxIdle needs to be higher than minIdle");
+		Assert.isTrue(recycleLead >= 0, "recycleLead needs to be 0 or greater.");
+		Assert.isTrue(creatorThreads >= 0, "creatorThreads needs to be 0 or greater.");
+		Assert.isTrue(affinityTimeoutMs >= 0L, "affinityTimeoutMs needs to be 0 or greater.");
+		Assert.isTrue(warmUpSize >= 0, "warmUpSize needs to be 0 or greater.");
+		Assert.isTrue(warmUpThreads > 0, "warmUpThreads needs to be greater than 0.");
+		Assert.notNull(backend, "backend is required");
 
 		if (minIdle > 0) {
 
@@ -204,8 +428,37 @@ public class ConnectionPool {
 		config.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMs);
 		config.setNumTestsPerEvictionRun(numTestsPerEvictionRun);
 		config.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMs);
+		config.setTestOnBorrow(testOnBorrow);
+		config.setTestOnReturn(testOnReturn);
+		config.setTestWhileIdle(testWhileIdle);
+
+		factory = new MeteredObjectFactory(poolableObjectFactory, metrics);
+
+		pool = backend == Backend.BAG ? new ConcurrentBagBackend(factory, config)
+				: new CommonsPoolBackend(factory, config);
+
+		if (creatorThreads > 0) {
+			pipeline = new CreationPipeline(this, creatorThreads);
+		}
+
+		if (affinityTimeoutMs > 0L) {
+			affinity = new AffinitySlots(this, affinityTimeoutMs);
+		}
+
+		if (warmUpSize > 0) {
+			startWarmUp();
+		}
 
-		pool = new GenericKeyedObjectPool<>(poolableObjectFactory, config);
+		metrics.bind(pool);
+
+		recycler = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = Executors.defaultThreadFactory().newThread(r);
+				t.setName("ConnectionPool-recycler");
+				t.setDaemon(true);
+				return t;
+			}
+		});
 
 	}
 
@@ -215,13 +468,27 @@ public class ConnectionPool {
 			logger.debug(String.format("credential: %s, connection: %s", credential, connection));
 		}
 
+		metrics.recordRelease(connection);
+
+		releaseAdmission(credential, connection);
+
 		try {
-			pool.invalidateObject(credential, connection);
+			pool.invalidate(credential, connection);
 		} catch (Exception e) {
 			throw new IllegalStateException(e);
+		} finally {
+			signal(credential);
 		}
 	}
 
+	/**
+	 * @return an idle connection of the credential, null when none is idle
+	 *         right now, never creates one on the calling thread
+	 */
+	AMBaseConnection pollIdle(AMCredential credential) throws Exception {
+		return pool.pollIdle(credential);
+	}
+
 	public void performCleanup() {
 		// do nothing
 	}
@@ -232,11 +499,97 @@ public class ConnectionPool {
 			logger.debug(String.format("credential: %s, connection: %s", credential, connection));
 		}
 
+		metrics.recordRelease(connection);
+
+		long now = System.currentTimeMillis();
+
+		if (connection.isRecycleNear(now, recycleLead) && connection.requestReplacement()) {
+			replace(credential);
+		}
+
 		try {
-			pool.returnObject(credential, connection);
+
+			if (connection.isProcessingFlagSet(AMConnection.FLAG_NO_REUSE)) {
+				logger.debug("discarding {}", connection);
+				releaseAdmission(credential, connection);
+				pool.invalidate(credential, connection);
+			} else if (connection.isRecycleDue(now)) {
+				logger.debug("recycling {}", connection);
+				releaseAdmission(credential, connection);
+				pool.invalidate(credential, connection);
+			} else {
+
+				connection.markHealthy(now);
+
+				if (affinity != null && !hasWaiters(credential) && affinity.park(credential, connection)) {
+					return;
+				}
+
+				releaseAdmission(credential, connection);
+
+				pool.returnObject(credential, connection);
+			}
+
 		} catch (Exception e) {
 			throw new IllegalStateException(e);
+		} finally {
+			signal(credential);
+		}
+	}
+
+	private void releaseAdmission(AMCredential credential, AMBaseConnection connection) {
+		if (connection.clearAdmitted()) {
+			admission.release(credential);
+		}
+	}
+
+	/**
+	 * Builds a connection in the background that takes over from one about to
+	 * be recycled, so the borrowers never wait for it.
+	 */
+	private void replace(AMCredential credential) {
+
+		ExecutorService current = recycler;
+
+		if (current == null) {
+			return;
 		}
+
+		try {
+			current.execute(() -> {
+				try {
+					addIdle(credential);
+				} catch (Exception e) {
+					logger.warn("Could not create a replacement connection", e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			logger.debug("recycler stopped, replacement skipped");
+		}
+	}
+
+	/**
+	 * Changes the per credential idle bounds of a running pool, connections
+	 * above maxIdlePerKey are destroyed as they are returned or evicted.
+	 */
+	void setIdleBounds(int minIdlePerKey, int maxIdlePerKey) {
+		pool.setIdleBounds(minIdlePerKey, maxIdlePerKey);
+	}
+
+	public void setAdmission(FairAdmissionController admission) {
+		this.admission = admission;
+	}
+
+	public void setAffinityTimeoutMs(long affinityTimeoutMs) {
+		this.affinityTimeoutMs = affinityTimeoutMs;
+	}
+
+	public void setBackend(Backend backend) {
+		this.backend = backend;
+	}
+
+	public void setCreatorThreads(int creatorThreads) {
+		this.creatorThreads = creatorThreads;
 	}
 
 	public void setDefaultCredential(AMCredential defaultCredential) {
@@ -268,16 +621,162 @@ public class ConnectionPool {
 		poolableObjectFactory.setConnectionPool(this);
 	}
 
+	/**
+	 * Returns a connection parked with a thread to the shared pool.
+	 */
+	void unpark(AMCredential credential, AMBaseConnection connection) {
+
+		releaseAdmission(credential, connection);
+
+		try {
+
+			if (connection.isProcessingFlagSet(AMConnection.FLAG_NO_REUSE)
+					|| connection.isRecycleDue(System.currentTimeMillis())) {
+				pool.invalidate(credential, connection);
+			} else {
+				pool.returnObject(credential, connection);
+			}
+
+		} catch (Exception e) {
+			logger.warn("Could not return a parked connection", e);
+		} finally {
+			signal(credential);
+		}
+	}
+
+	private void signal(AMCredential credential) {
+
+		CreationPipeline current = pipeline;
+
+		if (current != null) {
+			current.signal(credential);
+		}
+	}
+
+	public void setRecycleLead(int recycleLead) {
+		this.recycleLead = recycleLead;
+	}
+
+	public void setTestOnBorrow(boolean testOnBorrow) {
+		this.testOnBorrow = testOnBorrow;
+	}
+
+	public void setTestOnReturn(boolean testOnReturn) {
+		this.testOnReturn = testOnReturn;
+	}
+
+	public void setTestWhileIdle(boolean testWhileIdle) {
+		this.testWhileIdle = testWhileIdle;
+	}
+
 	public void setTimeBetweenEvictionRunsMs(long timeBetweenEvictionRunsMs) {
 		this.timeBetweenEvictionRunsMs = timeBetweenEvictionRunsMs;
 	}
 
+	public void setWarmUpCredentials(List<AMCredential> warmUpCredentials) {
+		this.warmUpCredentials = warmUpCredentials;
+	}
+
+	public void setWarmUpSize(int warmUpSize) {
+		this.warmUpSize = warmUpSize;
+	}
+
+	public void setWarmUpThreads(int warmUpThreads) {
+		this.warmUpThreads = warmUpThreads;
+	}
+
+	public void setWarmUpTimeoutMs(long warmUpTimeoutMs) {
+		this.warmUpTimeoutMs = warmUpTimeoutMs;
+	}
+
+	/**
+	 * Opens warmUpSize connections for the default and each warm-up credential
+	 * on warmUpThreads threads, so child processes are spawned concurrently.
+	 * With warmUpTimeoutMs > 0 the caller waits that long for the warm-up.
+	 */
+	private void startWarmUp() {
+
+		Set<AMCredential> credentials = new LinkedHashSet<>();
+
+		credentials.add(defaultCredential);
+
+		if (warmUpCredentials != null) {
+			credentials.addAll(warmUpCredentials);
+		}
+
+		int total = credentials.size() * warmUpSize;
+
+		AtomicInteger ready = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+
+		warmUpExecutor = Executors.newFixedThreadPool(Math.min(warmUpThreads, total), new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable r) {
+				Thread t = Executors.defaultThreadFactory().newThread(r);
+				t.setName("ConnectionPool-warmup-" + count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+
+		List<CompletableFuture<Void>> tasks = new ArrayList<>(total);
+
+		for (AMCredential credential : credentials) {
+			for (int i = 0; i < warmUpSize; i++) {
+				tasks.add(CompletableFuture.runAsync(() -> {
+
+					try {
+
+						if (pool.getNumIdle(credential) < warmUpSize && hasCapacity(credential)) {
+							addIdle(credential);
+						}
+
+						ready.incrementAndGet();
+
+					} catch (Exception e) {
+						failed.incrementAndGet();
+						logger.warn("Could not open a warm-up connection", e);
+					}
+
+					logger.info(String.format(NLS.MESSAGES.getString("pool.warmup.progress"), ready.get(), total,
+							failed.get()));
+
+				}, warmUpExecutor));
+			}
+		}
+
+		warmUpExecutor.shutdown();
+
+		warmUp = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+
+		if (warmUpTimeoutMs > 0L) {
+
+			try {
+				warmUp.get(warmUpTimeoutMs, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				logger.warn(String.format(NLS.MESSAGES.getString("pool.warmup.timeout"), warmUpTimeoutMs));
+			} catch (ExecutionException e) {
+				logger.warn("Pool warm-up failed", e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
 	public String toString() {
-		return new ToStringBuilder(this).append("pool", pool).append("defaultCredential", defaultCredential)
+		return new ToStringBuilder(this).append("backend", backend).append("pool", pool)
+				.append("defaultCredential", defaultCredential)
 				.append("poolableObjectFactory", poolableObjectFactory).append("maxActive", maxActive)
 				.append("maxIdle", maxIdle).append("maxWait", maxWait).append("minIdle", minIdle)
 				.append("minEvictableIdleTimeMs", minEvictableIdleTimeMs)
 				.append("numTestsPerEvictionRun", numTestsPerEvictionRun)
-				.append("timeBetweenEvictionRunsMs", timeBetweenEvictionRunsMs).toString();
+				.append("timeBetweenEvictionRunsMs", timeBetweenEvictionRunsMs).append("recycleLead", recycleLead)
+				.append("creatorThreads", creatorThreads).append("affinityTimeoutMs", affinityTimeoutMs)
+				.append("warmUpSize", warmUpSize).append("warmUpThreads", warmUpThreads)
+				.append("warmUpTimeoutMs", warmUpTimeoutMs).append("warmUpCredentials", warmUpCredentials)
+				.append("testOnBorrow", testOnBorrow).append("testOnReturn", testOnReturn)
+				.append("testWhileIdle", testWhileIdle).append("admission", admission).toString();
 	}
 }
@@ -0,0 +1,241 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+
+import am.api.exception.AMConnectionException;
+import am.api.model.AMCredential;
+import am.api.util.NLS;
+
+/**
+ * Moves connection creation off the borrowing threads. A borrower that finds
+ * no idle connection files a demand ticket with the creator threads and takes
+ * whichever connection becomes idle first, a returned one or a new one.
+ */
+class CreationPipeline {
+
+	private static class Demand {
+
+		private final Condition changed;
+
+		private final AtomicInteger failures = new AtomicInteger();
+
+		private volatile Exception lastFailure;
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final AtomicInteger pending = new AtomicInteger();
+
+		private long version;
+
+		private final AtomicInteger waiting = new AtomicInteger();
+
+		Demand() {
+			super();
+			changed = lock.newCondition();
+		}
+
+		/**
+		 * @return false when nothing changed before the timeout
+		 */
+		boolean awaitChange(long seen, long timeoutNanos) throws InterruptedException {
+
+			lock.lock();
+
+			try {
+
+				long remaining = timeoutNanos;
+
+				while (version == seen) {
+
+					if (remaining <= 0L) {
+						return false;
+					}
+
+					remaining = changed.awaitNanos(remaining);
+				}
+
+				return true;
+
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		void signal() {
+
+			if (waiting.get() == 0) {
+				return;
+			}
+
+			lock.lock();
+
+			try {
+				version++;
+				changed.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		long version() {
+
+			lock.lock();
+
+			try {
+				return version;
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private final static Logger logger = Logger.getLogger(CreationPipeline.class);
+
+	private final ConnectionPool connectionPool;
+
+	private final ExecutorService creators;
+
+	private final Map<AMCredential, Demand> demands = new ConcurrentHashMap<>();
+
+	CreationPipeline(ConnectionPool connectionPool, int creatorThreads) {
+		super();
+		this.connectionPool = connectionPool;
+		this.creators = Executors.newFixedThreadPool(creatorThreads, new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable r) {
+				Thread t = Executors.defaultThreadFactory().newThread(r);
+				t.setName("ConnectionPool-creator-" + count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	/**
+	 * @param maxWait milliseconds to wait, negative to wait forever
+	 */
+	AMBaseConnection borrow(AMCredential credential, long maxWait) throws Exception {
+
+		Demand demand = demands.computeIfAbsent(credential, key -> new Demand());
+
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait);
+
+		int failures = demand.failures.get();
+
+		demand.waiting.incrementAndGet();
+
+		try {
+
+			while (true) {
+
+				long seen = demand.version();
+
+				AMBaseConnection connection = connectionPool.pollIdle(credential);
+
+				if (connection != null) {
+					return connection;
+				}
+
+				// creation failures reach the borrowers like before instead of
+				// running into maxWait
+				if (demand.failures.get() != failures) {
+					throw new AMConnectionException(NLS.ERRORS.getString("connection.cannot.borrow.exception"),
+							demand.lastFailure);
+				}
+
+				if (connectionPool.hasCapacity(credential)) {
+					requestCreate(credential, demand);
+				}
+
+				long remaining = maxWait < 0L ? Long.MAX_VALUE : deadline - System.nanoTime();
+
+				if (remaining <= 0L || !demand.awaitChange(seen, remaining)) {
+					throw new NoSuchElementException("Timeout waiting for a connection");
+				}
+			}
+
+		} finally {
+			demand.waiting.decrementAndGet();
+		}
+	}
+
+	boolean hasWaiters(AMCredential credential) {
+		Demand demand = demands.get(credential);
+		return demand != null && demand.waiting.get() > 0;
+	}
+
+	void close() {
+		creators.shutdownNow();
+		demands.clear();
+	}
+
+	private void requestCreate(AMCredential credential, Demand demand) {
+
+		// one ticket per waiting borrower at most, returns may satisfy some
+		int pending = demand.pending.get();
+
+		if (pending >= demand.waiting.get() || !demand.pending.compareAndSet(pending, pending + 1)) {
+			return;
+		}
+
+		try {
+			creators.execute(() -> {
+				try {
+					connectionPool.addIdle(credential);
+				} catch (Exception e) {
+					logger.warn("Could not create a connection", e);
+					demand.lastFailure = e;
+					demand.failures.incrementAndGet();
+				} finally {
+					demand.pending.decrementAndGet();
+					demand.signal();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			demand.pending.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Wakes the borrowers of the credential after a connection became idle or
+	 * capacity was freed.
+	 */
+	void signal(AMCredential credential) {
+
+		Demand demand = demands.get(credential);
+
+		if (demand != null) {
+			demand.signal();
+		}
+	}
+}
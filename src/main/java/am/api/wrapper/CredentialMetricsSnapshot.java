@@ -0,0 +1,96 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Point in time counters of the connections of one credential.
+ */
+public final class CredentialMetricsSnapshot implements Serializable {
+
+	private final static long serialVersionUID = 1L;
+
+	private final long borrowedCount;
+
+	private final long createdCount;
+
+	private final String database;
+
+	private final long exhaustedCount;
+
+	private final int numActive;
+
+	private final int numIdle;
+
+	private final String userName;
+
+	public CredentialMetricsSnapshot(String database, String userName, int numActive, int numIdle,
+			long borrowedCount, long createdCount, long exhaustedCount) {
+		super();
+		this.database = database;
+		this.userName = userName;
+		this.numActive = numActive;
+		this.numIdle = numIdle;
+		this.borrowedCount = borrowedCount;
+		this.createdCount = createdCount;
+		this.exhaustedCount = exhaustedCount;
+	}
+
+	public long getBorrowedCount() {
+		return borrowedCount;
+	}
+
+	public long getCreatedCount() {
+		return createdCount;
+	}
+
+	public String getDatabase() {
+		return database;
+	}
+
+	public long getExhaustedCount() {
+		return exhaustedCount;
+	}
+
+	public int getNumActive() {
+		return numActive;
+	}
+
+	public int getNumIdle() {
+		return numIdle;
+	}
+
+	/**
+	 * @return borrows served per connection created
+	 */
+	public double getReuseRatio() {
+		return createdCount == 0L ? 0.0d : (double) borrowedCount / createdCount;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("database", database).append("userName", userName)
+				.append("numActive", numActive).append("numIdle", numIdle).append("borrowedCount", borrowedCount)
+				.append("createdCount", createdCount).append("exhaustedCount", exhaustedCount).toString();
+	}
+}
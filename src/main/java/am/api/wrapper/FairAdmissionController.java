@@ -0,0 +1,437 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.util.Assert;
+
+import am.api.model.AMCredential;
+
+/**
+ * Admits borrowers of a {@link ConnectionPool} per credential so one user
+ * cannot take every connection.
+ * <p>
+ * Each user gets a quota of concurrent connections, a weight and a reserved
+ * minimum that other users cannot eat into. When capacity runs out, waiters
+ * of different users are admitted in smooth weighted round robin, those below
+ * their reservation first, and waiters of one user in arrival order.
+ * <p>
+ * Users are configured as "userName=quota:6,weight:1,reserved:0;..." entries,
+ * absent settings default to defaultQuota, defaultWeight and defaultReserved.
+ * Only configured users hold a reservation, other users get defaultQuota and
+ * defaultWeight and are forgotten once they hold and wait for nothing.
+ * <p>
+ * Users are told apart by user name alone, the same user on two databases
+ * shares one quota.
+ */
+public class FairAdmissionController {
+
+	private static class Tenant {
+
+		int current;
+
+		int held;
+
+		final int quota;
+
+		final int reserved;
+
+		final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+		final int weight;
+
+		Tenant(int quota, int weight, int reserved) {
+			super();
+			this.quota = quota;
+			this.weight = weight;
+			this.reserved = reserved;
+		}
+
+		int shortfall() {
+			return Math.max(0, reserved - held);
+		}
+	}
+
+	private static class Waiter {
+
+		final Condition admitted;
+
+		boolean granted;
+
+		Waiter(Condition admitted) {
+			super();
+			this.admitted = admitted;
+		}
+	}
+
+	private int capacity = 0;
+
+	private int defaultQuota = 0;
+
+	private int defaultReserved = 0;
+
+	private int defaultWeight = 1;
+
+	private int held;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Map<String, Tenant> tenants = new HashMap<>();
+
+	private Map<String, int[]> tenantSettings = new HashMap<>();
+
+	private String users;
+
+	private volatile int waiting;
+
+	public FairAdmissionController() {
+		super();
+	}
+
+	/**
+	 * @return false when no admission was possible within the time out, true
+	 *         with the interrupt status set when admitted while interrupted
+	 */
+	public boolean acquire(AMCredential credential, long timeoutMs) throws InterruptedException {
+
+		lock.lock();
+
+		try {
+
+			Tenant tenant = tenantOf(credential);
+
+			if (tenant.waiters.isEmpty() && isAdmissible(tenant)) {
+				admit(tenant);
+				return true;
+			}
+
+			Waiter waiter = new Waiter(lock.newCondition());
+
+			tenant.waiters.addLast(waiter);
+			waiting++;
+
+			long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+			try {
+
+				while (!waiter.granted) {
+
+					if (timeoutMs >= 0L && remaining <= 0L) {
+						return false;
+					}
+
+					try {
+						if (timeoutMs < 0L) {
+							waiter.admitted.await();
+						} else {
+							remaining = waiter.admitted.awaitNanos(remaining);
+						}
+					} catch (InterruptedException e) {
+						// admitted as the interrupt arrived, the caller has to release
+						if (!waiter.granted) {
+							throw e;
+						}
+						Thread.currentThread().interrupt();
+					}
+				}
+
+				return true;
+
+			} finally {
+
+				if (!waiter.granted) {
+					tenant.waiters.remove(waiter);
+					waiting--;
+					retireIfIdle(credential.getUserName(), tenant);
+				}
+			}
+
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void admit(Tenant tenant) {
+		tenant.held++;
+		held++;
+	}
+
+	private void dispatch() {
+
+		while (waiting > 0) {
+
+			Tenant chosen = null;
+			int total = 0;
+
+			// tenants short of their reservation go first
+			for (Tenant tenant : tenants.values()) {
+				if (!tenant.waiters.isEmpty() && tenant.shortfall() > 0 && isAdmissible(tenant)) {
+					chosen = tenant;
+					break;
+				}
+			}
+
+			if (chosen == null) {
+
+				for (Tenant tenant : tenants.values()) {
+
+					if (tenant.waiters.isEmpty() || !isAdmissible(tenant)) {
+						continue;
+					}
+
+					tenant.current += tenant.weight;
+					total += tenant.weight;
+
+					if (chosen == null || tenant.current > chosen.current) {
+						chosen = tenant;
+					}
+				}
+
+				if (chosen == null) {
+					return;
+				}
+
+				chosen.current -= total;
+			}
+
+			Waiter waiter = chosen.waiters.pollFirst();
+
+			waiting--;
+			waiter.granted = true;
+			admit(chosen);
+			waiter.admitted.signal();
+		}
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getDefaultQuota() {
+		return defaultQuota;
+	}
+
+	public int getDefaultReserved() {
+		return defaultReserved;
+	}
+
+	public int getDefaultWeight() {
+		return defaultWeight;
+	}
+
+	/**
+	 * @return connections currently admitted for the credential
+	 */
+	public int getHeld(AMCredential credential) {
+
+		lock.lock();
+
+		try {
+			Tenant tenant = tenants.get(credential.getUserName());
+			return tenant == null ? 0 : tenant.held;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public String getUsers() {
+		return users;
+	}
+
+	public int getWaiting() {
+
+		lock.lock();
+
+		try {
+			return waiting;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public boolean hasWaiters() {
+		return waiting > 0;
+	}
+
+	public void init() {
+
+		Assert.isTrue(capacity > 0, "capacity needs to be greater than 0.");
+		Assert.isTrue(defaultWeight > 0, "defaultWeight needs to be greater than 0.");
+		Assert.isTrue(defaultReserved >= 0, "defaultReserved needs to be 0 or greater.");
+
+		if (defaultQuota == 0) {
+			defaultQuota = capacity;
+		}
+
+		tenantSettings = parseUsers(users);
+
+		int reservedTotal = 0;
+
+		for (int[] settings : tenantSettings.values()) {
+			Assert.isTrue(settings[0] > 0 && settings[1] > 0, "quota and weight need to be greater than 0.");
+			Assert.isTrue(settings[2] <= settings[0], "reserved cannot exceed quota.");
+			reservedTotal += settings[2];
+		}
+
+		Assert.isTrue(reservedTotal <= capacity, "reservations cannot exceed capacity.");
+
+		// configured users hold their reservation before their first borrow
+		tenantSettings.forEach((userName, settings) -> tenants.put(userName,
+				new Tenant(settings[0], settings[1], settings[2])));
+	}
+
+	private boolean isAdmissible(Tenant tenant) {
+
+		if (tenant.held >= tenant.quota || held >= capacity) {
+			return false;
+		}
+
+		if (tenant.shortfall() > 0) {
+			return true;
+		}
+
+		int reservedElsewhere = 0;
+
+		for (Tenant other : tenants.values()) {
+			if (other != tenant) {
+				reservedElsewhere += other.shortfall();
+			}
+		}
+
+		return capacity - held > reservedElsewhere;
+	}
+
+	private Map<String, int[]> parseUsers(String spec) {
+
+		Map<String, int[]> settings = new HashMap<>();
+
+		if (StringUtils.isBlank(spec)) {
+			return settings;
+		}
+
+		for (String entry : StringUtils.split(spec, ';')) {
+
+			String[] parts = StringUtils.split(entry.trim(), '=');
+
+			Assert.isTrue(parts.length == 2, String.format("invalid user entry [%s], expected userName=key:value,...", entry));
+
+			int[] values = { defaultQuota, defaultWeight, defaultReserved };
+
+			for (String setting : StringUtils.split(parts[1], ',')) {
+
+				String[] pair = StringUtils.split(setting.trim(), ':');
+
+				Assert.isTrue(pair.length == 2, String.format("invalid setting [%s]", setting));
+
+				int value = Integer.parseInt(pair[1].trim());
+
+				switch (pair[0].trim()) {
+				case "quota":
+					values[0] = value;
+					break;
+				case "weight":
+					values[1] = value;
+					break;
+				case "reserved":
+					values[2] = value;
+					break;
+				default:
+					throw new IllegalArgumentException(String.format("unknown setting [%s]", pair[0]));
+				}
+			}
+
+			settings.put(parts[0].trim(), values);
+		}
+
+		return settings;
+	}
+
+	public void release(AMCredential credential) {
+
+		lock.lock();
+
+		try {
+
+			Tenant tenant = tenants.get(credential.getUserName());
+
+			Assert.state(tenant != null && tenant.held > 0, "release without acquire");
+
+			tenant.held--;
+			held--;
+
+			dispatch();
+
+			retireIfIdle(credential.getUserName(), tenant);
+
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Drops an unconfigured user holding and waiting for nothing, so users
+	 * seen once do not pile up.
+	 */
+	private void retireIfIdle(String userName, Tenant tenant) {
+		if (tenant.held == 0 && tenant.waiters.isEmpty() && !tenantSettings.containsKey(userName)) {
+			tenants.remove(userName);
+		}
+	}
+
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	public void setDefaultQuota(int defaultQuota) {
+		this.defaultQuota = defaultQuota;
+	}
+
+	public void setDefaultReserved(int defaultReserved) {
+		this.defaultReserved = defaultReserved;
+	}
+
+	public void setDefaultWeight(int defaultWeight) {
+		this.defaultWeight = defaultWeight;
+	}
+
+	public void setUsers(String users) {
+		this.users = users;
+	}
+
+	private Tenant tenantOf(AMCredential credential) {
+		return tenants.computeIfAbsent(credential.getUserName(), userName -> {
+			int[] settings = tenantSettings.get(userName);
+			// reservations of unconfigured users could add up past capacity
+			return settings != null ? new Tenant(settings[0], settings[1], settings[2])
+					: new Tenant(defaultQuota, defaultWeight, 0);
+		});
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("capacity", capacity).append("defaultQuota", defaultQuota)
+				.append("defaultWeight", defaultWeight).append("defaultReserved", defaultReserved)
+				.append("users", users).toString();
+	}
+}
@@ -0,0 +1,289 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import com.sun.jna.Pointer;
+
+import am.api.AMHandle;
+import am.api.AMHandleType;
+import am.api.model.AMHandleImpl;
+
+/**
+ * Registry of the native handles issued by a delegate. Handles are keyed by a
+ * monotonically issued long, entries live in parallel arrays and are located
+ * through two open addressing indexes, one by key and one by native peer so a
+ * pointer handed out twice maps to the same handle. Not thread safe, owned by a
+ * single delegate.
+ */
+public class HandleTable {
+
+	/**
+	 * Open addressing map of long to entry slot, linear probing with backward
+	 * shift deletion. Zero is reserved as the empty key.
+	 */
+	static final class LongIndex {
+
+		private long[] keys;
+
+		private int[] slots;
+
+		private int mask;
+
+		private int size;
+
+		LongIndex(int capacity) {
+			super();
+			keys = new long[capacity];
+			slots = new int[capacity];
+			mask = capacity - 1;
+		}
+
+		void clear() {
+			Arrays.fill(keys, 0L);
+			size = 0;
+		}
+
+		int get(long key) {
+			for (int i = index(key);; i = (i + 1) & mask) {
+				long current = keys[i];
+				if (current == key) {
+					return slots[i];
+				}
+				if (current == 0L) {
+					return -1;
+				}
+			}
+		}
+
+		private int index(long key) {
+			long hash = key * 0x9E3779B97F4A7C15L;
+			return (int) (hash ^ (hash >>> 32)) & mask;
+		}
+
+		void put(long key, int slot) {
+			if ((size + 1) * 2 > keys.length) {
+				resize(keys.length * 2);
+			}
+
+			int i = index(key);
+
+			while (keys[i] != 0L && keys[i] != key) {
+				i = (i + 1) & mask;
+			}
+
+			if (keys[i] == 0L) {
+				size++;
+			}
+
+			keys[i] = key;
+			slots[i] = slot;
+		}
+
+		int remove(long key) {
+			int i = index(key);
+
+			while (keys[i] != key) {
+				if (keys[i] == 0L) {
+					return -1;
+				}
+				i = (i + 1) & mask;
+			}
+
+			int slot = slots[i];
+
+			// shift back the entries of the probe chain that follows
+
+			for (int j = (i + 1) & mask; keys[j] != 0L; j = (j + 1) & mask) {
+				int home = index(keys[j]);
+				if (((j - home) & mask) >= ((j - i) & mask)) {
+					keys[i] = keys[j];
+					slots[i] = slots[j];
+					i = j;
+				}
+			}
+
+			keys[i] = 0L;
+			size--;
+
+			return slot;
+		}
+
+		private void resize(int capacity) {
+			long[] oldKeys = keys;
+			int[] oldSlots = slots;
+
+			keys = new long[capacity];
+			slots = new int[capacity];
+			mask = capacity - 1;
+			size = 0;
+
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != 0L) {
+					put(oldKeys[i], oldSlots[i]);
+				}
+			}
+		}
+
+		int size() {
+			return size;
+		}
+	}
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final LongIndex byKey;
+
+	private final LongIndex byPeer;
+
+	private AMHandleImpl[] handles;
+
+	private Pointer[] pointers;
+
+	private int[] freeSlots;
+
+	private int freeCount;
+
+	private int highWater;
+
+	private long nextKey;
+
+	public HandleTable() {
+		super();
+		byKey = new LongIndex(INITIAL_CAPACITY);
+		byPeer = new LongIndex(INITIAL_CAPACITY);
+		handles = new AMHandleImpl[INITIAL_CAPACITY];
+		pointers = new Pointer[INITIAL_CAPACITY];
+		freeSlots = new int[INITIAL_CAPACITY];
+		nextKey = 1L;
+	}
+
+	private int allocateSlot() {
+		if (freeCount > 0) {
+			return freeSlots[--freeCount];
+		}
+
+		if (highWater == handles.length) {
+			int capacity = handles.length * 2;
+			handles = Arrays.copyOf(handles, capacity);
+			pointers = Arrays.copyOf(pointers, capacity);
+			freeSlots = Arrays.copyOf(freeSlots, capacity);
+		}
+
+		return highWater++;
+	}
+
+	public void clear() {
+		Arrays.fill(handles, 0, highWater, null);
+		Arrays.fill(pointers, 0, highWater, null);
+		byKey.clear();
+		byPeer.clear();
+		freeCount = 0;
+		highWater = 0;
+	}
+
+	/**
+	 * @return the registered handles
+	 */
+	public List<AMHandle> getHandles() {
+		List<AMHandle> result = new ArrayList<>(size());
+
+		for (int slot = 0; slot < highWater; slot++) {
+			if (handles[slot] != null) {
+				result.add(handles[slot]);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return pointer registered for the handle, or Pointer.NULL when unknown
+	 */
+	public Pointer getPointer(AMHandle handle) {
+		if (!(handle instanceof AMHandleImpl)) {
+			return Pointer.NULL;
+		}
+
+		int slot = byKey.get(((AMHandleImpl) handle).getKey());
+
+		return slot < 0 ? Pointer.NULL : pointers[slot];
+	}
+
+	/**
+	 * Registers the pointer, a pointer already registered yields its existing
+	 * handle.
+	 */
+	public AMHandle register(Pointer pointer, AMHandleType handleType, String createdFrom) {
+		long peer = Pointer.nativeValue(pointer);
+
+		int slot = byPeer.get(peer);
+
+		if (slot >= 0) {
+			return handles[slot];
+		}
+
+		AMHandleImpl handle = new AMHandleImpl(nextKey++, handleType, createdFrom);
+
+		slot = allocateSlot();
+		handles[slot] = handle;
+		pointers[slot] = pointer;
+
+		byKey.put(handle.getKey(), slot);
+		byPeer.put(peer, slot);
+
+		return handle;
+	}
+
+	/**
+	 * @return pointer that was registered for the handle, or null when unknown
+	 */
+	public Pointer remove(AMHandle handle) {
+		if (!(handle instanceof AMHandleImpl)) {
+			return null;
+		}
+
+		int slot = byKey.remove(((AMHandleImpl) handle).getKey());
+
+		if (slot < 0) {
+			return null;
+		}
+
+		Pointer pointer = pointers[slot];
+
+		byPeer.remove(Pointer.nativeValue(pointer));
+
+		handles[slot] = null;
+		pointers[slot] = null;
+		freeSlots[freeCount++] = slot;
+
+		return pointer;
+	}
+
+	public int size() {
+		return byKey.size();
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("size", size()).append("nextKey", nextKey).toString();
+	}
+}
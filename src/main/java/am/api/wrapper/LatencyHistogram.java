@@ -0,0 +1,169 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Lock free log-linear histogram of non negative values. Values below 16 are
+ * counted exactly, larger values fall in one of 16 buckets per power of two,
+ * which bounds the relative error of a reported percentile to 1/16.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) Math.max(value, 0L);
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+		return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * @return highest value counted in the bucket
+	 */
+	static long highestValueOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+		long lowest = (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1L;
+	}
+
+	/**
+	 * @return bucket counts to pass to {@link #percentileSince(long[], double)}
+	 */
+	static long[] newCounts() {
+		return new long[BUCKETS];
+	}
+
+	private final AtomicLongArray counts;
+
+	private final LongAdder count;
+
+	private final LongAccumulator max;
+
+	private final LongAdder sum;
+
+	public LatencyHistogram() {
+		super();
+		this.counts = new AtomicLongArray(BUCKETS);
+		this.count = new LongAdder();
+		this.max = new LongAccumulator(Math::max, 0L);
+		this.sum = new LongAdder();
+	}
+
+	public void record(long value) {
+		counts.incrementAndGet(bucketOf(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Zeroes the histogram, values recorded concurrently may survive.
+	 */
+	public void reset() {
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			counts.set(bucket, 0L);
+		}
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+
+	/**
+	 * Records the time elapsed since the given {@link System#nanoTime()} reading
+	 * in microseconds.
+	 */
+	public void recordSince(long startNanos) {
+		record((System.nanoTime() - startNanos) / 1000L);
+	}
+
+	/**
+	 * Copies the histogram, concurrent updates may be partially reflected.
+	 */
+	public LatencySnapshot snapshot() {
+
+		long[] copy = new long[BUCKETS];
+		long total = 0L;
+
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			copy[bucket] = counts.get(bucket);
+			total += copy[bucket];
+		}
+
+		return new LatencySnapshot(total, total == 0L ? 0.0d : (double) sum.sum() / total, percentile(copy, total, 0.50d),
+				percentile(copy, total, 0.90d), percentile(copy, total, 0.99d), percentile(copy, total, 0.999d),
+				max.get());
+	}
+
+	/**
+	 * Percentile of the values recorded since the bucket counts were last copied
+	 * into previous, which is left holding the current counts.
+	 */
+	long percentileSince(long[] previous, double fraction) {
+
+		long[] delta = new long[BUCKETS];
+		long total = 0L;
+
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			long current = counts.get(bucket);
+			// a reset in between leaves current below previous
+			delta[bucket] = current >= previous[bucket] ? current - previous[bucket] : current;
+			previous[bucket] = current;
+			total += delta[bucket];
+		}
+
+		return percentile(delta, total, fraction);
+	}
+
+	private long percentile(long[] copy, long total, double fraction) {
+
+		if (total == 0L) {
+			return 0L;
+		}
+
+		long rank = Math.max(1L, (long) Math.ceil(total * fraction));
+		long seen = 0L;
+
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += copy[bucket];
+			if (seen >= rank) {
+				return highestValueOf(bucket);
+			}
+		}
+
+		return max.get();
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("count", count.sum()).append("max", max.get()).toString();
+	}
+}
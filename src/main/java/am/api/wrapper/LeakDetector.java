@@ -0,0 +1,300 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.log4j.Logger;
+import org.springframework.util.Assert;
+
+import am.api.model.AMCredential;
+import am.api.util.NLS;
+
+/**
+ * Tracks the connections handed out outside a transaction, flags those held
+ * longer than thresholdMs and, when reclaim is set, takes them back from their
+ * holder, discards them and builds a replacement.
+ */
+public class LeakDetector implements LeakDetectorMXBean {
+
+	private static class Lease {
+
+		private final Throwable allocationSite;
+
+		private final long borrowedAt;
+
+		private final AMCredential credential;
+
+		private volatile boolean flagged;
+
+		private final String thread;
+
+		private final AMConnectionWrapper wrapper;
+
+		Lease(AMCredential credential, AMConnectionWrapper wrapper, Throwable allocationSite) {
+			super();
+			this.credential = credential;
+			this.wrapper = wrapper;
+			this.allocationSite = allocationSite;
+			this.borrowedAt = System.currentTimeMillis();
+			this.thread = Thread.currentThread().getName();
+		}
+	}
+
+	private final static Logger logger = Logger.getLogger(LeakDetector.class);
+
+	private final AtomicLong borrows = new AtomicLong();
+
+	private int captureEvery = 0;
+
+	private ConnectionPool connectionPool;
+
+	private final LongAdder detected = new LongAdder();
+
+	private boolean enabled = true;
+
+	private ScheduledExecutorService executor;
+
+	private long intervalMs = 60000L;
+
+	private final Map<Object, Lease> leases = new ConcurrentHashMap<>();
+
+	private boolean reclaim = false;
+
+	private final LongAdder reclaimed = new LongAdder();
+
+	private long thresholdMs = 300000L;
+
+	public LeakDetector() {
+		super();
+	}
+
+	public void destroy() {
+
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+
+		leases.clear();
+	}
+
+	/**
+	 * @return every how many borrows the allocation site is captured, 0 for
+	 *         never
+	 */
+	public int getCaptureEvery() {
+		return captureEvery;
+	}
+
+	public ConnectionPool getConnectionPool() {
+		return connectionPool;
+	}
+
+	@Override
+	public long getDetectedCount() {
+		return detected.sum();
+	}
+
+	public long getIntervalMs() {
+		return intervalMs;
+	}
+
+	@Override
+	public List<LeakSnapshot> getLeaks() {
+
+		long now = System.currentTimeMillis();
+
+		List<LeakSnapshot> leaks = new ArrayList<>();
+
+		leases.forEach((key, lease) -> {
+			if (now - lease.borrowedAt >= thresholdMs) {
+				leaks.add(new LeakSnapshot(key.toString(),
+						lease.credential == null ? null : lease.credential.getDatabase(),
+						lease.credential == null ? null : lease.credential.getUserName(), lease.thread,
+						new Date(lease.borrowedAt), now - lease.borrowedAt,
+						lease.allocationSite == null ? null : ExceptionUtils.getStackTrace(lease.allocationSite)));
+			}
+		});
+
+		return leaks;
+	}
+
+	@Override
+	public long getOldestAgeMs() {
+
+		long oldest = Long.MAX_VALUE;
+
+		for (Lease lease : leases.values()) {
+			oldest = Math.min(oldest, lease.borrowedAt);
+		}
+
+		return oldest == Long.MAX_VALUE ? 0L : System.currentTimeMillis() - oldest;
+	}
+
+	@Override
+	public long getReclaimedCount() {
+		return reclaimed.sum();
+	}
+
+	@Override
+	public long getThresholdMs() {
+		return thresholdMs;
+	}
+
+	@Override
+	public int getTrackedCount() {
+		return leases.size();
+	}
+
+	public void init() {
+
+		if (!enabled) {
+			logger.debug("leak detection disabled");
+			return;
+		}
+
+		Assert.isTrue(intervalMs > 0L, "intervalMs needs to be greater than 0.");
+		Assert.isTrue(thresholdMs > 0L, "thresholdMs needs to be greater than 0.");
+		Assert.isTrue(captureEvery >= 0, "captureEvery needs to be 0 or greater.");
+
+		executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = Executors.defaultThreadFactory().newThread(r);
+				t.setName("ConnectionPool-leakDetector");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+
+		executor.scheduleWithFixedDelay(this::scan, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public boolean isReclaim() {
+		return reclaim;
+	}
+
+	private void reclaim(Object key, Lease lease, long ageMs) {
+
+		try {
+			lease.wrapper.reclaim();
+			reclaimed.increment();
+			logger.warn(String.format(NLS.MESSAGES.getString("connection.leak.reclaimed"), ageMs, key));
+		} catch (RuntimeException e) {
+			logger.warn(String.format("Could not reclaim connection, key = [%s]", key), e);
+			return;
+		}
+
+		if (connectionPool != null) {
+
+			AMCredential credential = lease.credential == null ? connectionPool.getDefaultCredential()
+					: lease.credential;
+
+			try {
+				connectionPool.addIdle(credential);
+			} catch (Exception e) {
+				logger.warn("Could not create a replacement connection", e);
+			}
+		}
+	}
+
+	@Override
+	public void scan() {
+
+		long now = System.currentTimeMillis();
+
+		leases.forEach((key, lease) -> {
+
+			long ageMs = now - lease.borrowedAt;
+
+			if (ageMs < thresholdMs) {
+				return;
+			}
+
+			if (!lease.flagged) {
+				lease.flagged = true;
+				detected.increment();
+				logger.warn(String.format(NLS.MESSAGES.getString("connection.leak.detected"), ageMs, lease.thread,
+						key), lease.allocationSite);
+			}
+
+			if (reclaim && leases.remove(key, lease)) {
+				reclaim(key, lease, ageMs);
+			}
+		});
+	}
+
+	public void setCaptureEvery(int captureEvery) {
+		this.captureEvery = captureEvery;
+	}
+
+	public void setConnectionPool(ConnectionPool connectionPool) {
+		this.connectionPool = connectionPool;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public void setIntervalMs(long intervalMs) {
+		this.intervalMs = intervalMs;
+	}
+
+	public void setReclaim(boolean reclaim) {
+		this.reclaim = reclaim;
+	}
+
+	public void setThresholdMs(long thresholdMs) {
+		this.thresholdMs = thresholdMs;
+	}
+
+	/**
+	 * Starts tracking a connection handed out under key, capturing the
+	 * allocation site of every captureEvery-th borrow.
+	 */
+	public void track(Object key, AMCredential credential, AMConnectionWrapper wrapper) {
+
+		if (!enabled) {
+			return;
+		}
+
+		Throwable site = captureEvery > 0 && borrows.getAndIncrement() % captureEvery == 0
+				? new Throwable("allocation site")
+				: null;
+
+		leases.put(key, new Lease(credential, wrapper, site));
+	}
+
+	public void untrack(Object key) {
+		leases.remove(key);
+	}
+}
@@ -14,27 +14,38 @@
     You should have received a copy of the GNU General Public License
     along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
  */
-package am.server.tasks;
+package am.api.wrapper;
 
 import java.util.List;
-import java.util.concurrent.Callable;
 
-import am.api.AMHandle;
-import am.api.wrapper.AMConnectionDelegate;
+/**
+ * Management view of a {@link LeakDetector}.
+ */
+public interface LeakDetectorMXBean {
+
+	/**
+	 * @return connections flagged since start, each counted once
+	 */
+	long getDetectedCount();
 
-public final class GetHandleKeys implements Callable<List<AMHandle>> {
+	/**
+	 * @return connections currently held past the threshold
+	 */
+	List<LeakSnapshot> getLeaks();
 
-	private final AMConnectionDelegate delegate;
+	/**
+	 * @return age of the oldest tracked connection, 0 when none is tracked
+	 */
+	long getOldestAgeMs();
 
-	public GetHandleKeys(AMConnectionDelegate delegate) {
-		super();
-		this.delegate = delegate;
-	}
+	long getReclaimedCount();
 
-	@Override
-	public List<AMHandle> call() throws Exception {
+	long getThresholdMs();
 
-		return delegate.getHandleKeys();
+	int getTrackedCount();
 
-	}
+	/**
+	 * Runs a detection pass now.
+	 */
+	void scan();
 }
@@ -0,0 +1,96 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A connection held past the leak threshold.
+ */
+public final class LeakSnapshot implements Serializable {
+
+	private final static long serialVersionUID = 1L;
+
+	private final long ageMs;
+
+	private final String allocationSite;
+
+	private final Date borrowedAt;
+
+	private final String database;
+
+	private final String key;
+
+	private final String thread;
+
+	private final String userName;
+
+	public LeakSnapshot(String key, String database, String userName, String thread, Date borrowedAt, long ageMs,
+			String allocationSite) {
+		super();
+		this.key = key;
+		this.database = database;
+		this.userName = userName;
+		this.thread = thread;
+		this.borrowedAt = borrowedAt;
+		this.ageMs = ageMs;
+		this.allocationSite = allocationSite;
+	}
+
+	public long getAgeMs() {
+		return ageMs;
+	}
+
+	/**
+	 * @return stack of the borrow, null when it was not sampled
+	 */
+	public String getAllocationSite() {
+		return allocationSite;
+	}
+
+	public Date getBorrowedAt() {
+		return borrowedAt;
+	}
+
+	public String getDatabase() {
+		return database;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * @return name of the borrowing thread
+	 */
+	public String getThread() {
+		return thread;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("key", key).append("database", database)
+				.append("userName", userName).append("thread", thread).append("borrowedAt", borrowedAt)
+				.append("ageMs", ageMs).toString();
+	}
+}
@@ -58,7 +58,17 @@ public class LocalXAResource implements XAResource {
 
 		try {
 
-			long status = connection.commit();
+			if (!isStarted()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug(String.format("nothing begun - connection: [%s]",
+							connection));
+				}
+				return;
+			}
+
+			long status = connection instanceof AMBaseConnection
+					? ((AMBaseConnection) connection).commitAndReset()
+					: connection.commit();
 
 			if (status != 0L) {
 
@@ -78,7 +88,7 @@ public class LocalXAResource implements XAResource {
 		} catch (Exception e) {
 			throw (XAException) new XAException().initCause(e);
 		} finally {
-			this.currentXid = null;
+			finish();
 		}
 	}
 
@@ -138,6 +148,24 @@ public class LocalXAResource implements XAResource {
 				.toHashCode();
 	}
 
+	private void finish() {
+
+		if (connection instanceof AMBaseConnection) {
+			((AMBaseConnection) connection).finishTransaction();
+		}
+
+		this.currentXid = null;
+	}
+
+	/**
+	 * @return false when the native transaction is still deferred, the branch
+	 *         wrote nothing
+	 */
+	private boolean isStarted() {
+		return !(connection instanceof AMBaseConnection)
+				|| ((AMBaseConnection) connection).isTransactionStarted();
+	}
+
 	@Override
 	public boolean isSameRM(XAResource xaResource) throws XAException {
 		return this == xaResource;
@@ -145,7 +173,30 @@ public class LocalXAResource implements XAResource {
 
 	@Override
 	public int prepare(Xid xid) throws XAException {
-		return XAResource.XA_OK;
+
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Xid: [%s]", xid));
+		}
+
+		if (xid == null)
+			throw new NullPointerException("xid is null");
+
+		if (!this.currentXid.equals(xid))
+			throw new XAException("Invalid Xid: expected " + this.currentXid
+					+ ", but was " + xid);
+
+		if (isStarted()) {
+			return XAResource.XA_OK;
+		}
+
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("read only - connection: [%s]",
+					connection));
+		}
+
+		finish();
+
+		return XAResource.XA_RDONLY;
 	}
 
 	@Override
@@ -168,7 +219,9 @@ public class LocalXAResource implements XAResource {
 					+ ", but was " + xid);
 
 		try {
-			connection.rollBack();
+			if (isStarted()) {
+				connection.rollBack();
+			}
 			if (logger.isDebugEnabled()) {
 				logger.debug(String.format("rollback - connection: [%s]",
 						connection));
@@ -177,7 +230,7 @@ public class LocalXAResource implements XAResource {
 		} catch (Exception e) {
 			throw (XAException) new XAException().initCause(e);
 		} finally {
-			this.currentXid = null;
+			finish();
 		}
 	}
 
@@ -203,7 +256,11 @@ public class LocalXAResource implements XAResource {
 			}
 
 			try {
-				connection.startTransaction();
+				if (connection instanceof AMBaseConnection) {
+					((AMBaseConnection) connection).beginTransaction();
+				} else {
+					connection.startTransaction();
+				}
 				if (logger.isDebugEnabled()) {
 					logger.debug(String.format("start - connection: [%s]",
 							connection));
@@ -0,0 +1,107 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import org.apache.commons.pool2.KeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+
+import am.api.model.AMCredential;
+
+/**
+ * Times the lifecycle calls of the configured factory into the
+ * {@link PoolMetrics} of the pool.
+ */
+class MeteredObjectFactory implements KeyedPooledObjectFactory<AMCredential, AMBaseConnection> {
+
+	/**
+	 * Thrown instead of creating on a thread that only polls for idle
+	 * connections.
+	 */
+	static final class CreationDeferred extends Exception {
+
+		private final static long serialVersionUID = 1L;
+
+		CreationDeferred() {
+			super("creation deferred", null, false, false);
+		}
+	}
+
+	private final static CreationDeferred DEFERRED = new CreationDeferred();
+
+	private final ThreadLocal<Boolean> deferring = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+	private final KeyedPooledObjectFactory<AMCredential, AMBaseConnection> delegate;
+
+	private final PoolMetrics metrics;
+
+	MeteredObjectFactory(KeyedPooledObjectFactory<AMCredential, AMBaseConnection> delegate, PoolMetrics metrics) {
+		super();
+		this.delegate = delegate;
+		this.metrics = metrics;
+	}
+
+	void setDeferring(boolean deferring) {
+		this.deferring.set(deferring);
+	}
+
+	@Override
+	public void activateObject(AMCredential credential, PooledObject<AMBaseConnection> connection) throws Exception {
+		delegate.activateObject(credential, connection);
+	}
+
+	@Override
+	public void destroyObject(AMCredential credential, PooledObject<AMBaseConnection> connection) throws Exception {
+		metrics.recordDestroy(connection.getObject());
+		delegate.destroyObject(credential, connection);
+	}
+
+	@Override
+	public PooledObject<AMBaseConnection> makeObject(AMCredential credential) throws Exception {
+
+		if (deferring.get()) {
+			throw DEFERRED;
+		}
+
+		long start = System.nanoTime();
+
+		try {
+			PooledObject<AMBaseConnection> connection = delegate.makeObject(credential);
+			metrics.recordCreate(credential, start);
+			return connection;
+		} catch (Exception | Error e) {
+			metrics.recordCreateFailure();
+			throw e;
+		}
+	}
+
+	@Override
+	public void passivateObject(AMCredential credential, PooledObject<AMBaseConnection> connection) throws Exception {
+		delegate.passivateObject(credential, connection);
+	}
+
+	@Override
+	public boolean validateObject(AMCredential credential, PooledObject<AMBaseConnection> connection) {
+
+		long start = System.nanoTime();
+
+		boolean valid = delegate.validateObject(credential, connection);
+
+		metrics.recordValidate(start, valid);
+
+		return valid;
+	}
+}
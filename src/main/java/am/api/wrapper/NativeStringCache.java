@@ -0,0 +1,108 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
+/**
+ * Bounded, least recently used cache of native encoded strings. Table, field
+ * and link names repeat heavily across calls, encoding them once saves an
+ * allocation and a copy per call. Not thread safe, owned by a single delegate.
+ */
+public class NativeStringCache {
+
+	public static final int DEFAULT_MAX_SIZE = 512;
+
+	private final boolean wide;
+
+	private final int maxSize;
+
+	private final Map<String, Memory> entries;
+
+	public NativeStringCache(boolean wide) {
+		this(wide, DEFAULT_MAX_SIZE);
+	}
+
+	public NativeStringCache(boolean wide, int maxSize) {
+		super();
+		this.wide = wide;
+		this.maxSize = maxSize;
+		this.entries = new LinkedHashMap<String, Memory>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Memory> eldest) {
+				return size() > NativeStringCache.this.maxSize;
+			}
+		};
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * @return null terminated native copy of value, or null when value is null
+	 */
+	public Pointer get(String value) {
+
+		if (value == null) {
+			return null;
+		}
+
+		Memory memory = entries.get(value);
+
+		if (memory == null) {
+			memory = encode(value);
+			entries.put(value, memory);
+		}
+
+		return memory;
+	}
+
+	private Memory encode(String value) {
+
+		Memory memory;
+
+		if (wide) {
+			memory = new Memory((long) (value.length() + 1) * Native.WCHAR_SIZE);
+			memory.setWideString(0, value);
+		} else {
+			memory = new Memory((long) Native.toByteArray(value).length);
+			memory.setString(0, value);
+		}
+
+		return memory;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("wide", wide).append("maxSize", maxSize)
+				.append("size", entries.size()).toString();
+	}
+}
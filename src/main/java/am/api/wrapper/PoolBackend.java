@@ -0,0 +1,69 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import am.api.model.AMCredential;
+
+/**
+ * Keyed store of pooled connections behind {@link ConnectionPool}.
+ */
+interface PoolBackend {
+
+	/**
+	 * Creates an idle connection, does nothing when the credential is at
+	 * capacity.
+	 */
+	void addIdle(AMCredential credential) throws Exception;
+
+	/**
+	 * @param maxWaitMs milliseconds to wait, negative to wait forever
+	 * @throws java.util.NoSuchElementException when the wait timed out
+	 */
+	AMBaseConnection borrow(AMCredential credential, long maxWaitMs) throws Exception;
+
+	void close();
+
+	long getDestroyedByBorrowValidationCount();
+
+	long getDestroyedByEvictorCount();
+
+	int getMaxTotal();
+
+	int getMaxTotalPerKey();
+
+	int getNumActive();
+
+	int getNumActive(AMCredential credential);
+
+	int getNumIdle();
+
+	int getNumIdle(AMCredential credential);
+
+	int getNumWaiters();
+
+	void invalidate(AMCredential credential, AMBaseConnection connection) throws Exception;
+
+	/**
+	 * @return an idle connection, null when none is idle right now, never
+	 *         creates one on the calling thread
+	 */
+	AMBaseConnection pollIdle(AMCredential credential) throws Exception;
+
+	void returnObject(AMCredential credential, AMBaseConnection connection) throws Exception;
+
+	void setIdleBounds(int minIdlePerKey, int maxIdlePerKey);
+}
@@ -0,0 +1,307 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.model.AMCredential;
+
+/**
+ * Counters and latency histograms of a {@link ConnectionPool}. Recording is
+ * lock free and safe from any thread, latencies are kept in microseconds.
+ */
+public class PoolMetrics implements PoolMetricsMXBean {
+
+	private static class CredentialCounters {
+
+		private final LongAdder borrowed = new LongAdder();
+
+		private final LatencyHistogram borrowWait = new LatencyHistogram();
+
+		private final LongAdder created = new LongAdder();
+
+		private final LongAdder exhausted = new LongAdder();
+
+		void reset() {
+			borrowed.reset();
+			borrowWait.reset();
+			created.reset();
+			exhausted.reset();
+		}
+	}
+
+	private final LongAdder affinityHits = new LongAdder();
+
+	private final LongAdder borrowed = new LongAdder();
+
+	private final LongAdder borrowFailed = new LongAdder();
+
+	private final LatencyHistogram borrowWait = new LatencyHistogram();
+
+	private final LongAdder created = new LongAdder();
+
+	private final LongAdder createFailed = new LongAdder();
+
+	private final LatencyHistogram createTime = new LatencyHistogram();
+
+	private final Map<AMCredential, CredentialCounters> credentials = new ConcurrentHashMap<>();
+
+	private final LongAdder destroyed = new LongAdder();
+
+	private final LongAdder exhausted = new LongAdder();
+
+	private final LatencyHistogram holdTime = new LatencyHistogram();
+
+	private volatile PoolBackend pool;
+
+	private final LongAdder returned = new LongAdder();
+
+	private final LatencyHistogram reuseAtDestroy = new LatencyHistogram();
+
+	private final LongAdder validationFailed = new LongAdder();
+
+	private final LatencyHistogram validateTime = new LatencyHistogram();
+
+	public PoolMetrics() {
+		super();
+	}
+
+	void bind(PoolBackend pool) {
+		this.pool = pool;
+	}
+
+	long borrowedCount(AMCredential credential) {
+		CredentialCounters counters = credentials.get(credential);
+		return counters == null ? 0L : counters.borrowed.sum();
+	}
+
+	/**
+	 * @param previous bucket counts of the credential at the previous call,
+	 *                 updated to the current ones
+	 * @return borrow wait percentile of the credential in microseconds over the
+	 *         borrows since the previous call
+	 */
+	long borrowWaitSince(AMCredential credential, long[] previous, double fraction) {
+		CredentialCounters counters = credentials.get(credential);
+		return counters == null ? 0L : counters.borrowWait.percentileSince(previous, fraction);
+	}
+
+	private CredentialCounters countersOf(AMCredential credential) {
+		return credentials.computeIfAbsent(credential, key -> new CredentialCounters());
+	}
+
+	@Override
+	public long getAffinityHitCount() {
+		return affinityHits.sum();
+	}
+
+	@Override
+	public long getBorrowedCount() {
+		return borrowed.sum();
+	}
+
+	@Override
+	public LatencySnapshot getBorrowWait() {
+		return borrowWait.snapshot();
+	}
+
+	@Override
+	public long getCreatedCount() {
+		return created.sum();
+	}
+
+	@Override
+	public LatencySnapshot getCreateTime() {
+		return createTime.snapshot();
+	}
+
+	@Override
+	public long getDestroyedByEvictorCount() {
+		PoolBackend current = pool;
+		return current == null ? 0L : current.getDestroyedByEvictorCount();
+	}
+
+	@Override
+	public long getDestroyedCount() {
+		return destroyed.sum();
+	}
+
+	@Override
+	public long getExhaustedCount() {
+		return exhausted.sum();
+	}
+
+	@Override
+	public LatencySnapshot getHoldTime() {
+		return holdTime.snapshot();
+	}
+
+	@Override
+	public int getNumActive() {
+		PoolBackend current = pool;
+		return current == null ? 0 : current.getNumActive();
+	}
+
+	@Override
+	public int getNumIdle() {
+		PoolBackend current = pool;
+		return current == null ? 0 : current.getNumIdle();
+	}
+
+	@Override
+	public int getNumWaiters() {
+		PoolBackend current = pool;
+		return current == null ? 0 : current.getNumWaiters();
+	}
+
+	@Override
+	public PoolMetricsSnapshot getSnapshot() {
+		return snapshot();
+	}
+
+	@Override
+	public LatencySnapshot getValidateTime() {
+		return validateTime.snapshot();
+	}
+
+	long exhaustedCount(AMCredential credential) {
+		CredentialCounters counters = credentials.get(credential);
+		return counters == null ? 0L : counters.exhausted.sum();
+	}
+
+	/**
+	 * @return credentials seen by the pool so far
+	 */
+	Set<AMCredential> knownCredentials() {
+		return credentials.keySet();
+	}
+
+	void recordBorrow(AMCredential credential, long startNanos) {
+
+		long micros = (System.nanoTime() - startNanos) / 1000L;
+
+		borrowWait.record(micros);
+		borrowed.increment();
+
+		CredentialCounters counters = countersOf(credential);
+
+		counters.borrowed.increment();
+		counters.borrowWait.record(micros);
+	}
+
+	void recordAffinityHit(AMCredential credential, long startNanos) {
+		affinityHits.increment();
+		recordBorrow(credential, startNanos);
+	}
+
+	void recordBorrowFailure() {
+		borrowFailed.increment();
+	}
+
+	void recordCreate(AMCredential credential, long startNanos) {
+		createTime.recordSince(startNanos);
+		created.increment();
+		countersOf(credential).created.increment();
+	}
+
+	void recordCreateFailure() {
+		createFailed.increment();
+	}
+
+	void recordDestroy(AMBaseConnection connection) {
+		destroyed.increment();
+		reuseAtDestroy.record(connection.getReuseCount());
+	}
+
+	void recordExhausted(AMCredential credential) {
+		exhausted.increment();
+		countersOf(credential).exhausted.increment();
+	}
+
+	void recordRelease(AMBaseConnection connection) {
+		long borrowedAt = connection.clearBorrowedAt();
+		if (borrowedAt != 0L) {
+			holdTime.recordSince(borrowedAt);
+			returned.increment();
+		}
+	}
+
+	void recordValidate(long startNanos, boolean valid) {
+		validateTime.recordSince(startNanos);
+		if (!valid) {
+			validationFailed.increment();
+		}
+	}
+
+	/**
+	 * Clears the counters and histograms, the gauges read from the pool are
+	 * unaffected.
+	 */
+	@Override
+	public void reset() {
+		synchronized (this) {
+			affinityHits.reset();
+			borrowed.reset();
+			borrowFailed.reset();
+			created.reset();
+			createFailed.reset();
+			destroyed.reset();
+			exhausted.reset();
+			returned.reset();
+			validationFailed.reset();
+			borrowWait.reset();
+			holdTime.reset();
+			createTime.reset();
+			validateTime.reset();
+			reuseAtDestroy.reset();
+			credentials.values().forEach(CredentialCounters::reset);
+		}
+	}
+
+	public PoolMetricsSnapshot snapshot() {
+
+		PoolBackend current = pool;
+
+		List<CredentialMetricsSnapshot> perCredential = new ArrayList<>(credentials.size());
+
+		credentials.forEach((credential, counters) -> perCredential.add(new CredentialMetricsSnapshot(
+				credential.getDatabase(), credential.getUserName(),
+				current == null ? 0 : current.getNumActive(credential),
+				current == null ? 0 : current.getNumIdle(credential), counters.borrowed.sum(),
+				counters.created.sum(), counters.exhausted.sum())));
+
+		return new PoolMetricsSnapshot(new Date(), getNumActive(), getNumIdle(), getNumWaiters(), borrowed.sum(),
+				borrowFailed.sum(), exhausted.sum(), returned.sum(), created.sum(), createFailed.sum(),
+				destroyed.sum(), getDestroyedByEvictorCount(),
+				current == null ? 0L : current.getDestroyedByBorrowValidationCount(), validationFailed.sum(),
+				borrowWait.snapshot(), holdTime.snapshot(), createTime.snapshot(), validateTime.snapshot(),
+				reuseAtDestroy.snapshot(), perCredential);
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("borrowed", borrowed.sum()).append("exhausted", exhausted.sum())
+				.append("created", created.sum()).append("destroyed", destroyed.sum()).toString();
+	}
+}
@@ -14,35 +14,43 @@
     You should have received a copy of the GNU General Public License
     along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
  */
-package am.server.tasks;
+package am.api.wrapper;
 
-import java.util.concurrent.Callable;
-import java.util.logging.Logger;
+/**
+ * Management view of a {@link ConnectionPool}, latencies are in microseconds.
+ */
+public interface PoolMetricsMXBean {
+
+	/**
+	 * @return borrows served from the connection parked by the borrowing thread
+	 */
+	long getAffinityHitCount();
+
+	long getBorrowedCount();
+
+	LatencySnapshot getBorrowWait();
+
+	long getCreatedCount();
 
-import am.api.wrapper.AMConnectionDelegate;
+	LatencySnapshot getCreateTime();
 
-public final class ShutDown implements Callable<Void> {
+	long getDestroyedByEvictorCount();
 
-	private final static Logger LOGGER = Logger.getLogger(ShutDown.class
-			.getPackage().getName());
+	long getDestroyedCount();
 
-	private final AMConnectionDelegate delegate;
+	long getExhaustedCount();
 
-	public ShutDown(AMConnectionDelegate delegate) {
-		super();
-		this.delegate = delegate;
-	}
+	LatencySnapshot getHoldTime();
 
-	@Override
-	public Void call() throws Exception {
+	int getNumActive();
 
-		LOGGER.finest("Invoking delegate shutdown");
+	int getNumIdle();
 
-		delegate.shutdown();
+	int getNumWaiters();
 
-		LOGGER.finest("Returned from delegate shutdown");
+	PoolMetricsSnapshot getSnapshot();
 
-		return null;
+	LatencySnapshot getValidateTime();
 
-	}
+	void reset();
 }
@@ -0,0 +1,197 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Point in time copy of the {@link PoolMetrics} of a pool, latencies are in
+ * microseconds.
+ */
+public final class PoolMetricsSnapshot implements Serializable {
+
+	private final static long serialVersionUID = 1L;
+
+	private final long borrowedCount;
+
+	private final long borrowFailedCount;
+
+	private final LatencySnapshot borrowWait;
+
+	private final long createdCount;
+
+	private final long createFailedCount;
+
+	private final LatencySnapshot createTime;
+
+	private final List<CredentialMetricsSnapshot> credentials;
+
+	private final long destroyedByBorrowValidationCount;
+
+	private final long destroyedByEvictorCount;
+
+	private final long destroyedCount;
+
+	private final long exhaustedCount;
+
+	private final LatencySnapshot holdTime;
+
+	private final int numActive;
+
+	private final int numIdle;
+
+	private final int numWaiters;
+
+	private final long returnedCount;
+
+	private final LatencySnapshot reuseAtDestroy;
+
+	private final Date takenAt;
+
+	private final long validationFailedCount;
+
+	private final LatencySnapshot validateTime;
+
+	public PoolMetricsSnapshot(Date takenAt, int numActive, int numIdle, int numWaiters, long borrowedCount,
+			long borrowFailedCount, long exhaustedCount, long returnedCount, long createdCount, long createFailedCount,
+			long destroyedCount, long destroyedByEvictorCount, long destroyedByBorrowValidationCount,
+			long validationFailedCount, LatencySnapshot borrowWait, LatencySnapshot holdTime,
+			LatencySnapshot createTime, LatencySnapshot validateTime, LatencySnapshot reuseAtDestroy,
+			List<CredentialMetricsSnapshot> credentials) {
+		super();
+		this.takenAt = takenAt;
+		this.numActive = numActive;
+		this.numIdle = numIdle;
+		this.numWaiters = numWaiters;
+		this.borrowedCount = borrowedCount;
+		this.borrowFailedCount = borrowFailedCount;
+		this.exhaustedCount = exhaustedCount;
+		this.returnedCount = returnedCount;
+		this.createdCount = createdCount;
+		this.createFailedCount = createFailedCount;
+		this.destroyedCount = destroyedCount;
+		this.destroyedByEvictorCount = destroyedByEvictorCount;
+		this.destroyedByBorrowValidationCount = destroyedByBorrowValidationCount;
+		this.validationFailedCount = validationFailedCount;
+		this.borrowWait = borrowWait;
+		this.holdTime = holdTime;
+		this.createTime = createTime;
+		this.validateTime = validateTime;
+		this.reuseAtDestroy = reuseAtDestroy;
+		this.credentials = credentials;
+	}
+
+	public long getBorrowedCount() {
+		return borrowedCount;
+	}
+
+	public long getBorrowFailedCount() {
+		return borrowFailedCount;
+	}
+
+	public LatencySnapshot getBorrowWait() {
+		return borrowWait;
+	}
+
+	public long getCreatedCount() {
+		return createdCount;
+	}
+
+	public long getCreateFailedCount() {
+		return createFailedCount;
+	}
+
+	/**
+	 * @return time to create a connection, including the start of its process
+	 */
+	public LatencySnapshot getCreateTime() {
+		return createTime;
+	}
+
+	public List<CredentialMetricsSnapshot> getCredentials() {
+		return credentials;
+	}
+
+	public long getDestroyedByBorrowValidationCount() {
+		return destroyedByBorrowValidationCount;
+	}
+
+	public long getDestroyedByEvictorCount() {
+		return destroyedByEvictorCount;
+	}
+
+	public long getDestroyedCount() {
+		return destroyedCount;
+	}
+
+	public long getExhaustedCount() {
+		return exhaustedCount;
+	}
+
+	public LatencySnapshot getHoldTime() {
+		return holdTime;
+	}
+
+	public int getNumActive() {
+		return numActive;
+	}
+
+	public int getNumIdle() {
+		return numIdle;
+	}
+
+	public int getNumWaiters() {
+		return numWaiters;
+	}
+
+	public long getReturnedCount() {
+		return returnedCount;
+	}
+
+	/**
+	 * @return distribution of the number of borrows a connection served before it
+	 *         was destroyed, not a latency
+	 */
+	public LatencySnapshot getReuseAtDestroy() {
+		return reuseAtDestroy;
+	}
+
+	public Date getTakenAt() {
+		return takenAt;
+	}
+
+	public long getValidationFailedCount() {
+		return validationFailedCount;
+	}
+
+	public LatencySnapshot getValidateTime() {
+		return validateTime;
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("takenAt", takenAt).append("numActive", numActive)
+				.append("numIdle", numIdle).append("numWaiters", numWaiters).append("borrowedCount", borrowedCount)
+				.append("exhaustedCount", exhaustedCount).append("createdCount", createdCount)
+				.append("destroyedCount", destroyedCount).append("borrowWait", borrowWait)
+				.append("holdTime", holdTime).append("createTime", createTime).append("credentials", credentials)
+				.toString();
+	}
+}
@@ -16,10 +16,16 @@
  */
 package am.api.wrapper;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectState;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.log4j.Logger;
 import org.springframework.util.Assert;
@@ -30,18 +36,62 @@ import am.api.wrapper.local.AMConnectionLocal;
 
 public class PoolableObjectFactory implements BasePoolableObjectFactory {
 
+	/**
+	 * When the session of a returned connection is reset.
+	 */
+	public enum Passivation {
+		/** on the returning thread */
+		EAGER,
+		/** on the next borrow */
+		LAZY,
+		/** in the background after the return, or on the next borrow if sooner */
+		ASYNC
+	}
+
 	private final static Logger logger = Logger.getLogger(PoolableObjectFactory.class);
 
+	private final static ExecutorService resetExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+		public Thread newThread(Runnable r) {
+			Thread t = Executors.defaultThreadFactory().newThread(r);
+			t.setName("PoolableObjectFactory-reset");
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
 	private ConnectionPool connectionPool = null;
 
+	private double ageJitter = 0.25d;
+
+	private long maxAgeMs = 0L;
+
 	private int maxReuse;
 
+	private Passivation passivation = Passivation.EAGER;
+
+	private double reuseJitter = 0.25d;
+
+	private long validationWindowMs = 30000L;
+
 	public PoolableObjectFactory() {
 		super();
 		maxReuse = 0;
 
 	}
 
+	/**
+	 * Draws a budget between (1 - jitter) * limit and limit so connections
+	 * created together are not recycled together.
+	 */
+	static long jittered(long limit, double jitter) {
+
+		if (limit <= 0L || jitter <= 0.0d) {
+			return limit;
+		}
+
+		return Math.max(1L, limit - (long) (ThreadLocalRandom.current().nextDouble() * jitter * limit));
+	}
+
 	@Override
 	public void activateObject(AMCredential credential, PooledObject<AMBaseConnection> connection) throws Exception {
 
@@ -49,6 +99,8 @@ public class PoolableObjectFactory implements BasePoolableObjectFactory {
 			logger.debug(String.format("activateObject credential: %s, connection: %s", credential, connection));
 		}
 
+		connection.getObject().resetSession();
+
 	}
 
 	@Override
@@ -58,7 +110,7 @@ public class PoolableObjectFactory implements BasePoolableObjectFactory {
 			logger.debug(String.format("destroyObject credential: %s, connection: %s", credential, connection));
 		}
 
-		AMBaseConnection connImpl = (AMBaseConnection) connection;
+		AMBaseConnection connImpl = connection.getObject();
 
 		connImpl.shutdown();
 
@@ -77,23 +129,51 @@ public class PoolableObjectFactory implements BasePoolableObjectFactory {
 			return false;
 		}
 		PoolableObjectFactory rhs = (PoolableObjectFactory) obj;
-		return new EqualsBuilder().appendSuper(super.equals(obj)).append(maxReuse, rhs.maxReuse).isEquals();
+		return new EqualsBuilder().appendSuper(super.equals(obj)).append(maxReuse, rhs.maxReuse)
+				.append(reuseJitter, rhs.reuseJitter).append(maxAgeMs, rhs.maxAgeMs).append(ageJitter, rhs.ageJitter)
+				.append(validationWindowMs, rhs.validationWindowMs).append(passivation, rhs.passivation).isEquals();
+	}
+
+	public double getAgeJitter() {
+		return ageJitter;
 	}
 
 	public ConnectionPool getConnectionPool() {
 		return connectionPool;
 	}
 
+	public long getMaxAgeMs() {
+		return maxAgeMs;
+	}
+
 	public int getMaxReuse() {
 		return maxReuse;
 	}
 
+	public Passivation getPassivation() {
+		return passivation;
+	}
+
+	public double getReuseJitter() {
+		return reuseJitter;
+	}
+
+	public long getValidationWindowMs() {
+		return validationWindowMs;
+	}
+
 	public int hashCode() {
-		return new HashCodeBuilder(101, 103).appendSuper(super.hashCode()).append(maxReuse).toHashCode();
+		return new HashCodeBuilder(101, 103).appendSuper(super.hashCode()).append(maxReuse).append(reuseJitter)
+				.append(maxAgeMs).append(ageJitter).append(validationWindowMs).append(passivation).toHashCode();
 	}
 
 	public void init() {
 		Assert.isTrue(maxReuse >= 0, "maxReuse must be greater than or equal to 0");
+		Assert.isTrue(maxAgeMs >= 0L, "maxAgeMs must be greater than or equal to 0");
+		Assert.isTrue(reuseJitter >= 0.0d && reuseJitter < 1.0d, "reuseJitter must be between 0 and 1");
+		Assert.isTrue(ageJitter >= 0.0d && ageJitter < 1.0d, "ageJitter must be between 0 and 1");
+		Assert.notNull(passivation, "passivation is required");
+		Assert.isTrue(validationWindowMs >= 0L, "validationWindowMs must be greater than or equal to 0");
 	}
 
 	@Override
@@ -107,7 +187,17 @@ public class PoolableObjectFactory implements BasePoolableObjectFactory {
 
 		conn.openConnection(credential.getDatabase(), credential.getUserName(), credential.getPassword());
 
-		return new DefaultPooledObject<>(conn);
+		return wrap(conn);
+	}
+
+	/**
+	 * Assigns the jittered reuse and age budgets of a new connection.
+	 */
+	protected PooledObject<AMBaseConnection> wrap(AMBaseConnection connection) {
+
+		connection.setRecycleBudget((int) jittered(maxReuse, reuseJitter), jittered(maxAgeMs, ageJitter));
+
+		return new DefaultPooledObject<>(connection);
 	}
 
 	@Override
@@ -117,7 +207,28 @@ public class PoolableObjectFactory implements BasePoolableObjectFactory {
 			logger.debug(String.format("passivateObject credential: %s, connection: %s", credential, connection));
 		}
 
-		connection.getObject().cleanup();
+		AMBaseConnection base = connection.getObject();
+
+		switch (passivation) {
+		case EAGER:
+			base.resetSession();
+			break;
+		case ASYNC:
+			if (base.isSessionDirty()) {
+				long generation = base.getBorrowGeneration();
+				resetExecutor.execute(() -> {
+					try {
+						base.resetSession(generation);
+					} catch (RuntimeException e) {
+						// retried by activateObject, which discards the connection if it fails again
+						logger.debug("background session reset failed", e);
+					}
+				});
+			}
+			break;
+		default:
+			break;
+		}
 
 	}
 
@@ -127,12 +238,34 @@ public class PoolableObjectFactory implements BasePoolableObjectFactory {
 		return this;
 	}
 
+	public void setAgeJitter(double ageJitter) {
+		this.ageJitter = ageJitter;
+	}
+
+	public void setMaxAgeMs(long maxAgeMs) {
+		this.maxAgeMs = maxAgeMs;
+	}
+
 	public void setMaxReuse(int maxReuse) {
 		this.maxReuse = maxReuse;
 	}
 
+	public void setPassivation(Passivation passivation) {
+		this.passivation = passivation;
+	}
+
+	public void setReuseJitter(double reuseJitter) {
+		this.reuseJitter = reuseJitter;
+	}
+
+	public void setValidationWindowMs(long validationWindowMs) {
+		this.validationWindowMs = validationWindowMs;
+	}
+
 	public String toString() {
-		return new ToStringBuilder(this).appendSuper(super.toString()).append("maxReuse", maxReuse).toString();
+		return new ToStringBuilder(this).appendSuper(super.toString()).append("maxReuse", maxReuse)
+				.append("reuseJitter", reuseJitter).append("maxAgeMs", maxAgeMs).append("ageJitter", ageJitter)
+				.append("validationWindowMs", validationWindowMs).append("passivation", passivation).toString();
 	}
 
 	@Override
@@ -140,25 +273,45 @@ public class PoolableObjectFactory implements BasePoolableObjectFactory {
 
 		AMBaseConnection base = connection.getObject();
 
-		long isConnected = base.isConnected();
+		long now = System.currentTimeMillis();
 		int reuseCount = base.getReuseCount();
 		boolean noReuse = base.isProcessingFlagSet(AMConnection.FLAG_NO_REUSE);
 
-		logger.debug(String.format("isConnected = [%1$s], reuseCount = [%2$d], noReuse = [%3$s]", isConnected,
+		logger.debug(String.format("state = [%1$s], reuseCount = [%2$d], noReuse = [%3$s]", connection.getState(),
 				reuseCount, Boolean.toString(noReuse)));
 
-		if (!noReuse) {
+		if (noReuse) {
+			logger.debug("reuse not allowed");
+			return false;
+		}
+
+		if (base.isRecycleDue(now)) {
+			logger.debug("reuse limit reached");
+			return false;
+		}
+
+		// a failed call flags the connection, so on borrow and return the flags
+		// are proof enough of liveness, only the evictor probes and skips the
+		// connections used cleanly within the window
 
-			if (maxReuse == 0 || maxReuse > 0 && reuseCount <= maxReuse) {
-				if (1L == isConnected) {
-					return true;
-				}
-			} else {
-				logger.debug("reuse limit reached");
+		if (connection.getState() != PooledObjectState.EVICTION
+				|| now - base.getLastHealthyAt() <= validationWindowMs) {
+			return true;
+		}
+
+		try {
+
+			long isConnected = base.isConnected();
+
+			logger.debug("isConnected = [{}]", isConnected);
+
+			if (1L == isConnected) {
+				base.markHealthy(now);
+				return true;
 			}
 
-		} else {
-			logger.debug("reuse not allowed");
+		} catch (RuntimeException e) {
+			logger.debug("isConnected probe failed", e);
 		}
 
 		return false;
@@ -0,0 +1,187 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMBatch;
+import am.api.AMConnection;
+import am.api.AMHandle;
+import am.api.exception.AMConnectionException;
+import am.api.model.AMBatchResult;
+import am.api.model.AMDate;
+import am.api.util.NLS;
+
+/**
+ * Records the mutations of an enlisted connection and sends them as one
+ * {@link AMBatch} when flushed, at the latest before the transaction
+ * completes. Mutations answer 0 right away, a failing one fails the flush.
+ * Records created through the buffer answer a placeholder handle, resolved to
+ * the real handle on the first use outside the buffer.
+ */
+public final class WriteBehindBuffer {
+
+	private AMBatch batch;
+
+	private final AMConnection connection;
+
+	// placeholders compare by batch index, which restarts with every batch
+	private final Set<AMHandle> pendingHandles = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private final List<Integer> pendingStatus = new ArrayList<>();
+
+	private final Map<AMHandle, AMHandle> resolved = new IdentityHashMap<>();
+
+	public WriteBehindBuffer(AMConnection connection) {
+		super();
+		this.connection = connection;
+	}
+
+	private AMBatch batch() {
+		if (batch == null) {
+			batch = connection.createBatch();
+		}
+		return batch;
+	}
+
+	public synchronized long createLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		return status(batch().createLink(resolveBuffered(srcRecHandle), linkName, resolveBuffered(srcDstHandle)));
+	}
+
+	public synchronized AMHandle createRecord(String tblName) {
+		AMHandle placeholder = batch().createRecord(tblName);
+		pendingHandles.add(placeholder);
+		return placeholder;
+	}
+
+	public synchronized long deleteLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		return status(batch().deleteLink(resolveBuffered(srcRecHandle), linkName, resolveBuffered(srcDstHandle)));
+	}
+
+	public synchronized long deleteRecord(AMHandle recordHandle) {
+		return status(batch().deleteRecord(resolveBuffered(recordHandle)));
+	}
+
+	/**
+	 * Sends the recorded mutations, does nothing when none are pending.
+	 * 
+	 * @throws AMConnectionException when a mutation answered an error code
+	 */
+	public synchronized void flush() {
+
+		if (batch == null || batch.size() == 0) {
+			return;
+		}
+
+		List<AMHandle> handles = new ArrayList<>(pendingHandles);
+		List<Integer> status = new ArrayList<>(pendingStatus);
+
+		pendingHandles.clear();
+		pendingStatus.clear();
+
+		AMBatchResult result = batch.execute();
+
+		for (AMHandle placeholder : handles) {
+			resolved.put(placeholder, result.getHandle(placeholder));
+		}
+
+		for (int index : status) {
+			long code = result.getLong(index);
+			if (code != 0L) {
+				throw new AMConnectionException(
+						String.format(NLS.ERRORS.getString("transaction.writebehind.failed"), code));
+			}
+		}
+	}
+
+	public synchronized long insertRecord(AMHandle recHandle) {
+		return status(batch().insertRecord(resolveBuffered(recHandle)));
+	}
+
+	public synchronized boolean isPending() {
+		return batch != null && batch.size() > 0;
+	}
+
+	/**
+	 * @return the real handle behind a placeholder of this buffer, flushing
+	 *         first when it is still pending, any other handle as is
+	 */
+	public synchronized AMHandle resolve(AMHandle handle) {
+
+		if (handle == null) {
+			return null;
+		}
+
+		if (pendingHandles.contains(handle)) {
+			flush();
+		}
+
+		AMHandle real = resolved.get(handle);
+
+		return real == null ? handle : real;
+	}
+
+	/**
+	 * Placeholders of the pending batch stay as they are, the batch resolves
+	 * them itself.
+	 */
+	private AMHandle resolveBuffered(AMHandle handle) {
+		AMHandle real = handle == null ? null : resolved.get(handle);
+		return real == null ? handle : real;
+	}
+
+	public synchronized long setFieldDateOnlyValue(AMHandle recHandle, String fieldName, AMDate dateOnlyValue) {
+		return status(batch().setFieldDateOnlyValue(resolveBuffered(recHandle), fieldName, dateOnlyValue));
+	}
+
+	public synchronized long setFieldDateValue(AMHandle recHandle, String fieldName, AMDate dateTimeValue) {
+		return status(batch().setFieldDateValue(resolveBuffered(recHandle), fieldName, dateTimeValue));
+	}
+
+	public synchronized long setFieldDoubleValue(AMHandle recHandle, String fieldName, double value) {
+		return status(batch().setFieldDoubleValue(resolveBuffered(recHandle), fieldName, value));
+	}
+
+	public synchronized long setFieldLongValue(AMHandle recHandle, String fieldName, long value) {
+		return status(batch().setFieldLongValue(resolveBuffered(recHandle), fieldName, value));
+	}
+
+	public synchronized long setFieldStrValue(AMHandle recHandle, String fieldName, String value) {
+		return status(batch().setFieldStrValue(resolveBuffered(recHandle), fieldName, value));
+	}
+
+	private long status(int index) {
+		pendingStatus.add(index);
+		return 0L;
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("connection", connection).append("pending", pendingStatus.size())
+				.append("resolved", resolved.size()).toString();
+	}
+
+	public synchronized long updateRecord(AMHandle recHandle) {
+		return status(batch().updateRecord(resolveBuffered(recHandle)));
+	}
+}
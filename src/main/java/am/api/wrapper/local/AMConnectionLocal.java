@@ -23,12 +23,19 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.log4j.Logger;
 
+import am.api.AMBatch;
+import am.api.AMCursor;
 import am.api.AMHandle;
+import am.api.AsyncAMConnection;
+import am.api.model.AMColumn;
 import am.api.model.AMCredential;
 import am.api.model.AMDate;
 import am.api.model.AMString;
 import am.api.wrapper.AMBaseConnection;
+import am.api.wrapper.AMBatchImpl;
+import am.api.wrapper.AMCursorImpl;
 import am.api.wrapper.AMConnectionDelegate;
+import am.api.wrapper.AsyncAMConnectionAdapter;
 import am.api.wrapper.ConnectionPool;
 
 public final class AMConnectionLocal extends AMBaseConnection {
@@ -51,9 +58,11 @@ public final class AMConnectionLocal extends AMBaseConnection {
 	@Override
 	public void cleanup() {
 
-		clearLastError();
+		long released = delegate.resetSession();
 
-		releaseRegisteredHandles();
+		if (released > 0L) {
+			logger.warn("Released [{}] registered handles, might have a leak.", released);
+		}
 
 	}
 
@@ -70,8 +79,6 @@ public final class AMConnectionLocal extends AMBaseConnection {
 			logger.debug("Current Thread = {}", Thread.currentThread().toString());
 		}
 
-		releaseRegisteredHandles();
-
 		if (pool != null) {
 
 			logger.debug(String.format("Returning connection [%s] to [%s]", this, pool));
@@ -80,6 +87,8 @@ public final class AMConnectionLocal extends AMBaseConnection {
 
 		} else {
 
+			releaseRegisteredHandles();
+
 			delegate.close();
 
 		}
@@ -177,6 +186,23 @@ public final class AMConnectionLocal extends AMBaseConnection {
 
 	}
 
+	/**
+	 * Calls run on the calling thread, a local connection has no I/O to overlap.
+	 */
+	@Override
+	public AsyncAMConnection async() {
+
+		return new AsyncAMConnectionAdapter(this, true, this, Runnable::run);
+
+	}
+
+	@Override
+	public AMBatch createBatch() {
+
+		return new AMBatchImpl(delegate::executeBatch);
+
+	}
+
 	@Override
 	public AMHandle createRecord(String tblName) {
 
@@ -686,6 +712,18 @@ public final class AMConnectionLocal extends AMBaseConnection {
 
 	}
 
+	@Override
+	public AMCursor openCursor(String aqlQuery, List<AMColumn> columns, int fetchSize) {
+
+		if (fetchSize <= 0) {
+			throw new IllegalArgumentException("invalid fetchSize argument");
+		}
+
+		return new AMCursorImpl(delegate.openCursor(aqlQuery, columns, fetchSize), columns, fetchSize,
+				delegate::fetchRows, delegate::closeCursor, null);
+
+	}
+
 	@Override
 	public long purgeRecord(AMHandle recHandle) {
 
@@ -16,44 +16,75 @@
  */
 package am.api.wrapper.remote;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.rmi.Naming;
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.log4j.Logger;
 
+import am.api.AMBatch;
 import am.api.AMConnection;
+import am.api.AMCursor;
 import am.api.AMHandle;
+import am.api.AsyncAMConnection;
 import am.api.exception.AMConnectionException;
 import am.api.exception.CallTimeOutException;
+import am.api.model.AMColumn;
 import am.api.model.AMCredential;
 import am.api.model.AMDate;
 import am.api.model.AMString;
+import am.api.util.SerialExecutor;
 import am.api.wrapper.AMBaseConnection;
+import am.api.wrapper.AMBatchImpl;
+import am.api.wrapper.AMCursorImpl;
+import am.api.wrapper.AsyncAMConnectionAdapter;
 import am.api.wrapper.ConnectionPool;
 import am.server.AMAPIProcess;
 import am.server.client.AMLibraryRemote;
+import am.server.client.BatchOperation;
 import am.server.client.ReturnWithString;
+import am.server.client.RowChunk;
+import am.server.client.SocketLibraryClient;
+import am.server.client.SocketPipeline;
 
 final class AMConnectionRemote extends AMBaseConnection {
 
 	private final static Logger logger = Logger.getLogger(AMConnectionRemote.class);
 
+	private final static ExecutorService prefetchExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+		public Thread newThread(Runnable r) {
+			Thread t = Executors.defaultThreadFactory().newThread(r);
+			t.setName("AMCursor-prefetch-" + t.getName());
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
 	private final AMCredential credential;
 
 	private final long defaultCallTimeOutInMs;
 
 	private final ConnectionPool pool;
 
+	private Executor asyncExecutor;
+
+	private SocketPipeline asyncPipeline;
+
 	private AMLibraryRemote remoteLibrary;
 
 	private final int serverPort;
 
-	public AMConnectionRemote(ConnectionPool pool, AMCredential credential, int serverPort,
+	public AMConnectionRemote(ConnectionPool pool, AMCredential credential, int serverPort, int socketPort,
 			long defaultCallTimeOutInMs) {
 
 		super();
@@ -68,12 +99,20 @@ final class AMConnectionRemote extends AMBaseConnection {
 			this.defaultCallTimeOutInMs = defaultCallTimeOutInMs;
 		}
 
-		String rmiPath = String.format("rmi://localhost:%1$d/%2$s", serverPort, AMAPIProcess.class.getName());
-
-		logger.info("rmiPath={}", rmiPath);
+		if (socketPort > 0) {
+			try {
+				remoteLibrary = new SocketLibraryClient(socketPort);
+				logger.info("socketPort={}", socketPort);
+			} catch (IOException e) {
+				logger.warn(String.format("socket transport unavailable on port [%1$d], falling back to RMI", socketPort),
+						e);
+			}
+		}
 
 		try {
-			remoteLibrary = (AMLibraryRemote) Naming.lookup(rmiPath);
+			if (remoteLibrary == null) {
+				remoteLibrary = lookupRmi();
+			}
 			logger.debug("remoteLibrary={}", remoteLibrary);
 			remoteLibrary.setCallTimeOutInMs(this.defaultCallTimeOutInMs);
 			logger.debug("setting callTimeOutInMs to default value {}", this.defaultCallTimeOutInMs);
@@ -82,20 +121,60 @@ final class AMConnectionRemote extends AMBaseConnection {
 		}
 	}
 
+	/**
+	 * Pipelines over a second socket to the process, or runs the calls one at a
+	 * time on the shared pool when the process is reached through RMI.
+	 */
+	@Override
+	public synchronized AsyncAMConnection async() {
+
+		if (remoteLibrary instanceof SocketLibraryClient && (asyncPipeline == null || !asyncPipeline.isOpen())) {
+
+			int socketPort = ((SocketLibraryClient) remoteLibrary).getSocketPort();
+
+			try {
+				asyncPipeline = new SocketPipeline(socketPort);
+			} catch (IOException e) {
+				logger.warn(String.format("socket pipeline unavailable on port [%1$d]", socketPort), e);
+				asyncPipeline = null;
+			}
+		}
+
+		if (asyncPipeline != null) {
+			return new AsyncAMConnectionRemote(this, true, this, asyncPipeline);
+		}
+
+		if (asyncExecutor == null) {
+			asyncExecutor = new SerialExecutor(prefetchExecutor);
+		}
+
+		return new AsyncAMConnectionAdapter(this, true, this, asyncExecutor);
+	}
+
 	@Override
 	public void cleanup() {
 		try {
-			remoteLibrary.cleanup();
-			resetCallTimeOut();
+			remoteLibrary.resetSession(defaultCallTimeOutInMs);
 		} catch (CallTimeOutException t) {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 
 	}
 
+	private long closeCursor(AMHandle cursor) {
+		try {
+			return remoteLibrary.closeCursor(cursor);
+		} catch (CallTimeOutException t) {
+			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
+			throw t;
+		} catch (RemoteException e) {
+			throw remoteFailure(e);
+		}
+	}
+
 	@Override
 	public long clearLastError() {
 		try {
@@ -104,7 +183,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -137,7 +216,19 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
+		}
+	}
+
+	@Override
+	protected long commitThenCleanup() {
+		try {
+			return remoteLibrary.commitAndReset(defaultCallTimeOutInMs);
+		} catch (CallTimeOutException t) {
+			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
+			throw t;
+		} catch (RemoteException e) {
+			throw remoteFailure(e);
 		}
 	}
 
@@ -153,7 +244,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -165,7 +256,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -177,7 +268,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -189,7 +280,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -201,7 +292,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -217,7 +308,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -233,7 +324,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -249,7 +340,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -265,7 +356,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -277,7 +368,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -289,7 +380,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -301,10 +392,15 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
+	@Override
+	public AMBatch createBatch() {
+		return new AMBatchImpl(this::executeBatch);
+	}
+
 	@Override
 	public AMHandle createRecord(String tblName) {
 		try {
@@ -313,7 +409,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -325,7 +421,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -337,7 +433,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -349,7 +445,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -361,7 +457,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -373,7 +469,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -385,7 +481,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -397,7 +493,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -409,7 +505,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -427,7 +523,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -445,7 +541,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -463,7 +559,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -475,7 +571,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -487,7 +583,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -503,7 +599,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -519,7 +615,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -531,7 +627,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -543,7 +639,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -555,7 +651,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -571,7 +667,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -590,6 +686,28 @@ final class AMConnectionRemote extends AMBaseConnection {
 				.append(credential, rhs.credential).append(remoteLibrary, rhs.remoteLibrary).isEquals();
 	}
 
+	private RowChunk fetchRows(AMHandle cursor, List<AMColumn> columns, int fetchSize) {
+		try {
+			return remoteLibrary.fetchRows(cursor, columns, fetchSize);
+		} catch (CallTimeOutException t) {
+			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
+			throw t;
+		} catch (RemoteException e) {
+			throw remoteFailure(e);
+		}
+	}
+
+	private List<Object> executeBatch(List<BatchOperation> operations) {
+		try {
+			return remoteLibrary.executeBatch(operations);
+		} catch (CallTimeOutException t) {
+			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
+			throw t;
+		} catch (RemoteException e) {
+			throw remoteFailure(e);
+		}
+	}
+
 	@Override
 	public AMHandle executeActionById(long actionId, String tableName, long recordId) {
 		try {
@@ -598,7 +716,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -610,7 +728,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -622,7 +740,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -634,7 +752,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -650,7 +768,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -666,7 +784,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -682,7 +800,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -694,7 +812,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -706,7 +824,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -718,7 +836,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -730,7 +848,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -746,7 +864,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -758,7 +876,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -774,7 +892,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -790,7 +908,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -802,7 +920,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -818,7 +936,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -834,7 +952,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -846,7 +964,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -862,7 +980,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -874,7 +992,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -890,7 +1008,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -907,7 +1025,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -919,7 +1037,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -931,7 +1049,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -943,7 +1061,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -955,7 +1073,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -967,7 +1085,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -979,7 +1097,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -991,7 +1109,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1003,7 +1121,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1015,7 +1133,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1031,7 +1149,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1051,7 +1169,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1068,7 +1186,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1080,7 +1198,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1092,7 +1210,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1104,7 +1222,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1120,7 +1238,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1136,7 +1254,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1148,7 +1266,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1164,7 +1282,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1187,6 +1305,24 @@ final class AMConnectionRemote extends AMBaseConnection {
 
 	}
 
+	@Override
+	public AMCursor openCursor(String aqlQuery, List<AMColumn> columns, int fetchSize) {
+
+		if (fetchSize <= 0) {
+			throw new IllegalArgumentException("invalid fetchSize argument");
+		}
+
+		try {
+			return new AMCursorImpl(remoteLibrary.openCursor(aqlQuery, columns, fetchSize), columns, fetchSize,
+					this::fetchRows, this::closeCursor, prefetchExecutor);
+		} catch (CallTimeOutException t) {
+			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
+			throw t;
+		} catch (RemoteException e) {
+			throw remoteFailure(e);
+		}
+	}
+
 	@Override
 	public long purgeRecord(AMHandle recHandle) {
 		try {
@@ -1195,7 +1331,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1207,7 +1343,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1219,7 +1355,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1231,7 +1367,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1243,7 +1379,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1255,7 +1391,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1267,7 +1403,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1279,7 +1415,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1291,7 +1427,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1303,10 +1439,44 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
+		}
+	}
+
+	/**
+	 * Once the socket client has dropped its channel the remaining calls of
+	 * this connection, shutdown included, go through RMI.
+	 */
+	private void fallBackToRmi() {
+		if (remoteLibrary instanceof SocketLibraryClient && !((SocketLibraryClient) remoteLibrary).isOpen()) {
+			try {
+				AMLibraryRemote rmiLibrary = lookupRmi();
+				rmiLibrary.setCallTimeOutInMs(defaultCallTimeOutInMs);
+				remoteLibrary = rmiLibrary;
+			} catch (MalformedURLException | RemoteException | NotBoundException e) {
+				logger.warn(String.format("RMI unavailable on port [%1$d]", serverPort), e);
+			}
 		}
 	}
 
+	private AMLibraryRemote lookupRmi() throws MalformedURLException, RemoteException, NotBoundException {
+		String rmiPath = String.format("rmi://localhost:%1$d/%2$s", serverPort, AMAPIProcess.class.getName());
+
+		logger.info("rmiPath={}", rmiPath);
+
+		return (AMLibraryRemote) Naming.lookup(rmiPath);
+	}
+
+	/**
+	 * A failed transport leaves the child in an unknown state, so the
+	 * connection is not reused.
+	 */
+	private IllegalStateException remoteFailure(RemoteException e) {
+		setProcessingFlag(AMConnection.FLAG_NO_REUSE);
+		fallBackToRmi();
+		return new IllegalStateException(e);
+	}
+
 	@Override
 	public long releaseHandle(AMHandle objHandle) {
 		try {
@@ -1315,7 +1485,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1329,7 +1499,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 
 	}
@@ -1342,7 +1512,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1356,7 +1526,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 
 	}
@@ -1369,7 +1539,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1381,7 +1551,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1393,7 +1563,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1405,7 +1575,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1417,7 +1587,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1426,7 +1596,16 @@ final class AMConnectionRemote extends AMBaseConnection {
 		try {
 			remoteLibrary.shutdown();
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
+		} finally {
+			if (remoteLibrary instanceof SocketLibraryClient) {
+				((SocketLibraryClient) remoteLibrary).disconnect();
+			}
+			synchronized (this) {
+				if (asyncPipeline != null) {
+					asyncPipeline.close();
+				}
+			}
 		}
 	}
 
@@ -1442,7 +1621,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1454,7 +1633,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -1472,7 +1651,7 @@ final class AMConnectionRemote extends AMBaseConnection {
 			setProcessingFlag(AMConnection.FLAG_NO_REUSE);
 			throw t;
 		} catch (RemoteException e) {
-			throw new IllegalStateException(e);
+			throw remoteFailure(e);
 		}
 	}
 
@@ -29,8 +29,11 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -40,6 +43,7 @@ import org.apache.log4j.Logger;
 import org.springframework.util.Assert;
 
 import am.api.util.NLS;
+import am.server.AMAPIProcess;
 
 public class AMProcessManager {
 
@@ -53,7 +57,13 @@ public class AMProcessManager {
 	private Map<Integer, ProcessInfoWorker> processMap;
 	private String reaperScriptPath;
 	private String shellPath;
+	private BlockingQueue<Integer> standbyQ;
+	private ScheduledExecutorService standbyExecutor;
+	private long standbyRefreshIntervalMs = 5000L;
+	private final AtomicBoolean standbyRefreshPending = new AtomicBoolean();
+	private int standbySize = 0;
 	private int startingPortNumber = 0;
+	private String transport = AMAPIProcess.TRANSPORT_RMI;
 
 	public AMProcessManager() {
 		super();
@@ -63,6 +73,12 @@ public class AMProcessManager {
 
 		logger.debug("Trying to cleanup");
 
+		if (standbyExecutor != null) {
+			standbyExecutor.shutdownNow();
+		}
+
+		standbyQ.clear();
+
 		Set<Integer> keys = new HashSet<>(processMap.keySet());
 
 		for (Integer key : keys) {
@@ -89,7 +105,9 @@ public class AMProcessManager {
 		return new EqualsBuilder().appendSuper(super.equals(obj)).append(maxPoolSize, rhs.maxPoolSize)
 				.append(startingPortNumber, rhs.startingPortNumber).append(shellPath, rhs.shellPath)
 				.append("reaperScriptPath", rhs.reaperScriptPath).append(logPath, rhs.logPath)
-				.append(classPath, rhs.classPath).isEquals();
+				.append(classPath, rhs.classPath).append(standbySize, rhs.standbySize)
+				.append(standbyRefreshIntervalMs, rhs.standbyRefreshIntervalMs).append(transport, rhs.transport)
+				.isEquals();
 	}
 
 	private synchronized ProcessInfoWorker getAvailable(BlockingQueue<Boolean> statusQ) {
@@ -108,7 +126,8 @@ public class AMProcessManager {
 						killUnregisteredProcess(key);
 					}
 
-					ProcessInfoWorker worker = new ProcessInfoWorker(key, classPath, logPath, statusQ, this);
+					ProcessInfoWorker worker = new ProcessInfoWorker(key, classPath, logPath, transport, statusQ,
+							this);
 
 					processMap.put(key, worker);
 
@@ -144,6 +163,13 @@ public class AMProcessManager {
 		return maxPoolSize;
 	}
 
+	/**
+	 * @return live child processes, standby ones included
+	 */
+	public int getProcessCount() {
+		return processMap == null ? 0 : processMap.size();
+	}
+
 	public String getReaperScriptPath() {
 		return reaperScriptPath;
 	}
@@ -152,14 +178,42 @@ public class AMProcessManager {
 		return shellPath;
 	}
 
+	public int getStandbyCount() {
+		return standbyQ.size();
+	}
+
+	public long getStandbyRefreshIntervalMs() {
+		return standbyRefreshIntervalMs;
+	}
+
+	public int getStandbySize() {
+		return standbySize;
+	}
+
+	/**
+	 * @return port of the socket transport of the process, 0 when the process
+	 *         only serves RMI
+	 */
+	public int getSocketPort(int key) {
+
+		ProcessInfoWorker worker = processMap.get(key);
+
+		return worker != null ? worker.getSocketPort() : 0;
+	}
+
 	public int getStartingPortNumber() {
 		return startingPortNumber;
 	}
 
+	public String getTransport() {
+		return transport;
+	}
+
 	public int hashCode() {
 
 		return new HashCodeBuilder(99, 3).append(classPath).append(logPath).append(maxPoolSize).append(processExecutor)
-				.append(processMap).append(reaperScriptPath).append(shellPath).append(startingPortNumber).toHashCode();
+				.append(processMap).append(reaperScriptPath).append(shellPath).append(startingPortNumber)
+				.append(standbySize).append(standbyRefreshIntervalMs).append(transport).toHashCode();
 
 	}
 
@@ -197,11 +251,20 @@ public class AMProcessManager {
 		Assert.isTrue(logPath != null && new File(logPath).isDirectory(), "logPath required and must be a directory");
 		Assert.notNull(shellPath, "shellPath is required");
 		Assert.notNull(reaperScriptPath, "reaperScriptPath is required");
+		Assert.isTrue(standbySize >= 0 && standbySize < maxPoolSize,
+				"standbySize must be 0 or greater and less than maxPoolSize");
+		Assert.isTrue(standbyRefreshIntervalMs > 0L, "standbyRefreshIntervalMs must be greater than 0");
+		Assert.isTrue(AMAPIProcess.TRANSPORT_RMI.equals(transport) || AMAPIProcess.TRANSPORT_SOCKET.equals(transport),
+				"transport must be rmi or socket");
+
+		logger.debug("standbySize = {}", standbySize);
 
 		currentPortNumber = new AtomicInteger(startingPortNumber);
 
 		processMap = new ConcurrentHashMap<>();
 
+		standbyQ = new LinkedBlockingQueue<>();
+
 		processExecutor = Executors.newFixedThreadPool(maxPoolSize, new ThreadFactory() {
 			public Thread newThread(Runnable r) {
 				Thread t = Executors.defaultThreadFactory().newThread(r);
@@ -210,10 +273,76 @@ public class AMProcessManager {
 			}
 		});
 
+		if (standbySize > 0) {
+
+			standbyExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = Executors.defaultThreadFactory().newThread(r);
+					t.setName("AMProcessManager-standby");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+
+			standbyExecutor.scheduleWithFixedDelay(this::replenishStandby, 0L, standbyRefreshIntervalMs,
+					TimeUnit.MILLISECONDS);
+		}
+
 	}
 
 	public int instantiate() {
 
+		int key = takeStandby();
+
+		if (key > 0) {
+			return key;
+		}
+
+		return spawn();
+
+	}
+
+	private boolean isAlive(final Integer key) {
+
+		ProcessInfoWorker worker = processMap.get(key);
+
+		return worker != null && worker.getProcess() != null && worker.getProcess().isAlive();
+	}
+
+	private void replenishStandby() {
+
+		standbyRefreshPending.set(false);
+
+		try {
+
+			standbyQ.removeIf(key -> !isAlive(key));
+
+			while (standbyQ.size() < standbySize && processMap.size() < maxPoolSize
+					&& !Thread.currentThread().isInterrupted()) {
+
+				int key = spawn(false);
+
+				if (key > 0) {
+					logger.debug("Standby worker with key = {} is ready", key);
+					standbyQ.offer(key);
+				} else {
+					break;
+				}
+
+			}
+
+		} catch (RuntimeException e) {
+			logger.warn("Could not replenish standby workers", e);
+		}
+
+	}
+
+	private int spawn() {
+		return spawn(true);
+	}
+
+	private int spawn(boolean waitForSlot) {
+
 		logger.debug("Trying to instantiate new worker, currentPortNumber = {}", currentPortNumber);
 
 		final BlockingQueue<Boolean> statusQ = new ArrayBlockingQueue<>(1);
@@ -225,6 +354,17 @@ public class AMProcessManager {
 			worker = getAvailable(statusQ);
 
 			if (worker == null) {
+
+				if (!waitForSlot) {
+					return 0;
+				}
+
+				int key = takeStandby();
+
+				if (key > 0) {
+					return key;
+				}
+
 				logger.warn(NLS.MESSAGES.getString("processmanager.instantiate.wait"));
 				try {
 					Thread.sleep(1000L);
@@ -306,14 +446,64 @@ public class AMProcessManager {
 		this.shellPath = shellPath;
 	}
 
+	public void setStandbyRefreshIntervalMs(long standbyRefreshIntervalMs) {
+		this.standbyRefreshIntervalMs = standbyRefreshIntervalMs;
+	}
+
+	public void setStandbySize(int standbySize) {
+		this.standbySize = standbySize;
+	}
+
 	public void setStartingPortNumber(int startingPortNumber) {
 		this.startingPortNumber = startingPortNumber;
 	}
 
+	public void setTransport(String transport) {
+		this.transport = transport;
+	}
+
+	private int takeStandby() {
+
+		Integer key;
+
+		while ((key = standbyQ.poll()) != null) {
+
+			if (isAlive(key)) {
+
+				logger.debug("Handing out standby worker with key = {}", key);
+
+				requestStandbyRefresh();
+
+				return key;
+			}
+
+			logger.debug("Discarding dead standby worker with key = {}", key);
+		}
+
+		requestStandbyRefresh();
+
+		return 0;
+	}
+
+	private void requestStandbyRefresh() {
+
+		if (standbyExecutor != null && standbyRefreshPending.compareAndSet(false, true)) {
+			try {
+				standbyExecutor.execute(this::replenishStandby);
+			} catch (RuntimeException e) {
+				standbyRefreshPending.set(false);
+				logger.debug("Standby refresh not scheduled", e);
+			}
+		}
+
+	}
+
 	public String toString() {
 		return new ToStringBuilder(this).append("classPath", classPath).append("logPath", logPath)
 				.append("maxPoolSize", maxPoolSize).append("reaperScriptPath", reaperScriptPath)
-				.append("shellPath", shellPath).append("startingPortNumber", startingPortNumber).toString();
+				.append("shellPath", shellPath).append("standbySize", standbySize)
+				.append("standbyRefreshIntervalMs", standbyRefreshIntervalMs)
+				.append("startingPortNumber", startingPortNumber).append("transport", transport).toString();
 	}
 
 	public synchronized void unregister(final Integer key) {
@@ -322,6 +512,8 @@ public class AMProcessManager {
 
 			ProcessInfoWorker worker = processMap.remove(key);
 
+			standbyQ.remove(key);
+
 			if (worker != null) {
 
 				logger.debug("Trying to unregister worker {}", worker);
@@ -0,0 +1,800 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper.remote;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMConnection;
+import am.api.AMHandle;
+import am.api.exception.CallTimeOutException;
+import am.api.model.AMDate;
+import am.api.model.AMString;
+import am.api.wrapper.AbstractAsyncAMConnection;
+import am.server.client.ReturnWithString;
+import am.server.client.SocketFrame;
+import am.server.client.SocketOpCode;
+import am.server.client.SocketPipeline;
+
+/**
+ * {@link am.api.AsyncAMConnection} pipelining its calls over a dedicated
+ * socket to the AMAPIProcess of a remote connection.
+ */
+public final class AsyncAMConnectionRemote extends AbstractAsyncAMConnection {
+
+	private final static Consumer<SocketFrame> NO_ARGUMENTS = frame -> {
+	};
+
+	private final AMConnectionRemote connection;
+
+	private final SocketPipeline pipeline;
+
+	public AsyncAMConnectionRemote(AMConnection owner, boolean transactionControl, AMConnectionRemote connection,
+			SocketPipeline pipeline) {
+		super(owner, transactionControl);
+		this.connection = connection;
+		this.pipeline = pipeline;
+	}
+
+	@Override
+	public AbstractAsyncAMConnection bind(AMConnection owner, boolean transactionControl) {
+		return new AsyncAMConnectionRemote(owner, transactionControl, connection, pipeline);
+	}
+
+	/**
+	 * Flags the connection for no reuse when the call timed out in the process.
+	 */
+	private <T> CompletableFuture<T> call(CompletableFuture<T> future) {
+		return future.whenComplete((value, failure) -> {
+			if (failure instanceof CallTimeOutException) {
+				connection.setProcessingFlag(AMConnection.FLAG_NO_REUSE);
+			}
+		});
+	}
+
+	private long readString(ReturnWithString reply, AMString target) {
+		target.setBuffer(reply.getStringVal().getBuffer());
+		return reply.getReturnValue();
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).appendSuper(super.toString()).append("pipeline", pipeline).toString();
+	}
+
+	@Override
+	public CompletableFuture<Long> clearLastError() {
+		return call(pipeline.call(SocketOpCode.CLEAR_LAST_ERROR, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> commit() {
+		if (!isTransactionControl()) {
+			return rejected("connection.enlisted.commit");
+		}
+		return call(pipeline.call(SocketOpCode.COMMIT, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> connectionName(AMString connectionName) {
+		return call(pipeline.call(SocketOpCode.CONNECTION_NAME, frame -> {
+			frame.putInt(connectionName.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, connectionName));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateBasicToUnix(long tmTime) {
+		return call(pipeline.call(SocketOpCode.CONVERT_DATE_BASIC_TO_UNIX, frame -> frame.putLong(tmTime),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateIntlToUnix(String dateAsString) {
+		return call(pipeline.call(SocketOpCode.CONVERT_DATE_INTL_TO_UNIX, frame -> frame.putString(dateAsString),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateStringToUnix(String dateAsString) {
+		return call(pipeline.call(SocketOpCode.CONVERT_DATE_STRING_TO_UNIX, frame -> frame.putString(dateAsString),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateUnixToBasic(long dateAsUnix) {
+		return call(pipeline.call(SocketOpCode.CONVERT_DATE_UNIX_TO_BASIC, frame -> frame.putLong(dateAsUnix),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateUnixToIntl(long unixDate, AMString dateAsIntlStr) {
+		return call(pipeline.call(SocketOpCode.CONVERT_DATE_UNIX_TO_INTL, frame -> {
+			frame.putLong(unixDate);
+			frame.putInt(dateAsIntlStr.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, dateAsIntlStr));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDateUnixToString(long dateAsUnix, AMString dateAsStr) {
+		return call(pipeline.call(SocketOpCode.CONVERT_DATE_UNIX_TO_STRING, frame -> {
+			frame.putLong(dateAsUnix);
+			frame.putInt(dateAsStr.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, dateAsStr));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertDoubleToString(double dSrc, AMString dblAsString) {
+		return call(pipeline.call(SocketOpCode.CONVERT_DOUBLE_TO_STRING, frame -> {
+			frame.putDouble(dSrc);
+			frame.putInt(dblAsString.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, dblAsString));
+	}
+
+	@Override
+	public CompletableFuture<Long> convertMonetaryToString(double dMonetarySrc, AMString dblAsString) {
+		return call(pipeline.call(SocketOpCode.CONVERT_MONETARY_TO_STRING, frame -> {
+			frame.putDouble(dMonetarySrc);
+			frame.putInt(dblAsString.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, dblAsString));
+	}
+
+	@Override
+	public CompletableFuture<Double> convertStringToDouble(String dblAsString) {
+		return call(pipeline.call(SocketOpCode.CONVERT_STRING_TO_DOUBLE, frame -> frame.putString(dblAsString),
+				SocketFrame::getDouble));
+	}
+
+	@Override
+	public CompletableFuture<Double> convertStringToMonetary(String monetaryAsString) {
+		return call(pipeline.call(SocketOpCode.CONVERT_STRING_TO_MONETARY, frame -> frame.putString(monetaryAsString),
+				SocketFrame::getDouble));
+	}
+
+	@Override
+	public CompletableFuture<Long> createLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		return call(pipeline.call(SocketOpCode.CREATE_LINK, frame -> {
+			frame.putHandle(srcRecHandle);
+			frame.putString(linkName);
+			frame.putHandle(srcDstHandle);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> createRecord(String tblName) {
+		return call(pipeline.call(SocketOpCode.CREATE_RECORD, frame -> frame.putString(tblName),
+				SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> currentDate() {
+		return call(pipeline.call(SocketOpCode.CURRENT_DATE, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> currentServerDate() {
+		return call(pipeline.call(SocketOpCode.CURRENT_SERVER_DATE, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> dateAdd(long startAsUnixDate, long duration) {
+		return call(pipeline.call(SocketOpCode.DATE_ADD, frame -> {
+			frame.putLong(startAsUnixDate);
+			frame.putLong(duration);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> dateAddLogical(long startAsUnixDate, long duration) {
+		return call(pipeline.call(SocketOpCode.DATE_ADD_LOGICAL, frame -> {
+			frame.putLong(startAsUnixDate);
+			frame.putLong(duration);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> dateDiff(long endAsUnixDate, long startAsUnixDate) {
+		return call(pipeline.call(SocketOpCode.DATE_DIFF, frame -> {
+			frame.putLong(endAsUnixDate);
+			frame.putLong(startAsUnixDate);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbExecAql(String aqlQuery) {
+		return call(pipeline.call(SocketOpCode.DB_EXEC_AQL, frame -> frame.putString(aqlQuery), SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetDate(String aqlQuery) {
+		return call(pipeline.call(SocketOpCode.DB_GET_DATE, frame -> frame.putString(aqlQuery), SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Double> dbGetDouble(String aqlQuery) {
+		return call(pipeline.call(SocketOpCode.DB_GET_DOUBLE, frame -> frame.putString(aqlQuery),
+				SocketFrame::getDouble));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetLimitedList(String aqlQuery, AMString result, String colSeparator,
+			String lineSeparator, String idSeperator, long maxSize, long errorType) {
+		return call(pipeline.call(SocketOpCode.DB_GET_LIMITED_LIST, frame -> {
+			frame.putString(aqlQuery);
+			frame.putInt(result.getBufferLength());
+			frame.putString(colSeparator);
+			frame.putString(lineSeparator);
+			frame.putString(idSeperator);
+			frame.putLong(maxSize);
+			frame.putLong(errorType);
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetList(String aqlQuery, AMString result, String colSeparator,
+			String lineSeparator, String idSeperator) {
+		return call(pipeline.call(SocketOpCode.DB_GET_LIST, frame -> {
+			frame.putString(aqlQuery);
+			frame.putInt(result.getBufferLength());
+			frame.putString(colSeparator);
+			frame.putString(lineSeparator);
+			frame.putString(idSeperator);
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetListEx(String aqlQuery, AMString result, String colSeparator,
+			String lineSeparator, String idSeperator) {
+		return call(pipeline.call(SocketOpCode.DB_GET_LIST_EX, frame -> {
+			frame.putString(aqlQuery);
+			frame.putInt(result.getBufferLength());
+			frame.putString(colSeparator);
+			frame.putString(lineSeparator);
+			frame.putString(idSeperator);
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetLong(String aqlQuery) {
+		return call(pipeline.call(SocketOpCode.DB_GET_LONG, frame -> frame.putString(aqlQuery), SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetPk(String tableName, String whereClause) {
+		return call(pipeline.call(SocketOpCode.DB_GET_PK, frame -> {
+			frame.putString(tableName);
+			frame.putString(whereClause);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetString(String query, AMString result, String colSeparator,
+			String lineSeparator) {
+		return call(pipeline.call(SocketOpCode.DB_GET_STRING, frame -> {
+			frame.putString(query);
+			frame.putInt(result.getBufferLength());
+			frame.putString(colSeparator);
+			frame.putString(lineSeparator);
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> dbGetStringEx(String query, AMString result, String colSeparator,
+			String lineSeparator) {
+		return call(pipeline.call(SocketOpCode.DB_GET_STRING_EX, frame -> {
+			frame.putString(query);
+			frame.putInt(result.getBufferLength());
+			frame.putString(colSeparator);
+			frame.putString(lineSeparator);
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> deleteLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		return call(pipeline.call(SocketOpCode.DELETE_LINK, frame -> {
+			frame.putHandle(srcRecHandle);
+			frame.putString(linkName);
+			frame.putHandle(srcDstHandle);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> deleteRecord(AMHandle recordHandle) {
+		return call(pipeline.call(SocketOpCode.DELETE_RECORD, frame -> frame.putHandle(recordHandle),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> duplicateRecord(AMHandle recordHandle, long insert) {
+		return call(pipeline.call(SocketOpCode.DUPLICATE_RECORD, frame -> {
+			frame.putHandle(recordHandle);
+			frame.putLong(insert);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> enumValList(String enumName, AMString value, long caseSensitive,
+			String lineSeparator) {
+		return call(pipeline.call(SocketOpCode.ENUM_VAL_LIST, frame -> {
+			frame.putString(enumName);
+			frame.putInt(value.getBufferLength());
+			frame.putLong(caseSensitive);
+			frame.putString(lineSeparator);
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, value));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> executeActionById(long actionId, String tableName, long recordId) {
+		return call(pipeline.call(SocketOpCode.EXECUTE_ACTION_BY_ID, frame -> {
+			frame.putLong(actionId);
+			frame.putString(tableName);
+			frame.putLong(recordId);
+		}, SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> executeActionByName(String sqlName, String tableName, long recordId) {
+		return call(pipeline.call(SocketOpCode.EXECUTE_ACTION_BY_NAME, frame -> {
+			frame.putString(sqlName);
+			frame.putString(tableName);
+			frame.putLong(recordId);
+		}, SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> exportDocument(long documentId, String fileName) {
+		return call(pipeline.call(SocketOpCode.EXPORT_DOCUMENT, frame -> {
+			frame.putLong(documentId);
+			frame.putString(fileName);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> flushTransaction() {
+		return call(pipeline.call(SocketOpCode.FLUSH_TRANSACTION, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> formatCurrency(double amount, String currency, AMString result) {
+		return call(pipeline.call(SocketOpCode.FORMAT_CURRENCY, frame -> {
+			frame.putDouble(amount);
+			frame.putString(currency);
+			frame.putInt(result.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> formatLong(long number, String format, AMString result) {
+		return call(pipeline.call(SocketOpCode.FORMAT_LONG, frame -> {
+			frame.putLong(number);
+			frame.putString(format);
+			frame.putInt(result.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> getComputeString(String tableName, long recordId, String template, AMString result) {
+		return call(pipeline.call(SocketOpCode.GET_COMPUTE_STRING, frame -> {
+			frame.putString(tableName);
+			frame.putLong(recordId);
+			frame.putString(template);
+			frame.putInt(result.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, result));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getField(AMHandle objHandle, long position) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD, frame -> {
+			frame.putHandle(objHandle);
+			frame.putLong(position);
+		}, SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldCount(AMHandle objHandle) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_COUNT, frame -> frame.putHandle(objHandle),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldDateOnlyValue(AMHandle recHandle, long fieldPos) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_DATE_ONLY_VALUE, frame -> {
+			frame.putHandle(recHandle);
+			frame.putLong(fieldPos);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldDateValue(AMHandle recHandle, long fieldPos) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_DATE_VALUE, frame -> {
+			frame.putHandle(recHandle);
+			frame.putLong(fieldPos);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldDescription(AMHandle fieldHandle, AMString target) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_DESCRIPTION, frame -> {
+			frame.putHandle(fieldHandle);
+			frame.putInt(target.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, target));
+	}
+
+	@Override
+	public CompletableFuture<Double> getFieldDoubleValue(AMHandle objHandle, long fieldPos) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_DOUBLE_VALUE, frame -> {
+			frame.putHandle(objHandle);
+			frame.putLong(fieldPos);
+		}, SocketFrame::getDouble));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldFormat(AMHandle fldHandle, AMString target) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_FORMAT, frame -> {
+			frame.putHandle(fldHandle);
+			frame.putInt(target.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, target));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldFormatFromName(String tableName, String fieldName, AMString result) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_FORMAT_FROM_NAME, frame -> {
+			frame.putString(tableName);
+			frame.putString(fieldName);
+			frame.putInt(result.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, result));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getFieldFromName(AMHandle objHandle, String fielddName) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_FROM_NAME, frame -> {
+			frame.putHandle(objHandle);
+			frame.putString(fielddName);
+		}, SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldLabel(AMHandle fldHandle, AMString result) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_LABEL, frame -> {
+			frame.putHandle(fldHandle);
+			frame.putInt(result.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, result));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldLabelFromName(String tableName, String fieldName, AMString fieldLabel) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_LABEL_FROM_NAME, frame -> {
+			frame.putString(tableName);
+			frame.putString(fieldName);
+			frame.putInt(fieldLabel.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, fieldLabel));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldLongValue(AMHandle objHandle, long fieldPosition) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_LONG_VALUE, frame -> {
+			frame.putHandle(objHandle);
+			frame.putLong(fieldPosition);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldName(AMHandle objHandle, long fieldPositon, AMString fieldName) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_NAME, frame -> {
+			frame.putHandle(objHandle);
+			frame.putLong(fieldPositon);
+			frame.putInt(fieldName.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, fieldName));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldSize(AMHandle fldHandle) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_SIZE, frame -> frame.putHandle(fldHandle),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldSqlName(AMHandle fldHandle, AMString fieldSQLName) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_SQL_NAME, frame -> {
+			frame.putHandle(fldHandle);
+			frame.putInt(fieldSQLName.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, fieldSQLName));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldStrValue(AMHandle qryHandle, long position, AMString target) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_STR_VALUE, frame -> {
+			frame.putHandle(qryHandle);
+			frame.putLong(position);
+			frame.putInt(target.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, target));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldType(AMHandle fldHandle) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_TYPE, frame -> frame.putHandle(fldHandle),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> getFieldUserType(AMHandle fldHandle) {
+		return call(pipeline.call(SocketOpCode.GET_FIELD_USER_TYPE, frame -> frame.putHandle(fldHandle),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getRecordFromMainId(String tableName, long lId) {
+		return call(pipeline.call(SocketOpCode.GET_RECORD_FROM_MAIN_ID, frame -> {
+			frame.putString(tableName);
+			frame.putLong(lId);
+		}, SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getRecordHandle(AMHandle qryHandle) {
+		return call(pipeline.call(SocketOpCode.GET_RECORD_HANDLE, frame -> frame.putHandle(qryHandle),
+				SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> getRecordId(AMHandle recHandle) {
+		return call(pipeline.call(SocketOpCode.GET_RECORD_ID, frame -> frame.putHandle(recHandle),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getRelDstField(AMHandle fldHandle) {
+		return call(pipeline.call(SocketOpCode.GET_REL_DST_FIELD, frame -> frame.putHandle(fldHandle),
+				SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getRelSrcField(AMHandle fldHandle) {
+		return call(pipeline.call(SocketOpCode.GET_REL_SRC_FIELD, frame -> frame.putHandle(fldHandle),
+				SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getRelTable(AMHandle fldHandle) {
+		return call(pipeline.call(SocketOpCode.GET_REL_TABLE, frame -> frame.putHandle(fldHandle),
+				SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> getReverseLink(AMHandle fldHandle) {
+		return call(pipeline.call(SocketOpCode.GET_REVERSE_LINK, frame -> frame.putHandle(fldHandle),
+				SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> getSelfFromMainId(String tableName, long recordId, AMString recordDescription) {
+		return call(pipeline.call(SocketOpCode.GET_SELF_FROM_MAIN_ID, frame -> {
+			frame.putString(tableName);
+			frame.putLong(recordId);
+			frame.putInt(recordDescription.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, recordDescription));
+	}
+
+	@Override
+	public CompletableFuture<Long> getVersion(AMString amVersion) {
+		return call(pipeline.call(SocketOpCode.GET_VERSION, frame -> {
+			frame.putInt(amVersion.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, amVersion));
+	}
+
+	@Override
+	public CompletableFuture<Long> importDocument(long docId, String tableName, String fileName, String category,
+			String designation) {
+		return call(pipeline.call(SocketOpCode.IMPORT_DOCUMENT, frame -> {
+			frame.putLong(docId);
+			frame.putString(tableName);
+			frame.putString(fileName);
+			frame.putString(category);
+			frame.putString(designation);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> insertRecord(AMHandle recHandle) {
+		return call(pipeline.call(SocketOpCode.INSERT_RECORD, frame -> frame.putHandle(recHandle),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> isConnected() {
+		return call(pipeline.call(SocketOpCode.IS_CONNECTED, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> lastError() {
+		return call(pipeline.call(SocketOpCode.LAST_ERROR, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> lastErrorMsg(AMString errorMessage) {
+		return call(pipeline.call(SocketOpCode.LAST_ERROR_MSG, frame -> {
+			frame.putInt(errorMessage.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, errorMessage));
+	}
+
+	@Override
+	public CompletableFuture<Long> listToString(AMString target, String source, String colSep, String lineSep,
+			String idSep) {
+		return call(pipeline.call(SocketOpCode.LIST_TO_STRING, frame -> {
+			frame.putInt(target.getBufferLength());
+			frame.putString(source);
+			frame.putString(colSep);
+			frame.putString(lineSep);
+			frame.putString(idSep);
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, target));
+	}
+
+	@Override
+	public CompletableFuture<Long> loginId() {
+		return call(pipeline.call(SocketOpCode.LOGIN_ID, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> loginName(AMString loginName) {
+		return call(pipeline.call(SocketOpCode.LOGIN_NAME, frame -> {
+			frame.putInt(loginName.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, loginName));
+	}
+
+	@Override
+	public CompletableFuture<Long> purgeRecord(AMHandle recHandle) {
+		return call(pipeline.call(SocketOpCode.PURGE_RECORD, frame -> frame.putHandle(recHandle),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> queryCreate() {
+		return call(pipeline.call(SocketOpCode.QUERY_CREATE, NO_ARGUMENTS, SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> queryExec(AMHandle queryHandle, String aqlQuery) {
+		return call(pipeline.call(SocketOpCode.QUERY_EXEC, frame -> {
+			frame.putHandle(queryHandle);
+			frame.putString(aqlQuery);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> queryGet(AMHandle qryHandle, String aqlQuery) {
+		return call(pipeline.call(SocketOpCode.QUERY_GET, frame -> {
+			frame.putHandle(qryHandle);
+			frame.putString(aqlQuery);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> queryNext(AMHandle queryHandle) {
+		return call(pipeline.call(SocketOpCode.QUERY_NEXT, frame -> frame.putHandle(queryHandle),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> querySetAddMainField(AMHandle qryHandle, long addMainField) {
+		return call(pipeline.call(SocketOpCode.QUERY_SET_ADD_MAIN_FIELD, frame -> {
+			frame.putHandle(qryHandle);
+			frame.putLong(addMainField);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> querySetFullMemo(AMHandle qryHandle, long fullMemo) {
+		return call(pipeline.call(SocketOpCode.QUERY_SET_FULL_MEMO, frame -> {
+			frame.putHandle(qryHandle);
+			frame.putLong(fullMemo);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<AMHandle> queryStartTable(AMHandle qryHandle) {
+		return call(pipeline.call(SocketOpCode.QUERY_START_TABLE, frame -> frame.putHandle(qryHandle),
+				SocketFrame::getHandle));
+	}
+
+	@Override
+	public CompletableFuture<Long> queryStop(AMHandle qryHandle) {
+		return call(pipeline.call(SocketOpCode.QUERY_STOP, frame -> frame.putHandle(qryHandle), SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> refreshAllCaches() {
+		return call(pipeline.call(SocketOpCode.REFRESH_ALL_CACHES, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> releaseHandle(AMHandle objHandle) {
+		return call(pipeline.call(SocketOpCode.RELEASE_HANDLE, frame -> frame.putHandle(objHandle),
+				SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> rollBack() {
+		if (!isTransactionControl()) {
+			return rejected("connection.enlisted.rollback");
+		}
+		return call(pipeline.call(SocketOpCode.ROLL_BACK, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> setFieldDateOnlyValue(AMHandle recHandle, String fieldName, AMDate dateOnlyValue) {
+		return call(pipeline.call(SocketOpCode.SET_FIELD_DATE_ONLY_VALUE, frame -> {
+			frame.putHandle(recHandle);
+			frame.putString(fieldName);
+			frame.putDate(dateOnlyValue);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> setFieldDateValue(AMHandle recHandle, String fieldName, AMDate dateTimeValue) {
+		return call(pipeline.call(SocketOpCode.SET_FIELD_DATE_VALUE, frame -> {
+			frame.putHandle(recHandle);
+			frame.putString(fieldName);
+			frame.putDate(dateTimeValue);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> setFieldDoubleValue(AMHandle recHandle, String fieldName, double value) {
+		return call(pipeline.call(SocketOpCode.SET_FIELD_DOUBLE_VALUE, frame -> {
+			frame.putHandle(recHandle);
+			frame.putString(fieldName);
+			frame.putDouble(value);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> setFieldLongValue(AMHandle recHandle, String fieldName, long value) {
+		return call(pipeline.call(SocketOpCode.SET_FIELD_LONG_VALUE, frame -> {
+			frame.putHandle(recHandle);
+			frame.putString(fieldName);
+			frame.putLong(value);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> setFieldStrValue(AMHandle recHandle, String fieldName, String value) {
+		return call(pipeline.call(SocketOpCode.SET_FIELD_STR_VALUE, frame -> {
+			frame.putHandle(recHandle);
+			frame.putString(fieldName);
+			frame.putString(value);
+		}, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> sqlTextConst(String aqlQuery, AMString target) {
+		return call(pipeline.call(SocketOpCode.SQL_TEXT_CONST, frame -> {
+			frame.putString(aqlQuery);
+			frame.putInt(target.getBufferLength());
+		}, SocketFrame::getReturnWithString)).thenApply(reply -> readString(reply, target));
+	}
+
+	@Override
+	public CompletableFuture<Long> startTransaction() {
+		return call(pipeline.call(SocketOpCode.START_TRANSACTION, NO_ARGUMENTS, SocketFrame::getLong));
+	}
+
+	@Override
+	public CompletableFuture<Long> updateRecord(AMHandle recHandle) {
+		return call(pipeline.call(SocketOpCode.UPDATE_RECORD, frame -> frame.putHandle(recHandle),
+				SocketFrame::getLong));
+	}
+}
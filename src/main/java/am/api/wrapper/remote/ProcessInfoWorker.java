@@ -37,16 +37,19 @@ public class ProcessInfoWorker implements Runnable {
 	private final String logPath;
 	private Process process = null;
 	private volatile int processId;
+	private volatile int socketPort;
+	private final String transport;
 	private AMProcessManager amProcessManager;
 
 	private final BlockingQueue<Boolean> statusQ;
 
-	public ProcessInfoWorker(Integer key, String classPath, String logPath, BlockingQueue<Boolean> statusQ,
-			AMProcessManager amProcessManager) {
+	public ProcessInfoWorker(Integer key, String classPath, String logPath, String transport,
+			BlockingQueue<Boolean> statusQ, AMProcessManager amProcessManager) {
 		super();
 		this.key = key;
 		this.classPath = classPath;
 		this.logPath = logPath;
+		this.transport = transport;
 		this.statusQ = statusQ;
 		this.amProcessManager = amProcessManager;
 	}
@@ -93,6 +96,10 @@ public class ProcessInfoWorker implements Runnable {
 		return processId;
 	}
 
+	public int getSocketPort() {
+		return socketPort;
+	}
+
 	public int hashCode() {
 		return new HashCodeBuilder(99, 5).appendSuper(super.hashCode()).append(key).append(processId).append(process)
 				.toHashCode();
@@ -103,7 +110,8 @@ public class ProcessInfoWorker implements Runnable {
 
 		ProcessBuilder processBuilder = new ProcessBuilder("java.exe",
 				String.format("-D%1$s=%2$d", AMAPIProcess.PARAM_RMI_SERVER_PORT, key),
-				String.format("-D%1$s=%2$s", AMAPIProcess.PARAM_LOG_PATH, logPath), "-Xmx64M", "-Xrs", "-classpath",
+				String.format("-D%1$s=%2$s", AMAPIProcess.PARAM_LOG_PATH, logPath),
+				String.format("-D%1$s=%2$s", AMAPIProcess.PARAM_TRANSPORT, transport), "-Xmx64M", "-Xrs", "-classpath",
 				classPath, AMAPIProcess.class.getName());
 
 		try {
@@ -151,6 +159,10 @@ public class ProcessInfoWorker implements Runnable {
 
 	}
 
+	public void setSocketPort(int socketPort) {
+		this.socketPort = socketPort;
+	}
+
 	public void signalFailure() {
 		statusQ.add(Boolean.FALSE);
 	}
@@ -81,8 +81,13 @@ public class ProcessStatusReader implements Runnable {
 
 				if (line.startsWith(AMAPIProcess.STATUS_READY)) {
 
-					int processId = Integer.parseInt(line.substring(line
-							.indexOf(':') + 1));
+					String[] status = line.split(":");
+
+					int processId = Integer.parseInt(status[1]);
+
+					if (status.length > 2) {
+						processInfoWorker.setSocketPort(Integer.parseInt(status[2]));
+					}
 
 					logger.debug("processId [{}] retrieved for key [{}]",
 							processId, processInfoWorker.getKey());
@@ -20,7 +20,6 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.pool2.PooledObject;
-import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.log4j.Logger;
 import org.springframework.util.Assert;
 
@@ -87,7 +86,8 @@ public class RemotePoolableObjectFactory extends am.api.wrapper.PoolableObjectFa
 
 		if (serverPort > 0) {
 
-			conn = new AMConnectionRemote(getConnectionPool(), credential, serverPort, defaultCallTimeOutInMs);
+			conn = new AMConnectionRemote(getConnectionPool(), credential, serverPort,
+					processManager.getSocketPort(serverPort), defaultCallTimeOutInMs);
 
 			try {
 
@@ -120,7 +120,7 @@ public class RemotePoolableObjectFactory extends am.api.wrapper.PoolableObjectFa
 			throw new AMConnectionException(NLS.ERRORS.getString("connection.cannot.open"));
 		}
 
-		return new DefaultPooledObject<>(conn);
+		return wrap(conn);
 	}
 
 	public void setProcessManager(AMProcessManager processManager) {
@@ -43,12 +43,16 @@ import am.api.AMHandle;
 import am.api.exception.AMConnectionException;
 import am.api.exception.CallTimeOutException;
 import am.api.exception.IllegalConnectionStateException;
+import am.api.model.AMColumn;
 import am.api.model.AMDate;
 import am.api.model.AMString;
 import am.api.wrapper.AMConnectionDelegate;
+import am.server.NativeCallMailbox.NativeCall;
 import am.server.client.AMLibraryRemote;
+import am.server.client.BatchOperation;
 import am.server.client.ReturnWithString;
-import am.server.tasks.*;
+import am.server.client.RowChunk;
+import am.server.tasks.ShutdownProcess;
 
 public class AMAPIProcess implements AMLibraryRemote {
 
@@ -62,18 +66,26 @@ public class AMAPIProcess implements AMLibraryRemote {
 
 	public final static String PARAM_RMI_SERVER_PORT = "am.server.port";
 
+	public final static String PARAM_TRANSPORT = "am.server.transport";
+
 	private static CountDownLatch shutdownSignal = new CountDownLatch(1);
 
 	public final static String STATUS_FAILED = "STATUS_FAILED";
 
 	public final static String STATUS_READY = "STATUS_READY";
 
+	public final static String TRANSPORT_RMI = "rmi";
+
+	public final static String TRANSPORT_SOCKET = "socket";
+
 	public static void main(String[] args) {
 
 		final String portParam = System.getProperty(PARAM_RMI_SERVER_PORT, Integer.toString(DEFAULT_PORT));
 
 		final String logPath = System.getProperty(PARAM_LOG_PATH, LOG_PATH);
 
+		final String transport = System.getProperty(PARAM_TRANSPORT, TRANSPORT_RMI);
+
 		final String lockFileName = String.format("%1$sAMAPIProcess_%2$s.lck", logPath, portParam);
 
 		try (FileChannel channel = new RandomAccessFile(new File(lockFileName), "rw").getChannel()) {
@@ -118,7 +130,23 @@ public class AMAPIProcess implements AMLibraryRemote {
 
 				registry.rebind(engine.getClass().getName(), stub);
 
-				System.out.println(String.format("%1$s:%2$d", STATUS_READY, processId));
+				SocketLibraryServer socketServer = null;
+
+				if (TRANSPORT_SOCKET.equals(transport)) {
+
+					socketServer = new SocketLibraryServer(engine);
+
+					int socketPort = socketServer.start();
+
+					LOGGER.log(Level.INFO, String.format("Socket transport listening on port [%1$d]", socketPort));
+
+					System.out.println(String.format("%1$s:%2$d:%3$d", STATUS_READY, processId, socketPort));
+
+				} else {
+
+					System.out.println(String.format("%1$s:%2$d", STATUS_READY, processId));
+
+				}
 
 				// listen for service shutdown
 
@@ -130,6 +158,10 @@ public class AMAPIProcess implements AMLibraryRemote {
 
 				LOGGER.log(Level.INFO, "Performing final cleanup");
 
+				if (socketServer != null) {
+					socketServer.close();
+				}
+
 				ExecutorService execService = Executors.newSingleThreadExecutor(new ThreadFactory() {
 					public Thread newThread(Runnable r) {
 						Thread t = Executors.defaultThreadFactory().newThread(r);
@@ -170,7 +202,7 @@ public class AMAPIProcess implements AMLibraryRemote {
 
 	private final AMConnectionDelegate delegate;
 
-	private final ExecutorService executorService;
+	private final NativeCallMailbox mailbox;
 
 	private volatile CallTimeOutException lastException;
 
@@ -188,13 +220,7 @@ public class AMAPIProcess implements AMLibraryRemote {
 
 		this.lastException = null;
 
-		this.executorService = Executors.newSingleThreadExecutor(new ThreadFactory() {
-			public Thread newThread(Runnable r) {
-				Thread t = Executors.defaultThreadFactory().newThread(r);
-				t.setDaemon(true);
-				return t;
-			}
-		});
+		this.mailbox = new NativeCallMailbox(delegate);
 
 	}
 
@@ -212,31 +238,14 @@ public class AMAPIProcess implements AMLibraryRemote {
 	@Override
 	public void cleanup() {
 
-		clearLastError();
-
-		releaseRegisteredHandles();
-
-		lastException = null;
+		resetSession(callTimeOutInMs);
 
 	}
 
 	@Override
 	public long clearLastError() {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new ClearLastError(delegate));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(AMConnectionDelegate::clearLastError);
 
 	}
 
@@ -249,459 +258,176 @@ public class AMAPIProcess implements AMLibraryRemote {
 
 		releaseRegisteredHandles();
 
-		Future<Void> resultJob = executorService.submit(new Close(delegate));
-
-		try {
-			resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		execute(d -> {
+			d.close();
+			return null;
+		});
 
 	}
 
 	@Override
 	public long commit() {
 
-		assertValidState();
+		return execute(AMConnectionDelegate::commit);
 
-		Future<Long> resultJob = executorService.submit(new Commit(delegate));
+	}
 
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
+	@Override
+	public long commitAndReset(long callTimeOutInMs) {
+
+		long status = commit();
+
+		if (status == 0L) {
+			resetSession(callTimeOutInMs);
 		}
 
+		return status;
+
 	}
 
 	@Override
 	public ReturnWithString connectionName(AMString connectionName) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService.submit(new ConnectionName(delegate, connectionName));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.connectionName(connectionName), connectionName));
 
 	}
 
 	@Override
 	public long convertDateBasicToUnix(long tmTime) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new ConvertDateBasicToUnix(delegate, tmTime));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.convertDateBasicToUnix(tmTime));
 
 	}
 
 	@Override
 	public long convertDateIntlToUnix(String dateAsString) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new ConvertDateIntlToUnix(delegate, dateAsString));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.convertDateIntlToUnix(dateAsString));
 
 	}
 
 	@Override
 	public long convertDateStringToUnix(String dateAsString) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new ConvertDateStringToUnix(delegate, dateAsString));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.convertDateStringToUnix(dateAsString));
 
 	}
 
 	@Override
 	public long convertDateUnixToBasic(long dateAsUnix) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new ConvertDateUnixToBasic(delegate, dateAsUnix));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.convertDateUnixToBasic(dateAsUnix));
 
 	}
 
 	@Override
 	public ReturnWithString convertDateUnixToIntl(long unixDate, AMString dateAsIntlStr) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new ConvertDateUnixToIntl(delegate, unixDate, dateAsIntlStr));
-
-		try {
-			return new ReturnWithString(resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS), dateAsIntlStr);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.convertDateUnixToIntl(unixDate, dateAsIntlStr), dateAsIntlStr));
 
 	}
 
 	@Override
 	public ReturnWithString convertDateUnixToString(long dateAsUnix, AMString dateAsStr) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new ConvertDateUnixToString(delegate, dateAsUnix, dateAsStr));
-
-		try {
-			return new ReturnWithString(resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS), dateAsStr);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.convertDateUnixToString(dateAsUnix, dateAsStr), dateAsStr));
 
 	}
 
 	@Override
 	public ReturnWithString convertDoubleToString(double dSrc, AMString dblAsString) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new ConvertDoubleToString(delegate, dSrc, dblAsString));
-
-		try {
-			return new ReturnWithString(resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS), dblAsString);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.convertDoubleToString(dSrc, dblAsString), dblAsString));
 
 	}
 
 	@Override
 	public ReturnWithString convertMonetaryToString(double dMonetarySrc, AMString dblAsString) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService
-				.submit(new ConvertMonetaryToString(delegate, dMonetarySrc, dblAsString));
-
-		try {
-			return new ReturnWithString(resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS), dblAsString);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.convertMonetaryToString(dMonetarySrc, dblAsString), dblAsString));
 
 	}
 
 	@Override
 	public double convertStringToDouble(String dblAsString) {
 
-		assertValidState();
-
-		Future<Double> resultJob = executorService.submit(new ConvertStringToDouble(delegate, dblAsString));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.convertStringToDouble(dblAsString));
 
 	}
 
 	@Override
 	public double convertStringToMonetary(String monetaryAsString) {
 
-		assertValidState();
-
-		Future<Double> resultJob = executorService.submit(new ConvertStringToMonetary(delegate, monetaryAsString));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.convertStringToMonetary(monetaryAsString));
 
 	}
 
 	@Override
 	public long createLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new CreateLink(delegate, srcRecHandle, linkName, srcDstHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.createLink(srcRecHandle, linkName, srcDstHandle));
 
 	}
 
 	@Override
 	public AMHandle createRecord(String tblName) {
 
-		assertValidState();
-
-		Future<AMHandle> resultJob = executorService.submit(new CreateRecord(delegate, tblName));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.createRecord(tblName));
 
 	}
 
 	@Override
 	public long currentDate() {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new CurrentDate(delegate));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(AMConnectionDelegate::currentDate);
 
 	}
 
 	@Override
 	public long currentServerDate() {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new CurrentServerDate(delegate));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(AMConnectionDelegate::currentServerDate);
 
 	}
 
 	@Override
 	public long dateAdd(long startAsUnixDate, long duration) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new DateAdd(delegate, startAsUnixDate, duration));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.dateAdd(startAsUnixDate, duration));
 	}
 
 	@Override
 	public long dateAddLogical(long startAsUnixDate, long duration) {
 
-		assertValidState();
+		return execute(d -> d.dateAddLogical(startAsUnixDate, duration));
 
-		Future<Long> resultJob = executorService.submit(new DateAddLogical(delegate, startAsUnixDate, duration));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
-
-	}
+	}
 
 	@Override
 	public long dateDiff(long endAsUnixDate, long startAsUnixDate) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new DateDiff(delegate, endAsUnixDate, startAsUnixDate));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.dateDiff(endAsUnixDate, startAsUnixDate));
 
 	}
 
 	@Override
 	public long dbExecAql(String aqlQuery) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new DbExecAql(delegate, aqlQuery));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.dbExecAql(aqlQuery));
 
 	}
 
 	@Override
 	public long dbGetDate(String aqlQuery) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new DbGetDate(delegate, aqlQuery));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.dbGetDate(aqlQuery));
 
 	}
 
 	@Override
 	public double dbGetDouble(String aqlQuery) {
 
-		assertValidState();
-
-		Future<Double> resultJob = executorService.submit(new DbGetDouble(delegate, aqlQuery));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.dbGetDouble(aqlQuery));
 
 	}
 
@@ -709,21 +435,9 @@ public class AMAPIProcess implements AMLibraryRemote {
 	public ReturnWithString dbGetLimitedList(String aqlQuery, AMString result, String colSeperator,
 			String lineSeperator, String idSeperator, long maxSize, long errorType) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService.submit(new DbGetLimitedList(delegate, aqlQuery, result,
-				colSeperator, lineSeperator, idSeperator, maxSize, errorType));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(
+				d.dbGetLimitedList(aqlQuery, result, colSeperator, lineSeperator, idSeperator, maxSize, errorType),
+				result));
 
 	}
 
@@ -731,21 +445,8 @@ public class AMAPIProcess implements AMLibraryRemote {
 	public ReturnWithString dbGetList(String aqlQuery, AMString result, String colSeperator, String lineSeperator,
 			String idSeperator) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new DbGetList(delegate, aqlQuery, result, colSeperator, lineSeperator, idSeperator));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(
+				d -> new ReturnWithString(d.dbGetList(aqlQuery, result, colSeperator, lineSeperator, idSeperator), result));
 
 	}
 
@@ -753,298 +454,125 @@ public class AMAPIProcess implements AMLibraryRemote {
 	public ReturnWithString dbGetListEx(String aqlQuery, AMString result, String colSeperator, String lineSeperator,
 			String idSeperator) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new DbGetListEx(delegate, aqlQuery, result, colSeperator, lineSeperator, idSeperator));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(
+				d -> new ReturnWithString(d.dbGetListEx(aqlQuery, result, colSeperator, lineSeperator, idSeperator), result));
 
 	}
 
 	@Override
 	public long dbGetLong(String aqlQuery) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new DbGetLong(delegate, aqlQuery));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.dbExecAql(aqlQuery));
 
 	}
 
 	@Override
 	public long dbGetPk(String tableName, String whereClause) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new DbGetPk(delegate, tableName, whereClause));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.dbGetPk(tableName, whereClause));
 
 	}
 
 	@Override
 	public ReturnWithString dbGetString(String query, AMString result, String colSeperator, String lineSeperator) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new DbGetString(delegate, query, result, colSeperator, lineSeperator));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.dbGetString(query, result, colSeperator, lineSeperator), result));
 
 	}
 
 	@Override
 	public ReturnWithString dbGetStringEx(String query, AMString result, String colSeperator, String lineSeperator) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new DbGetStringEx(delegate, query, result, colSeperator, lineSeperator));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.dbGetStringEx(query, result, colSeperator, lineSeperator), result));
 
 	}
 
 	@Override
 	public long deleteLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new DeleteLink(delegate, srcRecHandle, linkName, srcDstHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.deleteLink(srcRecHandle, linkName, srcDstHandle));
 
 	}
 
 	@Override
 	public long deleteRecord(AMHandle recordHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new DeleteRecord(delegate, recordHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.deleteRecord(recordHandle));
 
 	}
 
 	@Override
 	public long duplicateRecord(AMHandle recordHandle, long insert) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new DuplicateRecord(delegate, recordHandle, insert));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.duplicateRecord(recordHandle, insert));
 
 	}
 
 	@Override
 	public ReturnWithString enumValList(String enumName, AMString value, long caseSensitive, String lineSeperator) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new EnumValList(delegate, enumName, value, caseSensitive, lineSeperator));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.enumValList(enumName, value, caseSensitive, lineSeperator), value));
 
 	}
 
 	@Override
 	public AMHandle executeActionById(long actionId, String tableName, long recordId) {
 
-		assertValidState();
+		return execute(d -> d.executeActionById(actionId, tableName, recordId));
 
-		Future<AMHandle> resultJob = executorService
-				.submit(new ExecuteActionById(delegate, actionId, tableName, recordId));
+	}
 
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+	@Override
+	public List<Object> executeBatch(List<BatchOperation> operations) {
+
+		return execute(d -> d.executeBatch(operations));
 
 	}
 
 	@Override
 	public AMHandle executeActionByName(String sqlName, String tableName, long recordId) {
 
-		assertValidState();
-
-		Future<AMHandle> resultJob = executorService
-				.submit(new ExecuteActionByName(delegate, sqlName, tableName, recordId));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.executeActionByName(sqlName, tableName, recordId));
 
 	}
 
 	@Override
 	public long exportDocument(long documentId, String fileName) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new ExportDocument(delegate, documentId, fileName));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.exportDocument(documentId, fileName));
 
 	}
 
 	@Override
 	public long flushTransaction() {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new FlushTransaction(delegate));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(AMConnectionDelegate::flushTransaction);
 
 	}
 
 	@Override
 	public ReturnWithString formatCurrency(double amount, String currency, AMString result) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new FormatCurrency(delegate, amount, currency, result));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.formatCurrency(amount, currency, result), result));
 	}
 
 	@Override
 	public ReturnWithString formatLong(long number, String format, AMString result) {
 
-		assertValidState();
+		return execute(d -> new ReturnWithString(d.formatLong(number, format, result), result));
+
+	}
+
+	/**
+	 * Runs the call on the API thread, a timeout marks this process as unusable
+	 * until cleanup.
+	 */
+	private <T> T execute(NativeCall<T> call) {
 
-		Future<ReturnWithString> resultJob = executorService.submit(new FormatLong(delegate, number, format, result));
+		assertValidState();
 
 		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
+			return mailbox.invoke(call, getCallTimeOutInMs());
 		} catch (TimeoutException e) {
 			throw handleTimeOut(e);
 		} catch (ExecutionException e) {
@@ -1053,7 +581,6 @@ public class AMAPIProcess implements AMLibraryRemote {
 			Thread.currentThread().interrupt();
 			throw new IllegalStateException(e);
 		}
-
 	}
 
 	private long getCallTimeOutInMs() {
@@ -1063,540 +590,183 @@ public class AMAPIProcess implements AMLibraryRemote {
 	@Override
 	public ReturnWithString getComputeString(String tableName, long recordId, String template, AMString result) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new GetComputeString(delegate, tableName, recordId, template, result));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.getComputeString(tableName, recordId, template, result), result));
 
 	}
 
 	@Override
 	public AMHandle getField(AMHandle objHandle, long position) {
 
-		assertValidState();
-
-		Future<AMHandle> resultJob = executorService.submit(new GetField(delegate, objHandle, position));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getField(objHandle, position));
 
 	}
 
 	@Override
 	public long getFieldCount(AMHandle objHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new GetFieldCount(delegate, objHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getFieldCount(objHandle));
 
 	}
 
 	@Override
 	public long getFieldDateOnlyValue(AMHandle recHandle, long fieldPos) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new GetFieldDateOnlyValue(delegate, recHandle, fieldPos));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getFieldDateOnlyValue(recHandle, fieldPos));
 	}
 
 	@Override
 	public long getFieldDateValue(AMHandle recHandle, long fieldPos) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new GetFieldDateValue(delegate, recHandle, fieldPos));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getFieldDateValue(recHandle, fieldPos));
 
 	}
 
 	@Override
 	public ReturnWithString getFieldDescription(AMHandle fieldHandle, AMString target) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new GetFieldDescription(delegate, fieldHandle, target));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.getFieldDescription(fieldHandle, target), target));
 
 	}
 
 	@Override
 	public double getFieldDoubleValue(AMHandle objHandle, long fieldPos) {
 
-		assertValidState();
-
-		Future<Double> resultJob = executorService.submit(new GetFieldDoubleValue(delegate, objHandle, fieldPos));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getFieldDoubleValue(objHandle, fieldPos));
 
 	}
 
 	@Override
 	public ReturnWithString getFieldFormat(AMHandle fldHandle, AMString target) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService.submit(new GetFieldFormat(delegate, fldHandle, target));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.getFieldDescription(fldHandle, target), target));
 	}
 
 	@Override
 	public ReturnWithString getFieldFormatFromName(String tblName, String fldName, AMString result) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new GetFieldFormatFromName(delegate, tblName, fldName, result));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.getFieldFormatFromName(tblName, fldName, result), result));
 	}
 
 	@Override
 	public AMHandle getFieldFromName(AMHandle objHandle, String fldName) {
 
-		assertValidState();
-
-		Future<AMHandle> resultJob = executorService.submit(new GetFieldFromName(delegate, objHandle, fldName));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getFieldFromName(objHandle, fldName));
 
 	}
 
 	@Override
 	public ReturnWithString getFieldLabel(AMHandle fldHandle, AMString result) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService.submit(new GetFieldLabel(delegate, fldHandle, result));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.getFieldLabel(fldHandle, result), result));
 
 	}
 
 	@Override
 	public ReturnWithString getFieldLabelFromName(String tableName, String fieldName, AMString fieldLabel) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new GetFieldLabelFromName(delegate, tableName, fieldName, fieldLabel));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(
+				d -> new ReturnWithString(d.getFieldLabelFromName(tableName, fieldName, fieldLabel), fieldLabel));
 	}
 
 	@Override
 	public long getFieldLongValue(AMHandle objHandle, long fieldPosition) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new GetFieldLongValue(delegate, objHandle, fieldPosition));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getFieldLongValue(objHandle, fieldPosition));
 
 	}
 
 	@Override
 	public ReturnWithString getFieldName(AMHandle objHandle, long fldPosition, AMString fieldName) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new GetFieldName(delegate, objHandle, fldPosition, fieldName));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.getFieldName(objHandle, fldPosition, fieldName), fieldName));
 
 	}
 
 	@Override
 	public long getFieldSize(AMHandle fldHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new GetFieldSize(delegate, fldHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getFieldSize(fldHandle));
 
 	}
 
 	@Override
 	public ReturnWithString getFieldSqlName(AMHandle fldHandle, AMString fieldSQLName) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new GetFieldSqlName(delegate, fldHandle, fieldSQLName));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.getFieldSqlName(fldHandle, fieldSQLName), fieldSQLName));
 	}
 
 	@Override
 	public ReturnWithString getFieldStrValue(AMHandle queryHandle, long position, AMString target) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new GetFieldStrValue(delegate, queryHandle, position, target));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.getFieldStrValue(queryHandle, position, target), target));
 	}
 
 	@Override
 	public long getFieldType(AMHandle fldHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new GetFieldType(delegate, fldHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getFieldType(fldHandle));
 
 	}
 
 	@Override
 	public long getFieldUserType(AMHandle fldHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new GetFieldUserType(delegate, fldHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getFieldUserType(fldHandle));
 
 	}
 
 	@Override
 	public AMHandle getRecordFromMainId(String tableName, long id) {
 
-		assertValidState();
-
-		Future<AMHandle> resultJob = executorService.submit(new GetRecordFromMainId(delegate, tableName, id));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getRecordFromMainId(tableName, id));
 	}
 
 	@Override
 	public AMHandle getRecordHandle(AMHandle qryHandle) {
 
-		assertValidState();
-
-		Future<AMHandle> resultJob = executorService.submit(new GetRecordHandle(delegate, qryHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getRecordHandle(qryHandle));
 
 	}
 
 	@Override
 	public long getRecordId(AMHandle recHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new GetRecordId(delegate, recHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getRecordId(recHandle));
 
 	}
 
 	@Override
 	public AMHandle getRelDstField(AMHandle fldHandle) {
 
-		assertValidState();
-
-		Future<AMHandle> resultJob = executorService.submit(new GetRelDstField(delegate, fldHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getRelDstField(fldHandle));
 	}
 
 	@Override
 	public AMHandle getRelSrcField(AMHandle fldHandle) {
 
-		assertValidState();
-
-		Future<AMHandle> resultJob = executorService.submit(new GetRelSrcField(delegate, fldHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getRelSrcField(fldHandle));
 
 	}
 
 	@Override
 	public AMHandle getRelTable(AMHandle fldHandle) {
 
-		assertValidState();
-
-		Future<AMHandle> resultJob = executorService.submit(new GetRelTable(delegate, fldHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getRelTable(fldHandle));
 
 	}
 
 	@Override
 	public AMHandle getReverseLink(AMHandle fldHandle) {
 
-		assertValidState();
-
-		Future<AMHandle> resultJob = executorService.submit(new GetReverseLink(delegate, fldHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.getReverseLink(fldHandle));
 
 	}
 
 	@Override
 	public ReturnWithString getSelfFromMainId(String tableName, long recordId, AMString recordDescription) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new GetSelfFromMainId(delegate, tableName, recordId, recordDescription));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(
+				d -> new ReturnWithString(d.getSelfFromMainId(tableName, recordId, recordDescription), recordDescription));
 	}
 
 	public int getServerPort() {
@@ -1606,20 +776,7 @@ public class AMAPIProcess implements AMLibraryRemote {
 	@Override
 	public ReturnWithString getVersion(AMString amVersion) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService.submit(new GetVersion(delegate, amVersion));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.getVersion(amVersion), amVersion));
 	}
 
 	private synchronized CallTimeOutException handleTimeOut(TimeoutException e) {
@@ -1633,161 +790,55 @@ public class AMAPIProcess implements AMLibraryRemote {
 	@Override
 	public long importDocument(long docId, String tableName, String fileName, String category, String designation) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService
-				.submit(new ImportDocument(delegate, docId, tableName, fileName, category, designation));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.importDocument(docId, tableName, fileName, category, designation));
 
 	}
 
 	@Override
 	public long insertRecord(AMHandle recHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new InsertRecord(delegate, recHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.insertRecord(recHandle));
 
 	}
 
 	@Override
 	public long isConnected() {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new IsConnected(delegate));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(AMConnectionDelegate::isConnected);
 
 	}
 
 	@Override
 	public long lastError() {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new LastError(delegate));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(AMConnectionDelegate::lastError);
 
 	}
 
 	@Override
 	public ReturnWithString lastErrorMsg(AMString errorMessage) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService.submit(new LastErrorMsg(delegate, errorMessage));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.lastErrorMsg(errorMessage), errorMessage));
 	}
 
 	@Override
 	public ReturnWithString listToString(AMString target, String source, String colSep, String lineSep, String idSep) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService
-				.submit(new ListToString(delegate, target, source, colSep, lineSep, idSep));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.listToString(target, source, colSep, lineSep, idSep), target));
 
 	}
 
 	@Override
 	public long loginId() {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new LoginId(delegate));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(AMConnectionDelegate::loginId);
 
 	}
 
 	@Override
 	public ReturnWithString loginName(AMString loginName) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService.submit(new LoginName(delegate, loginName));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.loginName(loginName), loginName));
 	}
 
 	@Override
@@ -1800,10 +851,8 @@ public class AMAPIProcess implements AMLibraryRemote {
 		LOGGER.log(Level.FINE,
 				String.format("Connection being requested, database=[%1$s], username=[%2$s]", database, username));
 
-		Future<AMHandle> resultJob = executorService.submit(new OpenConnection(delegate, database, username, password));
-
 		try {
-			connection = resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
+			connection = mailbox.invoke(d -> d.openConnection(database, username, password), getCallTimeOutInMs());
 
 			LOGGER.log(Level.FINE, String.format("Connection being returned has handle = [%1$s]", connection));
 
@@ -1820,208 +869,97 @@ public class AMAPIProcess implements AMLibraryRemote {
 	}
 
 	@Override
-	public long purgeRecord(AMHandle recHandle) {
-
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new PurgeRecord(delegate, recHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
-
-	}
-
-	@Override
-	public AMHandle queryCreate() {
-
-		assertValidState();
-
-		AMHandle handle = AMHandle.NULL;
-
-		Future<AMHandle> resultJob = executorService.submit(new QueryCreate(delegate));
-
-		try {
-			handle = resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-
-			LOGGER.log(Level.FINE, String.format("returning handle [%1$s]", handle));
-
-			return handle;
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
-
-	}
-
-	@Override
-	public long queryExec(AMHandle queryHandle, String aqlQuery) {
+	public RowChunk openCursor(String aqlQuery, List<AMColumn> columns, int fetchSize) {
 
-		assertValidState();
+		return execute(d -> d.openCursor(aqlQuery, columns, fetchSize));
 
-		Future<Long> resultJob = executorService.submit(new QueryExec(delegate, queryHandle, aqlQuery));
+	}
 
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+	@Override
+	public RowChunk fetchRows(AMHandle cursor, List<AMColumn> columns, int fetchSize) {
+
+		return execute(d -> d.fetchRows(cursor, columns, fetchSize));
 
 	}
 
 	@Override
-	public long queryGet(AMHandle qryHandle, String aqlQuery) {
+	public long closeCursor(AMHandle cursor) {
 
-		assertValidState();
+		return execute(d -> d.closeCursor(cursor));
 
-		Future<Long> resultJob = executorService.submit(new QueryGet(delegate, qryHandle, aqlQuery));
+	}
 
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+	@Override
+	public long purgeRecord(AMHandle recHandle) {
+
+		return execute(d -> d.purgeRecord(recHandle));
 
 	}
 
 	@Override
-	public long queryNext(AMHandle qryHandle) {
+	public AMHandle queryCreate() {
 
-		assertValidState();
+		AMHandle handle = execute(AMConnectionDelegate::queryCreate);
 
-		Future<Long> resultJob = executorService.submit(new QueryNext(delegate, qryHandle));
+		LOGGER.log(Level.FINE, String.format("returning handle [%1$s]", handle));
 
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return handle;
 
 	}
 
 	@Override
-	public long querySetAddMainField(AMHandle qryHandle, long addMainField) {
+	public long queryExec(AMHandle queryHandle, String aqlQuery) {
 
-		assertValidState();
+		return execute(d -> d.queryExec(queryHandle, aqlQuery));
 
-		Future<Long> resultJob = executorService.submit(new QuerySetAddMainField(delegate, qryHandle, addMainField));
+	}
 
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+	@Override
+	public long queryGet(AMHandle qryHandle, String aqlQuery) {
+
+		return execute(d -> d.queryGet(qryHandle, aqlQuery));
 
 	}
 
 	@Override
-	public long querySetFullMemo(AMHandle qryHandle, long fullMemo) {
+	public long queryNext(AMHandle qryHandle) {
 
-		assertValidState();
+		return execute(d -> d.queryNext(qryHandle));
 
-		Future<Long> resultJob = executorService.submit(new QuerySetFullMemo(delegate, qryHandle, fullMemo));
+	}
 
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+	@Override
+	public long querySetAddMainField(AMHandle qryHandle, long addMainField) {
+
+		return execute(d -> d.querySetAddMainField(qryHandle, addMainField));
 
 	}
 
 	@Override
-	public AMHandle queryStartTable(AMHandle qryHandle) {
+	public long querySetFullMemo(AMHandle qryHandle, long fullMemo) {
 
-		assertValidState();
+		return execute(d -> d.querySetFullMemo(qryHandle, fullMemo));
 
-		Future<AMHandle> resultJob = executorService.submit(new QueryStartTable(delegate, qryHandle));
+	}
 
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+	@Override
+	public AMHandle queryStartTable(AMHandle qryHandle) {
+
+		return execute(d -> d.queryStartTable(qryHandle));
 
 	}
 
 	@Override
 	public long queryStop(AMHandle qryHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new QueryStop(delegate, qryHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.queryStop(qryHandle));
 
 	}
 
 	@Override
 	public long refreshAllCaches() {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new RefreshAllCaches(delegate));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(AMConnectionDelegate::refreshAllCaches);
 
 	}
 
@@ -2032,68 +970,47 @@ public class AMAPIProcess implements AMLibraryRemote {
 
 		LOGGER.log(Level.FINE, String.format("Trying to release handle [%1$s]", handle));
 
-		Future<Long> resultJob = executorService.submit(new ReleaseHandle(delegate, handle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.releaseHandle(handle));
 
 	}
 
 	private void releaseRegisteredHandles() {
 
-		assertValidState();
-
-		Future<List<AMHandle>> resultJob = executorService.submit(new GetHandleKeys(delegate));
-
-		try {
-			List<AMHandle> keys = resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
+		List<AMHandle> keys = execute(AMConnectionDelegate::getHandleKeys);
 
-			if (!keys.isEmpty()) {
+		if (!keys.isEmpty()) {
 
-				LOGGER.log(Level.WARNING, "Registered Handles still exist, might have a leak.");
+			LOGGER.log(Level.WARNING, "Registered Handles still exist, might have a leak.");
 
-				for (AMHandle handle : keys) {
-					releaseHandle(handle);
-				}
+			for (AMHandle handle : keys) {
+				releaseHandle(handle);
 			}
-
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
 		}
 
 	}
 
 	@Override
-	public long rollBack() {
+	public long resetSession(long callTimeOutInMs) {
 
-		assertValidState();
+		this.callTimeOutInMs = callTimeOutInMs;
 
-		Future<Long> resultJob = executorService.submit(new RollBack(delegate));
+		long released = execute(AMConnectionDelegate::resetSession);
 
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
+		if (released > 0L) {
+			LOGGER.log(Level.WARNING, String.format("Released [%1$d] registered handles, might have a leak.", released));
 		}
 
+		lastException = null;
+
+		return released;
+
+	}
+
+	@Override
+	public long rollBack() {
+
+		return execute(AMConnectionDelegate::rollBack);
+
 	}
 
 	@Override
@@ -2104,102 +1021,35 @@ public class AMAPIProcess implements AMLibraryRemote {
 	@Override
 	public long setFieldDateOnlyValue(AMHandle recHandle, String fieldName, AMDate dateOnlyValue) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService
-				.submit(new SetFieldDateOnlyValue(delegate, recHandle, fieldName, dateOnlyValue));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.setFieldDateOnlyValue(recHandle, fieldName, dateOnlyValue));
 
 	}
 
 	@Override
 	public long setFieldDateValue(AMHandle recHandle, String fieldName, AMDate dateTimeValue) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService
-				.submit(new SetFieldDateValue(delegate, recHandle, fieldName, dateTimeValue));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.setFieldDateValue(recHandle, fieldName, dateTimeValue));
 
 	}
 
 	@Override
 	public long setFieldDoubleValue(AMHandle recHandle, String fieldName, double value) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new SetFieldDoubleValue(delegate, recHandle, fieldName, value));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.setFieldDoubleValue(recHandle, fieldName, value));
 
 	}
 
 	@Override
 	public long setFieldLongValue(AMHandle recHandle, String fieldName, long value) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new SetFieldLongValue(delegate, recHandle, fieldName, value));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.setFieldLongValue(recHandle, fieldName, value));
 
 	}
 
 	@Override
 	public long setFieldStrValue(AMHandle recHandle, String fieldName, String value) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new SetFieldStrValue(delegate, recHandle, fieldName, value));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.setFieldStrValue(recHandle, fieldName, value));
 
 	}
 
@@ -2210,10 +1060,16 @@ public class AMAPIProcess implements AMLibraryRemote {
 
 		try {
 
-			Future<Void> resultJob = executorService.submit(new ShutDown(delegate));
-
 			try {
-				resultJob.get(15L, TimeUnit.SECONDS);
+				mailbox.invoke(d -> {
+					LOGGER.finest("Invoking delegate shutdown");
+
+					d.shutdown();
+
+					LOGGER.finest("Returned from delegate shutdown");
+
+					return null;
+				}, TimeUnit.SECONDS.toMillis(15L));
 			} catch (ExecutionException | TimeoutException e) {
 				LOGGER.warning(String.format("Ignoring exception = [%1$s],  during shutdown request", e));
 			} catch (InterruptedException e) {
@@ -2221,7 +1077,7 @@ public class AMAPIProcess implements AMLibraryRemote {
 			}
 		} finally {
 			AMAPIProcess.shutdownSignal.countDown();
-			executorService.shutdownNow();
+			mailbox.close();
 		}
 
 	}
@@ -2229,60 +1085,21 @@ public class AMAPIProcess implements AMLibraryRemote {
 	@Override
 	public ReturnWithString sqlTextConst(String aqlQuery, AMString target) {
 
-		assertValidState();
-
-		Future<ReturnWithString> resultJob = executorService.submit(new SqlTextConst(delegate, aqlQuery, target));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> new ReturnWithString(d.sqlTextConst(aqlQuery, target), target));
 
 	}
 
 	@Override
 	public long startTransaction() {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new StartTransaction(delegate));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(AMConnectionDelegate::startTransaction);
 
 	}
 
 	@Override
 	public long updateRecord(AMHandle recHandle) {
 
-		assertValidState();
-
-		Future<Long> resultJob = executorService.submit(new UpdateRecord(delegate, recHandle));
-
-		try {
-			return resultJob.get(getCallTimeOutInMs(), TimeUnit.MILLISECONDS);
-		} catch (TimeoutException e) {
-			throw handleTimeOut(e);
-		} catch (ExecutionException e) {
-			throw new IllegalStateException(e);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new IllegalStateException(e);
-		}
+		return execute(d -> d.updateRecord(recHandle));
 
 	}
 
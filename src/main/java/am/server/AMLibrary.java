@@ -16,8 +16,6 @@
  */
 package am.server;
 
-import java.nio.CharBuffer;
-
 import com.sun.jna.Library;
 import com.sun.jna.NativeLong;
 import com.sun.jna.Pointer;
@@ -33,7 +31,7 @@ public interface AMLibrary extends Library {
 
 	NativeLong AmCommitW(Pointer connHandle);
 
-	NativeLong AmConnectionNameW(Pointer connHandle, CharBuffer buffer, NativeLong bufferLen);
+	NativeLong AmConnectionNameW(Pointer connHandle, Pointer buffer, NativeLong bufferLen);
 
 	NativeLong AmConvertDateBasicToUnixW(Pointer hApiCnxBase, NativeLong tmTime);
 
@@ -43,23 +41,23 @@ public interface AMLibrary extends Library {
 
 	NativeLong AmConvertDateUnixToBasicW(Pointer hApiCnxBase, NativeLong lTime);
 
-	NativeLong AmConvertDateUnixToIntlW(Pointer hApiCnxBase, NativeLong lUnixDate, CharBuffer strDate,
+	NativeLong AmConvertDateUnixToIntlW(Pointer hApiCnxBase, NativeLong lUnixDate, Pointer strDate,
 			NativeLong lDate);
 
-	NativeLong AmConvertDateUnixToStringW(Pointer hApiCnxBase, NativeLong lUnixDate, CharBuffer strDate,
+	NativeLong AmConvertDateUnixToStringW(Pointer hApiCnxBase, NativeLong lUnixDate, Pointer strDate,
 			NativeLong lDate);
 
-	NativeLong AmConvertDoubleToStringW(double dSrc, CharBuffer strDst, NativeLong lDst);
+	NativeLong AmConvertDoubleToStringW(double dSrc, Pointer strDst, NativeLong lDst);
 
-	NativeLong AmConvertMonetaryToStringW(double dSrc, CharBuffer strDst, NativeLong lDst);
+	NativeLong AmConvertMonetaryToStringW(double dSrc, Pointer strDst, NativeLong lDst);
 
 	double AmConvertStringToDoubleW(WString strSrc);
 
 	double AmConvertStringToMonetaryW(WString strSrc);
 
-	NativeLong AmCreateLinkW(Pointer hApiRecord, WString strLinkName, Pointer hApiRecDest);
+	NativeLong AmCreateLinkW(Pointer hApiRecord, Pointer strLinkName, Pointer hApiRecDest);
 
-	Pointer AmCreateRecordW(Pointer hApiCnxBase, WString strTable);
+	Pointer AmCreateRecordW(Pointer hApiCnxBase, Pointer strTable);
 
 	NativeLong AmCurrentDateW();
 
@@ -77,26 +75,26 @@ public interface AMLibrary extends Library {
 
 	double AmDbGetDoubleW(Pointer hApiCnxBase, WString strQuery);
 
-	NativeLong AmDbGetLimitedListW(Pointer hApiCnxBase, WString strQuery, CharBuffer pstrResult, NativeLong lResult,
-			WString strColSep, WString strLineSep, WString strIdSep, NativeLong lMaxSize, NativeLong lErrorType);
+	NativeLong AmDbGetLimitedListW(Pointer hApiCnxBase, WString strQuery, Pointer pstrResult, NativeLong lResult,
+			Pointer strColSep, Pointer strLineSep, Pointer strIdSep, NativeLong lMaxSize, NativeLong lErrorType);
 
-	NativeLong AmDbGetListExW(Pointer hApiCnxBase, WString strQuery, CharBuffer strResult, NativeLong lResult,
-			WString strColSep, WString strLineSep, WString strIdSep);
+	NativeLong AmDbGetListExW(Pointer hApiCnxBase, WString strQuery, Pointer strResult, NativeLong lResult,
+			Pointer strColSep, Pointer strLineSep, Pointer strIdSep);
 
-	NativeLong AmDbGetListW(Pointer hApiCnxBase, WString strQuery, CharBuffer strResult, NativeLong lResult,
-			WString strColSep, WString strLineSep, WString strIdSep);
+	NativeLong AmDbGetListW(Pointer hApiCnxBase, WString strQuery, Pointer strResult, NativeLong lResult,
+			Pointer strColSep, Pointer strLineSep, Pointer strIdSep);
 
 	NativeLong AmDbGetLongW(Pointer hApiCnxBase, WString strQuery);
 
-	NativeLong AmDbGetPkW(Pointer hApiCnxBase, WString strTableName, WString strWhere);
+	NativeLong AmDbGetPkW(Pointer hApiCnxBase, Pointer strTableName, WString strWhere);
 
-	NativeLong AmDbGetStringExW(Pointer hApiCnxBase, WString strQuery, CharBuffer pstrResult, NativeLong lResult,
-			WString strColSep, WString strLineSep);
+	NativeLong AmDbGetStringExW(Pointer hApiCnxBase, WString strQuery, Pointer pstrResult, NativeLong lResult,
+			Pointer strColSep, Pointer strLineSep);
 
-	NativeLong AmDbGetStringW(Pointer hApiCnxBase, WString strQuery, CharBuffer strResult, NativeLong lResult,
-			WString strColSep, WString strLineSep);
+	NativeLong AmDbGetStringW(Pointer hApiCnxBase, WString strQuery, Pointer strResult, NativeLong lResult,
+			Pointer strColSep, Pointer strLineSep);
 
-	NativeLong AmDeleteLinkW(Pointer hApiRecord, WString strLinkName, Pointer hApiRecDest);
+	NativeLong AmDeleteLinkW(Pointer hApiRecord, Pointer strLinkName, Pointer hApiRecDest);
 
 	NativeLong AmDeleteRecordW(Pointer hApiRecord);
 
@@ -104,24 +102,24 @@ public interface AMLibrary extends Library {
 
 	void AmEnableThrowException();
 
-	NativeLong AmEnumValListW(Pointer hApiCnxBase, WString strEnumName, CharBuffer pstrValList, NativeLong lValList,
-			NativeLong bNoCase, WString strLineSep);
+	NativeLong AmEnumValListW(Pointer hApiCnxBase, Pointer strEnumName, Pointer pstrValList, NativeLong lValList,
+			NativeLong bNoCase, Pointer strLineSep);
 
-	Pointer AmExecuteActionByIdW(Pointer hApiCnxBase, NativeLong lActionId, WString strTableName, NativeLong lRecordId);
+	Pointer AmExecuteActionByIdW(Pointer hApiCnxBase, NativeLong lActionId, Pointer strTableName, NativeLong lRecordId);
 
-	Pointer AmExecuteActionByNameW(Pointer hApiCnxBase, WString strSqlName, WString strTableName, NativeLong lRecordId);
+	Pointer AmExecuteActionByNameW(Pointer hApiCnxBase, Pointer strSqlName, Pointer strTableName, NativeLong lRecordId);
 
 	NativeLong AmExportDocumentW(Pointer hApiCnxBase, NativeLong lDocId, WString strFileName);
 
 	NativeLong AmFlushTransactionW(Pointer hApiCnxBase);
 
-	NativeLong AmFormatCurrencyW(double dAmount, WString strCurrency, CharBuffer strDisplay, NativeLong lDisplay);
+	NativeLong AmFormatCurrencyW(double dAmount, WString strCurrency, Pointer strDisplay, NativeLong lDisplay);
 
-	NativeLong AmFormatLongW(Pointer hApiCnxBase, NativeLong lNumber, WString strFormat, CharBuffer strResult,
+	NativeLong AmFormatLongW(Pointer hApiCnxBase, NativeLong lNumber, WString strFormat, Pointer strResult,
 			NativeLong lResult);
 
-	NativeLong AmGetComputeStringW(Pointer hApiCnxBase, WString strTableName, NativeLong lRecordId, String strTemplate,
-			CharBuffer strComputeString, NativeLong lComputeString);
+	NativeLong AmGetComputeStringW(Pointer hApiCnxBase, Pointer strTableName, NativeLong lRecordId, String strTemplate,
+			Pointer strComputeString, NativeLong lComputeString);
 
 	NativeLong AmGetFieldCountW(Pointer hApiObject);
 
@@ -129,31 +127,31 @@ public interface AMLibrary extends Library {
 
 	NativeLong AmGetFieldDateValueW(Pointer hApiObject, NativeLong lFieldPos);
 
-	NativeLong AmGetFieldDescriptionW(Pointer hApiField, CharBuffer strBuffer, NativeLong lBuffer);
+	NativeLong AmGetFieldDescriptionW(Pointer hApiField, Pointer strBuffer, NativeLong lBuffer);
 
 	double AmGetFieldDoubleValueW(Pointer hApiObject, NativeLong lFieldPos);
 
-	NativeLong AmGetFieldFormatFromNameW(Pointer hApiCnxBase, WString strTableName, WString strFieldName,
-			CharBuffer fieldFormat, NativeLong pFieldFormat);
+	NativeLong AmGetFieldFormatFromNameW(Pointer hApiCnxBase, Pointer strTableName, Pointer strFieldName,
+			Pointer fieldFormat, NativeLong pFieldFormat);
 
-	NativeLong AmGetFieldFormatW(Pointer hApiField, CharBuffer strBuffer, NativeLong lBuffer);
+	NativeLong AmGetFieldFormatW(Pointer hApiField, Pointer strBuffer, NativeLong lBuffer);
 
-	Pointer AmGetFieldFromName(Pointer hApiObject, String strName);
+	Pointer AmGetFieldFromName(Pointer hApiObject, Pointer strName);
 
-	NativeLong AmGetFieldLabelFromNameW(Pointer hApiCnxBase, WString strTableName, WString strFieldName,
-			CharBuffer fieldLabel, NativeLong lFieldLabel);
+	NativeLong AmGetFieldLabelFromNameW(Pointer hApiCnxBase, Pointer strTableName, Pointer strFieldName,
+			Pointer fieldLabel, NativeLong lFieldLabel);
 
-	NativeLong AmGetFieldLabelW(Pointer hApiField, CharBuffer strBuffer, NativeLong lBuffer);
+	NativeLong AmGetFieldLabelW(Pointer hApiField, Pointer strBuffer, NativeLong lBuffer);
 
 	NativeLong AmGetFieldLongValue(Pointer hApiObject, NativeLong lFieldPos);
 
-	NativeLong AmGetFieldNameW(Pointer hApiObject, NativeLong lFieldPos, CharBuffer strBuffer, NativeLong lBuffer);
+	NativeLong AmGetFieldNameW(Pointer hApiObject, NativeLong lFieldPos, Pointer strBuffer, NativeLong lBuffer);
 
 	NativeLong AmGetFieldSize(Pointer hApiField);
 
-	NativeLong AmGetFieldSqlNameW(Pointer hApiField, CharBuffer strBuffer, NativeLong lBuffer);
+	NativeLong AmGetFieldSqlNameW(Pointer hApiField, Pointer strBuffer, NativeLong lBuffer);
 
-	NativeLong AmGetFieldStrValueW(Pointer queryHandle, NativeLong position, CharBuffer target,
+	NativeLong AmGetFieldStrValueW(Pointer queryHandle, NativeLong position, Pointer target,
 			NativeLong targetLength);
 
 	NativeLong AmGetFieldTypeW(Pointer hApiField);
@@ -162,7 +160,7 @@ public interface AMLibrary extends Library {
 
 	Pointer AmGetFieldW(Pointer hApiObject, NativeLong lPos);
 
-	Pointer AmGetRecordFromMainIdW(Pointer hApiCnxBase, WString strTableName, NativeLong lId);
+	Pointer AmGetRecordFromMainIdW(Pointer hApiCnxBase, Pointer strTableName, NativeLong lId);
 
 	Pointer AmGetRecordHandleW(Pointer qryHandle);
 
@@ -176,28 +174,28 @@ public interface AMLibrary extends Library {
 
 	Pointer AmGetReverseLinkW(Pointer hApiField);
 
-	NativeLong AmGetSelfFromMainIdW(Pointer hApiCnxBase, WString strTableName, NativeLong lId, CharBuffer strRecordDesc,
+	NativeLong AmGetSelfFromMainIdW(Pointer hApiCnxBase, Pointer strTableName, NativeLong lId, Pointer strRecordDesc,
 			NativeLong lRecordDesc);
 
-	NativeLong AmGetVersionW(CharBuffer strBuf, NativeLong lBuf);
+	NativeLong AmGetVersionW(Pointer strBuf, NativeLong lBuf);
 
-	NativeLong AmImportDocumentW(Pointer hApiCnxBase, NativeLong lDocObjId, WString strTableName, WString strFileName,
+	NativeLong AmImportDocumentW(Pointer hApiCnxBase, NativeLong lDocObjId, Pointer strTableName, WString strFileName,
 			WString strCategory, WString strDesignation);
 
 	NativeLong AmInsertRecordW(Pointer hApiRecord);
 
 	NativeLong AmIsConnectedW(Pointer hApiCnxBase);
 
-	NativeLong AmLastErrorMsgW(Pointer hApiCnxBase, CharBuffer strBuffer, NativeLong lBuffer);
+	NativeLong AmLastErrorMsgW(Pointer hApiCnxBase, Pointer strBuffer, NativeLong lBuffer);
 
 	NativeLong AmLastErrorW(Pointer hApiCnxBase);
 
-	NativeLong AmListToStringW(WString strSource, WString strColSep, WString strLineSep, WString strIdSep,
-			CharBuffer output, NativeLong outputSize);
+	NativeLong AmListToStringW(WString strSource, Pointer strColSep, Pointer strLineSep, Pointer strIdSep,
+			Pointer output, NativeLong outputSize);
 
 	NativeLong AmLoginIdW(Pointer hApiCnxBase);
 
-	NativeLong AmLoginNameW(Pointer hApiCnxBase, CharBuffer returnStr, NativeLong lreturn);
+	NativeLong AmLoginNameW(Pointer hApiCnxBase, Pointer returnStr, NativeLong lreturn);
 
 	Pointer AmOpenConnectionW(WString src, WString user, WString password);
 
@@ -225,17 +223,17 @@ public interface AMLibrary extends Library {
 
 	NativeLong AmRollbackW(Pointer hApiCnxBase);
 
-	NativeLong AmSetFieldDateOnlyValueW(Pointer hApiRecord, WString strFieldName, NativeLong dtptmValue);
+	NativeLong AmSetFieldDateOnlyValueW(Pointer hApiRecord, Pointer strFieldName, NativeLong dtptmValue);
 
-	NativeLong AmSetFieldDateValueW(Pointer hApiRecord, WString strFieldName, NativeLong tmValue);
+	NativeLong AmSetFieldDateValueW(Pointer hApiRecord, Pointer strFieldName, NativeLong tmValue);
 
-	NativeLong AmSetFieldDoubleValueW(Pointer hApiRecord, WString strFieldName, double dValue);
+	NativeLong AmSetFieldDoubleValueW(Pointer hApiRecord, Pointer strFieldName, double dValue);
 
-	NativeLong AmSetFieldLongValueW(Pointer hApiRecord, WString strFieldName, NativeLong lValue);
+	NativeLong AmSetFieldLongValueW(Pointer hApiRecord, Pointer strFieldName, NativeLong lValue);
 
-	NativeLong AmSetFieldStrValueW(Pointer hApiRecord, WString strFieldName, WString strValue);
+	NativeLong AmSetFieldStrValueW(Pointer hApiRecord, Pointer strFieldName, WString strValue);
 
-	NativeLong AmSqlTextConstW(WString str, CharBuffer returnStr, NativeLong lreturn);
+	NativeLong AmSqlTextConstW(WString str, Pointer returnStr, NativeLong lreturn);
 
 	NativeLong AmStartTransactionW(Pointer connHandle);
 
@@ -0,0 +1,836 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.server;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import com.sun.jna.FunctionMapper;
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+import com.sun.jna.WString;
+
+/**
+ * Direct mapped binding of {@link AMLibrary}, calls bypass the JNA interface
+ * proxy and C longs are passed as Java ints, which matches the 32 bit long of
+ * the Windows API.
+ */
+final class AMLibraryDirect implements AMLibrary {
+
+	private final static String NATIVE_PREFIX = "native";
+
+	private static boolean registered = false;
+
+	static synchronized AMLibraryDirect load(String apiLib) {
+
+		if (Native.LONG_SIZE != 4) {
+			throw new IllegalStateException(
+					String.format("direct binding requires a 4 byte native long, found [%d]", Native.LONG_SIZE));
+		}
+
+		if (!registered) {
+
+			FunctionMapper functionMapper = new FunctionMapper() {
+				@Override
+				public String getFunctionName(NativeLibrary library, Method method) {
+					return method.getName().substring(NATIVE_PREFIX.length());
+				}
+			};
+
+			Native.register(AMLibraryDirect.class, NativeLibrary.getInstance(apiLib,
+					Collections.singletonMap(Library.OPTION_FUNCTION_MAPPER, functionMapper)));
+
+			registered = true;
+		}
+
+		return new AMLibraryDirect();
+	}
+
+	private static native void nativeAmCleanup();
+
+	private static native int nativeAmClearLastErrorW(Pointer connHandle);
+
+	private static native int nativeAmCloseConnectionW(Pointer connHandle);
+
+	private static native int nativeAmCommitW(Pointer connHandle);
+
+	private static native int nativeAmConnectionNameW(Pointer connHandle, Pointer buffer, int bufferLen);
+
+	private static native int nativeAmConvertDateBasicToUnixW(Pointer hApiCnxBase, int tmTime);
+
+	private static native int nativeAmConvertDateIntlToUnixW(Pointer hApiCnxBase, WString strDate);
+
+	private static native int nativeAmConvertDateStringToUnixW(Pointer hApiCnxBase, WString strDate);
+
+	private static native int nativeAmConvertDateUnixToBasicW(Pointer hApiCnxBase, int lTime);
+
+	private static native int nativeAmConvertDateUnixToIntlW(Pointer hApiCnxBase, int lUnixDate, Pointer strDate,
+			int lDate);
+
+	private static native int nativeAmConvertDateUnixToStringW(Pointer hApiCnxBase, int lUnixDate, Pointer strDate,
+			int lDate);
+
+	private static native int nativeAmConvertDoubleToStringW(double dSrc, Pointer strDst, int lDst);
+
+	private static native int nativeAmConvertMonetaryToStringW(double dSrc, Pointer strDst, int lDst);
+
+	private static native double nativeAmConvertStringToDoubleW(WString strSrc);
+
+	private static native double nativeAmConvertStringToMonetaryW(WString strSrc);
+
+	private static native int nativeAmCreateLinkW(Pointer hApiRecord, Pointer strLinkName, Pointer hApiRecDest);
+
+	private static native Pointer nativeAmCreateRecordW(Pointer hApiCnxBase, Pointer strTable);
+
+	private static native int nativeAmCurrentDateW();
+
+	private static native int nativeAmCurrentServerDateW(Pointer hApiCnxBase);
+
+	private static native int nativeAmDateAddLogicalW(int tmStart, int tsDuration);
+
+	private static native int nativeAmDateAddW(int tmStart, int tsDuration);
+
+	private static native int nativeAmDateDiffW(int tmEnd, int tmStart);
+
+	private static native int nativeAmDbExecAqlW(Pointer hApiCnxBase, WString strAqlStatement);
+
+	private static native int nativeAmDbGetDateW(Pointer hApiCnxBase, WString strQuery);
+
+	private static native double nativeAmDbGetDoubleW(Pointer hApiCnxBase, WString strQuery);
+
+	private static native int nativeAmDbGetLimitedListW(Pointer hApiCnxBase, WString strQuery, Pointer pstrResult,
+			int lResult, Pointer strColSep, Pointer strLineSep, Pointer strIdSep, int lMaxSize, int lErrorType);
+
+	private static native int nativeAmDbGetListExW(Pointer hApiCnxBase, WString strQuery, Pointer strResult,
+			int lResult, Pointer strColSep, Pointer strLineSep, Pointer strIdSep);
+
+	private static native int nativeAmDbGetListW(Pointer hApiCnxBase, WString strQuery, Pointer strResult, int lResult,
+			Pointer strColSep, Pointer strLineSep, Pointer strIdSep);
+
+	private static native int nativeAmDbGetLongW(Pointer hApiCnxBase, WString strQuery);
+
+	private static native int nativeAmDbGetPkW(Pointer hApiCnxBase, Pointer strTableName, WString strWhere);
+
+	private static native int nativeAmDbGetStringExW(Pointer hApiCnxBase, WString strQuery, Pointer pstrResult,
+			int lResult, Pointer strColSep, Pointer strLineSep);
+
+	private static native int nativeAmDbGetStringW(Pointer hApiCnxBase, WString strQuery, Pointer strResult,
+			int lResult, Pointer strColSep, Pointer strLineSep);
+
+	private static native int nativeAmDeleteLinkW(Pointer hApiRecord, Pointer strLinkName, Pointer hApiRecDest);
+
+	private static native int nativeAmDeleteRecordW(Pointer hApiRecord);
+
+	private static native int nativeAmDuplicateRecordW(Pointer hApiRecord, int bInsert);
+
+	private static native void nativeAmEnableThrowException();
+
+	private static native int nativeAmEnumValListW(Pointer hApiCnxBase, Pointer strEnumName, Pointer pstrValList,
+			int lValList, int bNoCase, Pointer strLineSep);
+
+	private static native Pointer nativeAmExecuteActionByIdW(Pointer hApiCnxBase, int lActionId, Pointer strTableName,
+			int lRecordId);
+
+	private static native Pointer nativeAmExecuteActionByNameW(Pointer hApiCnxBase, Pointer strSqlName,
+			Pointer strTableName, int lRecordId);
+
+	private static native int nativeAmExportDocumentW(Pointer hApiCnxBase, int lDocId, WString strFileName);
+
+	private static native int nativeAmFlushTransactionW(Pointer hApiCnxBase);
+
+	private static native int nativeAmFormatCurrencyW(double dAmount, WString strCurrency, Pointer strDisplay,
+			int lDisplay);
+
+	private static native int nativeAmFormatLongW(Pointer hApiCnxBase, int lNumber, WString strFormat,
+			Pointer strResult, int lResult);
+
+	private static native int nativeAmGetComputeStringW(Pointer hApiCnxBase, Pointer strTableName, int lRecordId,
+			String strTemplate, Pointer strComputeString, int lComputeString);
+
+	private static native int nativeAmGetFieldCountW(Pointer hApiObject);
+
+	private static native int nativeAmGetFieldDateOnlyValueW(Pointer hApiObject, int lFieldPos);
+
+	private static native int nativeAmGetFieldDateValueW(Pointer hApiObject, int lFieldPos);
+
+	private static native int nativeAmGetFieldDescriptionW(Pointer hApiField, Pointer strBuffer, int lBuffer);
+
+	private static native double nativeAmGetFieldDoubleValueW(Pointer hApiObject, int lFieldPos);
+
+	private static native int nativeAmGetFieldFormatFromNameW(Pointer hApiCnxBase, Pointer strTableName,
+			Pointer strFieldName, Pointer fieldFormat, int pFieldFormat);
+
+	private static native int nativeAmGetFieldFormatW(Pointer hApiField, Pointer strBuffer, int lBuffer);
+
+	private static native Pointer nativeAmGetFieldFromName(Pointer hApiObject, Pointer strName);
+
+	private static native int nativeAmGetFieldLabelFromNameW(Pointer hApiCnxBase, Pointer strTableName,
+			Pointer strFieldName, Pointer fieldLabel, int lFieldLabel);
+
+	private static native int nativeAmGetFieldLabelW(Pointer hApiField, Pointer strBuffer, int lBuffer);
+
+	private static native int nativeAmGetFieldLongValue(Pointer hApiObject, int lFieldPos);
+
+	private static native int nativeAmGetFieldNameW(Pointer hApiObject, int lFieldPos, Pointer strBuffer, int lBuffer);
+
+	private static native int nativeAmGetFieldSize(Pointer hApiField);
+
+	private static native int nativeAmGetFieldSqlNameW(Pointer hApiField, Pointer strBuffer, int lBuffer);
+
+	private static native int nativeAmGetFieldStrValueW(Pointer queryHandle, int position, Pointer target,
+			int targetLength);
+
+	private static native int nativeAmGetFieldTypeW(Pointer hApiField);
+
+	private static native int nativeAmGetFieldUserTypeW(Pointer hApiField);
+
+	private static native Pointer nativeAmGetFieldW(Pointer hApiObject, int lPos);
+
+	private static native Pointer nativeAmGetRecordFromMainIdW(Pointer hApiCnxBase, Pointer strTableName, int lId);
+
+	private static native Pointer nativeAmGetRecordHandleW(Pointer qryHandle);
+
+	private static native int nativeAmGetRecordIdW(Pointer hApiRecord);
+
+	private static native Pointer nativeAmGetRelDstFieldW(Pointer hApiField);
+
+	private static native Pointer nativeAmGetRelSrcFieldW(Pointer hApiField);
+
+	private static native Pointer nativeAmGetRelTableW(Pointer hApiField);
+
+	private static native Pointer nativeAmGetReverseLinkW(Pointer hApiField);
+
+	private static native int nativeAmGetSelfFromMainIdW(Pointer hApiCnxBase, Pointer strTableName, int lId,
+			Pointer strRecordDesc, int lRecordDesc);
+
+	private static native int nativeAmGetVersionW(Pointer strBuf, int lBuf);
+
+	private static native int nativeAmImportDocumentW(Pointer hApiCnxBase, int lDocObjId, Pointer strTableName,
+			WString strFileName, WString strCategory, WString strDesignation);
+
+	private static native int nativeAmInsertRecordW(Pointer hApiRecord);
+
+	private static native int nativeAmIsConnectedW(Pointer hApiCnxBase);
+
+	private static native int nativeAmLastErrorMsgW(Pointer hApiCnxBase, Pointer strBuffer, int lBuffer);
+
+	private static native int nativeAmLastErrorW(Pointer hApiCnxBase);
+
+	private static native int nativeAmListToStringW(WString strSource, Pointer strColSep, Pointer strLineSep,
+			Pointer strIdSep, Pointer output, int outputSize);
+
+	private static native int nativeAmLoginIdW(Pointer hApiCnxBase);
+
+	private static native int nativeAmLoginNameW(Pointer hApiCnxBase, Pointer returnStr, int lreturn);
+
+	private static native Pointer nativeAmOpenConnectionW(WString src, WString user, WString password);
+
+	private static native int nativeAmPurgeRecordW(Pointer hApiRecord);
+
+	private static native Pointer nativeAmQueryCreateW(Pointer connHandle);
+
+	private static native int nativeAmQueryExecW(Pointer qryHandle, WString aqlQuery);
+
+	private static native int nativeAmQueryGetW(Pointer qryHandle, WString aqlQuery);
+
+	private static native int nativeAmQueryNextW(Pointer qryHandle);
+
+	private static native int nativeAmQuerySetAddMainFieldW(Pointer hApiQuery, int bAddMainField);
+
+	private static native int nativeAmQuerySetFullMemoW(Pointer hApiQuery, int bFullMemo);
+
+	private static native Pointer nativeAmQueryStartTableW(Pointer hApiQuery);
+
+	private static native int nativeAmQueryStopW(Pointer qryHandle);
+
+	private static native int nativeAmRefreshAllCachesW(Pointer hApiCnxBase);
+
+	private static native int nativeAmReleaseHandleW(Pointer qryHandle);
+
+	private static native int nativeAmRollbackW(Pointer hApiCnxBase);
+
+	private static native int nativeAmSetFieldDateOnlyValueW(Pointer hApiRecord, Pointer strFieldName, int dtptmValue);
+
+	private static native int nativeAmSetFieldDateValueW(Pointer hApiRecord, Pointer strFieldName, int tmValue);
+
+	private static native int nativeAmSetFieldDoubleValueW(Pointer hApiRecord, Pointer strFieldName, double dValue);
+
+	private static native int nativeAmSetFieldLongValueW(Pointer hApiRecord, Pointer strFieldName, int lValue);
+
+	private static native int nativeAmSetFieldStrValueW(Pointer hApiRecord, Pointer strFieldName, WString strValue);
+
+	private static native int nativeAmSqlTextConstW(WString str, Pointer returnStr, int lreturn);
+
+	private static native int nativeAmStartTransactionW(Pointer connHandle);
+
+	private static native int nativeAmStartup();
+
+	private static native int nativeAmUpdateRecordW(Pointer recHandle);
+
+	private AMLibraryDirect() {
+		super();
+	}
+
+	@Override
+	public void AmCleanup() {
+		nativeAmCleanup();
+	}
+
+	@Override
+	public NativeLong AmClearLastErrorW(Pointer connHandle) {
+		return new NativeLong(nativeAmClearLastErrorW(connHandle));
+	}
+
+	@Override
+	public NativeLong AmCloseConnectionW(Pointer connHandle) {
+		return new NativeLong(nativeAmCloseConnectionW(connHandle));
+	}
+
+	@Override
+	public NativeLong AmCommitW(Pointer connHandle) {
+		return new NativeLong(nativeAmCommitW(connHandle));
+	}
+
+	@Override
+	public NativeLong AmConnectionNameW(Pointer connHandle, Pointer buffer, NativeLong bufferLen) {
+		return new NativeLong(nativeAmConnectionNameW(connHandle, buffer, bufferLen.intValue()));
+	}
+
+	@Override
+	public NativeLong AmConvertDateBasicToUnixW(Pointer hApiCnxBase, NativeLong tmTime) {
+		return new NativeLong(nativeAmConvertDateBasicToUnixW(hApiCnxBase, tmTime.intValue()));
+	}
+
+	@Override
+	public NativeLong AmConvertDateIntlToUnixW(Pointer hApiCnxBase, WString strDate) {
+		return new NativeLong(nativeAmConvertDateIntlToUnixW(hApiCnxBase, strDate));
+	}
+
+	@Override
+	public NativeLong AmConvertDateStringToUnixW(Pointer hApiCnxBase, WString strDate) {
+		return new NativeLong(nativeAmConvertDateStringToUnixW(hApiCnxBase, strDate));
+	}
+
+	@Override
+	public NativeLong AmConvertDateUnixToBasicW(Pointer hApiCnxBase, NativeLong lTime) {
+		return new NativeLong(nativeAmConvertDateUnixToBasicW(hApiCnxBase, lTime.intValue()));
+	}
+
+	@Override
+	public NativeLong AmConvertDateUnixToIntlW(Pointer hApiCnxBase, NativeLong lUnixDate, Pointer strDate,
+			NativeLong lDate) {
+		return new NativeLong(nativeAmConvertDateUnixToIntlW(hApiCnxBase, lUnixDate.intValue(), strDate,
+				lDate.intValue()));
+	}
+
+	@Override
+	public NativeLong AmConvertDateUnixToStringW(Pointer hApiCnxBase, NativeLong lUnixDate, Pointer strDate,
+			NativeLong lDate) {
+		return new NativeLong(nativeAmConvertDateUnixToStringW(hApiCnxBase, lUnixDate.intValue(), strDate,
+				lDate.intValue()));
+	}
+
+	@Override
+	public NativeLong AmConvertDoubleToStringW(double dSrc, Pointer strDst, NativeLong lDst) {
+		return new NativeLong(nativeAmConvertDoubleToStringW(dSrc, strDst, lDst.intValue()));
+	}
+
+	@Override
+	public NativeLong AmConvertMonetaryToStringW(double dSrc, Pointer strDst, NativeLong lDst) {
+		return new NativeLong(nativeAmConvertMonetaryToStringW(dSrc, strDst, lDst.intValue()));
+	}
+
+	@Override
+	public double AmConvertStringToDoubleW(WString strSrc) {
+		return nativeAmConvertStringToDoubleW(strSrc);
+	}
+
+	@Override
+	public double AmConvertStringToMonetaryW(WString strSrc) {
+		return nativeAmConvertStringToMonetaryW(strSrc);
+	}
+
+	@Override
+	public NativeLong AmCreateLinkW(Pointer hApiRecord, Pointer strLinkName, Pointer hApiRecDest) {
+		return new NativeLong(nativeAmCreateLinkW(hApiRecord, strLinkName, hApiRecDest));
+	}
+
+	@Override
+	public Pointer AmCreateRecordW(Pointer hApiCnxBase, Pointer strTable) {
+		return nativeAmCreateRecordW(hApiCnxBase, strTable);
+	}
+
+	@Override
+	public NativeLong AmCurrentDateW() {
+		return new NativeLong(nativeAmCurrentDateW());
+	}
+
+	@Override
+	public NativeLong AmCurrentServerDateW(Pointer hApiCnxBase) {
+		return new NativeLong(nativeAmCurrentServerDateW(hApiCnxBase));
+	}
+
+	@Override
+	public NativeLong AmDateAddLogicalW(NativeLong tmStart, NativeLong tsDuration) {
+		return new NativeLong(nativeAmDateAddLogicalW(tmStart.intValue(), tsDuration.intValue()));
+	}
+
+	@Override
+	public NativeLong AmDateAddW(NativeLong tmStart, NativeLong tsDuration) {
+		return new NativeLong(nativeAmDateAddW(tmStart.intValue(), tsDuration.intValue()));
+	}
+
+	@Override
+	public NativeLong AmDateDiffW(NativeLong tmEnd, NativeLong tmStart) {
+		return new NativeLong(nativeAmDateDiffW(tmEnd.intValue(), tmStart.intValue()));
+	}
+
+	@Override
+	public NativeLong AmDbExecAqlW(Pointer hApiCnxBase, WString strAqlStatement) {
+		return new NativeLong(nativeAmDbExecAqlW(hApiCnxBase, strAqlStatement));
+	}
+
+	@Override
+	public NativeLong AmDbGetDateW(Pointer hApiCnxBase, WString strQuery) {
+		return new NativeLong(nativeAmDbGetDateW(hApiCnxBase, strQuery));
+	}
+
+	@Override
+	public double AmDbGetDoubleW(Pointer hApiCnxBase, WString strQuery) {
+		return nativeAmDbGetDoubleW(hApiCnxBase, strQuery);
+	}
+
+	@Override
+	public NativeLong AmDbGetLimitedListW(Pointer hApiCnxBase, WString strQuery, Pointer pstrResult, NativeLong lResult,
+			Pointer strColSep, Pointer strLineSep, Pointer strIdSep, NativeLong lMaxSize, NativeLong lErrorType) {
+		return new NativeLong(nativeAmDbGetLimitedListW(hApiCnxBase, strQuery, pstrResult, lResult.intValue(),
+				strColSep, strLineSep, strIdSep, lMaxSize.intValue(), lErrorType.intValue()));
+	}
+
+	@Override
+	public NativeLong AmDbGetListExW(Pointer hApiCnxBase, WString strQuery, Pointer strResult, NativeLong lResult,
+			Pointer strColSep, Pointer strLineSep, Pointer strIdSep) {
+		return new NativeLong(nativeAmDbGetListExW(hApiCnxBase, strQuery, strResult, lResult.intValue(), strColSep,
+				strLineSep, strIdSep));
+	}
+
+	@Override
+	public NativeLong AmDbGetListW(Pointer hApiCnxBase, WString strQuery, Pointer strResult, NativeLong lResult,
+			Pointer strColSep, Pointer strLineSep, Pointer strIdSep) {
+		return new NativeLong(nativeAmDbGetListW(hApiCnxBase, strQuery, strResult, lResult.intValue(), strColSep,
+				strLineSep, strIdSep));
+	}
+
+	@Override
+	public NativeLong AmDbGetLongW(Pointer hApiCnxBase, WString strQuery) {
+		return new NativeLong(nativeAmDbGetLongW(hApiCnxBase, strQuery));
+	}
+
+	@Override
+	public NativeLong AmDbGetPkW(Pointer hApiCnxBase, Pointer strTableName, WString strWhere) {
+		return new NativeLong(nativeAmDbGetPkW(hApiCnxBase, strTableName, strWhere));
+	}
+
+	@Override
+	public NativeLong AmDbGetStringExW(Pointer hApiCnxBase, WString strQuery, Pointer pstrResult, NativeLong lResult,
+			Pointer strColSep, Pointer strLineSep) {
+		return new NativeLong(nativeAmDbGetStringExW(hApiCnxBase, strQuery, pstrResult, lResult.intValue(), strColSep,
+				strLineSep));
+	}
+
+	@Override
+	public NativeLong AmDbGetStringW(Pointer hApiCnxBase, WString strQuery, Pointer strResult, NativeLong lResult,
+			Pointer strColSep, Pointer strLineSep) {
+		return new NativeLong(nativeAmDbGetStringW(hApiCnxBase, strQuery, strResult, lResult.intValue(), strColSep,
+				strLineSep));
+	}
+
+	@Override
+	public NativeLong AmDeleteLinkW(Pointer hApiRecord, Pointer strLinkName, Pointer hApiRecDest) {
+		return new NativeLong(nativeAmDeleteLinkW(hApiRecord, strLinkName, hApiRecDest));
+	}
+
+	@Override
+	public NativeLong AmDeleteRecordW(Pointer hApiRecord) {
+		return new NativeLong(nativeAmDeleteRecordW(hApiRecord));
+	}
+
+	@Override
+	public NativeLong AmDuplicateRecordW(Pointer hApiRecord, NativeLong bInsert) {
+		return new NativeLong(nativeAmDuplicateRecordW(hApiRecord, bInsert.intValue()));
+	}
+
+	@Override
+	public void AmEnableThrowException() {
+		nativeAmEnableThrowException();
+	}
+
+	@Override
+	public NativeLong AmEnumValListW(Pointer hApiCnxBase, Pointer strEnumName, Pointer pstrValList, NativeLong lValList,
+			NativeLong bNoCase, Pointer strLineSep) {
+		return new NativeLong(nativeAmEnumValListW(hApiCnxBase, strEnumName, pstrValList, lValList.intValue(),
+				bNoCase.intValue(), strLineSep));
+	}
+
+	@Override
+	public Pointer AmExecuteActionByIdW(Pointer hApiCnxBase, NativeLong lActionId, Pointer strTableName,
+			NativeLong lRecordId) {
+		return nativeAmExecuteActionByIdW(hApiCnxBase, lActionId.intValue(), strTableName, lRecordId.intValue());
+	}
+
+	@Override
+	public Pointer AmExecuteActionByNameW(Pointer hApiCnxBase, Pointer strSqlName, Pointer strTableName,
+			NativeLong lRecordId) {
+		return nativeAmExecuteActionByNameW(hApiCnxBase, strSqlName, strTableName, lRecordId.intValue());
+	}
+
+	@Override
+	public NativeLong AmExportDocumentW(Pointer hApiCnxBase, NativeLong lDocId, WString strFileName) {
+		return new NativeLong(nativeAmExportDocumentW(hApiCnxBase, lDocId.intValue(), strFileName));
+	}
+
+	@Override
+	public NativeLong AmFlushTransactionW(Pointer hApiCnxBase) {
+		return new NativeLong(nativeAmFlushTransactionW(hApiCnxBase));
+	}
+
+	@Override
+	public NativeLong AmFormatCurrencyW(double dAmount, WString strCurrency, Pointer strDisplay, NativeLong lDisplay) {
+		return new NativeLong(nativeAmFormatCurrencyW(dAmount, strCurrency, strDisplay, lDisplay.intValue()));
+	}
+
+	@Override
+	public NativeLong AmFormatLongW(Pointer hApiCnxBase, NativeLong lNumber, WString strFormat, Pointer strResult,
+			NativeLong lResult) {
+		return new NativeLong(nativeAmFormatLongW(hApiCnxBase, lNumber.intValue(), strFormat, strResult,
+				lResult.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetComputeStringW(Pointer hApiCnxBase, Pointer strTableName, NativeLong lRecordId,
+			String strTemplate, Pointer strComputeString, NativeLong lComputeString) {
+		return new NativeLong(nativeAmGetComputeStringW(hApiCnxBase, strTableName, lRecordId.intValue(), strTemplate,
+				strComputeString, lComputeString.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetFieldCountW(Pointer hApiObject) {
+		return new NativeLong(nativeAmGetFieldCountW(hApiObject));
+	}
+
+	@Override
+	public NativeLong AmGetFieldDateOnlyValueW(Pointer hApiObject, NativeLong lFieldPos) {
+		return new NativeLong(nativeAmGetFieldDateOnlyValueW(hApiObject, lFieldPos.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetFieldDateValueW(Pointer hApiObject, NativeLong lFieldPos) {
+		return new NativeLong(nativeAmGetFieldDateValueW(hApiObject, lFieldPos.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetFieldDescriptionW(Pointer hApiField, Pointer strBuffer, NativeLong lBuffer) {
+		return new NativeLong(nativeAmGetFieldDescriptionW(hApiField, strBuffer, lBuffer.intValue()));
+	}
+
+	@Override
+	public double AmGetFieldDoubleValueW(Pointer hApiObject, NativeLong lFieldPos) {
+		return nativeAmGetFieldDoubleValueW(hApiObject, lFieldPos.intValue());
+	}
+
+	@Override
+	public NativeLong AmGetFieldFormatFromNameW(Pointer hApiCnxBase, Pointer strTableName, Pointer strFieldName,
+			Pointer fieldFormat, NativeLong pFieldFormat) {
+		return new NativeLong(nativeAmGetFieldFormatFromNameW(hApiCnxBase, strTableName, strFieldName, fieldFormat,
+				pFieldFormat.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetFieldFormatW(Pointer hApiField, Pointer strBuffer, NativeLong lBuffer) {
+		return new NativeLong(nativeAmGetFieldFormatW(hApiField, strBuffer, lBuffer.intValue()));
+	}
+
+	@Override
+	public Pointer AmGetFieldFromName(Pointer hApiObject, Pointer strName) {
+		return nativeAmGetFieldFromName(hApiObject, strName);
+	}
+
+	@Override
+	public NativeLong AmGetFieldLabelFromNameW(Pointer hApiCnxBase, Pointer strTableName, Pointer strFieldName,
+			Pointer fieldLabel, NativeLong lFieldLabel) {
+		return new NativeLong(nativeAmGetFieldLabelFromNameW(hApiCnxBase, strTableName, strFieldName, fieldLabel,
+				lFieldLabel.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetFieldLabelW(Pointer hApiField, Pointer strBuffer, NativeLong lBuffer) {
+		return new NativeLong(nativeAmGetFieldLabelW(hApiField, strBuffer, lBuffer.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetFieldLongValue(Pointer hApiObject, NativeLong lFieldPos) {
+		return new NativeLong(nativeAmGetFieldLongValue(hApiObject, lFieldPos.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetFieldNameW(Pointer hApiObject, NativeLong lFieldPos, Pointer strBuffer, NativeLong lBuffer) {
+		return new NativeLong(nativeAmGetFieldNameW(hApiObject, lFieldPos.intValue(), strBuffer, lBuffer.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetFieldSize(Pointer hApiField) {
+		return new NativeLong(nativeAmGetFieldSize(hApiField));
+	}
+
+	@Override
+	public NativeLong AmGetFieldSqlNameW(Pointer hApiField, Pointer strBuffer, NativeLong lBuffer) {
+		return new NativeLong(nativeAmGetFieldSqlNameW(hApiField, strBuffer, lBuffer.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetFieldStrValueW(Pointer queryHandle, NativeLong position, Pointer target,
+			NativeLong targetLength) {
+		return new NativeLong(nativeAmGetFieldStrValueW(queryHandle, position.intValue(), target,
+				targetLength.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetFieldTypeW(Pointer hApiField) {
+		return new NativeLong(nativeAmGetFieldTypeW(hApiField));
+	}
+
+	@Override
+	public NativeLong AmGetFieldUserTypeW(Pointer hApiField) {
+		return new NativeLong(nativeAmGetFieldUserTypeW(hApiField));
+	}
+
+	@Override
+	public Pointer AmGetFieldW(Pointer hApiObject, NativeLong lPos) {
+		return nativeAmGetFieldW(hApiObject, lPos.intValue());
+	}
+
+	@Override
+	public Pointer AmGetRecordFromMainIdW(Pointer hApiCnxBase, Pointer strTableName, NativeLong lId) {
+		return nativeAmGetRecordFromMainIdW(hApiCnxBase, strTableName, lId.intValue());
+	}
+
+	@Override
+	public Pointer AmGetRecordHandleW(Pointer qryHandle) {
+		return nativeAmGetRecordHandleW(qryHandle);
+	}
+
+	@Override
+	public NativeLong AmGetRecordIdW(Pointer hApiRecord) {
+		return new NativeLong(nativeAmGetRecordIdW(hApiRecord));
+	}
+
+	@Override
+	public Pointer AmGetRelDstFieldW(Pointer hApiField) {
+		return nativeAmGetRelDstFieldW(hApiField);
+	}
+
+	@Override
+	public Pointer AmGetRelSrcFieldW(Pointer hApiField) {
+		return nativeAmGetRelSrcFieldW(hApiField);
+	}
+
+	@Override
+	public Pointer AmGetRelTableW(Pointer hApiField) {
+		return nativeAmGetRelTableW(hApiField);
+	}
+
+	@Override
+	public Pointer AmGetReverseLinkW(Pointer hApiField) {
+		return nativeAmGetReverseLinkW(hApiField);
+	}
+
+	@Override
+	public NativeLong AmGetSelfFromMainIdW(Pointer hApiCnxBase, Pointer strTableName, NativeLong lId,
+			Pointer strRecordDesc, NativeLong lRecordDesc) {
+		return new NativeLong(nativeAmGetSelfFromMainIdW(hApiCnxBase, strTableName, lId.intValue(), strRecordDesc,
+				lRecordDesc.intValue()));
+	}
+
+	@Override
+	public NativeLong AmGetVersionW(Pointer strBuf, NativeLong lBuf) {
+		return new NativeLong(nativeAmGetVersionW(strBuf, lBuf.intValue()));
+	}
+
+	@Override
+	public NativeLong AmImportDocumentW(Pointer hApiCnxBase, NativeLong lDocObjId, Pointer strTableName,
+			WString strFileName, WString strCategory, WString strDesignation) {
+		return new NativeLong(nativeAmImportDocumentW(hApiCnxBase, lDocObjId.intValue(), strTableName, strFileName,
+				strCategory, strDesignation));
+	}
+
+	@Override
+	public NativeLong AmInsertRecordW(Pointer hApiRecord) {
+		return new NativeLong(nativeAmInsertRecordW(hApiRecord));
+	}
+
+	@Override
+	public NativeLong AmIsConnectedW(Pointer hApiCnxBase) {
+		return new NativeLong(nativeAmIsConnectedW(hApiCnxBase));
+	}
+
+	@Override
+	public NativeLong AmLastErrorMsgW(Pointer hApiCnxBase, Pointer strBuffer, NativeLong lBuffer) {
+		return new NativeLong(nativeAmLastErrorMsgW(hApiCnxBase, strBuffer, lBuffer.intValue()));
+	}
+
+	@Override
+	public NativeLong AmLastErrorW(Pointer hApiCnxBase) {
+		return new NativeLong(nativeAmLastErrorW(hApiCnxBase));
+	}
+
+	@Override
+	public NativeLong AmListToStringW(WString strSource, Pointer strColSep, Pointer strLineSep, Pointer strIdSep,
+			Pointer output, NativeLong outputSize) {
+		return new NativeLong(nativeAmListToStringW(strSource, strColSep, strLineSep, strIdSep, output,
+				outputSize.intValue()));
+	}
+
+	@Override
+	public NativeLong AmLoginIdW(Pointer hApiCnxBase) {
+		return new NativeLong(nativeAmLoginIdW(hApiCnxBase));
+	}
+
+	@Override
+	public NativeLong AmLoginNameW(Pointer hApiCnxBase, Pointer returnStr, NativeLong lreturn) {
+		return new NativeLong(nativeAmLoginNameW(hApiCnxBase, returnStr, lreturn.intValue()));
+	}
+
+	@Override
+	public Pointer AmOpenConnectionW(WString src, WString user, WString password) {
+		return nativeAmOpenConnectionW(src, user, password);
+	}
+
+	@Override
+	public NativeLong AmPurgeRecordW(Pointer hApiRecord) {
+		return new NativeLong(nativeAmPurgeRecordW(hApiRecord));
+	}
+
+	@Override
+	public Pointer AmQueryCreateW(Pointer connHandle) {
+		return nativeAmQueryCreateW(connHandle);
+	}
+
+	@Override
+	public NativeLong AmQueryExecW(Pointer qryHandle, WString aqlQuery) {
+		return new NativeLong(nativeAmQueryExecW(qryHandle, aqlQuery));
+	}
+
+	@Override
+	public NativeLong AmQueryGetW(Pointer qryHandle, WString aqlQuery) {
+		return new NativeLong(nativeAmQueryGetW(qryHandle, aqlQuery));
+	}
+
+	@Override
+	public NativeLong AmQueryNextW(Pointer qryHandle) {
+		return new NativeLong(nativeAmQueryNextW(qryHandle));
+	}
+
+	@Override
+	public NativeLong AmQuerySetAddMainFieldW(Pointer hApiQuery, NativeLong bAddMainField) {
+		return new NativeLong(nativeAmQuerySetAddMainFieldW(hApiQuery, bAddMainField.intValue()));
+	}
+
+	@Override
+	public NativeLong AmQuerySetFullMemoW(Pointer hApiQuery, NativeLong bFullMemo) {
+		return new NativeLong(nativeAmQuerySetFullMemoW(hApiQuery, bFullMemo.intValue()));
+	}
+
+	@Override
+	public Pointer AmQueryStartTableW(Pointer hApiQuery) {
+		return nativeAmQueryStartTableW(hApiQuery);
+	}
+
+	@Override
+	public NativeLong AmQueryStopW(Pointer qryHandle) {
+		return new NativeLong(nativeAmQueryStopW(qryHandle));
+	}
+
+	@Override
+	public NativeLong AmRefreshAllCachesW(Pointer hApiCnxBase) {
+		return new NativeLong(nativeAmRefreshAllCachesW(hApiCnxBase));
+	}
+
+	@Override
+	public NativeLong AmReleaseHandleW(Pointer qryHandle) {
+		return new NativeLong(nativeAmReleaseHandleW(qryHandle));
+	}
+
+	@Override
+	public NativeLong AmRollbackW(Pointer hApiCnxBase) {
+		return new NativeLong(nativeAmRollbackW(hApiCnxBase));
+	}
+
+	@Override
+	public NativeLong AmSetFieldDateOnlyValueW(Pointer hApiRecord, Pointer strFieldName, NativeLong dtptmValue) {
+		return new NativeLong(nativeAmSetFieldDateOnlyValueW(hApiRecord, strFieldName, dtptmValue.intValue()));
+	}
+
+	@Override
+	public NativeLong AmSetFieldDateValueW(Pointer hApiRecord, Pointer strFieldName, NativeLong tmValue) {
+		return new NativeLong(nativeAmSetFieldDateValueW(hApiRecord, strFieldName, tmValue.intValue()));
+	}
+
+	@Override
+	public NativeLong AmSetFieldDoubleValueW(Pointer hApiRecord, Pointer strFieldName, double dValue) {
+		return new NativeLong(nativeAmSetFieldDoubleValueW(hApiRecord, strFieldName, dValue));
+	}
+
+	@Override
+	public NativeLong AmSetFieldLongValueW(Pointer hApiRecord, Pointer strFieldName, NativeLong lValue) {
+		return new NativeLong(nativeAmSetFieldLongValueW(hApiRecord, strFieldName, lValue.intValue()));
+	}
+
+	@Override
+	public NativeLong AmSetFieldStrValueW(Pointer hApiRecord, Pointer strFieldName, WString strValue) {
+		return new NativeLong(nativeAmSetFieldStrValueW(hApiRecord, strFieldName, strValue));
+	}
+
+	@Override
+	public NativeLong AmSqlTextConstW(WString str, Pointer returnStr, NativeLong lreturn) {
+		return new NativeLong(nativeAmSqlTextConstW(str, returnStr, lreturn.intValue()));
+	}
+
+	@Override
+	public NativeLong AmStartTransactionW(Pointer connHandle) {
+		return new NativeLong(nativeAmStartTransactionW(connHandle));
+	}
+
+	@Override
+	public NativeLong AmStartup() {
+		return new NativeLong(nativeAmStartup());
+	}
+
+	@Override
+	public NativeLong AmUpdateRecordW(Pointer recHandle) {
+		return new NativeLong(nativeAmUpdateRecordW(recHandle));
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("registered", registered).toString();
+	}
+
+}
@@ -28,6 +28,10 @@ import com.sun.jna.Native;
 
 public class AMLibraryFactory {
 
+	public final static String BINDING_DIRECT = "direct";
+
+	public final static String BINDING_PROXY = "proxy";
+
 	private static AMLibrary instance;
 
 	public static synchronized AMLibrary getInstance() {
@@ -48,11 +52,20 @@ public class AMLibraryFactory {
 
 					String apiLib = properties.getProperty("AMAPI_LIB");
 
+					String binding = properties.getProperty("AMAPI_BINDING", BINDING_PROXY).trim();
+
 					if (!properties.isEmpty()) {
 
 						System.loadLibrary(apiLib);
 
-						instance = Native.load(apiLib, AMLibrary.class);
+						if (BINDING_DIRECT.equalsIgnoreCase(binding)) {
+							instance = AMLibraryDirect.load(apiLib);
+						} else if (BINDING_PROXY.equalsIgnoreCase(binding)) {
+							instance = Native.load(apiLib, AMLibrary.class);
+						} else {
+							throw new IllegalStateException(
+									String.format("unknown AMAPI_BINDING [%s] in [%s]", binding, configFilePath));
+						}
 
 						instance.AmStartup();
 
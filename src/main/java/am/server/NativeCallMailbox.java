@@ -0,0 +1,207 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.server;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import am.api.wrapper.AMConnectionDelegate;
+
+/**
+ * Runs calls against the delegate on its dedicated API thread. A single call is
+ * in flight at a time, it is handed over through one reusable slot, the caller
+ * spins briefly then parks until the API thread publishes the outcome.
+ */
+final class NativeCallMailbox {
+
+	@FunctionalInterface
+	interface NativeCall<T> {
+		T call(AMConnectionDelegate delegate) throws Exception;
+	}
+
+	private static final int IDLE = 0;
+
+	private static final int POSTED = 1;
+
+	private static final int DONE = 2;
+
+	private static final int SPINS = 256;
+
+	private final ReentrantLock callerLock;
+
+	private final AMConnectionDelegate delegate;
+
+	private final Thread worker;
+
+	/*
+	 * slot, published through the volatile state
+	 */
+	private NativeCall<?> call;
+
+	private Object result;
+
+	private Throwable failure;
+
+	private volatile int state;
+
+	private volatile Thread waiter;
+
+	private volatile boolean closed;
+
+	NativeCallMailbox(AMConnectionDelegate delegate) {
+		super();
+		this.delegate = delegate;
+		this.callerLock = new ReentrantLock();
+		this.state = IDLE;
+		this.worker = new Thread(this::run, "AMAPI-native");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Waits for the slot to leave the given state, spinning briefly before
+	 * parking.
+	 * 
+	 * @return false when the deadline passed first
+	 */
+	private boolean awaitLeaving(int from, long deadline) throws InterruptedException {
+
+		for (int spin = 0; state == from; spin++) {
+
+			if (spin < SPINS) {
+				continue;
+			}
+
+			long remaining = deadline - System.nanoTime();
+
+			if (remaining <= 0L) {
+				return false;
+			}
+
+			LockSupport.parkNanos(this, remaining);
+
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+
+		return true;
+	}
+
+	void close() {
+		closed = true;
+		LockSupport.unpark(worker);
+	}
+
+	/**
+	 * Executes the call on the API thread, a call that outlives the timeout keeps
+	 * the slot busy and later callers wait for it within their own timeout.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T invoke(NativeCall<T> nativeCall, long timeoutInMs)
+			throws TimeoutException, ExecutionException, InterruptedException {
+
+		long timeoutInNanos = TimeUnit.MILLISECONDS.toNanos(timeoutInMs);
+
+		long now = System.nanoTime();
+
+		long deadline = Long.MAX_VALUE - now < timeoutInNanos ? Long.MAX_VALUE : now + timeoutInNanos;
+
+		if (!callerLock.tryLock(timeoutInNanos, TimeUnit.NANOSECONDS)) {
+			throw new TimeoutException();
+		}
+
+		try {
+
+			waiter = Thread.currentThread();
+
+			// a call abandoned on timeout may still occupy the slot
+
+			if (!awaitLeaving(POSTED, deadline)) {
+				throw new TimeoutException();
+			}
+
+			call = nativeCall;
+			result = null;
+			failure = null;
+			state = POSTED;
+
+			LockSupport.unpark(worker);
+
+			if (!awaitLeaving(POSTED, deadline)) {
+				throw new TimeoutException();
+			}
+
+			Object value = result;
+			Throwable error = failure;
+
+			result = null;
+			failure = null;
+			state = IDLE;
+
+			if (error != null) {
+				throw new ExecutionException(error);
+			}
+
+			return (T) value;
+
+		} finally {
+			waiter = null;
+			callerLock.unlock();
+		}
+	}
+
+	private void run() {
+
+		for (int spin = 0; !closed;) {
+
+			if (state != POSTED) {
+				if (spin++ >= SPINS) {
+					LockSupport.park(this);
+				}
+				continue;
+			}
+
+			spin = 0;
+
+			NativeCall<?> current = call;
+
+			Object value = null;
+			Throwable error = null;
+
+			try {
+				value = current.call(delegate);
+			} catch (Throwable e) {
+				error = e;
+			}
+
+			call = null;
+			result = value;
+			failure = error;
+			state = DONE;
+
+			Thread caller = waiter;
+
+			if (caller != null) {
+				LockSupport.unpark(caller);
+			}
+		}
+	}
+}
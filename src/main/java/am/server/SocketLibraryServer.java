@@ -0,0 +1,878 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import am.api.AMHandle;
+import am.api.model.AMColumn;
+import am.api.model.AMDate;
+import am.api.model.AMString;
+import am.server.client.AMLibraryRemote;
+import am.server.client.BatchOperation;
+import am.server.client.ReturnWithString;
+import am.server.client.RowChunk;
+import am.server.client.SocketFrame;
+import am.server.client.SocketOpCode;
+
+/**
+ * Serves {@link AMLibraryRemote} calls received on a loopback socket, one
+ * thread per accepted channel.
+ */
+final class SocketLibraryServer implements Runnable {
+
+	private final static Logger LOGGER = Logger.getLogger(SocketLibraryServer.class.getPackage().getName());
+
+	private final AMLibraryRemote engine;
+
+	private ServerSocketChannel serverChannel;
+
+	SocketLibraryServer(AMLibraryRemote engine) {
+		super();
+		this.engine = engine;
+	}
+
+	void close() {
+		try {
+			serverChannel.close();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, e.getMessage());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void dispatch(int opCode, SocketFrame frame) throws Exception {
+
+		switch (opCode) {
+		case SocketOpCode.CLEANUP: {
+			engine.cleanup();
+			frame.clear().putByte(SocketFrame.STATUS_OK);
+			break;
+		}
+		case SocketOpCode.CLEAR_LAST_ERROR: {
+			long reply = engine.clearLastError();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.CLOSE: {
+			engine.close();
+			frame.clear().putByte(SocketFrame.STATUS_OK);
+			break;
+		}
+		case SocketOpCode.CLOSE_CURSOR: {
+			AMHandle cursor = frame.getHandle();
+			long reply = engine.closeCursor(cursor);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.COMMIT: {
+			long reply = engine.commit();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.COMMIT_AND_RESET: {
+			long callTimeOutInMs = frame.getLong();
+			long reply = engine.commitAndReset(callTimeOutInMs);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.CONNECTION_NAME: {
+			AMString connectionName = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.connectionName(connectionName);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.CONVERT_DATE_BASIC_TO_UNIX: {
+			long tmTime = frame.getLong();
+			long reply = engine.convertDateBasicToUnix(tmTime);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.CONVERT_DATE_INTL_TO_UNIX: {
+			String dateAsString = frame.getString();
+			long reply = engine.convertDateIntlToUnix(dateAsString);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.CONVERT_DATE_STRING_TO_UNIX: {
+			String dateAsString = frame.getString();
+			long reply = engine.convertDateStringToUnix(dateAsString);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.CONVERT_DATE_UNIX_TO_BASIC: {
+			long dateAsUnix = frame.getLong();
+			long reply = engine.convertDateUnixToBasic(dateAsUnix);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.CONVERT_DATE_UNIX_TO_INTL: {
+			long unixDate = frame.getLong();
+			AMString dateAsIntlStr = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.convertDateUnixToIntl(unixDate, dateAsIntlStr);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.CONVERT_DATE_UNIX_TO_STRING: {
+			long dateAsUnix = frame.getLong();
+			AMString dateAsStr = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.convertDateUnixToString(dateAsUnix, dateAsStr);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.CONVERT_DOUBLE_TO_STRING: {
+			double dSrc = frame.getDouble();
+			AMString dblAsString = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.convertDoubleToString(dSrc, dblAsString);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.CONVERT_MONETARY_TO_STRING: {
+			double dMonetarySrc = frame.getDouble();
+			AMString dblAsString = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.convertMonetaryToString(dMonetarySrc, dblAsString);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.CONVERT_STRING_TO_DOUBLE: {
+			String dblAsString = frame.getString();
+			double reply = engine.convertStringToDouble(dblAsString);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putDouble(reply);
+			break;
+		}
+		case SocketOpCode.CONVERT_STRING_TO_MONETARY: {
+			String monetaryAsString = frame.getString();
+			double reply = engine.convertStringToMonetary(monetaryAsString);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putDouble(reply);
+			break;
+		}
+		case SocketOpCode.CREATE_LINK: {
+			AMHandle srcRecHandle = frame.getHandle();
+			String linkName = frame.getString();
+			AMHandle srcDstHandle = frame.getHandle();
+			long reply = engine.createLink(srcRecHandle, linkName, srcDstHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.CREATE_RECORD: {
+			String tblName = frame.getString();
+			AMHandle reply = engine.createRecord(tblName);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.CURRENT_DATE: {
+			long reply = engine.currentDate();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.CURRENT_SERVER_DATE: {
+			long reply = engine.currentServerDate();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.DATE_ADD: {
+			long startAsUnixDate = frame.getLong();
+			long duration = frame.getLong();
+			long reply = engine.dateAdd(startAsUnixDate, duration);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.DATE_ADD_LOGICAL: {
+			long startAsUnixDate = frame.getLong();
+			long duration = frame.getLong();
+			long reply = engine.dateAddLogical(startAsUnixDate, duration);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.DATE_DIFF: {
+			long endAsUnixDate = frame.getLong();
+			long startAsUnixDate = frame.getLong();
+			long reply = engine.dateDiff(endAsUnixDate, startAsUnixDate);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.DB_EXEC_AQL: {
+			String aqlQuery = frame.getString();
+			long reply = engine.dbExecAql(aqlQuery);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.DB_GET_DATE: {
+			String aqlQuery = frame.getString();
+			long reply = engine.dbGetDate(aqlQuery);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.DB_GET_DOUBLE: {
+			String aqlQuery = frame.getString();
+			double reply = engine.dbGetDouble(aqlQuery);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putDouble(reply);
+			break;
+		}
+		case SocketOpCode.DB_GET_LIMITED_LIST: {
+			String aqlQuery = frame.getString();
+			AMString result = AMString.create(frame.getInt());
+			String colSeperator = frame.getString();
+			String lineSeperator = frame.getString();
+			String idSeperator = frame.getString();
+			long maxSize = frame.getLong();
+			long errorType = frame.getLong();
+			ReturnWithString reply = engine.dbGetLimitedList(aqlQuery, result, colSeperator, lineSeperator, idSeperator,
+					maxSize, errorType);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.DB_GET_LIST: {
+			String aqlQuery = frame.getString();
+			AMString result = AMString.create(frame.getInt());
+			String colSeperator = frame.getString();
+			String lineSeperator = frame.getString();
+			String idSeperator = frame.getString();
+			ReturnWithString reply = engine.dbGetList(aqlQuery, result, colSeperator, lineSeperator, idSeperator);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.DB_GET_LIST_EX: {
+			String aqlQuery = frame.getString();
+			AMString result = AMString.create(frame.getInt());
+			String colSeperator = frame.getString();
+			String lineSeperator = frame.getString();
+			String idSeperator = frame.getString();
+			ReturnWithString reply = engine.dbGetListEx(aqlQuery, result, colSeperator, lineSeperator, idSeperator);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.DB_GET_LONG: {
+			String aqlQuery = frame.getString();
+			long reply = engine.dbGetLong(aqlQuery);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.DB_GET_PK: {
+			String tableName = frame.getString();
+			String whereClause = frame.getString();
+			long reply = engine.dbGetPk(tableName, whereClause);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.DB_GET_STRING: {
+			String query = frame.getString();
+			AMString result = AMString.create(frame.getInt());
+			String colSeperator = frame.getString();
+			String lineSeperator = frame.getString();
+			ReturnWithString reply = engine.dbGetString(query, result, colSeperator, lineSeperator);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.DB_GET_STRING_EX: {
+			String query = frame.getString();
+			AMString result = AMString.create(frame.getInt());
+			String colSeperator = frame.getString();
+			String lineSeperator = frame.getString();
+			ReturnWithString reply = engine.dbGetStringEx(query, result, colSeperator, lineSeperator);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.DELETE_LINK: {
+			AMHandle srcRecHandle = frame.getHandle();
+			String linkName = frame.getString();
+			AMHandle srcDstHandle = frame.getHandle();
+			long reply = engine.deleteLink(srcRecHandle, linkName, srcDstHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.DELETE_RECORD: {
+			AMHandle recordHandle = frame.getHandle();
+			long reply = engine.deleteRecord(recordHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.DUPLICATE_RECORD: {
+			AMHandle recordHandle = frame.getHandle();
+			long insert = frame.getLong();
+			long reply = engine.duplicateRecord(recordHandle, insert);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.ENUM_VAL_LIST: {
+			String enumName = frame.getString();
+			AMString value = AMString.create(frame.getInt());
+			long caseSensitive = frame.getLong();
+			String lineSeperator = frame.getString();
+			ReturnWithString reply = engine.enumValList(enumName, value, caseSensitive, lineSeperator);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.EXECUTE_ACTION_BY_ID: {
+			long actionId = frame.getLong();
+			String tableName = frame.getString();
+			long recordId = frame.getLong();
+			AMHandle reply = engine.executeActionById(actionId, tableName, recordId);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.EXECUTE_ACTION_BY_NAME: {
+			String sqlName = frame.getString();
+			String tableName = frame.getString();
+			long recordId = frame.getLong();
+			AMHandle reply = engine.executeActionByName(sqlName, tableName, recordId);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.EXECUTE_BATCH: {
+			List<BatchOperation> operations = (List<BatchOperation>) frame.getObject();
+			List<Object> reply = engine.executeBatch(operations);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putObject(reply);
+			break;
+		}
+		case SocketOpCode.EXPORT_DOCUMENT: {
+			long documentId = frame.getLong();
+			String fileName = frame.getString();
+			long reply = engine.exportDocument(documentId, fileName);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.FETCH_ROWS: {
+			AMHandle cursor = frame.getHandle();
+			List<AMColumn> columns = frame.getColumns();
+			int fetchSize = frame.getInt();
+			RowChunk reply = engine.fetchRows(cursor, columns, fetchSize);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putRowChunk(reply);
+			break;
+		}
+		case SocketOpCode.FLUSH_TRANSACTION: {
+			long reply = engine.flushTransaction();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.FORMAT_CURRENCY: {
+			double amount = frame.getDouble();
+			String currency = frame.getString();
+			AMString result = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.formatCurrency(amount, currency, result);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.FORMAT_LONG: {
+			long number = frame.getLong();
+			String format = frame.getString();
+			AMString result = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.formatLong(number, format, result);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_COMPUTE_STRING: {
+			String tableName = frame.getString();
+			long recordId = frame.getLong();
+			String template = frame.getString();
+			AMString result = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getComputeString(tableName, recordId, template, result);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD: {
+			AMHandle objHandle = frame.getHandle();
+			long position = frame.getLong();
+			AMHandle reply = engine.getField(objHandle, position);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_COUNT: {
+			AMHandle objHandle = frame.getHandle();
+			long reply = engine.getFieldCount(objHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_DATE_ONLY_VALUE: {
+			AMHandle recHandle = frame.getHandle();
+			long fieldPos = frame.getLong();
+			long reply = engine.getFieldDateOnlyValue(recHandle, fieldPos);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_DATE_VALUE: {
+			AMHandle recHandle = frame.getHandle();
+			long fieldPos = frame.getLong();
+			long reply = engine.getFieldDateValue(recHandle, fieldPos);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_DESCRIPTION: {
+			AMHandle fieldHandle = frame.getHandle();
+			AMString target = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getFieldDescription(fieldHandle, target);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_DOUBLE_VALUE: {
+			AMHandle objHandle = frame.getHandle();
+			long fieldPos = frame.getLong();
+			double reply = engine.getFieldDoubleValue(objHandle, fieldPos);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putDouble(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_FORMAT: {
+			AMHandle fldHandle = frame.getHandle();
+			AMString target = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getFieldFormat(fldHandle, target);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_FORMAT_FROM_NAME: {
+			String tableName = frame.getString();
+			String fieldName = frame.getString();
+			AMString result = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getFieldFormatFromName(tableName, fieldName, result);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_FROM_NAME: {
+			AMHandle objHandle = frame.getHandle();
+			String fielddName = frame.getString();
+			AMHandle reply = engine.getFieldFromName(objHandle, fielddName);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_LABEL: {
+			AMHandle fldHandle = frame.getHandle();
+			AMString result = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getFieldLabel(fldHandle, result);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_LABEL_FROM_NAME: {
+			String tableName = frame.getString();
+			String fieldName = frame.getString();
+			AMString fieldLabel = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getFieldLabelFromName(tableName, fieldName, fieldLabel);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_LONG_VALUE: {
+			AMHandle objHandle = frame.getHandle();
+			long fieldPosition = frame.getLong();
+			long reply = engine.getFieldLongValue(objHandle, fieldPosition);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_NAME: {
+			AMHandle objHandle = frame.getHandle();
+			long fieldPositon = frame.getLong();
+			AMString fieldName = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getFieldName(objHandle, fieldPositon, fieldName);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_SIZE: {
+			AMHandle fldHandle = frame.getHandle();
+			long reply = engine.getFieldSize(fldHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_SQL_NAME: {
+			AMHandle fldHandle = frame.getHandle();
+			AMString fieldSQLName = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getFieldSqlName(fldHandle, fieldSQLName);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_STR_VALUE: {
+			AMHandle qryHandle = frame.getHandle();
+			long position = frame.getLong();
+			AMString target = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getFieldStrValue(qryHandle, position, target);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_TYPE: {
+			AMHandle fldHandle = frame.getHandle();
+			long reply = engine.getFieldType(fldHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.GET_FIELD_USER_TYPE: {
+			AMHandle fldHandle = frame.getHandle();
+			long reply = engine.getFieldUserType(fldHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.GET_RECORD_FROM_MAIN_ID: {
+			String tableName = frame.getString();
+			long lId = frame.getLong();
+			AMHandle reply = engine.getRecordFromMainId(tableName, lId);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.GET_RECORD_HANDLE: {
+			AMHandle qryHandle = frame.getHandle();
+			AMHandle reply = engine.getRecordHandle(qryHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.GET_RECORD_ID: {
+			AMHandle recHandle = frame.getHandle();
+			long reply = engine.getRecordId(recHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.GET_REL_DST_FIELD: {
+			AMHandle fldHandle = frame.getHandle();
+			AMHandle reply = engine.getRelDstField(fldHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.GET_REL_SRC_FIELD: {
+			AMHandle fldHandle = frame.getHandle();
+			AMHandle reply = engine.getRelSrcField(fldHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.GET_REL_TABLE: {
+			AMHandle fldHandle = frame.getHandle();
+			AMHandle reply = engine.getRelTable(fldHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.GET_REVERSE_LINK: {
+			AMHandle fldHandle = frame.getHandle();
+			AMHandle reply = engine.getReverseLink(fldHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.GET_SELF_FROM_MAIN_ID: {
+			String tableName = frame.getString();
+			long recordId = frame.getLong();
+			AMString recordDescription = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getSelfFromMainId(tableName, recordId, recordDescription);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.GET_VERSION: {
+			AMString amVersion = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.getVersion(amVersion);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.IMPORT_DOCUMENT: {
+			long docId = frame.getLong();
+			String tableName = frame.getString();
+			String fileName = frame.getString();
+			String category = frame.getString();
+			String designation = frame.getString();
+			long reply = engine.importDocument(docId, tableName, fileName, category, designation);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.INSERT_RECORD: {
+			AMHandle recHandle = frame.getHandle();
+			long reply = engine.insertRecord(recHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.IS_CONNECTED: {
+			long reply = engine.isConnected();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.LAST_ERROR: {
+			long reply = engine.lastError();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.LAST_ERROR_MSG: {
+			AMString errorMessage = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.lastErrorMsg(errorMessage);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.LIST_TO_STRING: {
+			AMString target = AMString.create(frame.getInt());
+			String source = frame.getString();
+			String colSep = frame.getString();
+			String lineSep = frame.getString();
+			String idSep = frame.getString();
+			ReturnWithString reply = engine.listToString(target, source, colSep, lineSep, idSep);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.LOGIN_ID: {
+			long reply = engine.loginId();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.LOGIN_NAME: {
+			AMString loginName = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.loginName(loginName);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.OPEN_CONNECTION: {
+			String database = frame.getString();
+			String username = frame.getString();
+			String password = frame.getString();
+			AMHandle reply = engine.openConnection(database, username, password);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.OPEN_CURSOR: {
+			String aqlQuery = frame.getString();
+			List<AMColumn> columns = frame.getColumns();
+			int fetchSize = frame.getInt();
+			RowChunk reply = engine.openCursor(aqlQuery, columns, fetchSize);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putRowChunk(reply);
+			break;
+		}
+		case SocketOpCode.PURGE_RECORD: {
+			AMHandle recHandle = frame.getHandle();
+			long reply = engine.purgeRecord(recHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.QUERY_CREATE: {
+			AMHandle reply = engine.queryCreate();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.QUERY_EXEC: {
+			AMHandle queryHandle = frame.getHandle();
+			String aqlQuery = frame.getString();
+			long reply = engine.queryExec(queryHandle, aqlQuery);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.QUERY_GET: {
+			AMHandle qryHandle = frame.getHandle();
+			String aqlQuery = frame.getString();
+			long reply = engine.queryGet(qryHandle, aqlQuery);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.QUERY_NEXT: {
+			AMHandle queryHandle = frame.getHandle();
+			long reply = engine.queryNext(queryHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.QUERY_SET_ADD_MAIN_FIELD: {
+			AMHandle qryHandle = frame.getHandle();
+			long addMainField = frame.getLong();
+			long reply = engine.querySetAddMainField(qryHandle, addMainField);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.QUERY_SET_FULL_MEMO: {
+			AMHandle qryHandle = frame.getHandle();
+			long fullMemo = frame.getLong();
+			long reply = engine.querySetFullMemo(qryHandle, fullMemo);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.QUERY_START_TABLE: {
+			AMHandle qryHandle = frame.getHandle();
+			AMHandle reply = engine.queryStartTable(qryHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putHandle(reply);
+			break;
+		}
+		case SocketOpCode.QUERY_STOP: {
+			AMHandle qryHandle = frame.getHandle();
+			long reply = engine.queryStop(qryHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.REFRESH_ALL_CACHES: {
+			long reply = engine.refreshAllCaches();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.RELEASE_HANDLE: {
+			AMHandle objHandle = frame.getHandle();
+			long reply = engine.releaseHandle(objHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.RESET_SESSION: {
+			long callTimeOutInMs = frame.getLong();
+			long reply = engine.resetSession(callTimeOutInMs);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.ROLL_BACK: {
+			long reply = engine.rollBack();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.SET_CALL_TIME_OUT_IN_MS: {
+			long timeOutInMs = frame.getLong();
+			engine.setCallTimeOutInMs(timeOutInMs);
+			frame.clear().putByte(SocketFrame.STATUS_OK);
+			break;
+		}
+		case SocketOpCode.SET_FIELD_DATE_ONLY_VALUE: {
+			AMHandle recHandle = frame.getHandle();
+			String fieldName = frame.getString();
+			AMDate dateOnlyValue = frame.getDate();
+			long reply = engine.setFieldDateOnlyValue(recHandle, fieldName, dateOnlyValue);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.SET_FIELD_DATE_VALUE: {
+			AMHandle recHandle = frame.getHandle();
+			String fieldName = frame.getString();
+			AMDate dateTimeValue = frame.getDate();
+			long reply = engine.setFieldDateValue(recHandle, fieldName, dateTimeValue);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.SET_FIELD_DOUBLE_VALUE: {
+			AMHandle recHandle = frame.getHandle();
+			String fieldName = frame.getString();
+			double value = frame.getDouble();
+			long reply = engine.setFieldDoubleValue(recHandle, fieldName, value);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.SET_FIELD_LONG_VALUE: {
+			AMHandle recHandle = frame.getHandle();
+			String fieldName = frame.getString();
+			long value = frame.getLong();
+			long reply = engine.setFieldLongValue(recHandle, fieldName, value);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.SET_FIELD_STR_VALUE: {
+			AMHandle recHandle = frame.getHandle();
+			String fieldName = frame.getString();
+			String value = frame.getString();
+			long reply = engine.setFieldStrValue(recHandle, fieldName, value);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.SHUTDOWN: {
+			engine.shutdown();
+			frame.clear().putByte(SocketFrame.STATUS_OK);
+			break;
+		}
+		case SocketOpCode.SQL_TEXT_CONST: {
+			String aqlQuery = frame.getString();
+			AMString target = AMString.create(frame.getInt());
+			ReturnWithString reply = engine.sqlTextConst(aqlQuery, target);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putReturnWithString(reply);
+			break;
+		}
+		case SocketOpCode.START_TRANSACTION: {
+			long reply = engine.startTransaction();
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		case SocketOpCode.UPDATE_RECORD: {
+			AMHandle recHandle = frame.getHandle();
+			long reply = engine.updateRecord(recHandle);
+			frame.clear().putByte(SocketFrame.STATUS_OK).putLong(reply);
+			break;
+		}
+		default:
+			throw new IllegalArgumentException(String.format("Unknown opcode [%1$d]", opCode));
+		}
+	}
+
+	@Override
+	public void run() {
+
+		while (serverChannel.isOpen()) {
+			try {
+				SocketChannel channel = serverChannel.accept();
+
+				channel.socket().setTcpNoDelay(true);
+
+				Thread thread = new Thread(() -> serve(channel), "AMAPIProcess-socket-" + channel.socket().getPort());
+				thread.setDaemon(true);
+				thread.start();
+
+			} catch (IOException e) {
+				if (serverChannel.isOpen()) {
+					LOGGER.log(Level.WARNING, e.getMessage());
+				}
+			}
+		}
+	}
+
+	private void serve(SocketChannel channel) {
+
+		SocketFrame frame = new SocketFrame(8192);
+
+		try {
+			while (true) {
+
+				frame.readFrom(channel);
+
+				int opCode = frame.getByte() & 0xFF;
+
+				try {
+					dispatch(opCode, frame);
+				} catch (Exception e) {
+					writeFailure(frame, e);
+				}
+
+				frame.writeTo(channel);
+			}
+		} catch (EOFException e) {
+			LOGGER.log(Level.FINE, "Socket client disconnected");
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, e.getMessage());
+		} finally {
+			try {
+				channel.close();
+			} catch (IOException ignore) {
+				// already closed
+			}
+		}
+	}
+
+	/**
+	 * Binds to an ephemeral loopback port and starts accepting channels.
+	 * 
+	 * @return bound port
+	 */
+	int start() throws IOException {
+
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+		Thread acceptor = new Thread(this, "AMAPIProcess-socket-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+
+		return serverChannel.socket().getLocalPort();
+	}
+
+	private void writeFailure(SocketFrame frame, Exception failure) throws IOException {
+		try {
+			frame.clear().putByte(SocketFrame.STATUS_FAILED).putObject(failure);
+		} catch (IOException notSerializable) {
+			frame.clear().putByte(SocketFrame.STATUS_FAILED).putObject(new IllegalStateException(failure.toString()));
+		}
+	}
+
+}
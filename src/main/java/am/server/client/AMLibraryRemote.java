@@ -18,8 +18,10 @@ package am.server.client;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 import am.api.AMHandle;
+import am.api.model.AMColumn;
 import am.api.model.AMDate;
 import am.api.model.AMString;
 
@@ -29,6 +31,14 @@ public interface AMLibraryRemote extends Remote {
 
 	void cleanup() throws RemoteException;
 
+	/**
+	 * Releases the registered handles, clears the last error and restores the
+	 * call time out in a single call.
+	 *
+	 * @return number of handles that were still registered
+	 */
+	long resetSession(long callTimeOutInMs) throws RemoteException;
+
 	long clearLastError() throws RemoteException;
 
 	void close() throws RemoteException;
@@ -42,6 +52,24 @@ public interface AMLibraryRemote extends Remote {
 
 	long commit() throws RemoteException;
 
+	/**
+	 * Commits and, when the commit succeeded, resets the session as
+	 * {@link #resetSession(long)} does, in a single call.
+	 * 
+	 * @return 0 for Normal execution, else error code of the commit.
+	 */
+	long commitAndReset(long callTimeOutInMs) throws RemoteException;
+
+	/**
+	 * Stops a cursor query and releases its handle.
+	 * 
+	 * @param cursor
+	 *            handle returned with the first chunk of the cursor
+	 * @return status of the handle release
+	 */
+
+	long closeCursor(AMHandle cursor) throws RemoteException;
+
 	/**
 	 * This function returns the current database connection name.
 	 * 
@@ -578,6 +606,17 @@ public interface AMLibraryRemote extends Remote {
 
 	AMHandle executeActionByName(String sqlName, String tableName, long recordId) throws RemoteException;
 
+	/**
+	 * Executes a sequence of operations in a single call.
+	 * 
+	 * @param operations
+	 *            operations to execute, in order
+	 * @return one result per operation, handles for handle producing
+	 *         operations, {@link ReturnWithString} for string operations
+	 */
+
+	List<Object> executeBatch(List<BatchOperation> operations) throws RemoteException;
+
 	/**
 	 * This function enables you to export a document attached to a record.
 	 * 
@@ -1085,6 +1124,29 @@ public interface AMLibraryRemote extends Remote {
 	 */
 	long purgeRecord(AMHandle recHandle) throws RemoteException;
 
+	/**
+	 * Executes a query and returns its first rows, reading the given columns
+	 * of each row.
+	 * 
+	 * @param aqlQuery
+	 *            AQL query, columns are matched by position against its select
+	 *            list
+	 * @param columns
+	 *            types of the columns to read
+	 * @param fetchSize
+	 *            maximum number of rows per chunk
+	 * @return first chunk, holding the cursor handle used for the next chunks
+	 */
+
+	RowChunk openCursor(String aqlQuery, List<AMColumn> columns, int fetchSize) throws RemoteException;
+
+	/**
+	 * Returns the next rows of a cursor opened by
+	 * {@link #openCursor(String, List, int)}.
+	 */
+
+	RowChunk fetchRows(AMHandle cursor, List<AMColumn> columns, int fetchSize) throws RemoteException;
+
 	/**
 	 * This function creates a query object in the current connection. This
 	 * object can then be used to send AQL statements to the database server.
@@ -0,0 +1,80 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.server.client;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+public class BatchOperation implements Serializable {
+
+	public enum OpCode {
+		CLEAR_LAST_ERROR, COMMIT, CREATE_LINK, CREATE_RECORD, DB_EXEC_AQL, DB_GET_DOUBLE, DB_GET_LONG, DB_GET_PK,
+		DB_GET_STRING, DELETE_LINK, DELETE_RECORD, GET_FIELD_COUNT, GET_FIELD_DATE_ONLY_VALUE, GET_FIELD_DATE_VALUE,
+		GET_FIELD_DOUBLE_VALUE, GET_FIELD_FROM_NAME, GET_FIELD_LONG_VALUE, GET_FIELD_STR_VALUE,
+		GET_RECORD_FROM_MAIN_ID, GET_RECORD_HANDLE, GET_RECORD_ID, INSERT_RECORD, LAST_ERROR, LAST_ERROR_MSG,
+		QUERY_CREATE, QUERY_EXEC, QUERY_GET, QUERY_NEXT, QUERY_STOP, RELEASE_HANDLE, ROLLBACK,
+		SET_FIELD_DATE_ONLY_VALUE, SET_FIELD_DATE_VALUE, SET_FIELD_DOUBLE_VALUE, SET_FIELD_LONG_VALUE,
+		SET_FIELD_STR_VALUE, START_TRANSACTION, UPDATE_RECORD
+	}
+
+	private final static long serialVersionUID = 1L;
+
+	private final OpCode opCode;
+
+	private final Object[] arguments;
+
+	public BatchOperation(OpCode opCode, Object... arguments) {
+		super();
+		this.opCode = opCode;
+		this.arguments = arguments;
+	}
+
+	public boolean equals(Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+		BatchOperation rhs = (BatchOperation) obj;
+		return new EqualsBuilder().append(opCode, rhs.opCode).append(arguments, rhs.arguments).isEquals();
+	}
+
+	public Object getArgument(int index) {
+		return arguments[index];
+	}
+
+	public OpCode getOpCode() {
+		return opCode;
+	}
+
+	public int hashCode() {
+		return new HashCodeBuilder(29, 83).append(opCode).append(arguments).toHashCode();
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("opCode", opCode).append("arguments", Arrays.toString(arguments))
+				.toString();
+	}
+}
@@ -0,0 +1,81 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.server.client;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMHandle;
+import am.api.model.AMRow;
+
+public class RowChunk implements Serializable {
+
+	private final static long serialVersionUID = 1L;
+
+	private final AMHandle cursor;
+
+	private final boolean exhausted;
+
+	private final List<AMRow> rows;
+
+	public RowChunk(AMHandle cursor, List<AMRow> rows, boolean exhausted) {
+		super();
+		this.cursor = cursor;
+		this.rows = rows;
+		this.exhausted = exhausted;
+	}
+
+	public boolean equals(Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+		RowChunk rhs = (RowChunk) obj;
+		return new EqualsBuilder().append(cursor, rhs.cursor).append(rows, rhs.rows)
+				.append(exhausted, rhs.exhausted).isEquals();
+	}
+
+	public AMHandle getCursor() {
+		return cursor;
+	}
+
+	public List<AMRow> getRows() {
+		return rows;
+	}
+
+	public int hashCode() {
+		return new HashCodeBuilder(67, 23).append(cursor).append(rows).append(exhausted).toHashCode();
+	}
+
+	public boolean isExhausted() {
+		return exhausted;
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("cursor", cursor).append("rows", rows.size())
+				.append("exhausted", exhausted).toString();
+	}
+}
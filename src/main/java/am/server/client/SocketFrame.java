@@ -0,0 +1,479 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.server.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMColumnType;
+import am.api.AMHandle;
+import am.api.AMHandleType;
+import am.api.model.AMBatchHandle;
+import am.api.model.AMColumn;
+import am.api.model.AMDate;
+import am.api.model.AMHandleImpl;
+import am.api.model.AMRow;
+import am.api.model.AMString;
+
+/**
+ * Length prefixed frame of the socket transport, the same instance is reused
+ * for every request and response of a channel.
+ */
+public final class SocketFrame {
+
+	public final static byte STATUS_OK = 0;
+
+	public final static byte STATUS_FAILED = 1;
+
+	private final static byte TAG_NULL = 0;
+
+	private final static byte TAG_HANDLE = 1;
+
+	private final static byte TAG_BATCH_HANDLE = 2;
+
+	private final static byte TAG_LONG = 3;
+
+	private final static byte TAG_DOUBLE = 4;
+
+	private final static byte TAG_STRING = 5;
+
+	private final static int HEADER_LENGTH = 4;
+
+	/**
+	 * Largest frame content accepted from a channel, a length prefix beyond it
+	 * can only come from a corrupt or foreign stream.
+	 */
+	public final static int MAX_FRAME_LENGTH = 64 << 20;
+
+	private final static AMColumnType[] COLUMN_TYPES = AMColumnType.values();
+
+	private final static AMHandleType[] HANDLE_TYPES = AMHandleType.values();
+
+	private ByteBuffer buffer;
+
+	private boolean sealed;
+
+	public SocketFrame(int initialCapacity) {
+		super();
+		this.buffer = ByteBuffer.allocate(Math.max(initialCapacity, 64));
+		clear();
+	}
+
+	/**
+	 * Resets the frame for writing, leaving room for the length header.
+	 */
+	public SocketFrame clear() {
+		sealed = false;
+		buffer.clear();
+		buffer.position(HEADER_LENGTH);
+		return this;
+	}
+
+	private void ensure(int length) {
+		if (buffer.remaining() < length) {
+			int capacity = buffer.capacity();
+			while (capacity - buffer.position() < length) {
+				capacity <<= 1;
+			}
+			ByteBuffer expanded = ByteBuffer.allocate(capacity);
+			buffer.flip();
+			expanded.put(buffer);
+			buffer = expanded;
+		}
+	}
+
+	public boolean getBoolean() {
+		return buffer.get() != 0;
+	}
+
+	public byte getByte() {
+		return buffer.get();
+	}
+
+	public byte[] getBytes() {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	public List<AMColumn> getColumns() {
+		int size = buffer.getInt();
+		List<AMColumn> columns = new ArrayList<>(size);
+		for (int index = 0; index < size; index++) {
+			switch (COLUMN_TYPES[buffer.get()]) {
+			case LONG:
+				columns.add(AMColumn.ofLong());
+				break;
+			case DOUBLE:
+				columns.add(AMColumn.ofDouble());
+				break;
+			case DATE:
+				columns.add(AMColumn.ofDate());
+				break;
+			case STRING:
+				columns.add(AMColumn.ofString(buffer.getInt()));
+				break;
+			}
+		}
+		return columns;
+	}
+
+	public AMDate getDate() {
+		if (buffer.get() == TAG_NULL) {
+			return null;
+		}
+		AMDate date = new AMDate();
+		date.setValue(buffer.getLong());
+		return date;
+	}
+
+	public double getDouble() {
+		return buffer.getDouble();
+	}
+
+	public AMHandle getHandle() {
+		switch (buffer.get()) {
+		case TAG_HANDLE:
+			long key = buffer.getLong();
+			AMHandleType handleType = HANDLE_TYPES[buffer.get()];
+			return new AMHandleImpl(key, handleType, getString());
+		case TAG_BATCH_HANDLE:
+			return new AMBatchHandle(buffer.getInt());
+		default:
+			return AMHandle.NULL;
+		}
+	}
+
+	public int getInt() {
+		return buffer.getInt();
+	}
+
+	public long getLong() {
+		return buffer.getLong();
+	}
+
+	public Object getObject() throws IOException {
+		byte[] bytes = getBytes();
+		if (bytes == null) {
+			return null;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+
+	public ReturnWithString getReturnWithString() {
+		long returnValue = buffer.getLong();
+		return new ReturnWithString(returnValue, AMString.create(getBytes()));
+	}
+
+	public RowChunk getRowChunk() {
+		AMHandle cursor = getHandle();
+		boolean exhausted = getBoolean();
+		int rowCount = buffer.getInt();
+		int columnCount = buffer.getInt();
+
+		List<AMRow> rows = new ArrayList<>(rowCount);
+
+		for (int row = 0; row < rowCount; row++) {
+			Object[] values = new Object[columnCount];
+			for (int column = 0; column < columnCount; column++) {
+				switch (buffer.get()) {
+				case TAG_LONG:
+					values[column] = buffer.getLong();
+					break;
+				case TAG_DOUBLE:
+					values[column] = buffer.getDouble();
+					break;
+				case TAG_STRING:
+					values[column] = getString();
+					break;
+				default:
+					values[column] = null;
+				}
+			}
+			rows.add(new AMRow(values));
+		}
+
+		return new RowChunk(cursor, rows, exhausted);
+	}
+
+	public String getString() {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		char[] chars = new char[length];
+		for (int index = 0; index < length; index++) {
+			chars[index] = buffer.getChar();
+		}
+		return new String(chars);
+	}
+
+	public SocketFrame putBoolean(boolean value) {
+		ensure(1);
+		buffer.put(value ? (byte) 1 : (byte) 0);
+		return this;
+	}
+
+	public SocketFrame putByte(int value) {
+		ensure(1);
+		buffer.put((byte) value);
+		return this;
+	}
+
+	public SocketFrame putBytes(byte[] bytes) {
+		if (bytes == null) {
+			return putInt(-1);
+		}
+		ensure(4 + bytes.length);
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+		return this;
+	}
+
+	public SocketFrame putColumns(List<AMColumn> columns) {
+		putInt(columns.size());
+		for (AMColumn column : columns) {
+			putByte(column.getColumnType().ordinal());
+			if (column.getColumnType() == AMColumnType.STRING) {
+				putInt(column.getBufferLength());
+			}
+		}
+		return this;
+	}
+
+	public SocketFrame putDate(AMDate date) {
+		if (date == null) {
+			return putByte(TAG_NULL);
+		}
+		putByte(TAG_LONG);
+		return putLong(date.getValue());
+	}
+
+	public SocketFrame putDouble(double value) {
+		ensure(8);
+		buffer.putDouble(value);
+		return this;
+	}
+
+	public SocketFrame putHandle(AMHandle handle) {
+		if (handle == null) {
+			return putByte(TAG_NULL);
+		}
+		if (handle instanceof AMBatchHandle) {
+			putByte(TAG_BATCH_HANDLE);
+			return putInt(((AMBatchHandle) handle).getIndex());
+		}
+		AMHandleImpl handleImpl = (AMHandleImpl) handle;
+		putByte(TAG_HANDLE);
+		putLong(handleImpl.getKey());
+		putByte(handleImpl.getHandleType().ordinal());
+		return putString(handleImpl.getCreatedFrom());
+	}
+
+	public SocketFrame putInt(int value) {
+		ensure(4);
+		buffer.putInt(value);
+		return this;
+	}
+
+	public SocketFrame putLong(long value) {
+		ensure(8);
+		buffer.putLong(value);
+		return this;
+	}
+
+	public SocketFrame putObject(Object value) throws IOException {
+		if (value == null) {
+			return putBytes(null);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(value);
+		}
+		return putBytes(bytes.toByteArray());
+	}
+
+	public SocketFrame putReturnWithString(ReturnWithString value) {
+		putLong(value.getReturnValue());
+		return putBytes(value.getStringVal().getBuffer());
+	}
+
+	public SocketFrame putRowChunk(RowChunk chunk) {
+		putHandle(chunk.getCursor());
+		putBoolean(chunk.isExhausted());
+		putInt(chunk.getRows().size());
+		putInt(chunk.getRows().isEmpty() ? 0 : chunk.getRows().get(0).getColumnCount());
+
+		for (AMRow row : chunk.getRows()) {
+			for (int column = 0; column < row.getColumnCount(); column++) {
+				Object value = row.getValue(column);
+				if (value instanceof Long) {
+					putByte(TAG_LONG);
+					putLong((Long) value);
+				} else if (value instanceof Double) {
+					putByte(TAG_DOUBLE);
+					putDouble((Double) value);
+				} else if (value instanceof String) {
+					putByte(TAG_STRING);
+					putString((String) value);
+				} else {
+					putByte(TAG_NULL);
+				}
+			}
+		}
+		return this;
+	}
+
+	public SocketFrame putString(String value) {
+		if (value == null) {
+			return putInt(-1);
+		}
+		int length = value.length();
+		ensure(4 + (length << 1));
+		buffer.putInt(length);
+		for (int index = 0; index < length; index++) {
+			buffer.putChar(value.charAt(index));
+		}
+		return this;
+	}
+
+	/**
+	 * Reads a whole frame, the frame is positioned after the length header.
+	 */
+	public SocketFrame readFrom(ReadableByteChannel channel) throws IOException {
+		buffer.clear();
+		buffer.limit(HEADER_LENGTH);
+		fill(channel);
+
+		int length = checkLength(buffer.getInt(0));
+
+		buffer.clear();
+		ensure(HEADER_LENGTH + length);
+		buffer.position(HEADER_LENGTH);
+		buffer.limit(HEADER_LENGTH + length);
+		fill(channel);
+
+		buffer.flip();
+		buffer.position(HEADER_LENGTH);
+		return this;
+	}
+
+	/**
+	 * Takes a whole frame off the source, which is in read mode, the frame is
+	 * positioned after the length header.
+	 * 
+	 * @return false, leaving the source untouched, while it holds a partial frame
+	 */
+	public boolean readFrom(ByteBuffer source) throws StreamCorruptedException {
+		if (source.remaining() < HEADER_LENGTH) {
+			return false;
+		}
+
+		int length = checkLength(source.getInt(source.position()));
+
+		if (source.remaining() < HEADER_LENGTH + length) {
+			return false;
+		}
+
+		buffer.clear();
+		ensure(HEADER_LENGTH + length);
+
+		ByteBuffer content = source.duplicate();
+		content.limit(content.position() + HEADER_LENGTH + length);
+		buffer.put(content);
+		source.position(content.position());
+
+		buffer.flip();
+		buffer.position(HEADER_LENGTH);
+		return true;
+	}
+
+	private static int checkLength(int length) throws StreamCorruptedException {
+		if (length < 0 || length > MAX_FRAME_LENGTH) {
+			throw new StreamCorruptedException(String.format("Invalid frame length [%1$d]", length));
+		}
+		return length;
+	}
+
+	private void fill(ReadableByteChannel channel) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException();
+			}
+		}
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("capacity", buffer.capacity()).append("position", buffer.position())
+				.toString();
+	}
+
+	/**
+	 * Writes the frame content written since {@link #clear()}.
+	 */
+	public void writeTo(WritableByteChannel channel) throws IOException {
+		seal();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		clear();
+	}
+
+	/**
+	 * Writes as much of the frame as a non-blocking channel accepts.
+	 * 
+	 * @return false while part of the frame is left, to be written once the
+	 *         channel is writable again
+	 */
+	public boolean writeAvailableTo(WritableByteChannel channel) throws IOException {
+		seal();
+		channel.write(buffer);
+		if (buffer.hasRemaining()) {
+			return false;
+		}
+		clear();
+		return true;
+	}
+
+	private void seal() {
+		if (!sealed) {
+			buffer.putInt(0, buffer.position() - HEADER_LENGTH);
+			buffer.flip();
+			sealed = true;
+		}
+	}
+}
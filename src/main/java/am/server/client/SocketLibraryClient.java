@@ -0,0 +1,990 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.server.client;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.rmi.RemoteException;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import am.api.AMHandle;
+import am.api.model.AMColumn;
+import am.api.model.AMDate;
+import am.api.model.AMString;
+
+/**
+ * {@link AMLibraryRemote} over a loopback socket to an AMAPIProcess started
+ * with the socket transport. Calls are serialized on the instance, each call is
+ * a single request frame followed by a single response frame.
+ */
+public final class SocketLibraryClient implements AMLibraryRemote {
+
+	private final SocketChannel channel;
+
+	private final SocketFrame frame;
+
+	private final int socketPort;
+
+	public SocketLibraryClient(int socketPort) throws IOException {
+		super();
+		this.socketPort = socketPort;
+		this.frame = new SocketFrame(8192);
+		this.channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), socketPort));
+		this.channel.socket().setTcpNoDelay(true);
+	}
+
+	/**
+	 * Closes the channel, the AMAPIProcess is left running.
+	 */
+	public synchronized void disconnect() {
+		try {
+			channel.close();
+		} catch (IOException ignore) {
+			// channel is unusable either way
+		}
+	}
+
+	private SocketFrame exchange() throws RemoteException {
+		try {
+			frame.writeTo(channel);
+			frame.readFrom(channel);
+		} catch (IOException e) {
+			disconnect();
+			throw new RemoteException(e.getMessage(), e);
+		}
+
+		if (frame.getByte() == SocketFrame.STATUS_FAILED) {
+
+			Object failure = getObject(frame);
+
+			if (failure instanceof RuntimeException) {
+				throw (RuntimeException) failure;
+			} else if (failure instanceof RemoteException) {
+				throw (RemoteException) failure;
+			} else {
+				throw new RemoteException(String.valueOf(failure),
+						failure instanceof Throwable ? (Throwable) failure : null);
+			}
+		}
+
+		return frame;
+	}
+
+	private Object getObject(SocketFrame response) throws RemoteException {
+		try {
+			return response.getObject();
+		} catch (IOException e) {
+			throw new RemoteException(e.getMessage(), e);
+		}
+	}
+
+	public int getSocketPort() {
+		return socketPort;
+	}
+
+	public boolean isOpen() {
+		return channel.isOpen();
+	}
+
+	private void putObject(SocketFrame request, Object value) throws RemoteException {
+		try {
+			request.putObject(value);
+		} catch (IOException e) {
+			throw new RemoteException(e.getMessage(), e);
+		}
+	}
+
+	private SocketFrame request(int opCode) {
+		return frame.clear().putByte(opCode);
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("socketPort", socketPort).append("channel", channel).toString();
+	}
+
+	@Override
+	public synchronized void cleanup() throws RemoteException {
+		request(SocketOpCode.CLEANUP);
+		exchange();
+	}
+
+	@Override
+	public synchronized long clearLastError() throws RemoteException {
+		request(SocketOpCode.CLEAR_LAST_ERROR);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized void close() throws RemoteException {
+		request(SocketOpCode.CLOSE);
+		exchange();
+	}
+
+	@Override
+	public synchronized long closeCursor(AMHandle cursor) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CLOSE_CURSOR);
+		frame.putHandle(cursor);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long commit() throws RemoteException {
+		request(SocketOpCode.COMMIT);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long commitAndReset(long callTimeOutInMs) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.COMMIT_AND_RESET);
+		frame.putLong(callTimeOutInMs);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized ReturnWithString connectionName(AMString connectionName) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONNECTION_NAME);
+		frame.putInt(connectionName.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized long convertDateBasicToUnix(long tmTime) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONVERT_DATE_BASIC_TO_UNIX);
+		frame.putLong(tmTime);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long convertDateIntlToUnix(String dateAsString) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONVERT_DATE_INTL_TO_UNIX);
+		frame.putString(dateAsString);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long convertDateStringToUnix(String dateAsString) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONVERT_DATE_STRING_TO_UNIX);
+		frame.putString(dateAsString);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long convertDateUnixToBasic(long dateAsUnix) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONVERT_DATE_UNIX_TO_BASIC);
+		frame.putLong(dateAsUnix);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized ReturnWithString convertDateUnixToIntl(long unixDate,
+			AMString dateAsIntlStr) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONVERT_DATE_UNIX_TO_INTL);
+		frame.putLong(unixDate);
+		frame.putInt(dateAsIntlStr.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString convertDateUnixToString(long dateAsUnix,
+			AMString dateAsStr) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONVERT_DATE_UNIX_TO_STRING);
+		frame.putLong(dateAsUnix);
+		frame.putInt(dateAsStr.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString convertDoubleToString(double dSrc,
+			AMString dblAsString) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONVERT_DOUBLE_TO_STRING);
+		frame.putDouble(dSrc);
+		frame.putInt(dblAsString.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString convertMonetaryToString(double dMonetarySrc,
+			AMString dblAsString) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONVERT_MONETARY_TO_STRING);
+		frame.putDouble(dMonetarySrc);
+		frame.putInt(dblAsString.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized double convertStringToDouble(String dblAsString) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONVERT_STRING_TO_DOUBLE);
+		frame.putString(dblAsString);
+		return exchange().getDouble();
+	}
+
+	@Override
+	public synchronized double convertStringToMonetary(String monetaryAsString) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CONVERT_STRING_TO_MONETARY);
+		frame.putString(monetaryAsString);
+		return exchange().getDouble();
+	}
+
+	@Override
+	public synchronized long createLink(AMHandle srcRecHandle, String linkName,
+			AMHandle srcDstHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CREATE_LINK);
+		frame.putHandle(srcRecHandle);
+		frame.putString(linkName);
+		frame.putHandle(srcDstHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized AMHandle createRecord(String tblName) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.CREATE_RECORD);
+		frame.putString(tblName);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized long currentDate() throws RemoteException {
+		request(SocketOpCode.CURRENT_DATE);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long currentServerDate() throws RemoteException {
+		request(SocketOpCode.CURRENT_SERVER_DATE);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long dateAdd(long startAsUnixDate, long duration) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DATE_ADD);
+		frame.putLong(startAsUnixDate);
+		frame.putLong(duration);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long dateAddLogical(long startAsUnixDate, long duration) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DATE_ADD_LOGICAL);
+		frame.putLong(startAsUnixDate);
+		frame.putLong(duration);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long dateDiff(long endAsUnixDate, long startAsUnixDate) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DATE_DIFF);
+		frame.putLong(endAsUnixDate);
+		frame.putLong(startAsUnixDate);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long dbExecAql(String aqlQuery) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DB_EXEC_AQL);
+		frame.putString(aqlQuery);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long dbGetDate(String aqlQuery) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DB_GET_DATE);
+		frame.putString(aqlQuery);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized double dbGetDouble(String aqlQuery) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DB_GET_DOUBLE);
+		frame.putString(aqlQuery);
+		return exchange().getDouble();
+	}
+
+	@Override
+	public synchronized ReturnWithString dbGetLimitedList(String aqlQuery, AMString result, String colSeperator,
+			String lineSeperator, String idSeperator, long maxSize, long errorType) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DB_GET_LIMITED_LIST);
+		frame.putString(aqlQuery);
+		frame.putInt(result.getBufferLength());
+		frame.putString(colSeperator);
+		frame.putString(lineSeperator);
+		frame.putString(idSeperator);
+		frame.putLong(maxSize);
+		frame.putLong(errorType);
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString dbGetList(String aqlQuery, AMString result, String colSeperator,
+			String lineSeperator, String idSeperator) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DB_GET_LIST);
+		frame.putString(aqlQuery);
+		frame.putInt(result.getBufferLength());
+		frame.putString(colSeperator);
+		frame.putString(lineSeperator);
+		frame.putString(idSeperator);
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString dbGetListEx(String aqlQuery, AMString result, String colSeperator,
+			String lineSeperator, String idSeperator) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DB_GET_LIST_EX);
+		frame.putString(aqlQuery);
+		frame.putInt(result.getBufferLength());
+		frame.putString(colSeperator);
+		frame.putString(lineSeperator);
+		frame.putString(idSeperator);
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized long dbGetLong(String aqlQuery) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DB_GET_LONG);
+		frame.putString(aqlQuery);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long dbGetPk(String tableName, String whereClause) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DB_GET_PK);
+		frame.putString(tableName);
+		frame.putString(whereClause);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized ReturnWithString dbGetString(String query, AMString result, String colSeperator,
+			String lineSeperator) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DB_GET_STRING);
+		frame.putString(query);
+		frame.putInt(result.getBufferLength());
+		frame.putString(colSeperator);
+		frame.putString(lineSeperator);
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString dbGetStringEx(String query, AMString result, String colSeperator,
+			String lineSeperator) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DB_GET_STRING_EX);
+		frame.putString(query);
+		frame.putInt(result.getBufferLength());
+		frame.putString(colSeperator);
+		frame.putString(lineSeperator);
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized long deleteLink(AMHandle srcRecHandle, String linkName,
+			AMHandle srcDstHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DELETE_LINK);
+		frame.putHandle(srcRecHandle);
+		frame.putString(linkName);
+		frame.putHandle(srcDstHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long deleteRecord(AMHandle recordHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DELETE_RECORD);
+		frame.putHandle(recordHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long duplicateRecord(AMHandle recordHandle, long insert) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.DUPLICATE_RECORD);
+		frame.putHandle(recordHandle);
+		frame.putLong(insert);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized ReturnWithString enumValList(String enumName, AMString value, long caseSensitive,
+			String lineSeperator) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.ENUM_VAL_LIST);
+		frame.putString(enumName);
+		frame.putInt(value.getBufferLength());
+		frame.putLong(caseSensitive);
+		frame.putString(lineSeperator);
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized AMHandle executeActionById(long actionId, String tableName,
+			long recordId) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.EXECUTE_ACTION_BY_ID);
+		frame.putLong(actionId);
+		frame.putString(tableName);
+		frame.putLong(recordId);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized AMHandle executeActionByName(String sqlName, String tableName,
+			long recordId) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.EXECUTE_ACTION_BY_NAME);
+		frame.putString(sqlName);
+		frame.putString(tableName);
+		frame.putLong(recordId);
+		return exchange().getHandle();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public synchronized List<Object> executeBatch(List<BatchOperation> operations) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.EXECUTE_BATCH);
+		putObject(frame, operations);
+		return (List<Object>) getObject(exchange());
+	}
+
+	@Override
+	public synchronized long exportDocument(long documentId, String fileName) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.EXPORT_DOCUMENT);
+		frame.putLong(documentId);
+		frame.putString(fileName);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized RowChunk fetchRows(AMHandle cursor, List<AMColumn> columns,
+			int fetchSize) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.FETCH_ROWS);
+		frame.putHandle(cursor);
+		frame.putColumns(columns);
+		frame.putInt(fetchSize);
+		return exchange().getRowChunk();
+	}
+
+	@Override
+	public synchronized long flushTransaction() throws RemoteException {
+		request(SocketOpCode.FLUSH_TRANSACTION);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized ReturnWithString formatCurrency(double amount, String currency,
+			AMString result) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.FORMAT_CURRENCY);
+		frame.putDouble(amount);
+		frame.putString(currency);
+		frame.putInt(result.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString formatLong(long number, String format,
+			AMString result) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.FORMAT_LONG);
+		frame.putLong(number);
+		frame.putString(format);
+		frame.putInt(result.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString getComputeString(String tableName, long recordId, String template,
+			AMString result) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_COMPUTE_STRING);
+		frame.putString(tableName);
+		frame.putLong(recordId);
+		frame.putString(template);
+		frame.putInt(result.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized AMHandle getField(AMHandle objHandle, long position) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD);
+		frame.putHandle(objHandle);
+		frame.putLong(position);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized long getFieldCount(AMHandle objHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_COUNT);
+		frame.putHandle(objHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long getFieldDateOnlyValue(AMHandle recHandle, long fieldPos) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_DATE_ONLY_VALUE);
+		frame.putHandle(recHandle);
+		frame.putLong(fieldPos);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long getFieldDateValue(AMHandle recHandle, long fieldPos) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_DATE_VALUE);
+		frame.putHandle(recHandle);
+		frame.putLong(fieldPos);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized ReturnWithString getFieldDescription(AMHandle fieldHandle,
+			AMString target) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_DESCRIPTION);
+		frame.putHandle(fieldHandle);
+		frame.putInt(target.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized double getFieldDoubleValue(AMHandle objHandle, long fieldPos) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_DOUBLE_VALUE);
+		frame.putHandle(objHandle);
+		frame.putLong(fieldPos);
+		return exchange().getDouble();
+	}
+
+	@Override
+	public synchronized ReturnWithString getFieldFormat(AMHandle fldHandle, AMString target) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_FORMAT);
+		frame.putHandle(fldHandle);
+		frame.putInt(target.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString getFieldFormatFromName(String tableName, String fieldName,
+			AMString result) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_FORMAT_FROM_NAME);
+		frame.putString(tableName);
+		frame.putString(fieldName);
+		frame.putInt(result.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized AMHandle getFieldFromName(AMHandle objHandle, String fielddName) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_FROM_NAME);
+		frame.putHandle(objHandle);
+		frame.putString(fielddName);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized ReturnWithString getFieldLabel(AMHandle fldHandle, AMString result) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_LABEL);
+		frame.putHandle(fldHandle);
+		frame.putInt(result.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString getFieldLabelFromName(String tableName, String fieldName,
+			AMString fieldLabel) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_LABEL_FROM_NAME);
+		frame.putString(tableName);
+		frame.putString(fieldName);
+		frame.putInt(fieldLabel.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized long getFieldLongValue(AMHandle objHandle, long fieldPosition) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_LONG_VALUE);
+		frame.putHandle(objHandle);
+		frame.putLong(fieldPosition);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized ReturnWithString getFieldName(AMHandle objHandle, long fieldPositon,
+			AMString fieldName) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_NAME);
+		frame.putHandle(objHandle);
+		frame.putLong(fieldPositon);
+		frame.putInt(fieldName.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized long getFieldSize(AMHandle fldHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_SIZE);
+		frame.putHandle(fldHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized ReturnWithString getFieldSqlName(AMHandle fldHandle,
+			AMString fieldSQLName) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_SQL_NAME);
+		frame.putHandle(fldHandle);
+		frame.putInt(fieldSQLName.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString getFieldStrValue(AMHandle qryHandle, long position,
+			AMString target) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_STR_VALUE);
+		frame.putHandle(qryHandle);
+		frame.putLong(position);
+		frame.putInt(target.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized long getFieldType(AMHandle fldHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_TYPE);
+		frame.putHandle(fldHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long getFieldUserType(AMHandle fldHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_FIELD_USER_TYPE);
+		frame.putHandle(fldHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized AMHandle getRecordFromMainId(String tableName, long lId) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_RECORD_FROM_MAIN_ID);
+		frame.putString(tableName);
+		frame.putLong(lId);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized AMHandle getRecordHandle(AMHandle qryHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_RECORD_HANDLE);
+		frame.putHandle(qryHandle);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized long getRecordId(AMHandle recHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_RECORD_ID);
+		frame.putHandle(recHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized AMHandle getRelDstField(AMHandle fldHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_REL_DST_FIELD);
+		frame.putHandle(fldHandle);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized AMHandle getRelSrcField(AMHandle fldHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_REL_SRC_FIELD);
+		frame.putHandle(fldHandle);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized AMHandle getRelTable(AMHandle fldHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_REL_TABLE);
+		frame.putHandle(fldHandle);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized AMHandle getReverseLink(AMHandle fldHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_REVERSE_LINK);
+		frame.putHandle(fldHandle);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized ReturnWithString getSelfFromMainId(String tableName, long recordId,
+			AMString recordDescription) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_SELF_FROM_MAIN_ID);
+		frame.putString(tableName);
+		frame.putLong(recordId);
+		frame.putInt(recordDescription.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString getVersion(AMString amVersion) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.GET_VERSION);
+		frame.putInt(amVersion.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized long importDocument(long docId, String tableName, String fileName, String category,
+			String designation) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.IMPORT_DOCUMENT);
+		frame.putLong(docId);
+		frame.putString(tableName);
+		frame.putString(fileName);
+		frame.putString(category);
+		frame.putString(designation);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long insertRecord(AMHandle recHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.INSERT_RECORD);
+		frame.putHandle(recHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long isConnected() throws RemoteException {
+		request(SocketOpCode.IS_CONNECTED);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long lastError() throws RemoteException {
+		request(SocketOpCode.LAST_ERROR);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized ReturnWithString lastErrorMsg(AMString errorMessage) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.LAST_ERROR_MSG);
+		frame.putInt(errorMessage.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized ReturnWithString listToString(AMString target, String source, String colSep, String lineSep,
+			String idSep) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.LIST_TO_STRING);
+		frame.putInt(target.getBufferLength());
+		frame.putString(source);
+		frame.putString(colSep);
+		frame.putString(lineSep);
+		frame.putString(idSep);
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized long loginId() throws RemoteException {
+		request(SocketOpCode.LOGIN_ID);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized ReturnWithString loginName(AMString loginName) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.LOGIN_NAME);
+		frame.putInt(loginName.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized AMHandle openConnection(String database, String username,
+			String password) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.OPEN_CONNECTION);
+		frame.putString(database);
+		frame.putString(username);
+		frame.putString(password);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized RowChunk openCursor(String aqlQuery, List<AMColumn> columns,
+			int fetchSize) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.OPEN_CURSOR);
+		frame.putString(aqlQuery);
+		frame.putColumns(columns);
+		frame.putInt(fetchSize);
+		return exchange().getRowChunk();
+	}
+
+	@Override
+	public synchronized long purgeRecord(AMHandle recHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.PURGE_RECORD);
+		frame.putHandle(recHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized AMHandle queryCreate() throws RemoteException {
+		request(SocketOpCode.QUERY_CREATE);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized long queryExec(AMHandle queryHandle, String aqlQuery) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.QUERY_EXEC);
+		frame.putHandle(queryHandle);
+		frame.putString(aqlQuery);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long queryGet(AMHandle qryHandle, String aqlQuery) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.QUERY_GET);
+		frame.putHandle(qryHandle);
+		frame.putString(aqlQuery);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long queryNext(AMHandle queryHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.QUERY_NEXT);
+		frame.putHandle(queryHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long querySetAddMainField(AMHandle qryHandle, long addMainField) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.QUERY_SET_ADD_MAIN_FIELD);
+		frame.putHandle(qryHandle);
+		frame.putLong(addMainField);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long querySetFullMemo(AMHandle qryHandle, long fullMemo) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.QUERY_SET_FULL_MEMO);
+		frame.putHandle(qryHandle);
+		frame.putLong(fullMemo);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized AMHandle queryStartTable(AMHandle qryHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.QUERY_START_TABLE);
+		frame.putHandle(qryHandle);
+		return exchange().getHandle();
+	}
+
+	@Override
+	public synchronized long queryStop(AMHandle qryHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.QUERY_STOP);
+		frame.putHandle(qryHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long refreshAllCaches() throws RemoteException {
+		request(SocketOpCode.REFRESH_ALL_CACHES);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long releaseHandle(AMHandle objHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.RELEASE_HANDLE);
+		frame.putHandle(objHandle);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long resetSession(long callTimeOutInMs) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.RESET_SESSION);
+		frame.putLong(callTimeOutInMs);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long rollBack() throws RemoteException {
+		request(SocketOpCode.ROLL_BACK);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized void setCallTimeOutInMs(long timeOutInMs) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.SET_CALL_TIME_OUT_IN_MS);
+		frame.putLong(timeOutInMs);
+		exchange();
+	}
+
+	@Override
+	public synchronized long setFieldDateOnlyValue(AMHandle recHandle, String fieldName,
+			AMDate dateOnlyValue) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.SET_FIELD_DATE_ONLY_VALUE);
+		frame.putHandle(recHandle);
+		frame.putString(fieldName);
+		frame.putDate(dateOnlyValue);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long setFieldDateValue(AMHandle recHandle, String fieldName,
+			AMDate dateTimeValue) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.SET_FIELD_DATE_VALUE);
+		frame.putHandle(recHandle);
+		frame.putString(fieldName);
+		frame.putDate(dateTimeValue);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long setFieldDoubleValue(AMHandle recHandle, String fieldName,
+			double value) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.SET_FIELD_DOUBLE_VALUE);
+		frame.putHandle(recHandle);
+		frame.putString(fieldName);
+		frame.putDouble(value);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long setFieldLongValue(AMHandle recHandle, String fieldName,
+			long value) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.SET_FIELD_LONG_VALUE);
+		frame.putHandle(recHandle);
+		frame.putString(fieldName);
+		frame.putLong(value);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long setFieldStrValue(AMHandle recHandle, String fieldName,
+			String value) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.SET_FIELD_STR_VALUE);
+		frame.putHandle(recHandle);
+		frame.putString(fieldName);
+		frame.putString(value);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized void shutdown() throws RemoteException {
+		request(SocketOpCode.SHUTDOWN);
+		exchange();
+	}
+
+	@Override
+	public synchronized ReturnWithString sqlTextConst(String aqlQuery, AMString target) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.SQL_TEXT_CONST);
+		frame.putString(aqlQuery);
+		frame.putInt(target.getBufferLength());
+		return exchange().getReturnWithString();
+	}
+
+	@Override
+	public synchronized long startTransaction() throws RemoteException {
+		request(SocketOpCode.START_TRANSACTION);
+		return exchange().getLong();
+	}
+
+	@Override
+	public synchronized long updateRecord(AMHandle recHandle) throws RemoteException {
+		SocketFrame frame = request(SocketOpCode.UPDATE_RECORD);
+		frame.putHandle(recHandle);
+		return exchange().getLong();
+	}
+
+}
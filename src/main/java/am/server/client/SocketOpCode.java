@@ -0,0 +1,243 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.server.client;
+
+/**
+ * Opcode of each {@link AMLibraryRemote} method on the socket transport, values
+ * are part of the wire format and must not be reused.
+ */
+public final class SocketOpCode {
+
+	private SocketOpCode() {
+		super();
+	}
+
+	public final static int SET_CALL_TIME_OUT_IN_MS = 1;
+
+	public final static int CLEANUP = 2;
+
+	public final static int CLEAR_LAST_ERROR = 3;
+
+	public final static int CLOSE = 4;
+
+	public final static int COMMIT = 5;
+
+	public final static int CLOSE_CURSOR = 6;
+
+	public final static int CONNECTION_NAME = 7;
+
+	public final static int CONVERT_DATE_BASIC_TO_UNIX = 8;
+
+	public final static int CONVERT_DATE_INTL_TO_UNIX = 9;
+
+	public final static int CONVERT_DATE_STRING_TO_UNIX = 10;
+
+	public final static int CONVERT_DATE_UNIX_TO_BASIC = 11;
+
+	public final static int CONVERT_DATE_UNIX_TO_INTL = 12;
+
+	public final static int CONVERT_DATE_UNIX_TO_STRING = 13;
+
+	public final static int CONVERT_DOUBLE_TO_STRING = 14;
+
+	public final static int CONVERT_MONETARY_TO_STRING = 15;
+
+	public final static int CONVERT_STRING_TO_DOUBLE = 16;
+
+	public final static int CONVERT_STRING_TO_MONETARY = 17;
+
+	public final static int CREATE_LINK = 18;
+
+	public final static int CREATE_RECORD = 19;
+
+	public final static int CURRENT_DATE = 20;
+
+	public final static int CURRENT_SERVER_DATE = 21;
+
+	public final static int DATE_ADD = 22;
+
+	public final static int DATE_ADD_LOGICAL = 23;
+
+	public final static int DATE_DIFF = 24;
+
+	public final static int DB_EXEC_AQL = 25;
+
+	public final static int DB_GET_DATE = 26;
+
+	public final static int DB_GET_DOUBLE = 27;
+
+	public final static int DB_GET_LIMITED_LIST = 28;
+
+	public final static int DB_GET_LIST = 29;
+
+	public final static int DB_GET_LIST_EX = 30;
+
+	public final static int DB_GET_LONG = 31;
+
+	public final static int DB_GET_PK = 32;
+
+	public final static int DB_GET_STRING = 33;
+
+	public final static int DB_GET_STRING_EX = 34;
+
+	public final static int DELETE_LINK = 35;
+
+	public final static int DELETE_RECORD = 36;
+
+	public final static int DUPLICATE_RECORD = 37;
+
+	public final static int ENUM_VAL_LIST = 38;
+
+	public final static int EXECUTE_ACTION_BY_ID = 39;
+
+	public final static int EXECUTE_ACTION_BY_NAME = 40;
+
+	public final static int EXECUTE_BATCH = 41;
+
+	public final static int EXPORT_DOCUMENT = 42;
+
+	public final static int FLUSH_TRANSACTION = 43;
+
+	public final static int FORMAT_CURRENCY = 44;
+
+	public final static int FORMAT_LONG = 45;
+
+	public final static int GET_COMPUTE_STRING = 46;
+
+	public final static int GET_FIELD = 47;
+
+	public final static int GET_FIELD_COUNT = 48;
+
+	public final static int GET_FIELD_DATE_ONLY_VALUE = 49;
+
+	public final static int GET_FIELD_DATE_VALUE = 50;
+
+	public final static int GET_FIELD_DESCRIPTION = 51;
+
+	public final static int GET_FIELD_DOUBLE_VALUE = 52;
+
+	public final static int GET_FIELD_FORMAT = 53;
+
+	public final static int GET_FIELD_FORMAT_FROM_NAME = 54;
+
+	public final static int GET_FIELD_FROM_NAME = 55;
+
+	public final static int GET_FIELD_LABEL = 56;
+
+	public final static int GET_FIELD_LABEL_FROM_NAME = 57;
+
+	public final static int GET_FIELD_LONG_VALUE = 58;
+
+	public final static int GET_FIELD_NAME = 59;
+
+	public final static int GET_FIELD_SIZE = 60;
+
+	public final static int GET_FIELD_SQL_NAME = 61;
+
+	public final static int GET_FIELD_STR_VALUE = 62;
+
+	public final static int GET_FIELD_TYPE = 63;
+
+	public final static int GET_FIELD_USER_TYPE = 64;
+
+	public final static int GET_RECORD_FROM_MAIN_ID = 65;
+
+	public final static int GET_RECORD_HANDLE = 66;
+
+	public final static int GET_RECORD_ID = 67;
+
+	public final static int GET_REL_DST_FIELD = 68;
+
+	public final static int GET_REL_SRC_FIELD = 69;
+
+	public final static int GET_REL_TABLE = 70;
+
+	public final static int GET_REVERSE_LINK = 71;
+
+	public final static int GET_SELF_FROM_MAIN_ID = 72;
+
+	public final static int GET_VERSION = 73;
+
+	public final static int IMPORT_DOCUMENT = 74;
+
+	public final static int INSERT_RECORD = 75;
+
+	public final static int IS_CONNECTED = 76;
+
+	public final static int LAST_ERROR = 77;
+
+	public final static int LAST_ERROR_MSG = 78;
+
+	public final static int LIST_TO_STRING = 79;
+
+	public final static int LOGIN_ID = 80;
+
+	public final static int LOGIN_NAME = 81;
+
+	public final static int OPEN_CONNECTION = 82;
+
+	public final static int PURGE_RECORD = 83;
+
+	public final static int OPEN_CURSOR = 84;
+
+	public final static int FETCH_ROWS = 85;
+
+	public final static int QUERY_CREATE = 86;
+
+	public final static int QUERY_EXEC = 87;
+
+	public final static int QUERY_GET = 88;
+
+	public final static int QUERY_NEXT = 89;
+
+	public final static int QUERY_SET_ADD_MAIN_FIELD = 90;
+
+	public final static int QUERY_SET_FULL_MEMO = 91;
+
+	public final static int QUERY_START_TABLE = 92;
+
+	public final static int QUERY_STOP = 93;
+
+	public final static int REFRESH_ALL_CACHES = 94;
+
+	public final static int RELEASE_HANDLE = 95;
+
+	public final static int ROLL_BACK = 96;
+
+	public final static int SET_FIELD_DATE_ONLY_VALUE = 97;
+
+	public final static int SET_FIELD_DATE_VALUE = 98;
+
+	public final static int SET_FIELD_DOUBLE_VALUE = 99;
+
+	public final static int SET_FIELD_LONG_VALUE = 100;
+
+	public final static int SET_FIELD_STR_VALUE = 101;
+
+	public final static int SHUTDOWN = 102;
+
+	public final static int SQL_TEXT_CONST = 103;
+
+	public final static int START_TRANSACTION = 104;
+
+	public final static int UPDATE_RECORD = 105;
+
+	public final static int RESET_SESSION = 106;
+
+	public final static int COMMIT_AND_RESET = 107;
+
+}
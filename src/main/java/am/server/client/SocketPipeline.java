@@ -0,0 +1,264 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.server.client;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.rmi.RemoteException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Pipelined channel to an AMAPIProcess started with the socket transport.
+ * Requests are written as they are submitted without waiting for earlier
+ * responses, the process answers a channel in order so responses are matched
+ * to requests first in first out. Responses are read by the shared
+ * {@link SocketReactor} and futures are completed on the common pool.
+ */
+public final class SocketPipeline {
+
+	private static final class PendingCall<T> {
+
+		private final CompletableFuture<T> future;
+
+		private final Function<SocketFrame, T> reader;
+
+		private PendingCall(Function<SocketFrame, T> reader) {
+			super();
+			this.future = new CompletableFuture<>();
+			this.reader = reader;
+		}
+
+		private void complete(SocketFrame response) {
+			try {
+				if (response.getByte() == SocketFrame.STATUS_FAILED) {
+					fail(failure(response.getObject()));
+				} else {
+					T value = reader.apply(response);
+					ForkJoinPool.commonPool().execute(() -> future.complete(value));
+				}
+			} catch (IOException | RuntimeException e) {
+				fail(e);
+			}
+		}
+
+		private void fail(Throwable e) {
+			ForkJoinPool.commonPool().execute(() -> future.completeExceptionally(e));
+		}
+
+		private Throwable failure(Object failure) {
+			if (failure instanceof Throwable) {
+				return (Throwable) failure;
+			}
+			return new RemoteException(String.valueOf(failure));
+		}
+	}
+
+	private final SocketChannel channel;
+
+	private volatile boolean closed;
+
+	private ByteBuffer inbound;
+
+	private final Queue<PendingCall<?>> pending;
+
+	private final SocketFrame request;
+
+	private final SocketFrame response;
+
+	private final int socketPort;
+
+	private volatile Thread writer;
+
+	public SocketPipeline(int socketPort) throws IOException {
+		super();
+		this.socketPort = socketPort;
+		this.pending = new ConcurrentLinkedQueue<>();
+		this.request = new SocketFrame(8192);
+		this.response = new SocketFrame(8192);
+		this.inbound = ByteBuffer.allocate(8192);
+		this.channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), socketPort));
+		this.channel.socket().setTcpNoDelay(true);
+		this.channel.configureBlocking(false);
+
+		SocketReactor.getInstance().register(this);
+	}
+
+	/**
+	 * Writes the request and returns without waiting for the response.
+	 * 
+	 * @param opCode    one of {@link SocketOpCode}
+	 * @param arguments writes the arguments of the call
+	 * @param result    reads the result off a successful response
+	 */
+	public <T> CompletableFuture<T> call(int opCode, Consumer<SocketFrame> arguments, Function<SocketFrame, T> result) {
+
+		PendingCall<T> call = new PendingCall<>(result);
+
+		synchronized (request) {
+
+			if (closed) {
+				call.fail(new RemoteException("Pipeline is closed"));
+				return call.future;
+			}
+
+			request.clear().putByte(opCode);
+			arguments.accept(request);
+
+			pending.add(call);
+
+			try {
+				while (!request.writeAvailableTo(channel)) {
+					awaitWritable();
+				}
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		return call.future;
+	}
+
+	/**
+	 * Parks the writing thread until the reactor sees the channel writable,
+	 * called with the request frame locked.
+	 */
+	private void awaitWritable() throws IOException {
+
+		boolean interrupted = false;
+
+		writer = Thread.currentThread();
+
+		SocketReactor.getInstance().awaitWritable(this);
+
+		while (writer != null && !closed) {
+			LockSupport.park(this);
+			// a half written frame cannot be abandoned, the interrupt is kept
+			if (Thread.interrupted()) {
+				interrupted = true;
+			}
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public void close() {
+		fail(new RemoteException("Pipeline is closed"));
+	}
+
+	/**
+	 * Closes the channel and fails every call still waiting for its response.
+	 */
+	void fail(Throwable cause) {
+		closed = true;
+
+		try {
+			channel.close();
+		} catch (IOException ignore) {
+			// channel is unusable either way
+		}
+
+		onWritable();
+
+		PendingCall<?> call;
+
+		while ((call = pending.poll()) != null) {
+			call.fail(cause instanceof RemoteException ? cause : new RemoteException(cause.getMessage(), cause));
+		}
+	}
+
+	SocketChannel getChannel() {
+		return channel;
+	}
+
+	public int getSocketPort() {
+		return socketPort;
+	}
+
+	public boolean isOpen() {
+		return !closed;
+	}
+
+	/**
+	 * Reads what the channel holds and completes the calls whose response is
+	 * whole, called by the reactor thread only.
+	 * 
+	 * @return false once the channel is closed
+	 */
+	boolean onReadable() {
+		try {
+			if (!inbound.hasRemaining()) {
+				ByteBuffer expanded = ByteBuffer.allocate(inbound.capacity() << 1);
+				inbound.flip();
+				expanded.put(inbound);
+				inbound = expanded;
+			}
+
+			if (channel.read(inbound) < 0) {
+				fail(new RemoteException("Channel closed by AMAPIProcess"));
+				return false;
+			}
+
+			inbound.flip();
+
+			while (response.readFrom(inbound)) {
+
+				PendingCall<?> call = pending.poll();
+
+				if (call != null) {
+					call.complete(response);
+				}
+			}
+
+			inbound.compact();
+
+			return true;
+
+		} catch (IOException e) {
+			fail(e);
+			return false;
+		}
+	}
+
+	/**
+	 * Wakes the thread waiting to write the rest of its request.
+	 */
+	void onWritable() {
+		Thread waiting = writer;
+		writer = null;
+		if (waiting != null) {
+			LockSupport.unpark(waiting);
+		}
+	}
+
+	public String toString() {
+		return new ToStringBuilder(this).append("socketPort", socketPort).append("pending", pending.size())
+				.append("closed", closed).toString();
+	}
+}
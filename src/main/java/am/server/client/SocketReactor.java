@@ -0,0 +1,128 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.server.client;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single selector thread reading the responses of every {@link SocketPipeline}
+ * of the JVM, it also wakes the writers of pipelines whose send buffer was
+ * full.
+ */
+final class SocketReactor implements Runnable {
+
+	private final static Logger LOGGER = Logger.getLogger(SocketReactor.class.getPackage().getName());
+
+	private static SocketReactor instance;
+
+	static synchronized SocketReactor getInstance() throws IOException {
+		if (instance == null) {
+			instance = new SocketReactor();
+		}
+		return instance;
+	}
+
+	private final Queue<SocketPipeline> registrations;
+
+	private final Queue<SocketPipeline> writeInterests;
+
+	private final Selector selector;
+
+	private SocketReactor() throws IOException {
+		super();
+		this.registrations = new ConcurrentLinkedQueue<>();
+		this.writeInterests = new ConcurrentLinkedQueue<>();
+		this.selector = Selector.open();
+
+		Thread thread = new Thread(this, "AMSocket-reactor");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Calls {@link SocketPipeline#onWritable()} once the channel of the
+	 * pipeline accepts writes again.
+	 */
+	void awaitWritable(SocketPipeline pipeline) {
+		writeInterests.add(pipeline);
+		selector.wakeup();
+	}
+
+	void register(SocketPipeline pipeline) {
+		registrations.add(pipeline);
+		selector.wakeup();
+	}
+
+	@Override
+	public void run() {
+
+		while (true) {
+
+			try {
+				selector.select();
+			} catch (IOException e) {
+				LOGGER.log(Level.SEVERE, "Selector failed, pipelines are no longer read", e);
+				return;
+			}
+
+			SocketPipeline pipeline;
+
+			while ((pipeline = registrations.poll()) != null) {
+				try {
+					pipeline.getChannel().register(selector, SelectionKey.OP_READ, pipeline);
+				} catch (ClosedChannelException e) {
+					pipeline.fail(e);
+				}
+			}
+
+			while ((pipeline = writeInterests.poll()) != null) {
+				SelectionKey key = pipeline.getChannel().keyFor(selector);
+				if (key != null && key.isValid()) {
+					key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+				} else {
+					pipeline.onWritable();
+				}
+			}
+
+			Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+
+			while (keys.hasNext()) {
+				SelectionKey key = keys.next();
+				keys.remove();
+
+				pipeline = (SocketPipeline) key.attachment();
+
+				if (key.isValid() && key.isWritable()) {
+					key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+					pipeline.onWritable();
+				}
+
+				if (key.isValid() && key.isReadable() && !pipeline.onReadable()) {
+					key.cancel();
+				}
+			}
+		}
+	}
+}
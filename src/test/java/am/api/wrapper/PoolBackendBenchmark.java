@@ -0,0 +1,123 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+
+import am.api.model.AMCredential;
+
+/**
+ * Borrow and return throughput of the {@link PoolBackend} implementations on
+ * stub connections, run with
+ * {@code java am.api.wrapper.PoolBackendBenchmark [seconds] [threads...]}.
+ */
+public class PoolBackendBenchmark {
+
+	private final static AMCredential WEB = new AMCredential("DEV", "web", "pwd");
+
+	public static void main(String[] args) throws Exception {
+
+		long seconds = args.length > 0 ? Long.parseLong(args[0]) : 2L;
+
+		int[] threads = { 1, 4, 16, 64 };
+
+		if (args.length > 1) {
+			threads = new int[args.length - 1];
+			for (int i = 1; i < args.length; i++) {
+				threads[i - 1] = Integer.parseInt(args[i]);
+			}
+		}
+
+		System.out.println(String.format("%-8s %8s %14s %10s", "backend", "threads", "ops/s", "ns/op"));
+
+		for (int count : threads) {
+			for (ConnectionPool.Backend backend : ConnectionPool.Backend.values()) {
+				run(backend, count, TimeUnit.SECONDS.toMillis(seconds) / 4L);
+				long ops = run(backend, count, TimeUnit.SECONDS.toMillis(seconds));
+				System.out.println(String.format("%-8s %8d %14d %10d", backend, count, ops / seconds,
+						TimeUnit.SECONDS.toNanos(seconds) * count / Math.max(ops, 1L)));
+			}
+		}
+	}
+
+	private static PoolBackend newBackend(ConnectionPool.Backend backend) {
+
+		GenericKeyedObjectPoolConfig<AMBaseConnection> config = new GenericKeyedObjectPoolConfig<>();
+
+		config.setMaxTotal(20);
+		config.setMaxTotalPerKey(8);
+		config.setMaxIdlePerKey(8);
+		config.setTestOnBorrow(true);
+		config.setTimeBetweenEvictionRunsMillis(-1L);
+
+		MeteredObjectFactory factory = StubConnection.factory();
+
+		return backend == ConnectionPool.Backend.BAG ? new ConcurrentBagBackend(factory, config)
+				: new CommonsPoolBackend(factory, config);
+	}
+
+	/**
+	 * @return borrow and return pairs completed by all threads
+	 */
+	private static long run(ConnectionPool.Backend backend, int threads, long durationMs)
+			throws InterruptedException {
+
+		PoolBackend pool = newBackend(backend);
+
+		LongAdder ops = new LongAdder();
+
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(threads);
+
+		long[] deadline = new long[1];
+
+		for (int i = 0; i < threads; i++) {
+			new Thread(() -> {
+				try {
+					start.await();
+
+					long local = 0L;
+
+					while (System.nanoTime() < deadline[0]) {
+						AMBaseConnection connection = pool.borrow(WEB, -1L);
+						pool.returnObject(WEB, connection);
+						local++;
+					}
+
+					ops.add(local);
+				} catch (Exception e) {
+					e.printStackTrace();
+				} finally {
+					done.countDown();
+				}
+			}).start();
+		}
+
+		deadline[0] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+
+		start.countDown();
+		done.await();
+
+		pool.close();
+
+		return ops.sum();
+	}
+}
@@ -0,0 +1,603 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+
+import am.api.AMBatch;
+import am.api.AMConnection;
+import am.api.AMCursor;
+import am.api.AMHandle;
+import am.api.AsyncAMConnection;
+import am.api.model.AMColumn;
+import am.api.model.AMCredential;
+import am.api.model.AMDate;
+import am.api.model.AMString;
+import am.server.client.BatchOperation;
+
+/**
+ * Connection without a backing session, for exercising the pool alone.
+ */
+class StubConnection extends AMBaseConnection {
+
+	/** answers the batches, createBatch returns null while unset */
+	Function<List<BatchOperation>, List<Object>> batchExecutor;
+
+	int cleanups;
+
+	volatile int closes;
+
+	int commits;
+
+	int rollBacks;
+
+	int transactionsStarted;
+
+	/**
+	 * @return a factory of stub connections, which fail validation once
+	 *         flagged {@link AMConnection#FLAG_NO_REUSE}
+	 */
+	static MeteredObjectFactory factory() {
+		return new MeteredObjectFactory(new BaseKeyedPooledObjectFactory<AMCredential, AMBaseConnection>() {
+
+			@Override
+			public AMBaseConnection create(AMCredential credential) {
+				return new StubConnection();
+			}
+
+			@Override
+			public boolean validateObject(AMCredential credential, PooledObject<AMBaseConnection> connection) {
+				return !connection.getObject().isProcessingFlagSet(AMConnection.FLAG_NO_REUSE);
+			}
+
+			@Override
+			public PooledObject<AMBaseConnection> wrap(AMBaseConnection connection) {
+				return new DefaultPooledObject<>(connection);
+			}
+		}, new PoolMetrics());
+	}
+
+	@Override
+	public void cleanup() {
+		cleanups++;
+	}
+
+	@Override
+	public void shutdown() {
+	}
+
+	@Override
+	public AsyncAMConnection async() {
+		return null;
+	}
+
+	@Override
+	public long clearLastError() {
+		return 1L;
+	}
+
+	@Override
+	public void close() {
+		closes++;
+	}
+
+	@Override
+	public long commit() {
+		commits++;
+		return 0L;
+	}
+
+	@Override
+	public long connectionName(AMString connectionName) {
+		return 1L;
+	}
+
+	@Override
+	public long convertDateBasicToUnix(long tmTime) {
+		return 1L;
+	}
+
+	@Override
+	public long convertDateIntlToUnix(String dateAsString) {
+		return 1L;
+	}
+
+	@Override
+	public long convertDateStringToUnix(String dateAsString) {
+		return 1L;
+	}
+
+	@Override
+	public long convertDateUnixToBasic(long dateAsUnix) {
+		return 1L;
+	}
+
+	@Override
+	public long convertDateUnixToIntl(long unixDate, AMString dateAsIntlStr) {
+		return 1L;
+	}
+
+	@Override
+	public long convertDateUnixToString(long dateAsUnix, AMString dateAsStr) {
+		return 1L;
+	}
+
+	@Override
+	public long convertDoubleToString(double dSrc, AMString dblAsString) {
+		return 1L;
+	}
+
+	@Override
+	public long convertMonetaryToString(double dMonetarySrc, AMString dblAsString) {
+		return 1L;
+	}
+
+	@Override
+	public double convertStringToDouble(String dblAsString) {
+		return 0d;
+	}
+
+	@Override
+	public double convertStringToMonetary(String monetaryAsString) {
+		return 0d;
+	}
+
+	@Override
+	public AMBatch createBatch() {
+		return batchExecutor == null ? null : new AMBatchImpl(batchExecutor);
+	}
+
+	@Override
+	public long createLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		return 1L;
+	}
+
+	@Override
+	public AMHandle createRecord(String tblName) {
+		return null;
+	}
+
+	@Override
+	public long currentDate() {
+		return 1L;
+	}
+
+	@Override
+	public long currentServerDate() {
+		return 1L;
+	}
+
+	@Override
+	public long dateAdd(long startAsUnixDate, long duration) {
+		return 1L;
+	}
+
+	@Override
+	public long dateAddLogical(long startAsUnixDate, long duration) {
+		return 1L;
+	}
+
+	@Override
+	public long dateDiff(long endAsUnixDate, long startAsUnixDate) {
+		return 1L;
+	}
+
+	@Override
+	public long dbExecAql(String aqlQuery) {
+		return 1L;
+	}
+
+	@Override
+	public long dbGetDate(String aqlQuery) {
+		return 1L;
+	}
+
+	@Override
+	public double dbGetDouble(String aqlQuery) {
+		return 0d;
+	}
+
+	@Override
+	public long dbGetLimitedList(String aqlQuery, AMString result, String colSeparator, String lineSeparator, String idSeperator, long maxSize, long errorType) {
+		return 1L;
+	}
+
+	@Override
+	public long dbGetList(String aqlQuery, AMString result, String colSeparator, String lineSeparator, String idSeperator) {
+		return 1L;
+	}
+
+	@Override
+	public long dbGetListEx(String aqlQuery, AMString result, String colSeparator, String lineSeparator, String idSeperator) {
+		return 1L;
+	}
+
+	@Override
+	public long dbGetLong(String aqlQuery) {
+		return 1L;
+	}
+
+	@Override
+	public long dbGetPk(String tableName, String whereClause) {
+		return 1L;
+	}
+
+	@Override
+	public long dbGetString(String query, AMString result, String colSeparator, String lineSeparator) {
+		return 1L;
+	}
+
+	@Override
+	public long dbGetStringEx(String query, AMString result, String colSeparator, String lineSeparator) {
+		return 1L;
+	}
+
+	@Override
+	public long deleteLink(AMHandle srcRecHandle, String linkName, AMHandle srcDstHandle) {
+		return 1L;
+	}
+
+	@Override
+	public long deleteRecord(AMHandle recordHandle) {
+		return 1L;
+	}
+
+	@Override
+	public long duplicateRecord(AMHandle recordHandle, long insert) {
+		return 1L;
+	}
+
+	@Override
+	public long enumValList(String enumName, AMString value, long caseSensitive, String lineSeparator) {
+		return 1L;
+	}
+
+	@Override
+	public AMHandle executeActionById(long actionId, String tableName, long recordId) {
+		return null;
+	}
+
+	@Override
+	public AMHandle executeActionByName(String sqlName, String tableName, long recordId) {
+		return null;
+	}
+
+	@Override
+	public long exportDocument(long documentId, String fileName) {
+		return 1L;
+	}
+
+	@Override
+	public long flushTransaction() {
+		return 1L;
+	}
+
+	@Override
+	public long formatCurrency(double amount, String currency, AMString result) {
+		return 1L;
+	}
+
+	@Override
+	public long formatLong(long number, String format, AMString result) {
+		return 1L;
+	}
+
+	@Override
+	public long getComputeString(String tableName, long recordId, String template, AMString result) {
+		return 1L;
+	}
+
+	@Override
+	public AMHandle getField(AMHandle objHandle, long position) {
+		return null;
+	}
+
+	@Override
+	public long getFieldCount(AMHandle objHandle) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldDateOnlyValue(AMHandle recHandle, long fieldPos) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldDateValue(AMHandle recHandle, long fieldPos) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldDescription(AMHandle fieldHandle, AMString target) {
+		return 1L;
+	}
+
+	@Override
+	public double getFieldDoubleValue(AMHandle objHandle, long fieldPos) {
+		return 0d;
+	}
+
+	@Override
+	public long getFieldFormat(AMHandle fldHandle, AMString target) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldFormatFromName(String tableName, String fieldName, AMString result) {
+		return 1L;
+	}
+
+	@Override
+	public AMHandle getFieldFromName(AMHandle objHandle, String fielddName) {
+		return null;
+	}
+
+	@Override
+	public long getFieldLabel(AMHandle fldHandle, AMString result) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldLabelFromName(String tableName, String fieldName, AMString fieldLabel) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldLongValue(AMHandle objHandle, long fieldPosition) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldName(AMHandle objHandle, long fieldPositon, AMString fieldName) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldSize(AMHandle fldHandle) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldSqlName(AMHandle fldHandle, AMString fieldSQLName) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldStrValue(AMHandle qryHandle, long position, AMString target) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldType(AMHandle fldHandle) {
+		return 1L;
+	}
+
+	@Override
+	public long getFieldUserType(AMHandle fldHandle) {
+		return 1L;
+	}
+
+	@Override
+	public AMHandle getRecordFromMainId(String tableName, long lId) {
+		return null;
+	}
+
+	@Override
+	public AMHandle getRecordHandle(AMHandle qryHandle) {
+		return null;
+	}
+
+	@Override
+	public long getRecordId(AMHandle recHandle) {
+		return 1L;
+	}
+
+	@Override
+	public AMHandle getRelDstField(AMHandle fldHandle) {
+		return null;
+	}
+
+	@Override
+	public AMHandle getRelSrcField(AMHandle fldHandle) {
+		return null;
+	}
+
+	@Override
+	public AMHandle getRelTable(AMHandle fldHandle) {
+		return null;
+	}
+
+	@Override
+	public AMHandle getReverseLink(AMHandle fldHandle) {
+		return null;
+	}
+
+	@Override
+	public long getSelfFromMainId(String tableName, long recordId, AMString recordDescription) {
+		return 1L;
+	}
+
+	@Override
+	public long getVersion(AMString amVersion) {
+		return 1L;
+	}
+
+	@Override
+	public long importDocument(long docId, String tableName, String fileName, String category, String designation) {
+		return 1L;
+	}
+
+	@Override
+	public long insertRecord(AMHandle recHandle) {
+		return 1L;
+	}
+
+	@Override
+	public long isConnected() {
+		return 1L;
+	}
+
+	@Override
+	public long lastError() {
+		return 1L;
+	}
+
+	@Override
+	public long lastErrorMsg(AMString errorMessage) {
+		return 1L;
+	}
+
+	@Override
+	public long listToString(AMString target, String source, String colSep, String lineSep, String idSep) {
+		return 1L;
+	}
+
+	@Override
+	public long loginId() {
+		return 1L;
+	}
+
+	@Override
+	public long loginName(AMString loginName) {
+		return 1L;
+	}
+
+	@Override
+	public AMHandle openConnection(String database, String username, String password) {
+		return null;
+	}
+
+	@Override
+	public AMCursor openCursor(String aqlQuery, List<AMColumn> columns, int fetchSize) {
+		return null;
+	}
+
+	@Override
+	public long purgeRecord(AMHandle recHandle) {
+		return 1L;
+	}
+
+	@Override
+	public AMHandle queryCreate() {
+		return null;
+	}
+
+	@Override
+	public long queryExec(AMHandle queryHandle, String aqlQuery) {
+		return 1L;
+	}
+
+	@Override
+	public long queryGet(AMHandle qryHandle, String aqlQuery) {
+		return 1L;
+	}
+
+	@Override
+	public long queryNext(AMHandle queryHandle) {
+		return 1L;
+	}
+
+	@Override
+	public long querySetAddMainField(AMHandle qryHandle, long addMainField) {
+		return 1L;
+	}
+
+	@Override
+	public long querySetFullMemo(AMHandle qryHandle, long fullMemo) {
+		return 1L;
+	}
+
+	@Override
+	public AMHandle queryStartTable(AMHandle qryHandle) {
+		return null;
+	}
+
+	@Override
+	public long queryStop(AMHandle qryHandle) {
+		return 1L;
+	}
+
+	@Override
+	public long refreshAllCaches() {
+		return 1L;
+	}
+
+	@Override
+	public long releaseHandle(AMHandle objHandle) {
+		return 1L;
+	}
+
+	@Override
+	public void resetCallTimeOut() {
+	}
+
+	@Override
+	public long rollBack() {
+		rollBacks++;
+		return 0L;
+	}
+
+	@Override
+	public void setCallTimeOutInMs(long timeOutInMs) {
+	}
+
+	@Override
+	public long setFieldDateOnlyValue(AMHandle recHandle, String fieldName, AMDate dateOnlyValue) {
+		return 1L;
+	}
+
+	@Override
+	public long setFieldDateValue(AMHandle recHandle, String fieldName, AMDate dateTimeValue) {
+		return 1L;
+	}
+
+	@Override
+	public long setFieldDoubleValue(AMHandle recHandle, String fieldName, double value) {
+		return 1L;
+	}
+
+	@Override
+	public long setFieldLongValue(AMHandle recHandle, String fieldName, long value) {
+		return 1L;
+	}
+
+	@Override
+	public long setFieldStrValue(AMHandle recHandle, String fieldName, String value) {
+		return 1L;
+	}
+
+	@Override
+	public long sqlTextConst(String aqlQuery, AMString target) {
+		return 1L;
+	}
+
+	@Override
+	public long startTransaction() {
+		transactionsStarted++;
+		return 0L;
+	}
+
+	@Override
+	public long updateRecord(AMHandle recHandle) {
+		return 1L;
+	}
+}
@@ -0,0 +1,65 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+
+import am.api.model.AMCredential;
+
+/**
+ * Factory of stub connections for exercising a whole {@link ConnectionPool},
+ * creation can be held at a gate or made to fail.
+ */
+class StubPoolableObjectFactory extends BaseKeyedPooledObjectFactory<AMCredential, AMBaseConnection>
+		implements BasePoolableObjectFactory {
+
+	/** released once for every creation that reached the gate */
+	final Semaphore entered = new Semaphore(0);
+
+	volatile RuntimeException failure;
+
+	volatile CountDownLatch gate = new CountDownLatch(0);
+
+	@Override
+	public AMBaseConnection create(AMCredential credential) throws Exception {
+
+		entered.release();
+
+		gate.await();
+
+		if (failure != null) {
+			throw failure;
+		}
+
+		return new StubConnection();
+	}
+
+	@Override
+	public BasePoolableObjectFactory setConnectionPool(ConnectionPool connectionPool) {
+		return this;
+	}
+
+	@Override
+	public PooledObject<AMBaseConnection> wrap(AMBaseConnection connection) {
+		return new DefaultPooledObject<>(connection);
+	}
+}
@@ -0,0 +1,66 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import junit.framework.Assert;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestAMBaseConnection extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(TestAMBaseConnection.class);
+	}
+
+	public TestAMBaseConnection(String testName) {
+		super(testName);
+	}
+
+	public void testBackgroundReset() {
+
+		StubConnection connection = new StubConnection();
+
+		connection.markBorrowed(System.nanoTime());
+
+		// queued on return
+		long generation = connection.getBorrowGeneration();
+
+		connection.resetSession(generation);
+
+		Assert.assertEquals(1, connection.cleanups);
+		Assert.assertFalse(connection.isSessionDirty());
+	}
+
+	public void testBackgroundResetAfterNextBorrow() {
+
+		StubConnection connection = new StubConnection();
+
+		connection.markBorrowed(System.nanoTime());
+
+		// queued on return, but the next borrow activates the connection first
+		long generation = connection.getBorrowGeneration();
+
+		connection.resetSession();
+		connection.markBorrowed(System.nanoTime());
+
+		connection.resetSession(generation);
+
+		Assert.assertEquals(1, connection.cleanups);
+		Assert.assertTrue(connection.isSessionDirty());
+	}
+}
@@ -0,0 +1,117 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import am.api.AMConnection;
+import am.api.model.AMCredential;
+import junit.framework.Assert;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestAffinitySlots extends TestCase {
+
+	private final static AMCredential BATCH = new AMCredential("DEV", "batch", "pwd");
+
+	private final static AMCredential WEB = new AMCredential("DEV", "web", "pwd");
+
+	public static Test suite() {
+		return new TestSuite(TestAffinitySlots.class);
+	}
+
+	private ConnectionPool connectionPool;
+
+	public TestAffinitySlots(String testName) {
+		super(testName);
+	}
+
+	private ConnectionPool pool(long affinityTimeoutMs) {
+		connectionPool = new ConnectionPool();
+		connectionPool.setDefaultCredential(WEB);
+		connectionPool.setPoolableObjectFactory(new StubPoolableObjectFactory());
+		connectionPool.setAffinityTimeoutMs(affinityTimeoutMs);
+		connectionPool.init();
+		return connectionPool;
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (connectionPool != null) {
+			connectionPool.close();
+		}
+	}
+
+	public void testOtherCredentialHandsBack() throws Exception {
+
+		ConnectionPool pool = pool(60000L);
+
+		AMBaseConnection parked = (AMBaseConnection) pool.getConnection(WEB);
+		pool.returnObject(WEB, parked);
+
+		pool.getConnection(BATCH);
+
+		Assert.assertEquals(0, pool.getNumActive(WEB));
+		Assert.assertEquals(1, pool.getNumIdle(WEB));
+	}
+
+	public void testOtherThreadBorrowsFromPool() throws Exception {
+
+		ConnectionPool pool = pool(60000L);
+
+		AMBaseConnection parked = (AMBaseConnection) pool.getConnection(WEB);
+		pool.returnObject(WEB, parked);
+
+		AMConnection other = CompletableFuture.supplyAsync(() -> pool.getConnection(WEB)).get(2L, TimeUnit.SECONDS);
+
+		Assert.assertNotSame(parked, other);
+		Assert.assertSame(parked, pool.getConnection(WEB));
+	}
+
+	public void testParkedWithThread() throws Exception {
+
+		ConnectionPool pool = pool(60000L);
+
+		AMBaseConnection first = (AMBaseConnection) pool.getConnection(WEB);
+		pool.returnObject(WEB, first);
+
+		// parked connections stay borrowed as far as the pool is concerned
+		Assert.assertEquals(1, pool.getNumActive(WEB));
+		Assert.assertEquals(0, pool.getNumIdle(WEB));
+
+		Assert.assertSame(first, pool.getConnection(WEB));
+	}
+
+	public void testStaleHandedBack() throws Exception {
+
+		ConnectionPool pool = pool(50L);
+
+		AMBaseConnection parked = (AMBaseConnection) pool.getConnection(WEB);
+		pool.returnObject(WEB, parked);
+
+		long deadline = System.currentTimeMillis() + 2000L;
+
+		while (pool.getNumIdle(WEB) == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+
+		Assert.assertEquals(0, pool.getNumActive(WEB));
+		Assert.assertEquals(1, pool.getNumIdle(WEB));
+	}
+}
@@ -0,0 +1,232 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+
+import am.api.AMConnection;
+import am.api.model.AMCredential;
+import junit.framework.Assert;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestConcurrentBagBackend extends TestCase {
+
+	private final static AMCredential BATCH = new AMCredential("DEV", "batch", "pwd");
+
+	private final static AMCredential REPORT = new AMCredential("DEV", "report", "pwd");
+
+	private final static AMCredential WEB = new AMCredential("DEV", "web", "pwd");
+
+	public static Test suite() {
+		return new TestSuite(TestConcurrentBagBackend.class);
+	}
+
+	public TestConcurrentBagBackend(String testName) {
+		super(testName);
+	}
+
+	private ConcurrentBagBackend backend(int maxTotalPerKey) {
+		return backend(-1, maxTotalPerKey);
+	}
+
+	private ConcurrentBagBackend backend(int maxTotal, int maxTotalPerKey) {
+		GenericKeyedObjectPoolConfig<AMBaseConnection> config = new GenericKeyedObjectPoolConfig<>();
+		config.setMaxTotal(maxTotal);
+		config.setMaxTotalPerKey(maxTotalPerKey);
+		config.setTestOnBorrow(true);
+		config.setTimeBetweenEvictionRunsMillis(-1L);
+		return new ConcurrentBagBackend(StubConnection.factory(), config);
+	}
+
+	public void testCapacity() throws Exception {
+
+		ConcurrentBagBackend backend = backend(2);
+
+		AMBaseConnection first = backend.borrow(WEB, 0L);
+		backend.borrow(WEB, 0L);
+
+		Assert.assertNull(backend.pollIdle(WEB));
+
+		try {
+			backend.borrow(WEB, 20L);
+			Assert.fail("borrow beyond maxTotalPerKey");
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+
+		backend.invalidate(WEB, first);
+
+		Assert.assertEquals(1, backend.getNumActive(WEB));
+		Assert.assertNotNull(backend.borrow(WEB, 0L));
+		Assert.assertEquals(2, backend.getNumActive(WEB));
+
+		backend.close();
+	}
+
+	public void testClearOldest() throws Exception {
+
+		ConcurrentBagBackend backend = backend(3, 3);
+
+		AMBaseConnection web = backend.borrow(WEB, 0L);
+		AMBaseConnection batch = backend.borrow(BATCH, 0L);
+		AMBaseConnection held = backend.borrow(BATCH, 0L);
+
+		backend.returnObject(WEB, web);
+		Thread.sleep(5L);
+		backend.returnObject(BATCH, batch);
+
+		// full of idle connections of other credentials, the oldest makes room
+		AMBaseConnection report = backend.borrow(REPORT, 0L);
+
+		Assert.assertNotSame(web, report);
+		Assert.assertEquals(0, backend.getNumIdle(WEB));
+		Assert.assertEquals(1, backend.getNumIdle(BATCH));
+
+		// an idle poll frees a slot for the creator threads as well
+		Assert.assertNull(backend.pollIdle(WEB));
+		Assert.assertEquals(0, backend.getNumIdle(BATCH));
+
+		backend.addIdle(WEB);
+
+		Assert.assertEquals(1, backend.getNumIdle(WEB));
+		Assert.assertEquals(3, backend.getNumActive() + backend.getNumIdle());
+
+		backend.returnObject(BATCH, held);
+		backend.close();
+	}
+
+	public void testFailedActivation() throws Exception {
+
+		AtomicInteger destroyed = new AtomicInteger();
+
+		MeteredObjectFactory factory = new MeteredObjectFactory(
+				new BaseKeyedPooledObjectFactory<AMCredential, AMBaseConnection>() {
+
+					@Override
+					public void activateObject(AMCredential credential, PooledObject<AMBaseConnection> connection) {
+						throw new IllegalStateException("refused");
+					}
+
+					@Override
+					public AMBaseConnection create(AMCredential credential) {
+						return new StubConnection();
+					}
+
+					@Override
+					public void destroyObject(AMCredential credential, PooledObject<AMBaseConnection> connection) {
+						destroyed.incrementAndGet();
+					}
+
+					@Override
+					public PooledObject<AMBaseConnection> wrap(AMBaseConnection connection) {
+						return new DefaultPooledObject<>(connection);
+					}
+				}, new PoolMetrics());
+
+		GenericKeyedObjectPoolConfig<AMBaseConnection> config = new GenericKeyedObjectPoolConfig<>();
+		config.setMaxTotalPerKey(1);
+		config.setTimeBetweenEvictionRunsMillis(-1L);
+
+		ConcurrentBagBackend backend = new ConcurrentBagBackend(factory, config);
+
+		for (int i = 0; i < 2; i++) {
+
+			try {
+				backend.borrow(WEB, 0L);
+				Assert.fail("borrow despite the failed activation");
+			} catch (IllegalStateException e) {
+				// expected
+			}
+		}
+
+		// the made connection is destroyed and its capacity given back
+		Assert.assertEquals(2, destroyed.get());
+		Assert.assertEquals(0, backend.getNumActive(WEB));
+		Assert.assertEquals(0, backend.getNumIdle(WEB));
+	}
+
+	public void testHandoff() throws Exception {
+
+		ConcurrentBagBackend backend = backend(1);
+
+		AMBaseConnection held = backend.borrow(WEB, 0L);
+
+		CompletableFuture<AMBaseConnection> waiter = CompletableFuture.supplyAsync(() -> {
+			try {
+				return backend.borrow(WEB, 5000L);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		while (backend.getNumWaiters() == 0) {
+			Thread.sleep(1L);
+		}
+
+		backend.returnObject(WEB, held);
+
+		Assert.assertSame(held, waiter.get(5L, TimeUnit.SECONDS));
+		Assert.assertEquals(0, backend.getNumIdle(WEB));
+
+		backend.close();
+	}
+
+	public void testInvalidOnBorrow() throws Exception {
+
+		ConcurrentBagBackend backend = backend(2);
+
+		AMBaseConnection connection = backend.borrow(WEB, 0L);
+		backend.returnObject(WEB, connection);
+
+		connection.setProcessingFlag(AMConnection.FLAG_NO_REUSE);
+
+		AMBaseConnection replacement = backend.borrow(WEB, 0L);
+
+		Assert.assertNotSame(connection, replacement);
+		Assert.assertEquals(1L, backend.getDestroyedByBorrowValidationCount());
+		Assert.assertEquals(1, backend.getNumActive());
+
+		backend.close();
+	}
+
+	public void testReuse() throws Exception {
+
+		ConcurrentBagBackend backend = backend(2);
+
+		AMBaseConnection connection = backend.borrow(WEB, 0L);
+
+		Assert.assertEquals(1, backend.getNumActive(WEB));
+
+		backend.returnObject(WEB, connection);
+
+		Assert.assertEquals(0, backend.getNumActive(WEB));
+		Assert.assertEquals(1, backend.getNumIdle(WEB));
+		Assert.assertSame(connection, backend.pollIdle(WEB));
+
+		backend.close();
+	}
+}
@@ -0,0 +1,143 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import am.api.exception.AMConnectionException;
+import am.api.model.AMCredential;
+import junit.framework.Assert;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestCreationPipeline extends TestCase {
+
+	private final static AMCredential WEB = new AMCredential("DEV", "web", "pwd");
+
+	public static Test suite() {
+		return new TestSuite(TestCreationPipeline.class);
+	}
+
+	private final StubPoolableObjectFactory factory = new StubPoolableObjectFactory();
+
+	private ConnectionPool connectionPool;
+
+	public TestCreationPipeline(String testName) {
+		super(testName);
+	}
+
+	private ConnectionPool pool(int creatorThreads, long maxWait) {
+		connectionPool = new ConnectionPool();
+		connectionPool.setDefaultCredential(WEB);
+		connectionPool.setPoolableObjectFactory(factory);
+		connectionPool.setCreatorThreads(creatorThreads);
+		connectionPool.setMaxWait(maxWait);
+		connectionPool.init();
+		return connectionPool;
+	}
+
+	private CompletableFuture<AMBaseConnection> borrowAsync(ConnectionPool pool) {
+		return CompletableFuture.supplyAsync(() -> (AMBaseConnection) pool.getConnection(WEB));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		factory.gate.countDown();
+
+		if (connectionPool != null) {
+			connectionPool.close();
+		}
+	}
+
+	public void testCreationFailureReachesWaiters() throws Exception {
+
+		ConnectionPool pool = pool(2, 5000L);
+
+		factory.gate = new CountDownLatch(1);
+		factory.failure = new IllegalStateException("refused");
+
+		CompletableFuture<AMBaseConnection> first = borrowAsync(pool);
+		CompletableFuture<AMBaseConnection> second = borrowAsync(pool);
+
+		// both tickets are with the creators, so both borrowers are waiting
+		Assert.assertTrue(factory.entered.tryAcquire(2, 2L, TimeUnit.SECONDS));
+
+		long start = System.nanoTime();
+
+		factory.gate.countDown();
+
+		for (CompletableFuture<AMBaseConnection> borrower : Arrays.asList(first, second)) {
+
+			try {
+				borrower.get(2L, TimeUnit.SECONDS);
+				Assert.fail("borrow despite the creation failure");
+			} catch (ExecutionException e) {
+				Assert.assertTrue(e.getCause() instanceof AMConnectionException);
+			}
+		}
+
+		Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000L);
+	}
+
+	public void testReturnBeatsTicket() throws Exception {
+
+		ConnectionPool pool = pool(1, 5000L);
+
+		AMBaseConnection first = (AMBaseConnection) pool.getConnection(WEB);
+
+		Assert.assertTrue(factory.entered.tryAcquire());
+
+		factory.gate = new CountDownLatch(1);
+
+		CompletableFuture<AMBaseConnection> borrower = borrowAsync(pool);
+
+		// the ticket of the borrower is held at the gate
+		Assert.assertTrue(factory.entered.tryAcquire(2L, TimeUnit.SECONDS));
+
+		pool.returnObject(WEB, first);
+
+		Assert.assertSame(first, borrower.get(2L, TimeUnit.SECONDS));
+	}
+
+	public void testTimeout() throws Exception {
+
+		ConnectionPool pool = pool(1, 100L);
+
+		factory.gate = new CountDownLatch(1);
+
+		long start = System.nanoTime();
+
+		try {
+			pool.getConnection(WEB);
+			Assert.fail("borrow while creation is held");
+		} catch (AMConnectionException e) {
+			Assert.assertTrue(e.getCause() instanceof NoSuchElementException);
+		}
+
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		Assert.assertTrue(elapsed >= 100L);
+		Assert.assertTrue(elapsed < 2000L);
+	}
+}
@@ -0,0 +1,182 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import am.api.model.AMCredential;
+import junit.framework.Assert;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestFairAdmissionController extends TestCase {
+
+	private final static AMCredential BATCH = new AMCredential("DEV", "batch", "pwd");
+
+	private final static AMCredential WEB = new AMCredential("DEV", "web", "pwd");
+
+	public static Test suite() {
+		return new TestSuite(TestFairAdmissionController.class);
+	}
+
+	public TestFairAdmissionController(String testName) {
+		super(testName);
+	}
+
+	private FairAdmissionController controller(int capacity, String users) {
+		FairAdmissionController controller = new FairAdmissionController();
+		controller.setCapacity(capacity);
+		controller.setUsers(users);
+		controller.init();
+		return controller;
+	}
+
+	public void testDefaultReservedUsers() throws InterruptedException {
+
+		FairAdmissionController controller = new FairAdmissionController();
+		controller.setCapacity(2);
+		controller.setDefaultReserved(1);
+		controller.init();
+
+		for (int user = 0; user < 5; user++) {
+			AMCredential credential = new AMCredential("DEV", "user" + user, "pwd");
+			Assert.assertTrue(controller.acquire(credential, 0L));
+			controller.release(credential);
+		}
+
+		// users seen before neither reserve nor linger
+		Assert.assertTrue(controller.acquire(WEB, 0L));
+		Assert.assertTrue(controller.acquire(WEB, 0L));
+		Assert.assertFalse(controller.acquire(BATCH, 10L));
+
+		controller.release(WEB);
+
+		Assert.assertTrue(controller.acquire(BATCH, 0L));
+	}
+
+	public void testInterruptedWhileAdmitted() throws Exception {
+
+		FairAdmissionController controller = controller(1, null);
+
+		for (int round = 0; round < 200; round++) {
+
+			Assert.assertTrue(controller.acquire(WEB, 0L));
+
+			boolean[] admitted = new boolean[1];
+
+			Thread waiter = new Thread(() -> {
+				try {
+					admitted[0] = controller.acquire(WEB, 5000L);
+				} catch (InterruptedException e) {
+					admitted[0] = false;
+				}
+			});
+
+			waiter.start();
+
+			while (controller.getWaiting() == 0) {
+				Thread.yield();
+			}
+
+			waiter.interrupt();
+			controller.release(WEB);
+			waiter.join();
+
+			if (admitted[0]) {
+				controller.release(WEB);
+			}
+
+			Assert.assertEquals(0, controller.getHeld(WEB));
+		}
+	}
+
+	public void testQuota() throws InterruptedException {
+
+		FairAdmissionController controller = controller(10, "batch=quota:2");
+
+		Assert.assertTrue(controller.acquire(BATCH, 0L));
+		Assert.assertTrue(controller.acquire(BATCH, 0L));
+		Assert.assertFalse(controller.acquire(BATCH, 10L));
+		Assert.assertTrue(controller.acquire(WEB, 0L));
+
+		controller.release(BATCH);
+
+		Assert.assertTrue(controller.acquire(BATCH, 0L));
+		Assert.assertEquals(2, controller.getHeld(BATCH));
+	}
+
+	public void testReservation() throws InterruptedException {
+
+		FairAdmissionController controller = controller(4, "web=reserved:2");
+
+		Assert.assertTrue(controller.acquire(BATCH, 0L));
+		Assert.assertTrue(controller.acquire(BATCH, 0L));
+		Assert.assertFalse(controller.acquire(BATCH, 10L));
+
+		Assert.assertTrue(controller.acquire(WEB, 0L));
+		Assert.assertTrue(controller.acquire(WEB, 0L));
+		Assert.assertFalse(controller.acquire(WEB, 10L));
+	}
+
+	public void testWeightedRoundRobin() throws Exception {
+
+		FairAdmissionController controller = controller(1, "batch=weight:1;web=weight:3");
+
+		Assert.assertTrue(controller.acquire(BATCH, 0L));
+
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch queued = new CountDownLatch(8);
+		List<Thread> threads = new ArrayList<>();
+
+		for (int i = 0; i < 4; i++) {
+			for (AMCredential credential : new AMCredential[] { BATCH, WEB }) {
+				Thread thread = new Thread(() -> {
+					try {
+						queued.countDown();
+						if (controller.acquire(credential, 5000L)) {
+							order.add(credential.getUserName());
+							controller.release(credential);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+				threads.add(thread);
+				thread.start();
+			}
+		}
+
+		queued.await();
+
+		while (controller.getWaiting() < 8) {
+			Thread.sleep(5L);
+		}
+
+		controller.release(BATCH);
+
+		for (Thread thread : threads) {
+			thread.join(5000L);
+		}
+
+		Assert.assertEquals(8, order.size());
+		Assert.assertEquals(3, Collections.frequency(order.subList(0, 4), "web"));
+	}
+}
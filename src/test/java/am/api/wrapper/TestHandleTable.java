@@ -0,0 +1,103 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import com.sun.jna.Pointer;
+
+import am.api.AMHandle;
+import am.api.AMHandleType;
+import am.api.model.AMHandleImpl;
+import junit.framework.Assert;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestHandleTable extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(TestHandleTable.class);
+	}
+
+	public TestHandleTable(String testName) {
+		super(testName);
+	}
+
+	public void testRegisterAndRemove() {
+
+		HandleTable table = new HandleTable();
+
+		int count = 1000;
+
+		AMHandle[] handles = new AMHandle[count];
+
+		for (int i = 0; i < count; i++) {
+			handles[i] = table.register(new Pointer(0x1000L + i * 8L), AMHandleType.RECORD, "test");
+		}
+
+		Assert.assertEquals(count, table.size());
+
+		for (int i = 0; i < count; i++) {
+			Assert.assertEquals(0x1000L + i * 8L, Pointer.nativeValue(table.getPointer(handles[i])));
+		}
+
+		for (int i = 0; i < count; i += 2) {
+			Assert.assertNotNull(table.remove(handles[i]));
+			Assert.assertNull(table.remove(handles[i]));
+		}
+
+		Assert.assertEquals(count / 2, table.size());
+
+		for (int i = 0; i < count; i++) {
+			if (i % 2 == 0) {
+				Assert.assertEquals(Pointer.NULL, table.getPointer(handles[i]));
+			} else {
+				Assert.assertEquals(0x1000L + i * 8L, Pointer.nativeValue(table.getPointer(handles[i])));
+			}
+		}
+
+		Assert.assertEquals(count / 2, table.getHandles().size());
+	}
+
+	public void testSamePointerYieldsSameHandle() {
+
+		HandleTable table = new HandleTable();
+
+		Pointer pointer = new Pointer(0x2000L);
+
+		AMHandle first = table.register(pointer, AMHandleType.FIELD, "getField");
+		AMHandle second = table.register(new Pointer(0x2000L), AMHandleType.FIELD, "getField");
+
+		Assert.assertSame(first, second);
+		Assert.assertEquals(1, table.size());
+
+		table.remove(first);
+
+		AMHandle third = table.register(pointer, AMHandleType.FIELD, "getField");
+
+		Assert.assertFalse(first.equals(third));
+	}
+
+	public void testUnknownHandles() {
+
+		HandleTable table = new HandleTable();
+
+		Assert.assertEquals(Pointer.NULL, table.getPointer(null));
+		Assert.assertEquals(Pointer.NULL, table.getPointer(new AMHandleImpl(42L, AMHandleType.QUERY, "test")));
+		Assert.assertNull(table.remove(new AMHandleImpl(42L, AMHandleType.QUERY, "test")));
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import junit.framework.Assert;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestLatencyHistogram extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(TestLatencyHistogram.class);
+	}
+
+	public TestLatencyHistogram(String testName) {
+		super(testName);
+	}
+
+	public void testBucketBounds() {
+
+		for (long value = 0L; value < 1_000_000L; value += 7L) {
+
+			long highest = LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(value));
+
+			Assert.assertTrue(highest >= value);
+			Assert.assertTrue(highest - value <= value / 16L);
+		}
+
+		Assert.assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+	}
+
+	public void testPercentiles() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		for (long value = 1L; value <= 10000L; value++) {
+			histogram.record(value);
+		}
+
+		LatencySnapshot snapshot = histogram.snapshot();
+
+		Assert.assertEquals(10000L, snapshot.getCount());
+		Assert.assertEquals(10000L, snapshot.getMax());
+		Assert.assertEquals(5000.5d, snapshot.getMean(), 0.001d);
+		Assert.assertTrue(Math.abs(snapshot.getP50() - 5000L) <= 5000L / 16L);
+		Assert.assertTrue(Math.abs(snapshot.getP99() - 9900L) <= 9900L / 16L);
+
+		histogram.reset();
+
+		Assert.assertEquals(0L, histogram.snapshot().getCount());
+	}
+
+	public void testPercentileSince() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		long[] previous = LatencyHistogram.newCounts();
+
+		for (int count = 0; count < 1000; count++) {
+			histogram.record(100_000L);
+		}
+
+		Assert.assertTrue(histogram.percentileSince(previous, 0.99d) >= 100_000L);
+
+		for (int count = 0; count < 98; count++) {
+			histogram.record(10L);
+		}
+		histogram.record(80_000L);
+		histogram.record(80_000L);
+
+		long tail = histogram.percentileSince(previous, 0.99d);
+
+		Assert.assertTrue(Math.abs(tail - 80_000L) <= 80_000L / 16L);
+		Assert.assertEquals(0L, histogram.percentileSince(previous, 0.99d));
+	}
+}
@@ -0,0 +1,129 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.concurrent.CountDownLatch;
+
+import am.api.AMConnection;
+import am.api.model.AMCredential;
+import am.api.osgi.XAAMConnectionEnlistingWrapper;
+import junit.framework.Assert;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestLeakDetector extends TestCase {
+
+	private final static AMCredential WEB = new AMCredential("DEV", "web", "pwd");
+
+	public static Test suite() {
+		return new TestSuite(TestLeakDetector.class);
+	}
+
+	public TestLeakDetector(String testName) {
+		super(testName);
+	}
+
+	private LeakDetector detector(boolean reclaim) {
+		LeakDetector detector = new LeakDetector();
+		detector.setEnabled(true);
+		detector.setThresholdMs(1L);
+		detector.setCaptureEvery(1);
+		detector.setReclaim(reclaim);
+		return detector;
+	}
+
+	public void testDetect() throws InterruptedException {
+
+		LeakDetector detector = detector(false);
+		XAAMConnectionEnlistingWrapper factory = new XAAMConnectionEnlistingWrapper();
+		factory.setLeakDetector(detector);
+
+		AMConnectionWrapper wrapper = new AMConnectionWrapper(new StubConnection(), false, "held", factory);
+		detector.track("held", WEB, wrapper);
+
+		Thread.sleep(5L);
+		detector.scan();
+		detector.scan();
+
+		Assert.assertEquals(1L, detector.getDetectedCount());
+		Assert.assertEquals(1, detector.getLeaks().size());
+		Assert.assertNotNull(detector.getLeaks().get(0).getAllocationSite());
+
+		wrapper.close();
+
+		Assert.assertEquals(0, detector.getTrackedCount());
+	}
+
+	public void testReclaim() throws InterruptedException {
+
+		LeakDetector detector = detector(true);
+		XAAMConnectionEnlistingWrapper factory = new XAAMConnectionEnlistingWrapper();
+		factory.setLeakDetector(detector);
+
+		StubConnection connection = new StubConnection();
+		AMConnectionWrapper wrapper = new AMConnectionWrapper(connection, false, "held", factory);
+		detector.track("held", WEB, wrapper);
+
+		Thread.sleep(5L);
+		detector.scan();
+
+		Assert.assertEquals(1L, detector.getReclaimedCount());
+		Assert.assertEquals(0, detector.getTrackedCount());
+		Assert.assertTrue(connection.isProcessingFlagSet(AMConnection.FLAG_NO_REUSE));
+
+		try {
+			wrapper.getRecordId(null);
+			Assert.fail("call on a reclaimed connection");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		wrapper.close();
+
+		Assert.assertEquals(1, connection.closes);
+	}
+
+	public void testReclaimRacingClose() throws Exception {
+
+		XAAMConnectionEnlistingWrapper factory = new XAAMConnectionEnlistingWrapper();
+
+		for (int round = 0; round < 200; round++) {
+
+			StubConnection connection = new StubConnection();
+			AMConnectionWrapper wrapper = new AMConnectionWrapper(connection, false, "held", factory);
+
+			CountDownLatch start = new CountDownLatch(1);
+
+			Thread reclaimer = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				wrapper.reclaim();
+			});
+
+			reclaimer.start();
+			start.countDown();
+			wrapper.close();
+			reclaimer.join();
+
+			Assert.assertEquals(1, connection.closes);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import javax.transaction.xa.XAResource;
+import javax.transaction.xa.Xid;
+
+import junit.framework.Assert;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestLocalXAResource extends TestCase {
+
+	private final static Xid XID = new Xid() {
+
+		@Override
+		public byte[] getBranchQualifier() {
+			return new byte[] { 1 };
+		}
+
+		@Override
+		public int getFormatId() {
+			return 1;
+		}
+
+		@Override
+		public byte[] getGlobalTransactionId() {
+			return new byte[] { 1 };
+		}
+	};
+
+	public static Test suite() {
+		return new TestSuite(TestLocalXAResource.class);
+	}
+
+	public TestLocalXAResource(String testName) {
+		super(testName);
+	}
+
+	private LocalXAResource enlist(StubConnection connection) throws Exception {
+		connection.trackWrites();
+		LocalXAResource resource = new LocalXAResource(connection);
+		resource.start(XID, XAResource.TMNOFLAGS);
+		return resource;
+	}
+
+	public void testCommitAfterWrite() throws Exception {
+
+		StubConnection connection = new StubConnection();
+		LocalXAResource resource = enlist(connection);
+
+		new AMConnectionWrapper(connection, true, XID, null).updateRecord(null);
+
+		resource.end(XID, XAResource.TMSUCCESS);
+
+		Assert.assertEquals(XAResource.XA_OK, resource.prepare(XID));
+
+		resource.commit(XID, false);
+
+		Assert.assertEquals(1, connection.commits);
+		Assert.assertEquals(1, connection.cleanups);
+		Assert.assertFalse(connection.isTransactionStarted());
+		Assert.assertNull(resource.getXid());
+	}
+
+	public void testFirstWriteBegins() throws Exception {
+
+		StubConnection connection = new StubConnection();
+		LocalXAResource resource = enlist(connection);
+
+		Assert.assertEquals(0, connection.transactionsStarted);
+
+		AMConnectionWrapper wrapper = new AMConnectionWrapper(connection, true, XID, null);
+
+		wrapper.updateRecord(null);
+		wrapper.updateRecord(null);
+
+		Assert.assertEquals(1, connection.transactionsStarted);
+		Assert.assertTrue(connection.isTransactionStarted());
+
+		resource.end(XID, XAResource.TMFAIL);
+		resource.rollback(XID);
+
+		Assert.assertEquals(1, connection.rollBacks);
+	}
+
+	public void testReadOnlyNeverBegins() throws Exception {
+
+		StubConnection connection = new StubConnection();
+		LocalXAResource resource = enlist(connection);
+
+		resource.end(XID, XAResource.TMSUCCESS);
+		resource.commit(XID, true);
+
+		Assert.assertEquals(0, connection.transactionsStarted);
+		Assert.assertEquals(0, connection.commits);
+
+		resource = enlist(connection);
+
+		resource.end(XID, XAResource.TMFAIL);
+		resource.rollback(XID);
+
+		Assert.assertEquals(0, connection.transactionsStarted);
+		Assert.assertEquals(0, connection.rollBacks);
+	}
+
+	public void testReadOnlyPrepare() throws Exception {
+
+		StubConnection connection = new StubConnection();
+		LocalXAResource resource = enlist(connection);
+
+		resource.end(XID, XAResource.TMSUCCESS);
+
+		Assert.assertEquals(XAResource.XA_RDONLY, resource.prepare(XID));
+		Assert.assertEquals(0, connection.transactionsStarted);
+		Assert.assertEquals(0, connection.commits);
+		Assert.assertNull(resource.getXid());
+	}
+}
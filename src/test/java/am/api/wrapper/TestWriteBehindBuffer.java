@@ -0,0 +1,123 @@
+/*
+    This file is part of AMConnectionFactory.
+
+    AMConnectionFactory is free software: you can redistribute it and/or modify
+    it under the terms of the GNU LESSER General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    AMConnectionFactory is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with AMConnectionFactory.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package am.api.wrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import am.api.AMHandle;
+import am.api.AMHandleType;
+import am.api.exception.AMConnectionException;
+import am.api.model.AMHandleImpl;
+import am.server.client.BatchOperation;
+import am.server.client.BatchOperation.OpCode;
+import junit.framework.Assert;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestWriteBehindBuffer extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(TestWriteBehindBuffer.class);
+	}
+
+	private final StubConnection connection = new StubConnection();
+
+	private final List<List<BatchOperation>> executed = new ArrayList<>();
+
+	public TestWriteBehindBuffer(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Answers a new record handle for every created record and -1 for every
+	 * value named "bad".
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		connection.batchExecutor = operations -> {
+
+			executed.add(operations);
+
+			List<Object> results = new ArrayList<>();
+
+			for (BatchOperation operation : operations) {
+
+				if (operation.getOpCode() == OpCode.CREATE_RECORD) {
+					results.add(new AMHandleImpl(executed.size() * 100L + results.size(), AMHandleType.RECORD,
+							"createRecord"));
+				} else if ("bad".equals(operation.getArgument(2))) {
+					results.add(-1L);
+				} else {
+					results.add(0L);
+				}
+			}
+
+			return results;
+		};
+	}
+
+	public void testFailingMutation() throws Exception {
+
+		WriteBehindBuffer buffer = new WriteBehindBuffer(connection);
+
+		AMHandle record = buffer.createRecord("amAsset");
+
+		// the failure is only known once the batch ran
+		Assert.assertEquals(0L, buffer.setFieldStrValue(record, "Name", "bad"));
+		Assert.assertTrue(executed.isEmpty());
+
+		try {
+			buffer.flush();
+			Assert.fail("flush despite the failing mutation");
+		} catch (AMConnectionException e) {
+			// expected
+		}
+
+		Assert.assertFalse(buffer.isPending());
+	}
+
+	public void testResolveAcrossFlushes() throws Exception {
+
+		WriteBehindBuffer buffer = new WriteBehindBuffer(connection);
+
+		AMHandle first = buffer.createRecord("amAsset");
+		buffer.setFieldStrValue(first, "Name", "first");
+
+		AMHandle firstReal = buffer.resolve(first);
+
+		Assert.assertEquals(1, executed.size());
+		Assert.assertTrue(firstReal instanceof AMHandleImpl);
+
+		AMHandle second = buffer.createRecord("amAsset");
+		buffer.setFieldStrValue(first, "Name", "renamed");
+
+		// placeholders of both batches share index 0
+		Assert.assertEquals(first, second);
+
+		Assert.assertSame(firstReal, buffer.resolve(first));
+		Assert.assertEquals(1, executed.size());
+		Assert.assertTrue(buffer.isPending());
+
+		AMHandle secondReal = buffer.resolve(second);
+
+		Assert.assertEquals(2, executed.size());
+		Assert.assertFalse(firstReal.equals(secondReal));
+		Assert.assertSame(firstReal, executed.get(1).get(1).getArgument(0));
+	}
+}